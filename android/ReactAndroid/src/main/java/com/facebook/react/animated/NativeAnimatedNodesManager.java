@@ -25,11 +25,9 @@ import com.facebook.react.uimanager.events.EventDispatcherListener;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
-import java.util.Queue;
 
 /**
  * This is the main class that coordinates how native animated JS implementation drives UI changes.
@@ -46,6 +44,32 @@ import java.util.Queue;
  */
 /*package*/ class NativeAnimatedNodesManager implements EventDispatcherListener {
 
+  // Enough for animations and events driving different parts of the graph at the same time.
+  private static final int UPDATE_ORDERS_CACHE_SIZE = 4;
+
+  /**
+   * Nodes to update, in topological order, when the values of a given list of nodes change. See
+   * {@link #updateNodes}.
+   */
+  private static class UpdateOrder {
+    private final ArrayList<AnimatedNode> mChangedNodes = new ArrayList<>();
+    private final ArrayList<AnimatedNode> mNodes = new ArrayList<>();
+    private boolean mIsValid = false;
+    private int mLastUseCount = 0;
+
+    private boolean isFor(List<AnimatedNode> changedNodes) {
+      if (!mIsValid || mChangedNodes.size() != changedNodes.size()) {
+        return false;
+      }
+      for (int i = 0; i < mChangedNodes.size(); i++) {
+        if (mChangedNodes.get(i) != changedNodes.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   private final SparseArray<AnimatedNode> mAnimatedNodes = new SparseArray<>();
   private final SparseArray<AnimationDriver> mActiveAnimations = new SparseArray<>();
   private final SparseArray<AnimatedNode> mUpdatedNodes = new SparseArray<>();
@@ -56,7 +80,11 @@ import java.util.Queue;
   private final UIManagerModule mUIManagerModule;
   private int mAnimatedGraphBFSColor = 0;
   // Used to avoid allocating a new array on every frame in `runUpdates` and `onEventDispatch`.
-  private final List<AnimatedNode> mRunUpdateNodeList = new LinkedList<>();
+  private final List<AnimatedNode> mRunUpdateNodeList = new ArrayList<>();
+  // Update orders of the most recently updated sets of nodes, valid until the graph changes.
+  private final UpdateOrder[] mUpdateOrders = new UpdateOrder[UPDATE_ORDERS_CACHE_SIZE];
+  private final ArrayDeque<AnimatedNode> mNodesQueue = new ArrayDeque<>();
+  private int mUpdateOrdersUseCount = 0;
 
   public NativeAnimatedNodesManager(UIManagerModule uiManager) {
     mUIManagerModule = uiManager;
@@ -110,11 +138,13 @@ import java.util.Queue;
     node.mTag = tag;
     mAnimatedNodes.put(tag, node);
     mUpdatedNodes.put(tag, node);
+    invalidateUpdateOrders();
   }
 
   public void dropAnimatedNode(int tag) {
     mAnimatedNodes.remove(tag);
     mUpdatedNodes.remove(tag);
+    invalidateUpdateOrders();
   }
 
   public void startListeningToAnimatedNodeValue(int tag, AnimatedNodeValueListener listener) {
@@ -268,6 +298,7 @@ import java.util.Queue;
     }
     parentNode.addChild(childNode);
     mUpdatedNodes.put(childNodeTag, childNode);
+    invalidateUpdateOrders();
   }
 
   public void disconnectAnimatedNodes(int parentNodeTag, int childNodeTag) {
@@ -283,6 +314,7 @@ import java.util.Queue;
     }
     parentNode.removeChild(childNode);
     mUpdatedNodes.put(childNodeTag, childNode);
+    invalidateUpdateOrders();
   }
 
   public void connectAnimatedNodeToView(int animatedNodeTag, int viewTag) {
@@ -421,16 +453,10 @@ import java.util.Queue;
   }
 
   /**
-   * Animation loop performs two BFSes over the graph of animated nodes. We use incremented {@code
-   * mAnimatedGraphBFSColor} to mark nodes as visited in each of the BFSes which saves additional
-   * loops for clearing "visited" states.
-   *
-   * <p>First BFS starts with nodes that are in {@code mUpdatedNodes} (that is, their value have
-   * been modified from JS in the last batch of JS operations) or directly attached to an active
-   * animation (hence linked to objects from {@code mActiveAnimations}). In that step we calculate
-   * an attribute {@code mActiveIncomingNodes}. The second BFS runs in topological order over the
-   * sub-graph of *active* nodes. This is done by adding node to the BFS queue only if all its
-   * "predecessors" have already been visited.
+   * Animation loop updates nodes that are in {@code mUpdatedNodes} (that is, their value have been
+   * modified from JS in the last batch of JS operations) or directly attached to an active
+   * animation (hence linked to objects from {@code mActiveAnimations}), followed by all the nodes
+   * that depend on them, in topological order. See {@link #updateNodes}.
    */
   public void runUpdates(long frameTimeNanos) {
     UiThreadUtil.assertOnUiThread();
@@ -474,14 +500,103 @@ import java.util.Queue;
     }
   }
 
+  /**
+   * Updates the given nodes and all the nodes that depend on them. The graph rarely changes while
+   * animating, so the order in which nodes have to be updated is computed once for each set of
+   * changed nodes and reused until the graph is modified.
+   */
   private void updateNodes(List<AnimatedNode> nodes) {
+    List<AnimatedNode> updateOrder = getUpdateOrder(nodes);
+    for (int i = 0; i < updateOrder.size(); i++) {
+      AnimatedNode nextNode = updateOrder.get(i);
+      nextNode.update();
+      if (nextNode instanceof PropsAnimatedNode) {
+        // Send property updates to native view manager
+        try {
+          ((PropsAnimatedNode) nextNode).updateView();
+        } catch (IllegalViewOperationException e) {
+          // An exception is thrown if the view hasn't been created yet. This can happen because
+          // views are
+          // created in batches. If this particular view didn't make it into a batch yet, the view
+          // won't
+          // exist and an exception will be thrown when attempting to start an animation on it.
+          //
+          // Eat the exception rather than crashing. The impact is that we may drop one or more
+          // frames of the
+          // animation.
+          FLog.e(
+              ReactConstants.TAG,
+              "Native animation workaround, frame lost as result of race condition",
+              e);
+        }
+      }
+      if (nextNode instanceof ValueAnimatedNode) {
+        // Potentially send events to JS when the node's value is updated
+        ((ValueAnimatedNode) nextNode).onValueUpdate();
+      }
+    }
+  }
+
+  private void invalidateUpdateOrders() {
+    for (UpdateOrder updateOrder : mUpdateOrders) {
+      if (updateOrder != null) {
+        updateOrder.mIsValid = false;
+      }
+    }
+  }
+
+  private List<AnimatedNode> getUpdateOrder(List<AnimatedNode> nodes) {
+    mUpdateOrdersUseCount++;
+    UpdateOrder leastRecentlyUsed = null;
+    for (int i = 0; i < mUpdateOrders.length; i++) {
+      UpdateOrder updateOrder = mUpdateOrders[i];
+      if (updateOrder == null) {
+        updateOrder = new UpdateOrder();
+        mUpdateOrders[i] = updateOrder;
+      }
+      if (updateOrder.isFor(nodes)) {
+        updateOrder.mLastUseCount = mUpdateOrdersUseCount;
+        return updateOrder.mNodes;
+      }
+      if (leastRecentlyUsed == null
+          || !updateOrder.mIsValid
+          || (leastRecentlyUsed.mIsValid
+              && updateOrder.mLastUseCount < leastRecentlyUsed.mLastUseCount)) {
+        leastRecentlyUsed = updateOrder;
+      }
+    }
+
+    // Reuse the arrays of the entry that's replaced.
+    leastRecentlyUsed.mIsValid = false;
+    leastRecentlyUsed.mChangedNodes.clear();
+    for (int i = 0; i < nodes.size(); i++) {
+      leastRecentlyUsed.mChangedNodes.add(nodes.get(i));
+    }
+    leastRecentlyUsed.mNodes.clear();
+    computeUpdateOrder(nodes, leastRecentlyUsed.mNodes);
+    leastRecentlyUsed.mIsValid = true;
+    leastRecentlyUsed.mLastUseCount = mUpdateOrdersUseCount;
+    return leastRecentlyUsed.mNodes;
+  }
+
+  /**
+   * Finds the order of updates with two BFSes over the graph of animated nodes. We use incremented
+   * {@code mAnimatedGraphBFSColor} to mark nodes as visited in each of the BFSes which saves
+   * additional loops for clearing "visited" states.
+   *
+   * <p>First BFS starts with the given nodes. In that step we calculate an attribute {@code
+   * mActiveIncomingNodes}. The second BFS runs in topological order over the sub-graph of *active*
+   * nodes. This is done by adding node to the BFS queue only if all its "predecessors" have already
+   * been visited.
+   */
+  private void computeUpdateOrder(List<AnimatedNode> nodes, List<AnimatedNode> updateOrder) {
     int activeNodesCount = 0;
     int updatedNodesCount = 0;
+    ArrayDeque<AnimatedNode> nodesQueue = mNodesQueue;
 
     // STEP 1.
     // BFS over graph of nodes. Update `mIncomingNodes` attribute for each node during that BFS.
-    // Store number of visited nodes in `activeNodesCount`. We "execute" active animations as a part
-    // of this step.
+    // Store number of visited nodes in `activeNodesCount`.
 
     mAnimatedGraphBFSColor++; /* use new color */
     if (mAnimatedGraphBFSColor == AnimatedNode.INITIAL_BFS_COLOR) {
@@ -490,8 +605,8 @@ import java.util.Queue;
       mAnimatedGraphBFSColor++;
     }
 
-    Queue<AnimatedNode> nodesQueue = new ArrayDeque<>();
-    for (AnimatedNode node : nodes) {
+    for (int i = 0; i < nodes.size(); i++) {
+      AnimatedNode node = nodes.get(i);
       if (node.mBFSColor != mAnimatedGraphBFSColor) {
         node.mBFSColor = mAnimatedGraphBFSColor;
         activeNodesCount++;
@@ -516,10 +631,10 @@ import java.util.Queue;
 
     // STEP 2
     // BFS over the graph of active nodes in topological order -> visit node only when all its
-    // "predecessors" in the graph have already been visited. It is important to visit nodes in that
-    // order as they may often use values of their predecessors in order to calculate "next state"
-    // of their own. We start by determining the starting set of nodes by looking for nodes with
-    // `mActiveIncomingNodes = 0` (those can only be the ones that we start BFS in the previous
+    // "predecessors" in the graph have already been visited. It is important to update nodes in
+    // that order as they may often use values of their predecessors in order to calculate "next
+    // state" of their own. We start by determining the starting set of nodes by looking for nodes
+    // with `mActiveIncomingNodes = 0` (those can only be the ones that we start BFS in the previous
     // step). We store number of visited nodes in this step in `updatedNodesCount`
 
     mAnimatedGraphBFSColor++;
@@ -530,7 +645,8 @@ import java.util.Queue;
 
     // find nodes with zero "incoming nodes", those can be either nodes from `mUpdatedNodes` or
     // ones connected to active animations
-    for (AnimatedNode node : nodes) {
+    for (int i = 0; i < nodes.size(); i++) {
+      AnimatedNode node = nodes.get(i);
       if (node.mActiveIncomingNodes == 0 && node.mBFSColor != mAnimatedGraphBFSColor) {
         node.mBFSColor = mAnimatedGraphBFSColor;
         updatedNodesCount++;
@@ -538,34 +654,9 @@ import java.util.Queue;
       }
     }
 
-    // Run main "update" loop
     while (!nodesQueue.isEmpty()) {
       AnimatedNode nextNode = nodesQueue.poll();
-      nextNode.update();
-      if (nextNode instanceof PropsAnimatedNode) {
-        // Send property updates to native view manager
-        try {
-          ((PropsAnimatedNode) nextNode).updateView();
-        } catch (IllegalViewOperationException e) {
-          // An exception is thrown if the view hasn't been created yet. This can happen because
-          // views are
-          // created in batches. If this particular view didn't make it into a batch yet, the view
-          // won't
-          // exist and an exception will be thrown when attempting to start an animation on it.
-          //
-          // Eat the exception rather than crashing. The impact is that we may drop one or more
-          // frames of the
-          // animation.
-          FLog.e(
-              ReactConstants.TAG,
-              "Native animation workaround, frame lost as result of race condition",
-              e);
-        }
-      }
-      if (nextNode instanceof ValueAnimatedNode) {
-        // Potentially send events to JS when the node's value is updated
-        ((ValueAnimatedNode) nextNode).onValueUpdate();
-      }
+      updateOrder.add(nextNode);
       if (nextNode.mChildren != null) {
         for (int i = 0; i < nextNode.mChildren.size(); i++) {
           AnimatedNode child = nextNode.mChildren.get(i);
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to non-negative int values. Like a LongSparseArray<Integer> but without the
+ * autoboxing and with constant time lookups: it uses open addressing with linear probing over
+ * primitive arrays, so neither reads nor writes allocate unless the table has to grow.
+ *
+ * <p>Entries can't be removed one by one, only cleared all at once. Not thread safe.
+ */
+public class LongIntHashMap {
+
+  /** Returned by {@link #get(long)} for missing keys, also marks empty slots. */
+  public static final int NO_VALUE = -1;
+
+  private static final int MAX_LOAD_PERCENT = 50;
+
+  private long[] mKeys;
+  private int[] mValues;
+  private int mMask;
+  private int mSize;
+
+  public LongIntHashMap(int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(4, initialCapacity * 100 / MAX_LOAD_PERCENT - 1))
+        << 1;
+    allocate(capacity);
+  }
+
+  /** @return the value of given key or {@link #NO_VALUE} if there is none */
+  public int get(long key) {
+    int index = indexOf(key);
+    return mValues[index];
+  }
+
+  /** @param value must not be negative */
+  public void put(long key, int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Values must not be negative: " + value);
+    }
+    int index = indexOf(key);
+    if (mValues[index] == NO_VALUE) {
+      if ((mSize + 1) * 100 > mKeys.length * MAX_LOAD_PERCENT) {
+        grow();
+        index = indexOf(key);
+      }
+      mKeys[index] = key;
+      mSize++;
+    }
+    mValues[index] = value;
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public void clear() {
+    if (mSize > 0) {
+      Arrays.fill(mValues, NO_VALUE);
+      mSize = 0;
+    }
+  }
+
+  // Slot holding given key or the empty slot where it would be inserted.
+  private int indexOf(long key) {
+    int index = hash(key) & mMask;
+    while (mValues[index] != NO_VALUE && mKeys[index] != key) {
+      index = (index + 1) & mMask;
+    }
+    return index;
+  }
+
+  private void grow() {
+    long[] keys = mKeys;
+    int[] values = mValues;
+    allocate(keys.length * 2);
+    for (int i = 0; i < keys.length; i++) {
+      if (values[i] != NO_VALUE) {
+        int index = indexOf(keys[i]);
+        mKeys[index] = keys[i];
+        mValues[index] = values[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new long[capacity];
+    mValues = new int[capacity];
+    Arrays.fill(mValues, NO_VALUE);
+    mMask = capacity - 1;
+  }
+
+  /*package*/ static int hash(long key) {
+    // Event cookies and similar keys differ mostly in a few bit ranges, spread them over all bits.
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -73,4 +73,19 @@ public class ReactFeatureFlags {
    * remove this when bug is fixed
    */
   public static boolean enableTransitionLayoutOnlyViewCleanup = false;
+
+  /**
+   * Experimental: when enabled, the DISPATCH_UI frame callback stops applying UI operations once
+   * the time left in the frame is spent, and applies the rest on later frames. The views a batch
+   * creates may be created over several frames, the operations that change the visible hierarchy
+   * are still applied within one frame. See UIViewOperationQueue.
+   */
+  public static boolean enableTimeSlicedUIOperations = false;
+
+  /**
+   * Reuse {@link android.text.Layout}s computed by Paper text shadow nodes for text with identical
+   * content, styling and width constraints. See {@link
+   * com.facebook.react.views.text.TextLayoutCache}. Text with adjustsFontSizeToFit is never cached.
+   */
+  public static boolean enableTextLayoutCache = false;
 }
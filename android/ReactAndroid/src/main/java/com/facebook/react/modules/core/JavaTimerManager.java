@@ -17,8 +17,9 @@ import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.common.SystemClock;
 import com.facebook.react.devsupport.interfaces.DevSupportManager;
 import com.facebook.react.jstasks.HeadlessJsTaskContext;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import com.facebook.react.modules.core.TimerWheel.Timer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -37,24 +38,11 @@ public class JavaTimerManager {
   // at 60 fps.
   private static final float FRAME_DURATION_MS = 1000.f / 60.f;
 
-  private static class Timer {
-    private final int mCallbackID;
-    private final boolean mRepeat;
-    private final int mInterval;
-    private long mTargetTime;
-
-    private Timer(int callbackID, long initialTargetTime, int duration, boolean repeat) {
-      mCallbackID = callbackID;
-      mTargetTime = initialTargetTime;
-      mInterval = duration;
-      mRepeat = repeat;
-    }
-  }
-
   private class TimerFrameCallback extends ChoreographerCompat.FrameCallback {
 
     // Temporary map for constructing the individual arrays of timers to call
     private @Nullable WritableArray mTimersToCall = null;
+    private final List<Timer> mExpiredTimers = new ArrayList<>();
 
     /** Calls all timers that have expired since the last time this frame callback was called. */
     @Override
@@ -65,8 +53,10 @@ public class JavaTimerManager {
 
       long frameTimeMillis = frameTimeNanos / 1000000;
       synchronized (mTimerGuard) {
-        while (!mTimers.isEmpty() && mTimers.peek().mTargetTime < frameTimeMillis) {
-          Timer timer = mTimers.poll();
+        // All timers expiring before this frame are called together, in a single call to JS.
+        mTimers.advance(frameTimeMillis - 1, mExpiredTimers);
+        for (int i = 0; i < mExpiredTimers.size(); i++) {
+          Timer timer = mExpiredTimers.get(i);
           if (mTimersToCall == null) {
             mTimersToCall = Arguments.createArray();
           }
@@ -78,6 +68,7 @@ public class JavaTimerManager {
             mTimerIdsToTimers.remove(timer.mCallbackID);
           }
         }
+        mExpiredTimers.clear();
       }
 
       if (mTimersToCall != null) {
@@ -156,7 +147,7 @@ public class JavaTimerManager {
   private final DevSupportManager mDevSupportManager;
   private final Object mTimerGuard = new Object();
   private final Object mIdleCallbackGuard = new Object();
-  private final PriorityQueue<Timer> mTimers;
+  private final TimerWheel mTimers;
   private final SparseArray<Timer> mTimerIdsToTimers;
   private final AtomicBoolean isPaused = new AtomicBoolean(true);
   private final AtomicBoolean isRunningTasks = new AtomicBoolean(false);
@@ -177,23 +168,8 @@ public class JavaTimerManager {
     mReactChoreographer = reactChoreographer;
     mDevSupportManager = devSupportManager;
 
-    // We store timers sorted by finish time.
-    mTimers =
-        new PriorityQueue<Timer>(
-            11, // Default capacity: for some reason they don't expose a (Comparator) constructor
-            new Comparator<Timer>() {
-              @Override
-              public int compare(Timer lhs, Timer rhs) {
-                long diff = lhs.mTargetTime - rhs.mTargetTime;
-                if (diff == 0) {
-                  return 0;
-                } else if (diff < 0) {
-                  return -1;
-                } else {
-                  return 1;
-                }
-              }
-            });
+    // Timers are bucketed by finish time, on the same clock as the choreographer frame time.
+    mTimers = new TimerWheel(SystemClock.nanoTime() / 1000000);
     mTimerIdsToTimers = new SparseArray<>();
   }
 
@@ -386,28 +362,15 @@ public class JavaTimerManager {
    * @param rangeMs The time range, in ms, to check
    * @return True if there are pending timers within the given range; false otherwise
    */
-  /* package */ boolean hasActiveTimersInRange(long rangeMs) {
+  /* package */ boolean hasActiveTimersInRange(final long rangeMs) {
     synchronized (mTimerGuard) {
-      Timer nextTimer = mTimers.peek();
-      if (nextTimer == null) {
-        // Timers queue is empty
-        return false;
-      }
-      if (isTimerInRange(nextTimer, rangeMs)) {
-        // First check the next timer, so we can avoid iterating over the entire queue if it's
-        // already within range.
-        return true;
-      }
-      for (Timer timer : mTimers) {
-        if (isTimerInRange(timer, rangeMs)) {
-          return true;
-        }
-      }
+      return mTimers.containsMatchingTimer(
+          new TimerWheel.TimerFilter() {
+            @Override
+            public boolean matches(Timer timer) {
+              return !timer.mRepeat && timer.mInterval < rangeMs;
+            }
+          });
     }
-    return false;
-  }
-
-  private static boolean isTimerInRange(Timer timer, long rangeMs) {
-    return !timer.mRepeat && timer.mInterval < rangeMs;
   }
 }
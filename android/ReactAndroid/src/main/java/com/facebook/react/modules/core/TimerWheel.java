@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+import androidx.annotation.Nullable;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel with millisecond ticks. Adding and removing a timer take constant time,
+ * which matters for JS code that keeps creating and clearing timeouts, e.g. for debouncing.
+ *
+ * <p>The first level has a slot for each of the next 256 ms. Each further level has 64 slots, each
+ * as long as a full rotation of the level below. Timers are kept in the lowest level that covers
+ * their target time and move down a level whenever the level below completes a rotation, so every
+ * timer is moved at most once per level. Timers further away than the last level covers (about 18
+ * hours) wait in its farthest slot and are re-added when it comes up.
+ *
+ * <p>Not thread safe.
+ */
+/* package */ class TimerWheel {
+
+  /* package */ static class Timer {
+    /* package */ final int mCallbackID;
+    /* package */ final boolean mRepeat;
+    /* package */ final int mInterval;
+    /* package */ long mTargetTime;
+
+    // Position in the wheel, a timer that isn't in the wheel has a negative level.
+    private int mLevel = -1;
+    private int mSlot;
+    private @Nullable Timer mPrevious;
+    private @Nullable Timer mNext;
+    // Tie breaker for timers with the same target time, they expire in the order they were added.
+    private long mSequenceNumber;
+
+    /* package */ Timer(int callbackID, long initialTargetTime, int duration, boolean repeat) {
+      mCallbackID = callbackID;
+      mTargetTime = initialTargetTime;
+      mInterval = duration;
+      mRepeat = repeat;
+    }
+  }
+
+  /* package */ interface TimerFilter {
+    boolean matches(Timer timer);
+  }
+
+  private static final int FIRST_LEVEL_BITS = 8;
+  private static final int LEVEL_BITS = 6;
+  private static final int LEVELS_COUNT = 4;
+  private static final int FIRST_LEVEL_MASK = (1 << FIRST_LEVEL_BITS) - 1;
+  private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+  private static final long MAX_DELAY =
+      (1L << (FIRST_LEVEL_BITS + (LEVELS_COUNT - 1) * LEVEL_BITS)) - 1;
+
+  private static final Comparator<Timer> EXPIRATION_ORDER_COMPARATOR =
+      new Comparator<Timer>() {
+        @Override
+        public int compare(Timer lhs, Timer rhs) {
+          if (lhs.mTargetTime != rhs.mTargetTime) {
+            return lhs.mTargetTime < rhs.mTargetTime ? -1 : 1;
+          }
+          return lhs.mSequenceNumber < rhs.mSequenceNumber
+              ? -1
+              : (lhs.mSequenceNumber == rhs.mSequenceNumber ? 0 : 1);
+        }
+      };
+
+  private final Timer[][] mSlots = new Timer[LEVELS_COUNT][];
+  // The next tick to process, all timers targeting earlier ticks have expired.
+  private long mCurrentTick;
+  private long mNextSequenceNumber;
+  private int mSize;
+  private int mFirstLevelSize;
+
+  /* package */ TimerWheel(long currentTimeMillis) {
+    mSlots[0] = new Timer[1 << FIRST_LEVEL_BITS];
+    for (int level = 1; level < LEVELS_COUNT; level++) {
+      mSlots[level] = new Timer[1 << LEVEL_BITS];
+    }
+    mCurrentTick = currentTimeMillis;
+  }
+
+  /* package */ int size() {
+    return mSize;
+  }
+
+  /* package */ boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /** Adds a timer that expires at its target time, or on the next advance if that has passed. */
+  /* package */ void add(Timer timer) {
+    timer.mSequenceNumber = mNextSequenceNumber++;
+    insert(timer);
+    mSize++;
+  }
+
+  /* package */ void remove(Timer timer) {
+    if (timer.mLevel < 0) {
+      return;
+    }
+    unlink(timer);
+    mSize--;
+  }
+
+  /**
+   * Removes all timers with a target time up to and including the given time and appends them to
+   * the list, ordered by their target time.
+   */
+  /* package */ void advance(long timeMillis, List<Timer> expiredTimers) {
+    int expiredStart = expiredTimers.size();
+    while (mCurrentTick <= timeMillis) {
+      if (mSize == 0) {
+        mCurrentTick = timeMillis + 1;
+        break;
+      }
+
+      int index = (int) (mCurrentTick & FIRST_LEVEL_MASK);
+      if (index == 0) {
+        cascade();
+      } else if (mFirstLevelSize == 0) {
+        // Nothing can expire before the first level completes its rotation.
+        mCurrentTick = Math.min(mCurrentTick - index + FIRST_LEVEL_MASK + 1, timeMillis + 1);
+        continue;
+      }
+
+      Timer timer = mSlots[0][index];
+      while (timer != null) {
+        Timer next = timer.mNext;
+        unlink(timer);
+        mSize--;
+        expiredTimers.add(timer);
+        timer = next;
+      }
+      mCurrentTick++;
+    }
+
+    if (expiredTimers.size() - expiredStart > 1) {
+      Collections.sort(
+          expiredTimers.subList(expiredStart, expiredTimers.size()), EXPIRATION_ORDER_COMPARATOR);
+    }
+  }
+
+  /** Whether the filter matches any timer in the wheel, stops looking at the first match. */
+  /* package */ boolean containsMatchingTimer(TimerFilter filter) {
+    for (Timer[] slots : mSlots) {
+      for (Timer timer : slots) {
+        while (timer != null) {
+          if (filter.matches(timer)) {
+            return true;
+          }
+          timer = timer.mNext;
+        }
+      }
+    }
+    return false;
+  }
+
+  /* package */ void clear() {
+    for (Timer[] slots : mSlots) {
+      for (int i = 0; i < slots.length; i++) {
+        Timer timer = slots[i];
+        while (timer != null) {
+          Timer next = timer.mNext;
+          timer.mLevel = -1;
+          timer.mPrevious = null;
+          timer.mNext = null;
+          timer = next;
+        }
+        slots[i] = null;
+      }
+    }
+    mSize = 0;
+    mFirstLevelSize = 0;
+  }
+
+  // Moves the timers of the next slot of each level whose lower level completed a rotation.
+  private void cascade() {
+    int shift = FIRST_LEVEL_BITS;
+    for (int level = 1; level < LEVELS_COUNT; level++) {
+      int index = (int) ((mCurrentTick >>> shift) & LEVEL_MASK);
+      Timer timer = mSlots[level][index];
+      mSlots[level][index] = null;
+      while (timer != null) {
+        Timer next = timer.mNext;
+        timer.mPrevious = null;
+        timer.mNext = null;
+        insert(timer);
+        timer = next;
+      }
+      if (index != 0) {
+        break;
+      }
+      shift += LEVEL_BITS;
+    }
+  }
+
+  private void insert(Timer timer) {
+    long delay = timer.mTargetTime - mCurrentTick;
+    long tick = timer.mTargetTime;
+    if (delay < 0) {
+      // Already expired, it goes into the slot processed next.
+      delay = 0;
+      tick = mCurrentTick;
+    } else if (delay > MAX_DELAY) {
+      delay = MAX_DELAY;
+      tick = mCurrentTick + MAX_DELAY;
+    }
+
+    int level = 0;
+    int shift = 0;
+    long levelSpan = 1L << FIRST_LEVEL_BITS;
+    while (delay >= levelSpan) {
+      shift += level == 0 ? FIRST_LEVEL_BITS : LEVEL_BITS;
+      levelSpan <<= LEVEL_BITS;
+      level++;
+    }
+    int slot = (int) ((tick >>> shift) & (level == 0 ? FIRST_LEVEL_MASK : LEVEL_MASK));
+
+    Timer head = mSlots[level][slot];
+    timer.mLevel = level;
+    timer.mSlot = slot;
+    timer.mPrevious = null;
+    timer.mNext = head;
+    if (head != null) {
+      head.mPrevious = timer;
+    }
+    mSlots[level][slot] = timer;
+    if (level == 0) {
+      mFirstLevelSize++;
+    }
+  }
+
+  private void unlink(Timer timer) {
+    if (timer.mPrevious != null) {
+      timer.mPrevious.mNext = timer.mNext;
+    } else {
+      mSlots[timer.mLevel][timer.mSlot] = timer.mNext;
+    }
+    if (timer.mNext != null) {
+      timer.mNext.mPrevious = timer.mPrevious;
+    }
+    if (timer.mLevel == 0) {
+      mFirstLevelSize--;
+    }
+    timer.mLevel = -1;
+    timer.mPrevious = null;
+    timer.mNext = null;
+  }
+}
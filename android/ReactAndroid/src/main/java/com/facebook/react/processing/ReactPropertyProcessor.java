@@ -14,10 +14,6 @@ import static javax.tools.Diagnostic.Kind.ERROR;
 import static javax.tools.Diagnostic.Kind.WARNING;
 
 import com.facebook.infer.annotation.SuppressFieldNotInitialized;
-import com.facebook.react.bridge.Dynamic;
-import com.facebook.react.bridge.DynamicFromObject;
-import com.facebook.react.bridge.ReadableArray;
-import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.annotations.ReactPropGroup;
 import com.facebook.react.uimanager.annotations.ReactPropertyHolder;
@@ -73,10 +69,17 @@ public class ReactPropertyProcessor extends AbstractProcessor {
       ClassName.get("com.facebook.react.uimanager", "ReactStylesDiffMap");
   private static final TypeName OBJECT_TYPE = TypeName.get(Object.class);
   private static final TypeName STRING_TYPE = TypeName.get(String.class);
-  private static final TypeName READABLE_MAP_TYPE = TypeName.get(ReadableMap.class);
-  private static final TypeName READABLE_ARRAY_TYPE = TypeName.get(ReadableArray.class);
-  private static final TypeName DYNAMIC_TYPE = TypeName.get(Dynamic.class);
-  private static final TypeName DYNAMIC_FROM_OBJECT_TYPE = TypeName.get(DynamicFromObject.class);
+  // Bridge types are referenced by name, so that the processor can be built as a plain Java
+  // library without the Android classes of the bridge on its classpath.
+  private static final TypeName READABLE_MAP_TYPE =
+      ClassName.get("com.facebook.react.bridge", "ReadableMap");
+  private static final TypeName READABLE_ARRAY_TYPE =
+      ClassName.get("com.facebook.react.bridge", "ReadableArray");
+  private static final TypeName DYNAMIC_TYPE = ClassName.get("com.facebook.react.bridge", "Dynamic");
+  private static final TypeName DYNAMIC_FROM_OBJECT_TYPE =
+      ClassName.get("com.facebook.react.bridge", "DynamicFromObject");
+  private static final TypeName COLOR_PROP_CONVERTER_TYPE =
+      ClassName.get("com.facebook.react.bridge", "ColorPropConverter");
 
   private static final TypeName VIEW_MANAGER_TYPE =
       ClassName.get("com.facebook.react.uimanager", "ViewManager");
@@ -400,12 +403,12 @@ public class ReactPropertyProcessor extends AbstractProcessor {
           return builder.add(
               "value == null ? $L : $T.getColor(value, view.getContext())",
               info.mProperty.defaultInt(),
-              com.facebook.react.bridge.ColorPropConverter.class);
+              COLOR_PROP_CONVERTER_TYPE);
         case SHADOW_NODE:
           return builder.add(
               "value == null ? $L : $T.getColor(value, node.getThemedContext())",
               info.mProperty.defaultInt(),
-              com.facebook.react.bridge.ColorPropConverter.class);
+              COLOR_PROP_CONVERTER_TYPE);
       }
     } else if (propertyType.equals(TypeName.INT)) {
       return builder.add(
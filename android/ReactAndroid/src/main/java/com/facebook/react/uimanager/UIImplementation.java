@@ -232,6 +232,10 @@ public class UIImplementation {
     return mOperationsQueue.getProfiledBatchPerfCounters();
   }
 
+  public Map<String, Long> getTimeSlicingPerfCounters() {
+    return mOperationsQueue.getTimeSlicingPerfCounters();
+  }
+
   /** Invoked by React to create a new node with a given tag, class name and properties. */
   public void createView(int tag, String className, int rootViewTag, ReadableMap props) {
     synchronized (uiImplementationThreadLock) {
@@ -370,11 +370,15 @@ public class UIManagerModule extends ReactContextBaseJavaModule
   @Override
   public void profileNextBatch() {
     mUIImplementation.profileNextBatch();
+    mEventDispatcher.profileNextBatch();
   }
 
   @Override
   public Map<String, Long> getPerformanceCounters() {
-    return mUIImplementation.getProfiledBatchPerfCounters();
+    Map<String, Long> perfMap = mUIImplementation.getProfiledBatchPerfCounters();
+    perfMap.putAll(mUIImplementation.getTimeSlicingPerfCounters());
+    perfMap.putAll(mEventDispatcher.getPerformanceCounters());
+    return perfMap;
   }
 
   public <T extends View> int addRootView(final T rootView) {
@@ -25,6 +25,7 @@ import com.facebook.react.bridge.RetryableMountingLayerException;
 import com.facebook.react.bridge.SoftAssertions;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.modules.core.ReactChoreographer;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
@@ -48,6 +49,7 @@ import java.util.Map;
 public class UIViewOperationQueue {
 
   public static final int DEFAULT_MIN_TIME_LEFT_IN_FRAME_FOR_NONBATCHED_OPERATION_MS = 8;
+  /* package */ static final long NO_DEADLINE = Long.MAX_VALUE;
   private static final String TAG = UIViewOperationQueue.class.getSimpleName();
 
   private final int[] mMeasureBuffer = new int[4];
@@ -596,11 +598,17 @@ public class UIViewOperationQueue {
   private final boolean mAllowViewCommandsQueue;
   private ArrayList<DispatchCommandViewOperation> mViewCommandOperations = new ArrayList<>();
 
+  private final boolean mTimeSliceUIOperations;
+
   // Only called from the UIManager queue?
   private ArrayList<UIOperation> mOperations = new ArrayList<>();
 
   @GuardedBy("mDispatchRunnablesLock")
-  private ArrayList<Runnable> mDispatchUIRunnables = new ArrayList<>();
+  private ArrayList<DispatchUIBatch> mDispatchUIRunnables = new ArrayList<>();
+
+  // Batches taken from mDispatchUIRunnables that have not been fully applied yet. Only accessed
+  // from the UI thread.
+  private final ArrayDeque<DispatchUIBatch> mPendingUIBatches = new ArrayDeque<>();
 
   @GuardedBy("mNonBatchedOperationsLock")
   private ArrayDeque<UIOperation> mNonBatchedOperations = new ArrayDeque<>();
@@ -621,6 +629,9 @@ public class UIViewOperationQueue {
   private long mThreadCpuTime;
   private long mCreateViewCount;
   private long mUpdatePropertiesOperationCount;
+  private long mDroppedFrameCount;
+  private long mDeferredFrameCount;
+  private long mDeferredOperationCount;
 
   public UIViewOperationQueue(
       ReactApplicationContext reactContext,
@@ -635,6 +646,7 @@ public class UIViewOperationQueue {
                 : minTimeLeftInFrameForNonBatchedOperationMs);
     mReactApplicationContext = reactContext;
     mAllowViewCommandsQueue = ReactFeatureFlags.allowEarlyViewCommandExecution;
+    mTimeSliceUIOperations = ReactFeatureFlags.enableTimeSlicedUIOperations;
   }
 
   /*package*/ NativeViewHierarchyManager getNativeViewHierarchyManager() {
@@ -669,6 +681,19 @@ public class UIViewOperationQueue {
     return perfMap;
   }
 
+  /**
+   * Counters describing how batches were applied on the UI thread: the number of frames in which
+   * dispatching UI operations ran past the frame deadline, and, when time slicing is enabled, how
+   * many frames yielded with work left and how many operations were deferred to a later frame.
+   */
+  public Map<String, Long> getTimeSlicingPerfCounters() {
+    Map<String, Long> perfMap = new HashMap<>();
+    perfMap.put("DroppedFrameCount", mDroppedFrameCount);
+    perfMap.put("DeferredFrameCount", mDeferredFrameCount);
+    perfMap.put("DeferredOperationCount", mDeferredOperationCount);
+    return perfMap;
+  }
+
   public boolean isEmpty() {
     return mOperations.isEmpty() && mViewCommandOperations.isEmpty();
   }
@@ -863,106 +888,16 @@ public class UIViewOperationQueue {
         mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateEnqueued();
       }
 
-      Runnable runOperations =
-          new Runnable() {
-            @Override
-            public void run() {
-              SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "DispatchUI")
-                  .arg("BatchId", batchId)
-                  .flush();
-              try {
-                long runStartTime = SystemClock.uptimeMillis();
-
-                // All ViewCommands should be executed first as a perf optimization.
-                // This entire block is only executed if there's a separate viewCommand queue,
-                // which is currently gated by a ReactFeatureFlag.
-                if (viewCommandOperations != null) {
-                  for (DispatchCommandViewOperation op : viewCommandOperations) {
-                    try {
-                      op.executeWithExceptions();
-                    } catch (RetryableMountingLayerException e) {
-                      // Catch errors in DispatchCommands. We allow all commands to be retried
-                      // exactly once, after the current batch of other mountitems. If the second
-                      // attempt fails, then  we log a soft error. This will still crash only in
-                      // debug. We do this because it is a ~relatively common pattern to dispatch a
-                      // command during render, for example, to scroll to the bottom of a ScrollView
-                      // in render. This dispatches the command before that View is even mounted. By
-                      // retrying once, we can still dispatch the vast majority of commands faster,
-                      // avoid errors, and still operate correctly for most commands even when
-                      // they're executed too soon.
-                      if (op.getRetries() == 0) {
-                        op.incrementRetries();
-                        mViewCommandOperations.add(op);
-                      } else {
-                        // Retryable exceptions should be logged, but never crash in debug.
-                        ReactSoftException.logSoftException(TAG, new ReactNoCrashSoftException(e));
-                      }
-                    } catch (Throwable e) {
-                      // Non-retryable exceptions should be logged in prod, and crash in Debug.
-                      ReactSoftException.logSoftException(TAG, e);
-                    }
-                  }
-                }
-
-                // All nonBatchedOperations should be executed before regular operations as
-                // regular operations may depend on them
-                if (nonBatchedOperations != null) {
-                  for (UIOperation op : nonBatchedOperations) {
-                    op.execute();
-                  }
-                }
-
-                if (batchedOperations != null) {
-                  for (UIOperation op : batchedOperations) {
-                    op.execute();
-                  }
-                }
-
-                if (mIsProfilingNextBatch && mProfiledBatchCommitStartTime == 0) {
-                  mProfiledBatchCommitStartTime = commitStartTime;
-                  mProfiledBatchCommitEndTime = SystemClock.uptimeMillis();
-                  mProfiledBatchLayoutTime = layoutTime;
-                  mProfiledBatchDispatchViewUpdatesTime = dispatchViewUpdatesTime;
-                  mProfiledBatchRunStartTime = runStartTime;
-                  mProfiledBatchRunEndTime = mProfiledBatchCommitEndTime;
-                  mThreadCpuTime = nativeModulesThreadCpuTime;
-
-                  Systrace.beginAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeDispatchViewUpdates",
-                      0,
-                      mProfiledBatchCommitStartTime * 1000000);
-                  Systrace.endAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeDispatchViewUpdates",
-                      0,
-                      mProfiledBatchDispatchViewUpdatesTime * 1000000);
-                  Systrace.beginAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeBatchRunStart",
-                      0,
-                      mProfiledBatchDispatchViewUpdatesTime * 1000000);
-                  Systrace.endAsyncSection(
-                      Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                      "delayBeforeBatchRunStart",
-                      0,
-                      mProfiledBatchRunStartTime * 1000000);
-                }
-
-                // Clear layout animation, as animation only apply to current UI operations batch.
-                mNativeViewHierarchyManager.clearLayoutAnimation();
-
-                if (mViewHierarchyUpdateDebugListener != null) {
-                  mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateFinished();
-                }
-              } catch (Exception e) {
-                mIsInIllegalUIState = true;
-                throw e;
-              } finally {
-                Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
-              }
-            }
-          };
+      DispatchUIBatch runOperations =
+          new DispatchUIBatch(
+              batchId,
+              commitStartTime,
+              layoutTime,
+              dispatchViewUpdatesTime,
+              nativeModulesThreadCpuTime,
+              viewCommandOperations,
+              nonBatchedOperations,
+              batchedOperations);
 
       SystraceMessage.beginSection(
               Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "acquiring mDispatchRunnablesLock")
@@ -1006,6 +941,18 @@ public class UIViewOperationQueue {
   }
 
   private void flushPendingBatches() {
+    flushPendingBatches(NO_DEADLINE);
+  }
+
+  /**
+   * Applies pending batches in the order they were dispatched. With {@link #NO_DEADLINE} every
+   * batch is applied. Otherwise the views a batch creates are created first, possibly over several
+   * calls, and the rest of the batch is only applied if {@code deadlineNanos} hasn't passed by then;
+   * whatever is left is applied on the next call. Every call creates at least one view or applies
+   * at least one batch.
+   */
+  @VisibleForTesting
+  /* package */ void flushPendingBatches(long deadlineNanos) {
     if (mIsInIllegalUIState) {
       FLog.w(
           ReactConstants.TAG,
@@ -1013,19 +960,38 @@ public class UIViewOperationQueue {
       return;
     }
 
-    final ArrayList<Runnable> runnables;
     synchronized (mDispatchRunnablesLock) {
       if (!mDispatchUIRunnables.isEmpty()) {
-        runnables = mDispatchUIRunnables;
+        mPendingUIBatches.addAll(mDispatchUIRunnables);
         mDispatchUIRunnables = new ArrayList<>();
-      } else {
+      } else if (mPendingUIBatches.isEmpty()) {
         return;
       }
     }
 
     final long batchedExecutionStartTime = SystemClock.uptimeMillis();
-    for (Runnable runnable : runnables) {
-      runnable.run();
+    boolean hasMadeProgress = false;
+    while (!mPendingUIBatches.isEmpty()) {
+      if (deadlineNanos != NO_DEADLINE) {
+        hasMadeProgress |= mPendingUIBatches.peekFirst().createViews(deadlineNanos, hasMadeProgress);
+        if (hasMadeProgress && System.nanoTime() >= deadlineNanos) {
+          break;
+        }
+      }
+      hasMadeProgress = true;
+      // Remove the batch first so that it isn't run again if it throws.
+      mPendingUIBatches.pollFirst().run();
+    }
+
+    if (!mPendingUIBatches.isEmpty()) {
+      mDeferredFrameCount++;
+      for (DispatchUIBatch batch : mPendingUIBatches) {
+        if (!batch.mWasDeferred) {
+          batch.mWasDeferred = true;
+          mDeferredOperationCount += batch.getOperationCount();
+        }
+      }
+      return;
     }
 
     if (mIsProfilingNextBatch) {
@@ -1043,6 +1009,190 @@ public class UIViewOperationQueue {
     mNonBatchedExecutionTotalTime = 0;
   }
 
+  /**
+   * A batch of UI operations dispatched by {@link #dispatchViewUpdates}, which holds everything JS
+   * committed in one go. When time slicing is enabled, the views the batch creates may be created
+   * over several frames, since they aren't visible until the batch's other operations attach them.
+   * Those other operations are always applied within a single frame, so a frame never shows part
+   * of a commit. Batches are applied in the order they were dispatched.
+   */
+  private final class DispatchUIBatch {
+
+    private final int mBatchId;
+    private final long mCommitStartTime;
+    private final long mLayoutTime;
+    private final long mDispatchViewUpdatesTime;
+    private final long mNativeModulesThreadCpuTime;
+    private final @Nullable ArrayList<DispatchCommandViewOperation> mBatchViewCommandOperations;
+    private final @Nullable ArrayDeque<UIOperation> mBatchNonBatchedOperations;
+    private final @Nullable ArrayList<UIOperation> mBatchedOperations;
+
+    // Whether this batch was already counted in mDeferredOperationCount.
+    private boolean mWasDeferred = false;
+
+    private DispatchUIBatch(
+        int batchId,
+        long commitStartTime,
+        long layoutTime,
+        long dispatchViewUpdatesTime,
+        long nativeModulesThreadCpuTime,
+        @Nullable ArrayList<DispatchCommandViewOperation> viewCommandOperations,
+        @Nullable ArrayDeque<UIOperation> nonBatchedOperations,
+        @Nullable ArrayList<UIOperation> batchedOperations) {
+      mBatchId = batchId;
+      mCommitStartTime = commitStartTime;
+      mLayoutTime = layoutTime;
+      mDispatchViewUpdatesTime = dispatchViewUpdatesTime;
+      mNativeModulesThreadCpuTime = nativeModulesThreadCpuTime;
+      mBatchViewCommandOperations = viewCommandOperations;
+      mBatchNonBatchedOperations = nonBatchedOperations;
+      mBatchedOperations = batchedOperations;
+    }
+
+    /**
+     * Creates the views of this batch that weren't created yet, in order, until {@code
+     * deadlineNanos} has passed. Unless {@code hasMadeProgress}, at least one view is created.
+     *
+     * @return whether any view was created
+     */
+    private boolean createViews(long deadlineNanos, boolean hasMadeProgress) {
+      if (mBatchNonBatchedOperations == null) {
+        return false;
+      }
+      boolean hasCreatedView = false;
+      while (!mBatchNonBatchedOperations.isEmpty()) {
+        if ((hasMadeProgress || hasCreatedView) && System.nanoTime() >= deadlineNanos) {
+          break;
+        }
+        try {
+          mBatchNonBatchedOperations.pollFirst().execute();
+        } catch (Exception e) {
+          mIsInIllegalUIState = true;
+          throw e;
+        }
+        hasCreatedView = true;
+      }
+      return hasCreatedView;
+    }
+
+    private int getOperationCount() {
+      int count = mBatchedOperations != null ? mBatchedOperations.size() : 0;
+      if (mBatchNonBatchedOperations != null) {
+        count += mBatchNonBatchedOperations.size();
+      }
+      if (mBatchViewCommandOperations != null) {
+        count += mBatchViewCommandOperations.size();
+      }
+      return count;
+    }
+
+    private void run() {
+      SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "DispatchUI")
+          .arg("BatchId", mBatchId)
+          .flush();
+      try {
+        long runStartTime = SystemClock.uptimeMillis();
+
+        executeViewCommands();
+
+        // All nonBatchedOperations should be executed before regular operations as
+        // regular operations may depend on them
+        if (mBatchNonBatchedOperations != null) {
+          while (!mBatchNonBatchedOperations.isEmpty()) {
+            mBatchNonBatchedOperations.pollFirst().execute();
+          }
+        }
+
+        if (mBatchedOperations != null) {
+          for (UIOperation op : mBatchedOperations) {
+            op.execute();
+          }
+        }
+
+        onBatchFinished(runStartTime);
+      } catch (Exception e) {
+        mIsInIllegalUIState = true;
+        throw e;
+      } finally {
+        Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+      }
+    }
+
+    private void executeViewCommands() {
+      // All ViewCommands should be executed first as a perf optimization.
+      // This entire block is only executed if there's a separate viewCommand queue,
+      // which is currently gated by a ReactFeatureFlag.
+      if (mBatchViewCommandOperations == null) {
+        return;
+      }
+      for (DispatchCommandViewOperation op : mBatchViewCommandOperations) {
+        try {
+          op.executeWithExceptions();
+        } catch (RetryableMountingLayerException e) {
+          // Catch errors in DispatchCommands. We allow all commands to be retried
+          // exactly once, after the current batch of other mountitems. If the second
+          // attempt fails, then  we log a soft error. This will still crash only in
+          // debug. We do this because it is a ~relatively common pattern to dispatch a
+          // command during render, for example, to scroll to the bottom of a ScrollView
+          // in render. This dispatches the command before that View is even mounted. By
+          // retrying once, we can still dispatch the vast majority of commands faster,
+          // avoid errors, and still operate correctly for most commands even when
+          // they're executed too soon.
+          if (op.getRetries() == 0) {
+            op.incrementRetries();
+            mViewCommandOperations.add(op);
+          } else {
+            // Retryable exceptions should be logged, but never crash in debug.
+            ReactSoftException.logSoftException(TAG, new ReactNoCrashSoftException(e));
+          }
+        } catch (Throwable e) {
+          // Non-retryable exceptions should be logged in prod, and crash in Debug.
+          ReactSoftException.logSoftException(TAG, e);
+        }
+      }
+    }
+
+    private void onBatchFinished(long runStartTime) {
+      if (mIsProfilingNextBatch && mProfiledBatchCommitStartTime == 0) {
+        mProfiledBatchCommitStartTime = mCommitStartTime;
+        mProfiledBatchCommitEndTime = SystemClock.uptimeMillis();
+        mProfiledBatchLayoutTime = mLayoutTime;
+        mProfiledBatchDispatchViewUpdatesTime = mDispatchViewUpdatesTime;
+        mProfiledBatchRunStartTime = runStartTime;
+        mProfiledBatchRunEndTime = mProfiledBatchCommitEndTime;
+        mThreadCpuTime = mNativeModulesThreadCpuTime;
+
+        Systrace.beginAsyncSection(
+            Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+            "delayBeforeDispatchViewUpdates",
+            0,
+            mProfiledBatchCommitStartTime * 1000000);
+        Systrace.endAsyncSection(
+            Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+            "delayBeforeDispatchViewUpdates",
+            0,
+            mProfiledBatchDispatchViewUpdatesTime * 1000000);
+        Systrace.beginAsyncSection(
+            Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+            "delayBeforeBatchRunStart",
+            0,
+            mProfiledBatchDispatchViewUpdatesTime * 1000000);
+        Systrace.endAsyncSection(
+            Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+            "delayBeforeBatchRunStart",
+            0,
+            mProfiledBatchRunStartTime * 1000000);
+      }
+
+      // Clear layout animation, as animation only apply to current UI operations batch.
+      mNativeViewHierarchyManager.clearLayoutAnimation();
+
+      if (mViewHierarchyUpdateDebugListener != null) {
+        mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateFinished();
+      }
+    }
+  }
+
   /**
    * Choreographer FrameCallback responsible for actually dispatching view updates on the UI thread
    * that were enqueued via {@link #dispatchViewUpdates(int)}. The reason we don't just enqueue
@@ -1085,7 +1235,17 @@ public class UIViewOperationQueue {
         Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
       }
 
-      flushPendingBatches();
+      if (mTimeSliceUIOperations) {
+        flushPendingBatches(
+            frameTimeNanos
+                + (FRAME_TIME_MS - mMinTimeLeftInFrameForNonBatchedOperationMs) * 1000000L);
+      } else {
+        flushPendingBatches();
+      }
+
+      if ((System.nanoTime() - frameTimeNanos) / 1000000 > FRAME_TIME_MS) {
+        mDroppedFrameCount++;
+      }
 
       ReactChoreographer.getInstance()
           .postFrameCallback(ReactChoreographer.CallbackType.DISPATCH_UI, this);
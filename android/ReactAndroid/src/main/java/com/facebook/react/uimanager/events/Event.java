@@ -24,6 +24,8 @@ public abstract class Event<T extends Event> {
   private int mViewTag;
   private long mTimestampMs;
   private int mUniqueID = sUniqueID++;
+  // Link to the previously staged event while this one waits in the EventStagingQueue.
+  /*package*/ Event mNextStagedEvent;
 
   protected Event() {}
 
@@ -7,11 +7,12 @@
 
 package com.facebook.react.uimanager.events;
 
-import android.util.LongSparseArray;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.PerformanceCounter;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.common.LongIntHashMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.modules.core.ChoreographerCompat;
 import com.facebook.react.modules.core.ReactChoreographer;
@@ -20,9 +21,11 @@ import com.facebook.systrace.Systrace;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class responsible for dispatching UI events to JS. The main purpose of this class is to act as an
@@ -53,8 +56,14 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * <p>Event Cookie Composition: VIEW_TAG_MASK = 0x00000000ffffffff EVENT_TYPE_ID_MASK =
  * 0x0000ffff00000000 COALESCING_KEY_MASK = 0xffff000000000000
+ *
+ * <p>== Threading ==
+ *
+ * <p>Events are staged in a lock-free queue, so threads dispatching events never block on each
+ * other or on the UI thread moving them to the dispatch queue. Only the dispatch queue is locked,
+ * between the UI thread filling it once per frame and the JS thread emptying it.
  */
-public class EventDispatcher implements LifecycleEventListener {
+public class EventDispatcher implements LifecycleEventListener, PerformanceCounter {
 
   private static final Comparator<Event> EVENT_COMPARATOR =
       new Comparator<Event>() {
@@ -81,18 +90,22 @@ public class EventDispatcher implements LifecycleEventListener {
         }
       };
 
-  private final Object mEventsStagingLock = new Object();
   private final Object mEventsToDispatchLock = new Object();
   private final ReactApplicationContext mReactContext;
-  private final LongSparseArray<Integer> mEventCookieToLastEventIdx = new LongSparseArray<>();
+  private final LongIntHashMap mEventCookieToLastEventIdx = new LongIntHashMap(16);
   private final Map<String, Short> mEventNameToEventId = MapBuilder.newHashMap();
   private final DispatchEventsRunnable mDispatchEventsRunnable = new DispatchEventsRunnable();
-  private final ArrayList<Event> mEventStaging = new ArrayList<>();
+  private final EventStagingQueue mEventStaging = new EventStagingQueue();
+  // Only used on the UI thread, while moving staged events to the dispatch queue.
+  private final ArrayList<Event> mStagedEvents = new ArrayList<>();
   private final ArrayList<EventDispatcherListener> mListeners = new ArrayList<>();
   private final List<BatchEventDispatchedListener> mPostEventDispatchListeners = new ArrayList<>();
   private final ScheduleDispatchFrameCallback mCurrentFrameCallback =
       new ScheduleDispatchFrameCallback();
   private final AtomicInteger mHasDispatchScheduledCount = new AtomicInteger();
+  private final AtomicLong mDispatchedEventCount = new AtomicLong();
+  private final AtomicLong mCoalescedEventCount = new AtomicLong();
+  private final AtomicLong mDispatchedBatchCount = new AtomicLong();
 
   private Event[] mEventsToDispatch = new Event[16];
   private int mEventsToDispatchSize = 0;
@@ -114,11 +127,10 @@ public class EventDispatcher implements LifecycleEventListener {
       listener.onEventDispatch(event);
     }
 
-    synchronized (mEventsStagingLock) {
-      mEventStaging.add(event);
-      Systrace.startAsyncFlow(
-          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
-    }
+    // Started before staging the event, as it may be dispatched right after.
+    Systrace.startAsyncFlow(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
+    mEventStaging.add(event);
     maybePostFrameCallbackFromNonUI();
   }
 
@@ -157,6 +169,28 @@ public class EventDispatcher implements LifecycleEventListener {
     mPostEventDispatchListeners.remove(listener);
   }
 
+  /** Resets the counters returned by {@link #getPerformanceCounters()}. */
+  @Override
+  public void profileNextBatch() {
+    mDispatchedEventCount.set(0);
+    mCoalescedEventCount.set(0);
+    mDispatchedBatchCount.set(0);
+  }
+
+  /**
+   * Counters of events sent to JS, events dropped by coalescing them with a newer event, and
+   * batches of events sent to JS, since the dispatcher was created or {@link #profileNextBatch()}
+   * was last called.
+   */
+  @Override
+  public Map<String, Long> getPerformanceCounters() {
+    Map<String, Long> perfMap = new HashMap<>();
+    perfMap.put("DispatchedEventCount", mDispatchedEventCount.get());
+    perfMap.put("CoalescedEventCount", mCoalescedEventCount.get());
+    perfMap.put("DispatchedBatchCount", mDispatchedBatchCount.get());
+    return perfMap;
+  }
+
   @Override
   public void onHostResume() {
     maybePostFrameCallbackFromNonUI();
@@ -194,48 +228,56 @@ public class EventDispatcher implements LifecycleEventListener {
    * frame and another from this frame during the next.
    */
   private void moveStagedEventsToDispatchQueue() {
-    synchronized (mEventsStagingLock) {
-      synchronized (mEventsToDispatchLock) {
-        for (int i = 0; i < mEventStaging.size(); i++) {
-          Event event = mEventStaging.get(i);
-
-          if (!event.canCoalesce()) {
-            addEventToEventsToDispatch(event);
-            continue;
-          }
+    mEventStaging.drainTo(mStagedEvents);
+    if (mStagedEvents.isEmpty()) {
+      return;
+    }
 
-          long eventCookie =
-              getEventCookie(event.getViewTag(), event.getEventName(), event.getCoalescingKey());
+    int coalescedEventCount = 0;
+    synchronized (mEventsToDispatchLock) {
+      for (int i = 0; i < mStagedEvents.size(); i++) {
+        Event event = mStagedEvents.get(i);
 
-          Event eventToAdd = null;
-          Event eventToDispose = null;
-          Integer lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+        if (!event.canCoalesce()) {
+          addEventToEventsToDispatch(event);
+          continue;
+        }
 
-          if (lastEventIdx == null) {
-            eventToAdd = event;
+        long eventCookie =
+            getEventCookie(event.getViewTag(), event.getEventName(), event.getCoalescingKey());
+
+        Event eventToAdd = null;
+        Event eventToDispose = null;
+        int lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+
+        if (lastEventIdx == LongIntHashMap.NO_VALUE) {
+          eventToAdd = event;
+          mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+        } else {
+          Event lastEvent = mEventsToDispatch[lastEventIdx];
+          Event coalescedEvent = event.coalesce(lastEvent);
+          if (coalescedEvent != lastEvent) {
+            eventToAdd = coalescedEvent;
             mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+            eventToDispose = lastEvent;
+            mEventsToDispatch[lastEventIdx] = null;
           } else {
-            Event lastEvent = mEventsToDispatch[lastEventIdx];
-            Event coalescedEvent = event.coalesce(lastEvent);
-            if (coalescedEvent != lastEvent) {
-              eventToAdd = coalescedEvent;
-              mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
-              eventToDispose = lastEvent;
-              mEventsToDispatch[lastEventIdx] = null;
-            } else {
-              eventToDispose = event;
-            }
+            eventToDispose = event;
           }
+        }
 
-          if (eventToAdd != null) {
-            addEventToEventsToDispatch(eventToAdd);
-          }
-          if (eventToDispose != null) {
-            eventToDispose.dispose();
-          }
+        if (eventToAdd != null) {
+          addEventToEventsToDispatch(eventToAdd);
+        }
+        if (eventToDispose != null) {
+          eventToDispose.dispose();
+          coalescedEventCount++;
         }
       }
-      mEventStaging.clear();
+    }
+    mStagedEvents.clear();
+    if (coalescedEventCount > 0) {
+      mCoalescedEventCount.addAndGet(coalescedEventCount);
     }
   }
 
@@ -351,6 +393,7 @@ public class EventDispatcher implements LifecycleEventListener {
             if (mEventsToDispatchSize > 1) {
               Arrays.sort(mEventsToDispatch, 0, mEventsToDispatchSize, EVENT_COMPARATOR);
             }
+            int dispatchedEventCount = 0;
             for (int eventIdx = 0; eventIdx < mEventsToDispatchSize; eventIdx++) {
               Event event = mEventsToDispatch[eventIdx];
               // Event can be null if it has been coalesced into another event.
@@ -361,9 +404,12 @@ public class EventDispatcher implements LifecycleEventListener {
                   Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
               event.dispatch(mReactEventEmitter);
               event.dispose();
+              dispatchedEventCount++;
             }
             clearEventsToDispatch();
             mEventCookieToLastEventIdx.clear();
+            mDispatchedEventCount.addAndGet(dispatchedEventCount);
+            mDispatchedBatchCount.incrementAndGet();
           }
         }
         for (BatchEventDispatchedListener listener : mPostEventDispatchListeners) {
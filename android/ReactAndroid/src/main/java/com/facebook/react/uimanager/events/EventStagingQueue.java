@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free queue of events waiting to be moved to the dispatch queue. Any thread can add events,
+ * a single thread takes them all at once.
+ *
+ * <p>Events are linked through {@link Event#mNextStagedEvent}, so adding an event doesn't allocate.
+ * Adding pushes the event onto a stack with a single compare-and-set, taking swaps the whole stack
+ * out and reverses it, so producers never wait for the consumer or for each other.
+ */
+/*package*/ class EventStagingQueue {
+
+  private final AtomicReference<Event> mNewestEvent = new AtomicReference<>();
+
+  /** Adds the event to the queue. Can be called from any thread. */
+  public void add(Event event) {
+    Event newestEvent;
+    do {
+      newestEvent = mNewestEvent.get();
+      event.mNextStagedEvent = newestEvent;
+    } while (!mNewestEvent.compareAndSet(newestEvent, event));
+  }
+
+  /**
+   * Removes all events from the queue and appends them to the list in the order they were added.
+   * Must not be called by more than one thread at a time.
+   */
+  public void drainTo(ArrayList<Event> events) {
+    Event event = mNewestEvent.getAndSet(null);
+    int start = events.size();
+    while (event != null) {
+      Event next = event.mNextStagedEvent;
+      event.mNextStagedEvent = null;
+      events.add(event);
+      event = next;
+    }
+
+    for (int i = start, j = events.size() - 1; i < j; i++, j--) {
+      Event swapped = events.get(i);
+      events.set(i, events.get(j));
+      events.set(j, swapped);
+    }
+  }
+}
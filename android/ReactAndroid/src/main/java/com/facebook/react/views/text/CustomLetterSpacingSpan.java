@@ -27,6 +27,10 @@ public class CustomLetterSpacingSpan extends MetricAffectingSpan implements Reac
     mLetterSpacing = letterSpacing;
   }
 
+  public float getSpacing() {
+    return mLetterSpacing;
+  }
+
   @Override
   public void updateDrawState(TextPaint paint) {
     apply(paint);
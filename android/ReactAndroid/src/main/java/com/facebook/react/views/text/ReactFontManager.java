@@ -92,6 +92,8 @@ public class ReactFontManager {
     Typeface font = ResourcesCompat.getFont(context, fontId);
     if (font != null) {
       mCustomTypefaceCache.put(fontFamily, font);
+      // Text measured with the fallback font is now stale.
+      TextLayoutCache.clear();
     }
   }
 
@@ -112,6 +114,7 @@ public class ReactFontManager {
         mFontCache.put(fontFamilyName, fontFamily);
       }
       fontFamily.setTypeface(style, typeface);
+      TextLayoutCache.clear();
     }
   }
 
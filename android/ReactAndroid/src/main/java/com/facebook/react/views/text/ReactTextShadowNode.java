@@ -24,6 +24,7 @@ import com.facebook.react.bridge.ReactNoCrashSoftException;
 import com.facebook.react.bridge.ReactSoftException;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.NativeViewHierarchyOptimizer;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.ReactShadowNode;
@@ -150,9 +151,6 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
     // TODO(5578671): Handle text direction (see View#getTextDirectionHeuristic)
     TextPaint textPaint = sTextPaintInstance;
     textPaint.setTextSize(mTextAttributes.getEffectiveFontSize());
-    Layout layout;
-    BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
-    float desiredWidth = boring == null ? Layout.getDesiredWidth(text, textPaint) : Float.NaN;
 
     // technically, width should never be negative, but there is currently a bug in
     boolean unconstrainedWidth = widthMode == YogaMeasureMode.UNDEFINED || width < 0;
@@ -170,6 +168,33 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
         break;
     }
 
+    String cacheKey = null;
+    // adjustsFontSizeToFit measures again after rewriting the size spans of the text in place
+    if (ReactFeatureFlags.enableTextLayoutCache && !mAdjustsFontSizeToFit) {
+      cacheKey =
+          TextLayoutCache.createKey(
+              text,
+              textPaint.getTextSize(),
+              width,
+              widthMode,
+              unconstrainedWidth,
+              alignment,
+              mIncludeFontPadding,
+              mTextBreakStrategy,
+              mHyphenationFrequency,
+              mJustificationMode);
+      if (cacheKey != null) {
+        Layout cachedLayout = TextLayoutCache.get(cacheKey);
+        if (cachedLayout != null) {
+          return cachedLayout;
+        }
+      }
+    }
+
+    Layout layout;
+    BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
+    float desiredWidth = boring == null ? Layout.getDesiredWidth(text, textPaint) : Float.NaN;
+
     if (boring == null
         && (unconstrainedWidth
             || (!YogaConstants.isUndefined(desiredWidth) && desiredWidth <= width))) {
@@ -226,6 +251,10 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
         layout = builder.build();
       }
     }
+
+    if (cacheKey != null) {
+      TextLayoutCache.put(cacheKey, layout);
+    }
     return layout;
   }
 
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import android.text.Layout;
+import android.text.Spanned;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+import com.facebook.yoga.YogaMeasureMode;
+
+/**
+ * Process-wide LRU cache of {@link Layout}s measured by {@link ReactTextShadowNode}.
+ *
+ * <p>Spannables are rebuilt on every layout pass and Yoga measures the same text with the same
+ * constraints many times (e.g. list items), so layouts are keyed by text content, the values of
+ * the metric affecting spans, and the paragraph attributes and width constraint (size and mode)
+ * they were measured with. Text containing spans we don't know how to describe is never cached.
+ *
+ * <p>Cached layouts are only used for their metrics, never for drawing.
+ */
+public final class TextLayoutCache {
+
+  private static final int MAX_ENTRIES = 256;
+
+  private static final LruCache<String, Layout> sLayoutCache = new LruCache<>(MAX_ENTRIES);
+
+  private TextLayoutCache() {}
+
+  /**
+   * Builds the cache key for measuring {@code text} with given attributes, or returns {@code null}
+   * if the text cannot be cached.
+   */
+  static @Nullable String createKey(
+      Spanned text,
+      float textSize,
+      float width,
+      YogaMeasureMode widthMode,
+      boolean unconstrainedWidth,
+      Layout.Alignment alignment,
+      boolean includeFontPadding,
+      int textBreakStrategy,
+      int hyphenationFrequency,
+      int justificationMode) {
+    StringBuilder key = new StringBuilder(text.length() + 64);
+    key.append(text.length())
+        .append('|')
+        .append(textSize)
+        .append('|')
+        .append(unconstrainedWidth ? "auto" : widthMode.name() + ':' + width)
+        .append('|')
+        .append(alignment.ordinal())
+        .append('|')
+        .append(includeFontPadding)
+        .append('|')
+        .append(textBreakStrategy)
+        .append('|')
+        .append(hyphenationFrequency)
+        .append('|')
+        .append(justificationMode);
+
+    for (Object span : text.getSpans(0, text.length(), Object.class)) {
+      if (span instanceof ReactForegroundColorSpan
+          || span instanceof ReactBackgroundColorSpan
+          || span instanceof ReactUnderlineSpan
+          || span instanceof ReactStrikethroughSpan
+          || span instanceof ShadowStyleSpan
+          || span instanceof ReactTagSpan) {
+        // Don't affect metrics.
+        continue;
+      }
+
+      key.append('|')
+          .append(text.getSpanStart(span))
+          .append(',')
+          .append(text.getSpanEnd(span))
+          .append(',');
+      if (span instanceof ReactAbsoluteSizeSpan) {
+        key.append("size:").append(((ReactAbsoluteSizeSpan) span).getSize());
+      } else if (span instanceof CustomLetterSpacingSpan) {
+        key.append("spacing:").append(((CustomLetterSpacingSpan) span).getSpacing());
+      } else if (span instanceof CustomLineHeightSpan) {
+        key.append("lineHeight:").append(((CustomLineHeightSpan) span).getLineHeight());
+      } else if (span instanceof CustomStyleSpan) {
+        CustomStyleSpan styleSpan = (CustomStyleSpan) span;
+        key.append("style:")
+            .append(styleSpan.getStyle())
+            .append(',')
+            .append(styleSpan.getWeight())
+            .append(',')
+            .append(styleSpan.getFontFamily())
+            .append(',')
+            .append(styleSpan.getFontFeatureSettings());
+      } else if (span instanceof TextInlineViewPlaceholderSpan) {
+        TextInlineViewPlaceholderSpan placeholder = (TextInlineViewPlaceholderSpan) span;
+        key.append("view:").append(placeholder.getWidth()).append(',').append(placeholder.getHeight());
+      } else {
+        // E.g. inline images, whose size may change once they load.
+        return null;
+      }
+    }
+
+    // The text goes last, its length at the start keeps keys unambiguous.
+    key.append('|').append(text.toString());
+    return key.toString();
+  }
+
+  static @Nullable Layout get(String key) {
+    return sLayoutCache.get(key);
+  }
+
+  static void put(String key, Layout layout) {
+    sLayoutCache.put(key, layout);
+  }
+
+  /** Drops all cached layouts, e.g. when fonts change. Hit and miss counts are kept. */
+  public static void clear() {
+    sLayoutCache.evictAll();
+  }
+
+  public static int getHitCount() {
+    return sLayoutCache.hitCount();
+  }
+
+  public static int getMissCount() {
+    return sLayoutCache.missCount();
+  }
+
+  /** Returns the hit rate in percents of all lookups so far, or 0 if there were none. */
+  public static int getHitRate() {
+    int hitCount = sLayoutCache.hitCount();
+    int accesses = hitCount + sLayoutCache.missCount();
+    return accesses != 0 ? (100 * hitCount / accesses) : 0;
+  }
+}
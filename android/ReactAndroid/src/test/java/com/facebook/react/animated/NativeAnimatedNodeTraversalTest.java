@@ -170,6 +170,45 @@ public class NativeAnimatedNodeTraversalTest {
     verifyNoMoreInteractions(mUIManagerMock);
   }
 
+  /**
+   * Verifies that nodes connected while an animation is running are updated on the next frame,
+   * even though the order of updates for the animated node has already been computed.
+   */
+  @Test
+  public void testNodesConnectedWhileAnimatingReceiveUpdates() {
+    createSimpleAnimatedViewWithOpacity(1000, 0d);
+
+    JavaOnlyArray frames = JavaOnlyArray.of(0d, 0.2d, 0.4d, 0.6d, 0.8d, 1d);
+    Callback animationCallback = mock(Callback.class);
+    mNativeAnimatedNodesManager.startAnimatingNode(
+        1, 1, JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1d), animationCallback);
+
+    ArgumentCaptor<ReadableMap> stylesCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+
+    reset(mUIManagerMock);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
+    verify(mUIManagerMock, times(1))
+        .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap.class));
+
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        4, JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("opacity", 1)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        5, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 4)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 4);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(4, 5);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(5, 2000);
+
+    for (int i = 1; i < frames.size(); i++) {
+      reset(mUIManagerMock);
+      mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+      verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
+      assertThat(stylesCaptor.getValue().getDouble("opacity")).isEqualTo(frames.getDouble(i));
+      verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(2000), stylesCaptor.capture());
+      assertThat(stylesCaptor.getValue().getDouble("opacity")).isEqualTo(frames.getDouble(i));
+    }
+  }
+
   @Test
   public void testFramesAnimationLoopsFiveTimes() {
     createSimpleAnimatedViewWithOpacity(1000, 0d);
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class LongIntHashMapTest {
+
+  @Test
+  public void testPutAndGet() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    map.put(1, 10);
+    map.put(-1, 20);
+    map.put(0, 30);
+    map.put(Long.MAX_VALUE, 40);
+
+    assertThat(map.get(1)).isEqualTo(10);
+    assertThat(map.get(-1)).isEqualTo(20);
+    assertThat(map.get(0)).isEqualTo(30);
+    assertThat(map.get(Long.MAX_VALUE)).isEqualTo(40);
+    assertThat(map.get(2)).isEqualTo(LongIntHashMap.NO_VALUE);
+    assertThat(map.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void testPutReplacesValue() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    map.put(7, 1);
+    map.put(7, 2);
+
+    assertThat(map.get(7)).isEqualTo(2);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCollidingKeys() {
+    // 8 entries fit into 16 slots without growing
+    LongIntHashMap map = new LongIntHashMap(8);
+    long[] keys = findKeysWithSameSlot(6, 15);
+    for (int i = 0; i < keys.length; i++) {
+      map.put(keys[i], i);
+    }
+
+    for (int i = 0; i < keys.length; i++) {
+      assertThat(map.get(keys[i])).isEqualTo(i);
+    }
+    assertThat(map.get(findKeysWithSameSlot(7, 15)[6])).isEqualTo(LongIntHashMap.NO_VALUE);
+
+    map.put(keys[3], 100);
+    assertThat(map.get(keys[3])).isEqualTo(100);
+    assertThat(map.get(keys[4])).isEqualTo(4);
+    assertThat(map.size()).isEqualTo(keys.length);
+  }
+
+  @Test
+  public void testGrowKeepsEntries() {
+    LongIntHashMap map = new LongIntHashMap(1);
+    Map<Long, Integer> expected = new HashMap<>();
+    Random random = new Random(1);
+    for (int i = 0; i < 10000; i++) {
+      long key = random.nextLong();
+      map.put(key, i);
+      expected.put(key, i);
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+      assertThat(map.get(entry.getKey())).isEqualTo((int) entry.getValue());
+    }
+  }
+
+  @Test
+  public void testClearRemovesAllEntries() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+    map.clear();
+
+    assertThat(map.size()).isEqualTo(0);
+    for (int i = 0; i < 100; i++) {
+      assertThat(map.get(i)).isEqualTo(LongIntHashMap.NO_VALUE);
+    }
+
+    map.put(5, 50);
+    assertThat(map.get(5)).isEqualTo(50);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValue() {
+    new LongIntHashMap(4).put(1, -1);
+  }
+
+  private static long[] findKeysWithSameSlot(int count, int mask) {
+    long[] keys = new long[count];
+    int found = 0;
+    for (long key = 0; found < count; key++) {
+      if ((LongIntHashMap.hash(key) & mask) == (LongIntHashMap.hash(0) & mask)) {
+        keys[found++] = key;
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.facebook.react.modules.core.TimerWheel.Timer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.Test;
+
+/** Tests for {@link TimerWheel}, compared with the priority queue it replaced. */
+public class TimerWheelTest {
+
+  private static final long FRAME_TIME_MS = 16;
+  private static final long START_TIME_MS = 123456789;
+
+  private static final Comparator<Timer> TARGET_TIME_COMPARATOR =
+      new Comparator<Timer>() {
+        @Override
+        public int compare(Timer lhs, Timer rhs) {
+          return Long.compare(lhs.mTargetTime, rhs.mTargetTime);
+        }
+      };
+
+  @Test
+  public void testExpiresTimersInTargetTimeOrder() {
+    TimerWheel wheel = new TimerWheel(START_TIME_MS);
+    wheel.add(new Timer(1, START_TIME_MS + 300, 300, false));
+    wheel.add(new Timer(2, START_TIME_MS + 5, 5, false));
+    wheel.add(new Timer(3, START_TIME_MS + 20000, 20000, false));
+    wheel.add(new Timer(4, START_TIME_MS + 5, 5, false));
+    wheel.add(new Timer(5, START_TIME_MS - 10, 0, false));
+
+    List<Timer> expired = new ArrayList<>();
+    wheel.advance(START_TIME_MS + 4, expired);
+    assertThat(callbackIDs(expired)).isEqualTo(new int[] {5});
+
+    expired.clear();
+    wheel.advance(START_TIME_MS + 19999, expired);
+    assertThat(callbackIDs(expired)).isEqualTo(new int[] {2, 4, 1});
+
+    expired.clear();
+    wheel.advance(START_TIME_MS + 20000, expired);
+    assertThat(callbackIDs(expired)).isEqualTo(new int[] {3});
+    assertThat(wheel.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testExpiresTimersBeyondLastLevel() {
+    TimerWheel wheel = new TimerWheel(START_TIME_MS);
+    long delay = 3L * 24 * 60 * 60 * 1000;
+    wheel.add(new Timer(1, START_TIME_MS + delay, (int) delay, false));
+
+    List<Timer> expired = new ArrayList<>();
+    wheel.advance(START_TIME_MS + delay - 1, expired);
+    assertThat(expired).isEmpty();
+    wheel.advance(START_TIME_MS + delay, expired);
+    assertThat(callbackIDs(expired)).isEqualTo(new int[] {1});
+  }
+
+  @Test
+  public void testRemovedTimersDontExpire() {
+    TimerWheel wheel = new TimerWheel(START_TIME_MS);
+    Timer removed = new Timer(1, START_TIME_MS + 1000, 1000, false);
+    wheel.add(removed);
+    wheel.add(new Timer(2, START_TIME_MS + 1000, 1000, false));
+    wheel.remove(removed);
+    // Removing a timer twice or after it expired does nothing.
+    wheel.remove(removed);
+
+    List<Timer> expired = new ArrayList<>();
+    wheel.advance(START_TIME_MS + 1000, expired);
+    assertThat(callbackIDs(expired)).isEqualTo(new int[] {2});
+    wheel.remove(expired.get(0));
+    assertThat(wheel.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testMatchesPriorityQueue() {
+    Random random = new Random(42);
+    TimerWheel wheel = new TimerWheel(START_TIME_MS);
+    PriorityQueue<Timer> queue = new PriorityQueue<>(11, TARGET_TIME_COMPARATOR);
+    List<Timer> activeTimers = new ArrayList<>();
+    long time = START_TIME_MS;
+    int nextCallbackID = 0;
+
+    for (int frame = 0; frame < 20000; frame++) {
+      for (int i = random.nextInt(8); i > 0; i--) {
+        int delay = randomDelay(random);
+        Timer timer = new Timer(nextCallbackID++, time + delay, delay, false);
+        wheel.add(timer);
+        queue.add(timer);
+        activeTimers.add(timer);
+      }
+      for (int i = random.nextInt(6); i > 0 && !activeTimers.isEmpty(); i--) {
+        Timer timer = activeTimers.remove(random.nextInt(activeTimers.size()));
+        wheel.remove(timer);
+        queue.remove(timer);
+      }
+
+      // Sometimes skip a lot of frames, like when the app is in background.
+      time += random.nextInt(100) == 0 ? random.nextInt(10000000) : FRAME_TIME_MS;
+      List<Timer> expired = new ArrayList<>();
+      wheel.advance(time - 1, expired);
+      List<Timer> expectedExpired = new ArrayList<>();
+      while (!queue.isEmpty() && queue.peek().mTargetTime < time) {
+        expectedExpired.add(queue.poll());
+      }
+
+      assertThat(expired.size()).isEqualTo(expectedExpired.size());
+      for (int i = 0; i < expired.size(); i++) {
+        assertThat(expired.get(i).mTargetTime).isEqualTo(expectedExpired.get(i).mTargetTime);
+      }
+      activeTimers.removeAll(new HashSet<>(expired));
+      assertThat(wheel.size()).isEqualTo(queue.size());
+    }
+  }
+
+  /**
+   * Debounce-like churn: each frame creates timers and clears others before they fire, with a few
+   * thousand timers pending, and some of the cleared timers have already fired.
+   */
+  @Test
+  public void testCreateAndClearChurnMatchesPriorityQueue() {
+    int frames = 2000;
+    int timersPerFrame = 50;
+    int pendingTimersCount = 5000;
+    Random random = new Random(7);
+    TimerWheel wheel = new TimerWheel(START_TIME_MS);
+    PriorityQueue<Timer> queue = new PriorityQueue<>(11, TARGET_TIME_COMPARATOR);
+    List<Timer> pendingTimers = new ArrayList<>();
+    List<Timer> expired = new ArrayList<>();
+    long time = START_TIME_MS;
+    int nextCallbackID = 0;
+
+    for (int frame = 0; frame < frames; frame++) {
+      for (int i = 0; i < timersPerFrame; i++) {
+        int delay = 100 + random.nextInt(30000);
+        Timer timer = new Timer(nextCallbackID++, time + delay, delay, false);
+        wheel.add(timer);
+        queue.add(timer);
+        pendingTimers.add(timer);
+      }
+      while (pendingTimers.size() > pendingTimersCount) {
+        int index = random.nextInt(pendingTimers.size());
+        Timer timer = pendingTimers.get(index);
+        pendingTimers.set(index, pendingTimers.get(pendingTimers.size() - 1));
+        pendingTimers.remove(pendingTimers.size() - 1);
+        // Removing a timer that already fired does nothing in either of them.
+        wheel.remove(timer);
+        queue.remove(timer);
+      }
+
+      time += FRAME_TIME_MS;
+      expired.clear();
+      wheel.advance(time - 1, expired);
+      for (Timer timer : expired) {
+        Timer expectedTimer = queue.poll();
+        assertThat(expectedTimer).isNotNull();
+        assertThat(timer.mTargetTime).isEqualTo(expectedTimer.mTargetTime);
+        assertThat(timer.mTargetTime).isLessThan(time);
+      }
+      if (!queue.isEmpty()) {
+        assertThat(queue.peek().mTargetTime).isGreaterThanOrEqualTo(time);
+      }
+      assertThat(wheel.size()).isEqualTo(queue.size());
+    }
+  }
+
+  @Test
+  public void testContainsMatchingTimer() {
+    TimerWheel wheel = new TimerWheel(START_TIME_MS);
+    wheel.add(new Timer(1, START_TIME_MS + 300, 300, false));
+    wheel.add(new Timer(2, START_TIME_MS + 500000, 500000, false));
+
+    assertThat(wheel.containsMatchingTimer(timer -> timer.mCallbackID == 2)).isTrue();
+    assertThat(wheel.containsMatchingTimer(timer -> timer.mCallbackID == 3)).isFalse();
+  }
+
+  private static int randomDelay(Random random) {
+    switch (random.nextInt(4)) {
+      case 0:
+        return random.nextInt(300);
+      case 1:
+        return random.nextInt(20000);
+      case 2:
+        return random.nextInt(2000000);
+      default:
+        return random.nextInt(Integer.MAX_VALUE);
+    }
+  }
+
+  private static int[] callbackIDs(List<Timer> timers) {
+    int[] callbackIDs = new int[timers.size()];
+    for (int i = 0; i < timers.size(); i++) {
+      callbackIDs[i] = timers.get(i).mCallbackID;
+    }
+    return callbackIDs;
+  }
+}
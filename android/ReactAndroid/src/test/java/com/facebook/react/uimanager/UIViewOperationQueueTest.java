@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.modules.core.ReactChoreographer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests for how {@link UIViewOperationQueue} applies dispatched batches within a deadline. */
+@PrepareForTest({ReactChoreographer.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "androidx.*", "android.*"})
+public class UIViewOperationQueueTest {
+
+  @Rule public PowerMockRule rule = new PowerMockRule();
+
+  private NativeViewHierarchyManager mNativeViewHierarchyManager;
+  private UIViewOperationQueue mQueue;
+  private List<String> mAppliedOperations;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(ReactChoreographer.class);
+    PowerMockito.when(ReactChoreographer.getInstance()).thenReturn(mock(ReactChoreographer.class));
+
+    mNativeViewHierarchyManager = mock(NativeViewHierarchyManager.class);
+    mQueue =
+        new UIViewOperationQueue(
+            new ReactApplicationContext(RuntimeEnvironment.application),
+            mNativeViewHierarchyManager,
+            0);
+    // With the frame callback enqueued, dispatched batches wait for flushPendingBatches.
+    mQueue.resumeFrameCallback();
+    mAppliedOperations = new ArrayList<>();
+  }
+
+  @Test
+  public void testPassedDeadlineAppliesOneWholeBatch() {
+    dispatchBatch(1, 3);
+    dispatchBatch(2, 2);
+    dispatchBatch(3, 2);
+
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0", "1:1", "1:2"));
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredFrameCount")).isEqualTo(1L);
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredOperationCount")).isEqualTo(4L);
+
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations)
+        .isEqualTo(Arrays.asList("1:0", "1:1", "1:2", "2:0", "2:1"));
+    // Batch 3 is deferred again, but its operations were already counted.
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredFrameCount")).isEqualTo(2L);
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredOperationCount")).isEqualTo(4L);
+
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations)
+        .isEqualTo(Arrays.asList("1:0", "1:1", "1:2", "2:0", "2:1", "3:0", "3:1"));
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredFrameCount")).isEqualTo(2L);
+  }
+
+  @Test
+  public void testFutureDeadlineAppliesAllBatches() {
+    dispatchBatch(1, 2);
+    dispatchBatch(2, 2);
+
+    mQueue.flushPendingBatches(System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0", "1:1", "2:0", "2:1"));
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredFrameCount")).isEqualTo(0L);
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredOperationCount")).isEqualTo(0L);
+  }
+
+  @Test
+  public void testNoDeadlineAppliesDeferredBatches() {
+    dispatchBatch(1, 1);
+    dispatchBatch(2, 1);
+    mQueue.flushPendingBatches(0);
+    dispatchBatch(3, 1);
+
+    mQueue.flushPendingBatches(UIViewOperationQueue.NO_DEADLINE);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0", "2:0", "3:0"));
+  }
+
+  @Test
+  public void testBatchesDispatchedWhileDeferredAreAppliedInOrder() {
+    dispatchBatch(1, 1);
+    dispatchBatch(2, 1);
+    mQueue.flushPendingBatches(0);
+    dispatchBatch(3, 1);
+
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0", "2:0"));
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0", "2:0", "3:0"));
+  }
+
+  @Test
+  public void testPassedDeadlineCreatesViewsOverSeveralFrames() {
+    ThemedReactContext context = mock(ThemedReactContext.class);
+    for (int tag = 1; tag <= 3; tag++) {
+      mQueue.enqueueCreateView(context, tag, "RCTView", null);
+    }
+    dispatchBatch(1, 1);
+    dispatchBatch(2, 1);
+
+    // One view per frame, the views aren't attached by the batch before all of them exist.
+    mQueue.flushPendingBatches(0);
+    verify(mNativeViewHierarchyManager).createView(context, 1, "RCTView", null);
+    verify(mNativeViewHierarchyManager, never()).createView(context, 2, "RCTView", null);
+    assertThat(mAppliedOperations).isEmpty();
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredOperationCount")).isEqualTo(4L);
+
+    mQueue.flushPendingBatches(0);
+    mQueue.flushPendingBatches(0);
+    verify(mNativeViewHierarchyManager).createView(context, 2, "RCTView", null);
+    verify(mNativeViewHierarchyManager).createView(context, 3, "RCTView", null);
+    assertThat(mAppliedOperations).isEmpty();
+
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0"));
+    mQueue.flushPendingBatches(0);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0", "2:0"));
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredFrameCount")).isEqualTo(4L);
+  }
+
+  @Test
+  public void testFutureDeadlineCreatesViewsAndAppliesBatch() {
+    ThemedReactContext context = mock(ThemedReactContext.class);
+    mQueue.enqueueCreateView(context, 1, "RCTView", null);
+    mQueue.enqueueCreateView(context, 2, "RCTView", null);
+    dispatchBatch(1, 1);
+
+    mQueue.flushPendingBatches(System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+    verify(mNativeViewHierarchyManager).createView(context, 1, "RCTView", null);
+    verify(mNativeViewHierarchyManager).createView(context, 2, "RCTView", null);
+    assertThat(mAppliedOperations).isEqualTo(Arrays.asList("1:0"));
+    assertThat(mQueue.getTimeSlicingPerfCounters().get("DeferredFrameCount")).isEqualTo(0L);
+  }
+
+  private void dispatchBatch(int batchId, int operationCount) {
+    for (int i = 0; i < operationCount; i++) {
+      final String operation = batchId + ":" + i;
+      mQueue.enqueueUIBlock(
+          new UIBlock() {
+            @Override
+            public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+              mAppliedOperations.add(operation);
+            }
+          });
+    }
+    mQueue.dispatchViewUpdates(batchId, 0, 0);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Test for {@link EventStagingQueue} */
+@RunWith(RobolectricTestRunner.class)
+public class EventStagingQueueTest {
+
+  @Test
+  public void testDrainKeepsOrder() {
+    EventStagingQueue queue = new EventStagingQueue();
+    TestEvent first = new TestEvent(0, 0);
+    TestEvent second = new TestEvent(0, 1);
+    TestEvent third = new TestEvent(0, 2);
+    queue.add(first);
+    queue.add(second);
+    queue.add(third);
+
+    ArrayList<Event> events = new ArrayList<>();
+    events.add(new TestEvent(1, 0));
+    queue.drainTo(events);
+
+    assertThat(events.subList(1, events.size())).containsExactly(first, second, third);
+    assertThat(third.mNextStagedEvent).isNull();
+
+    events.clear();
+    queue.drainTo(events);
+    assertThat(events).isEmpty();
+  }
+
+  @Test
+  public void testConcurrentAddAndDrain() throws Exception {
+    final int producerCount = 4;
+    final int eventsPerProducer = 20000;
+    final EventStagingQueue queue = new EventStagingQueue();
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch producersDone = new CountDownLatch(producerCount);
+
+    for (int p = 0; p < producerCount; p++) {
+      final int producer = p;
+      new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  throw new RuntimeException(e);
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                  queue.add(new TestEvent(producer, i));
+                }
+                producersDone.countDown();
+              })
+          .start();
+    }
+
+    ArrayList<Event> events = new ArrayList<>();
+    start.countDown();
+    boolean producing = true;
+    while (producing) {
+      producing = producersDone.getCount() > 0;
+      queue.drainTo(events);
+    }
+
+    // Nothing is lost or duplicated, and each producer's events come out in the order it added them.
+    assertThat(events).hasSize(producerCount * eventsPerProducer);
+    int[] nextSequence = new int[producerCount];
+    for (Event event : events) {
+      TestEvent testEvent = (TestEvent) event;
+      assertThat(testEvent.mSequence).isEqualTo(nextSequence[testEvent.mProducer]);
+      nextSequence[testEvent.mProducer]++;
+      assertThat(testEvent.mNextStagedEvent).isNull();
+    }
+    int[] expected = new int[producerCount];
+    Arrays.fill(expected, eventsPerProducer);
+    assertThat(nextSequence).isEqualTo(expected);
+  }
+
+  private static class TestEvent extends Event<TestEvent> {
+    private final int mProducer;
+    private final int mSequence;
+
+    private TestEvent(int producer, int sequence) {
+      mProducer = producer;
+      mSequence = sequence;
+    }
+
+    @Override
+    public String getEventName() {
+      return "testEvent";
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {}
+  }
+}
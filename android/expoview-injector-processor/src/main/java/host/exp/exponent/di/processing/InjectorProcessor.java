@@ -0,0 +1,159 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+
+package host.exp.exponent.di.processing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code <Class>$$Injector} implementing {@code host.exp.exponent.di.Injector} for
+ * every class with {@code @Inject} fields, so that {@code NativeModuleDepsProvider.inject} doesn't
+ * have to walk the fields with reflection. Classes with fields the generated code can't access
+ * (private fields, private or generic classes) are skipped and keep being injected reflectively.
+ */
+@SupportedAnnotationTypes(InjectorProcessor.INJECT_ANNOTATION)
+public class InjectorProcessor extends AbstractProcessor {
+  static final String INJECT_ANNOTATION = "javax.inject.Inject";
+  static final String INJECTOR_SUFFIX = "$$Injector";
+  private static final String INJECTOR_INTERFACE = "host.exp.exponent.di.Injector";
+  private static final String PROVIDER_CLASS = "host.exp.exponent.di.NativeModuleDepsProvider";
+  private static final String PROVIDER_INTERFACE = "javax.inject.Provider";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement injectType = processingEnv.getElementUtils().getTypeElement(INJECT_ANNOTATION);
+    if (injectType == null || processingEnv.getElementUtils().getTypeElement(INJECTOR_INTERFACE) == null) {
+      return false;
+    }
+
+    Map<TypeElement, List<VariableElement>> fieldsByClass = new LinkedHashMap<>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(injectType)) {
+      if (element.getKind() != ElementKind.FIELD) {
+        continue;
+      }
+      TypeElement enclosingClass = (TypeElement) element.getEnclosingElement();
+      List<VariableElement> fields = fieldsByClass.get(enclosingClass);
+      if (fields == null) {
+        fields = new ArrayList<>();
+        fieldsByClass.put(enclosingClass, fields);
+      }
+      fields.add((VariableElement) element);
+    }
+
+    for (Map.Entry<TypeElement, List<VariableElement>> entry : fieldsByClass.entrySet()) {
+      if (!isAccessible(entry.getKey()) || !areAccessible(entry.getValue())) {
+        continue;
+      }
+      try {
+        writeInjector(entry.getKey(), entry.getValue());
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "Could not generate injector: " + e.getMessage(), entry.getKey());
+      }
+    }
+    // Leave @Inject to other processors too.
+    return false;
+  }
+
+  private boolean isAccessible(TypeElement clazz) {
+    if (clazz.getModifiers().contains(Modifier.PRIVATE) || !clazz.getTypeParameters().isEmpty()) {
+      return false;
+    }
+    Element enclosing = clazz.getEnclosingElement();
+    if (enclosing.getKind() == ElementKind.PACKAGE) {
+      return true;
+    }
+    return clazz.getModifiers().contains(Modifier.STATIC) && isAccessible((TypeElement) enclosing);
+  }
+
+  private boolean areAccessible(List<VariableElement> fields) {
+    for (VariableElement field : fields) {
+      Set<Modifier> modifiers = field.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+        return false;
+      }
+      if (field.asType().getKind() != TypeKind.DECLARED) {
+        return false;
+      }
+      TypeMirror providedType = getProvidedType(field.asType());
+      if (providedType != null && providedType.getKind() != TypeKind.DECLARED) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Returns T for Provider<T> fields, which are injected lazily, and null for any other field.
+  private TypeMirror getProvidedType(TypeMirror type) {
+    DeclaredType declaredType = (DeclaredType) type;
+    TypeElement element = (TypeElement) declaredType.asElement();
+    if (!element.getQualifiedName().contentEquals(PROVIDER_INTERFACE) || declaredType.getTypeArguments().size() != 1) {
+      return null;
+    }
+    return declaredType.getTypeArguments().get(0);
+  }
+
+  private void writeInjector(TypeElement clazz, List<VariableElement> fields) throws IOException {
+    String packageName = processingEnv.getElementUtils().getPackageOf(clazz).getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(clazz).toString();
+    String injectorName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + INJECTOR_SUFFIX;
+    String targetType = clazz.getQualifiedName().toString();
+
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("// Generated by ").append(InjectorProcessor.class.getName()).append(", do not edit.\n");
+    source.append("@SuppressWarnings(\"unchecked\")\n");
+    source.append("public final class ").append(injectorName)
+        .append(" implements ").append(INJECTOR_INTERFACE).append("<").append(targetType).append("> {\n");
+    source.append("  @Override\n");
+    source.append("  public void inject(").append(targetType).append(" target, ")
+        .append(PROVIDER_CLASS).append(" provider) {\n");
+    for (VariableElement field : fields) {
+      TypeMirror providedType = getProvidedType(field.asType());
+      if (providedType != null) {
+        // The raw cast lets Provider<List<String>> fields take the Provider<List> that's returned.
+        source.append("    target.").append(field.getSimpleName())
+            .append(" = (").append(PROVIDER_INTERFACE).append(") provider.getProvider(")
+            .append(processingEnv.getTypeUtils().erasure(providedType)).append(".class);\n");
+      } else {
+        source.append("    target.").append(field.getSimpleName())
+            .append(" = provider.get(").append(processingEnv.getTypeUtils().erasure(field.asType())).append(".class);\n");
+      }
+    }
+    source.append("  }\n");
+    source.append("}\n");
+
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(
+        (packageName.isEmpty() ? "" : packageName + ".") + injectorName, clazz);
+    try (Writer writer = file.openWriter()) {
+      writer.write(source.toString());
+    }
+  }
+}
@@ -25,6 +25,9 @@
 
 -keep class host.exp.exponent.generated.AppConstants { *; }
 
+# Generated injectors are looked up by name, see NativeModuleDepsProvider
+-keep class * implements host.exp.exponent.di.Injector { *; }
+
 ##### Crashlytics #####
 -keepattributes SourceFile,LineNumberTable
 
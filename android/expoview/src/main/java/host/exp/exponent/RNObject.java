@@ -5,7 +5,13 @@ package host.exp.exponent;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import host.exp.exponent.analytics.EXL;
 
@@ -16,6 +22,55 @@ public class RNObject {
 
   public static final String UNVERSIONED = "UNVERSIONED";
 
+  // Resolved classes and members are the same for every instance, so they are looked up only once.
+  private static final Map<String, Class> sClasses = new ConcurrentHashMap<>();
+  private static final Map<MemberKey, Member> sMembers = new ConcurrentHashMap<>();
+
+  // Cost of resolving classes and members, reported with the timed events of each experience load.
+  private static final AtomicLong sLookupCount = new AtomicLong();
+  private static final AtomicLong sLookupCacheMissCount = new AtomicLong();
+  private static final AtomicLong sLookupNanos = new AtomicLong();
+
+  private static final int KIND_METHOD = 0;
+  private static final int KIND_CONSTRUCTOR = 1;
+  private static final int KIND_FIELD = 2;
+
+  private static class MemberKey {
+    private final int mKind;
+    private final Class mClazz;
+    private final String mName;
+    private final Class[] mTypes;
+    private final int mHashCode;
+
+    MemberKey(int kind, Class clazz, String name, Class... types) {
+      mKind = kind;
+      mClazz = clazz;
+      mName = name;
+      mTypes = types;
+      mHashCode = 31 * (31 * (31 * kind + clazz.hashCode()) + name.hashCode()) + Arrays.hashCode(types);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MemberKey)) {
+        return false;
+      }
+      MemberKey other = (MemberKey) o;
+      return mKind == other.mKind
+          && mClazz == other.mClazz
+          && mName.equals(other.mName)
+          && Arrays.equals(mTypes, other.mTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return mHashCode;
+    }
+  }
+
   private final String mClassName; // Unversioned
   private Class mClazz; // Versioned
   private Object mInstance; // Versioned
@@ -47,23 +102,59 @@ public class RNObject {
   }
 
   public RNObject loadVersion(String version) {
-    try {
-      if (version.equals(UNVERSIONED)) {
-        if (mClassName.startsWith("host.exp.exponent")) {
-          mClazz = Class.forName("versioned." + mClassName);
-        } else {
-          mClazz = Class.forName(mClassName);
-        }
+    long startTime = System.nanoTime();
+    String versionedClassName;
+    if (version.equals(UNVERSIONED)) {
+      if (mClassName.startsWith("host.exp.exponent")) {
+        versionedClassName = "versioned." + mClassName;
       } else {
-        mClazz = Class.forName("abi" + version.replace('.', '_') + '.' + mClassName);
+        versionedClassName = mClassName;
       }
-    } catch (ClassNotFoundException e) {
-      EXL.e(TAG, e);
+    } else {
+      versionedClassName = "abi" + version.replace('.', '_') + '.' + mClassName;
     }
 
+    Class clazz = sClasses.get(versionedClassName);
+    if (clazz == null) {
+      sLookupCacheMissCount.incrementAndGet();
+      try {
+        clazz = Class.forName(versionedClassName);
+        sClasses.put(versionedClassName, clazz);
+      } catch (ClassNotFoundException e) {
+        EXL.e(TAG, e);
+      }
+    }
+    if (clazz != null) {
+      mClazz = clazz;
+    }
+    onLookup(startTime);
+
     return this;
   }
 
+  /**
+   * Number of classes and members looked up, how many of them weren't cached yet and the time
+   * it took, since the counters were last reset.
+   */
+  public static Map<String, Long> getLookupCounters() {
+    Map<String, Long> counters = new HashMap<>();
+    counters.put("lookupCount", sLookupCount.get());
+    counters.put("lookupCacheMissCount", sLookupCacheMissCount.get());
+    counters.put("lookupNanos", sLookupNanos.get());
+    return counters;
+  }
+
+  public static void resetLookupCounters() {
+    sLookupCount.set(0);
+    sLookupCacheMissCount.set(0);
+    sLookupNanos.set(0);
+  }
+
+  private static void onLookup(long startTime) {
+    sLookupCount.incrementAndGet();
+    sLookupNanos.addAndGet(System.nanoTime() - startTime);
+  }
+
   public void assign(Object object) {
     if (object != null) {
       mClazz = object.getClass();
@@ -109,7 +200,7 @@ public class RNObject {
 
   public RNObject construct(Object... args) {
     try {
-      mInstance = getConstructorWithTypes(mClazz, objectsToClasses(args)).newInstance(args);
+      mInstance = getCachedConstructorWithTypes(mClazz, objectsToClasses(args)).newInstance(args);
     } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException e) {
       EXL.e(TAG, e);
     }
@@ -166,7 +257,7 @@ public class RNObject {
 
   public Object callWithReceiver(Object receiver, String name, Object... args) {
     try {
-      return getMethodWithTypes(mClazz, name, objectsToClasses(args)).invoke(receiver, args);
+      return getCachedMethodWithTypes(mClazz, name, objectsToClasses(args)).invoke(receiver, args);
     } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException | NoSuchMethodError e) {
       EXL.e(TAG, e);
       e.printStackTrace();
@@ -179,7 +270,7 @@ public class RNObject {
 
   public void setFieldWithReceiver(Object receiver, String name, Object value) {
     try {
-      getFieldWithType(mClazz, name, value.getClass()).set(receiver, value);
+      getCachedFieldWithType(mClazz, name, value.getClass()).set(receiver, value);
     } catch (IllegalAccessException | NoSuchFieldException | NoSuchMethodError e) {
       EXL.e(TAG, e);
       e.printStackTrace();
@@ -188,6 +279,60 @@ public class RNObject {
     }
   }
 
+  private Method getCachedMethodWithTypes(Class clazz, String name, Class... types) throws NoSuchMethodException {
+    long startTime = System.nanoTime();
+    MemberKey key = new MemberKey(KIND_METHOD, clazz, name, types);
+    Method method = (Method) sMembers.get(key);
+    if (method == null) {
+      sLookupCacheMissCount.incrementAndGet();
+      try {
+        method = getMethodWithTypes(clazz, name, types);
+      } finally {
+        onLookup(startTime);
+      }
+      sMembers.put(key, method);
+      return method;
+    }
+    onLookup(startTime);
+    return method;
+  }
+
+  private Field getCachedFieldWithType(Class clazz, String name, Class type) throws NoSuchFieldException {
+    long startTime = System.nanoTime();
+    MemberKey key = new MemberKey(KIND_FIELD, clazz, name, type);
+    Field field = (Field) sMembers.get(key);
+    if (field == null) {
+      sLookupCacheMissCount.incrementAndGet();
+      try {
+        field = getFieldWithType(clazz, name, type);
+      } finally {
+        onLookup(startTime);
+      }
+      sMembers.put(key, field);
+      return field;
+    }
+    onLookup(startTime);
+    return field;
+  }
+
+  private Constructor getCachedConstructorWithTypes(Class clazz, Class... types) throws NoSuchMethodException {
+    long startTime = System.nanoTime();
+    MemberKey key = new MemberKey(KIND_CONSTRUCTOR, clazz, "<init>", types);
+    Constructor constructor = (Constructor) sMembers.get(key);
+    if (constructor == null) {
+      sLookupCacheMissCount.incrementAndGet();
+      try {
+        constructor = getConstructorWithTypes(clazz, types);
+      } finally {
+        onLookup(startTime);
+      }
+      sMembers.put(key, constructor);
+      return constructor;
+    }
+    onLookup(startTime);
+    return constructor;
+  }
+
   // Allow types that are too specific so that we don't have to specify exact classes
   private Method getMethodWithTypes(Class clazz, String name, Class... types) throws NoSuchMethodException {
     Method[] methods = clazz.getMethods();
@@ -12,6 +12,7 @@ import java.lang.reflect.Method;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
+import javax.inject.Provider;
 
 import okhttp3.CookieJar;
 import okhttp3.OkHttpClient;
@@ -108,10 +109,10 @@ public class ReactNativeStaticHelpers {
     }
   }
 
-  private static @Nullable ExponentNetwork sExponentNetwork;
+  private static @Nullable Provider<ExponentNetwork> sExponentNetworkProvider;
 
-  public static void setExponentNetwork(ExponentNetwork exponentNetwork) {
-    sExponentNetwork = exponentNetwork;
+  public static void setExponentNetworkProvider(Provider<ExponentNetwork> exponentNetworkProvider) {
+    sExponentNetworkProvider = exponentNetworkProvider;
   }
 
   @DoNotStrip
@@ -125,7 +126,7 @@ public class ReactNativeStaticHelpers {
         .readTimeout(0, TimeUnit.MILLISECONDS)
         .writeTimeout(0, TimeUnit.MILLISECONDS)
         .cookieJar((CookieJar) cookieJar)
-        .cache(sExponentNetwork.getCache());
+        .cache(sExponentNetworkProvider.get().getCache());
 
     return client.build();
   }
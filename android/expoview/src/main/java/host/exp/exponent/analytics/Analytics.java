@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import host.exp.exponent.Constants;
+import host.exp.exponent.RNObject;
 import host.exp.exponent.generated.ExponentKeys;
 import host.exp.expoview.ExpoViewBuildConfig;
 
@@ -38,6 +39,7 @@ public class Analytics {
 
   public enum TimedEvent {
     LAUNCHER_ACTIVITY_STARTED,
+    STARTED_OPENING_EXPERIENCE,
     STARTED_FETCHING_MANIFEST,
     STARTED_MANIFEST_NETWORK_REQUEST,
     FINISHED_MANIFEST_NETWORK_REQUEST,
@@ -134,14 +136,18 @@ public class Analytics {
     }
 
     try {
-      Long totalDuration = getDuration(TimedEvent.FINISHED_LOADING_REACT_NATIVE, TimedEvent.LAUNCHER_ACTIVITY_STARTED);
+      // Experiences opened after the app launched are measured from when they were opened.
+      TimedEvent startEvent = sShellTimedEvents.containsKey(TimedEvent.LAUNCHER_ACTIVITY_STARTED) ?
+        TimedEvent.LAUNCHER_ACTIVITY_STARTED : TimedEvent.STARTED_OPENING_EXPERIENCE;
+      Long totalDuration = getDuration(TimedEvent.FINISHED_LOADING_REACT_NATIVE, startEvent);
       if (totalDuration == null || totalDuration > MAX_DURATION) {
-        sShellTimedEvents.clear();
+        clearTimedEvents();
         return;
       }
 
       JSONObject eventProperties = new JSONObject();
       addDuration(eventProperties, "TOTAL_DURATION", TimedEvent.FINISHED_LOADING_REACT_NATIVE, TimedEvent.LAUNCHER_ACTIVITY_STARTED);
+      addDuration(eventProperties, "OPEN_TO_FIRST_FRAME_DURATION", TimedEvent.FINISHED_LOADING_REACT_NATIVE, TimedEvent.STARTED_OPENING_EXPERIENCE);
       addDuration(eventProperties, "LAUNCH_TO_MANIFEST_START_DURATION", TimedEvent.STARTED_FETCHING_MANIFEST, TimedEvent.LAUNCHER_ACTIVITY_STARTED);
       addDuration(eventProperties, "MANIFEST_TOTAL_DURATION", TimedEvent.FINISHED_FETCHING_MANIFEST, TimedEvent.STARTED_FETCHING_MANIFEST);
       addDuration(eventProperties, "MANIFEST_NETWORK_DURATION", TimedEvent.FINISHED_MANIFEST_NETWORK_REQUEST, TimedEvent.STARTED_MANIFEST_NETWORK_REQUEST);
@@ -149,6 +155,12 @@ public class Analytics {
       addDuration(eventProperties, "BUNDLE_WRITE_DURATION", TimedEvent.FINISHED_WRITING_BUNDLE, TimedEvent.STARTED_WRITING_BUNDLE);
       addDuration(eventProperties, "REACT_NATIVE_DURATION", TimedEvent.FINISHED_LOADING_REACT_NATIVE, TimedEvent.STARTED_LOADING_REACT_NATIVE);
 
+      // Reflection into the versioned React Native classes while loading the experience.
+      Map<String, Long> reflectionCounters = RNObject.getLookupCounters();
+      eventProperties.put("REFLECTION_LOOKUP_COUNT", reflectionCounters.get("lookupCount"));
+      eventProperties.put("REFLECTION_LOOKUP_CACHE_MISS_COUNT", reflectionCounters.get("lookupCacheMissCount"));
+      eventProperties.put("REFLECTION_LOOKUP_DURATION", reflectionCounters.get("lookupNanos") / 1000000.0);
+
       eventProperties.put("MANIFEST_URL", manifestUrl);
 
       boolean isShell = manifestUrl.equals(Constants.INITIAL_URL);
@@ -156,12 +168,13 @@ public class Analytics {
     } catch (Exception e) {
       EXL.e(TAG, e.getMessage());
     } finally {
-      sShellTimedEvents.clear();
+      clearTimedEvents();
     }
   }
 
   public static void clearTimedEvents() {
     sShellTimedEvents.clear();
+    RNObject.resetLookupCounters();
   }
 
   private static Long getDuration(TimedEvent end, TimedEvent start) {
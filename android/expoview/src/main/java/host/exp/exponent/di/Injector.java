@@ -0,0 +1,11 @@
+// Copyright 2015-present 650 Industries. All rights reserved.
+
+package host.exp.exponent.di;
+
+/**
+ * Sets the {@link javax.inject.Inject} fields declared by {@code T}. Implementations named
+ * {@code <T>$$Injector} are generated at compile time, see {@link NativeModuleDepsProvider#inject}.
+ */
+public interface Injector<T> {
+  void inject(T target, NativeModuleDepsProvider provider);
+}
@@ -7,13 +7,14 @@ import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 
-import com.facebook.proguard.annotations.DoNotStrip;
-
 import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 
 import expo.modules.updates.db.DatabaseHolder;
 import expo.modules.updates.db.UpdatesDatabase;
@@ -29,69 +30,35 @@ import host.exp.exponent.storage.ExponentSharedPreferences;
 public class NativeModuleDepsProvider {
 
   private static final String TAG = NativeModuleDepsProvider.class.getSimpleName();
+  private static final String INJECTOR_SUFFIX = "$$Injector";
 
-  @Inject
-  @DoNotStrip
-  Context mContext;
-
-  @Inject
-  @DoNotStrip
-  Application mApplicationContext;
-
-  @Inject
-  @DoNotStrip
-  ExpoHandler mExpoHandler;
-
-  @Inject
-  @DoNotStrip
-  ExponentSharedPreferences mExponentSharedPreferences;
-
-  @Inject
-  @DoNotStrip
-  ExponentNetwork mExponentNetwork;
-
-  @Inject
-  @DoNotStrip
-  Crypto mCrypto;
-
-  @Inject
-  @DoNotStrip
-  ExponentManifest mExponentManifest;
-
-  @Inject
-  @DoNotStrip
-  ExpoKernelServiceRegistry mKernelServiceRegistry;
-
-  @Inject
-  @DoNotStrip
-  DevMenuManager mDevMenuManager;
-
-  @Inject
-  @DoNotStrip
-  DatabaseHolder mUpdatesDatabaseHolder;
-
-  private Map<Class, Object> mClassesToInjectedObjects = new HashMap<>();
-
-  public NativeModuleDepsProvider(Application application) {
-    mContext = application;
-    mApplicationContext = application;
-    mExpoHandler = new ExpoHandler(new Handler(Looper.getMainLooper()));
-    mExponentSharedPreferences = new ExponentSharedPreferences(mContext);
-    mExponentNetwork = new ExponentNetwork(mContext, mExponentSharedPreferences);
-    mKernelServiceRegistry = new ExpoKernelServiceRegistry(mContext, mExponentSharedPreferences);
-    mCrypto = new Crypto(mExponentNetwork);
-    mExponentManifest = new ExponentManifest(mContext, mExponentNetwork, mCrypto, mExponentSharedPreferences);
-    mUpdatesDatabaseHolder = new DatabaseHolder(UpdatesDatabase.getInstance(mContext));
-
-    for (Field field : NativeModuleDepsProvider.class.getDeclaredFields()) {
-      if (field.isAnnotationPresent(Inject.class)) {
-        try {
-          mClassesToInjectedObjects.put(field.getType(), field.get(this));
-        } catch (IllegalAccessException e) {
-          EXL.e(TAG, e.toString());
-        }
-      }
+  // Marks classes without a generated injector, ConcurrentHashMap doesn't allow null values.
+  private static final Injector NO_INJECTOR = new Injector() {
+    @Override
+    public void inject(Object target, NativeModuleDepsProvider provider) {
     }
+  };
+
+  private static final Map<Class, Injector> sInjectors = new ConcurrentHashMap<>();
+
+  private final Map<Class, Provider<?>> mProviders = new ConcurrentHashMap<>();
+
+  /**
+   * Dependencies are only created when first injected, so that eg. the updates database
+   * or the HTTP caches aren't set up before they're needed.
+   */
+  public NativeModuleDepsProvider(final Application application) {
+    add(Context.class, application);
+    add(Application.class, application);
+    addLazy(ExpoHandler.class, () -> new ExpoHandler(new Handler(Looper.getMainLooper())));
+    addLazy(ExponentSharedPreferences.class, () -> new ExponentSharedPreferences(application));
+    addLazy(ExponentNetwork.class, () -> new ExponentNetwork(application, get(ExponentSharedPreferences.class)));
+    addLazy(ExpoKernelServiceRegistry.class, () -> new ExpoKernelServiceRegistry(application, get(ExponentSharedPreferences.class)));
+    addLazy(Crypto.class, () -> new Crypto(get(ExponentNetwork.class)));
+    addLazy(ExponentManifest.class, () -> new ExponentManifest(application, get(ExponentNetwork.class), get(Crypto.class), get(ExponentSharedPreferences.class)));
+    addLazy(DatabaseHolder.class, () -> new DatabaseHolder(UpdatesDatabase.getInstance(application)));
+    // Added by ExpoApplication
+    add(DevMenuManager.class, null);
   }
 
   private static NativeModuleDepsProvider sInstance = null;
@@ -114,23 +81,82 @@ public class NativeModuleDepsProvider {
   }
 
   public void add(final Class clazz, final Object object) {
-    mClassesToInjectedObjects.put(clazz, object);
+    mProviders.put(clazz, new InstanceProvider<>(object));
+  }
+
+  private <T> void addLazy(final Class<T> clazz, final Provider<T> provider) {
+    mProviders.put(clazz, new LazyProvider<>(provider));
   }
 
+  /**
+   * Returns the dependency registered for given class, creating it if it hasn't been used yet.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Class<T> clazz) {
+    Provider<?> provider = mProviders.get(clazz);
+    if (provider == null) {
+      throw new RuntimeException("NativeModuleDepsProvider could not find object for class " + clazz.toString());
+    }
+    return (T) provider.get();
+  }
+
+  /**
+   * Returns a provider resolving the dependency registered for given class on each {@link Provider#get()}.
+   * Injected {@code Provider<T>} fields use this to put off creating a dependency until it's used.
+   */
+  public <T> Provider<T> getProvider(final Class<T> clazz) {
+    return () -> get(clazz);
+  }
+
+  /**
+   * Sets fields of {@code object} declared in {@code clazz} and annotated with {@link Inject}.
+   * Fields of type {@code Provider<T>} get a provider for {@code T} instead of the instance.
+   * Uses the injector generated for {@code clazz} if there is one (there is none eg. for Kotlin
+   * classes) and falls back to reflection otherwise.
+   */
+  @SuppressWarnings("unchecked")
   public void inject(Class clazz, Object object) {
+    Injector injector = getInjector(clazz);
+    if (injector != NO_INJECTOR) {
+      injector.inject(object, this);
+      return;
+    }
+
     for (Field field : clazz.getDeclaredFields()) {
       injectField(object, field);
     }
   }
 
+  private static Injector getInjector(Class clazz) {
+    Injector injector = sInjectors.get(clazz);
+    if (injector != null) {
+      return injector;
+    }
+
+    try {
+      injector = (Injector) Class.forName(clazz.getName() + INJECTOR_SUFFIX).newInstance();
+    } catch (ClassNotFoundException e) {
+      injector = NO_INJECTOR;
+    } catch (InstantiationException | IllegalAccessException e) {
+      EXL.e(TAG, e.toString());
+      injector = NO_INJECTOR;
+    }
+    sInjectors.put(clazz, injector);
+    return injector;
+  }
+
   private void injectField(Object object, Field field) {
     if (field.isAnnotationPresent(Inject.class)) {
-      Class fieldClazz = field.getType();
-      if (!mClassesToInjectedObjects.containsKey(fieldClazz)) {
-        throw new RuntimeException("NativeModuleDepsProvider could not find object for class " + fieldClazz.toString());
+      Object fieldObject;
+      if (field.getType() == Provider.class) {
+        Type providedType = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+        if (providedType instanceof ParameterizedType) {
+          providedType = ((ParameterizedType) providedType).getRawType();
+        }
+        fieldObject = getProvider((Class) providedType);
+      } else {
+        fieldObject = get(field.getType());
       }
-
-      Object fieldObject = mClassesToInjectedObjects.get(fieldClazz);
       try {
         field.setAccessible(true);
         field.set(object, fieldObject);
@@ -139,4 +165,42 @@ public class NativeModuleDepsProvider {
       }
     }
   }
+
+  private static class InstanceProvider<T> implements Provider<T> {
+    private final T mInstance;
+
+    InstanceProvider(T instance) {
+      mInstance = instance;
+    }
+
+    @Override
+    public T get() {
+      return mInstance;
+    }
+  }
+
+  private static class LazyProvider<T> implements Provider<T> {
+    private Provider<T> mFactory;
+    private volatile T mInstance;
+
+    LazyProvider(Provider<T> factory) {
+      mFactory = factory;
+    }
+
+    @Override
+    public T get() {
+      T instance = mInstance;
+      if (instance == null) {
+        synchronized (this) {
+          instance = mInstance;
+          if (instance == null) {
+            instance = mFactory.get();
+            mInstance = instance;
+            mFactory = null;
+          }
+        }
+      }
+      return instance;
+    }
+  }
 }
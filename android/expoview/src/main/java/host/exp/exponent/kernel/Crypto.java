@@ -3,22 +3,25 @@
 package host.exp.exponent.kernel;
 
 import android.annotation.SuppressLint;
+import android.os.SystemClock;
 import android.security.keystore.KeyProperties;
 import android.util.Base64;
+import android.util.LruCache;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
 
-import javax.crypto.BadPaddingException;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -40,15 +43,74 @@ public class Crypto {
     void onCompleted(boolean isValid);
   }
 
+  // How long parsed public keys and successful verifications are trusted without going
+  // through the HTTP cache again. Keys are still re-fetched right away if verification fails.
+  private static final long CACHE_TTL_MS = 60 * 60 * 1000;
+  private static final int VERIFIED_SIGNATURES_CACHE_SIZE = 32;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private static class CachedPublicKey {
+    final PublicKey key;
+    final long parsedAt;
+
+    CachedPublicKey(PublicKey key, long parsedAt) {
+      this.key = key;
+      this.parsedAt = parsedAt;
+    }
+  }
+
   ExponentNetwork mExponentNetwork;
 
+  // public key url => parsed key
+  private final Map<String, CachedPublicKey> mPublicKeys = new HashMap<>();
+  // public key url + manifest digest + signature => time of successful verification
+  private final LruCache<String, Long> mVerifiedSignatures = new LruCache<>(VERIFIED_SIGNATURES_CACHE_SIZE);
+
   @Inject
   public Crypto(ExponentNetwork exponentNetwork) {
     mExponentNetwork = exponentNetwork;
   }
 
   public void verifyPublicRSASignature(final String publicKeyUrl, final String plainText, final String cipherText, final RSASignatureListener listener) {
-    fetchPublicKeyAndVerifyPublicRSASignature(true, publicKeyUrl, plainText, cipherText, listener);
+    final String verificationKey = getVerificationKey(publicKeyUrl, plainText, cipherText);
+    if (verificationKey != null) {
+      Long verifiedAt = mVerifiedSignatures.get(verificationKey);
+      if (verifiedAt != null && !isExpired(verifiedAt)) {
+        listener.onCompleted(true);
+        return;
+      }
+    }
+
+    RSASignatureListener cachingListener = new RSASignatureListener() {
+      @Override
+      public void onError(String errorMessage, boolean isNetworkError) {
+        listener.onError(errorMessage, isNetworkError);
+      }
+
+      @Override
+      public void onCompleted(boolean isValid) {
+        if (isValid && verificationKey != null) {
+          mVerifiedSignatures.put(verificationKey, SystemClock.elapsedRealtime());
+        }
+        listener.onCompleted(isValid);
+      }
+    };
+
+    PublicKey cachedKey = getCachedPublicKey(publicKeyUrl);
+    if (cachedKey != null) {
+      try {
+        if (verifyPublicRSASignature(cachedKey, plainText, cipherText)) {
+          cachingListener.onCompleted(true);
+          return;
+        }
+      } catch (Exception e) {
+        // Fall through and fetch the key, as if there was no cached one.
+      }
+      // The key might have been rotated.
+      evictPublicKey(publicKeyUrl);
+    }
+
+    fetchPublicKeyAndVerifyPublicRSASignature(true, publicKeyUrl, plainText, cipherText, cachingListener);
   }
 
   // On first attempt use cache. If verification fails try a second attempt without
@@ -73,21 +135,19 @@ public class Crypto {
         String errorMessage;
 
         try {
-          boolean isValid = verifyPublicRSASignature(response.body().string(), plainText, cipherText);
+          PublicKey key = parsePublicKey(response.body().string());
+          boolean isValid = verifyPublicRSASignature(key, plainText, cipherText);
+          if (isValid) {
+            cachePublicKey(publicKeyUrl, key);
+          }
           listener.onCompleted(isValid);
           return;
-        } catch (NoSuchPaddingException e) {
-          errorMessage = "Error with RSA key.";
         } catch (NoSuchAlgorithmException e) {
           errorMessage = "Error with RSA key.";
         } catch (InvalidKeySpecException e) {
           errorMessage = "Error verifying.";
         } catch (InvalidKeyException e) {
           errorMessage = "Error verifying.";
-        } catch (BadPaddingException e) {
-          errorMessage = "Error verifying.";
-        } catch (IllegalBlockSizeException e) {
-          errorMessage = "Error verifying.";
         } catch (Exception e) {
           errorMessage = "Error verifying.";
         }
@@ -101,25 +161,61 @@ public class Crypto {
     });
   }
 
-  private boolean verifyPublicRSASignature(String publicKey, String plainText, String cipherText) throws NoSuchPaddingException,
-      NoSuchAlgorithmException, InvalidKeySpecException, InvalidKeyException, BadPaddingException, IllegalBlockSizeException, SignatureException {
+  private PublicKey parsePublicKey(String publicKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
     // remove comments
     String publicKeySplit[] = publicKey.split("\\r?\\n");
-    String publicKeyNoComments = "";
+    StringBuilder publicKeyNoComments = new StringBuilder(publicKey.length());
     for (String line : publicKeySplit) {
       if (!line.contains("PUBLIC KEY-----")) {
-        publicKeyNoComments += line + "\n";
+        publicKeyNoComments.append(line).append('\n');
       }
     }
 
-    Signature signature = Signature.getInstance("SHA256withRSA");
-    byte[] decodedPublicKey = Base64.decode(publicKeyNoComments, Base64.DEFAULT);
+    byte[] decodedPublicKey = Base64.decode(publicKeyNoComments.toString(), Base64.DEFAULT);
     X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(decodedPublicKey);
     @SuppressLint("InlinedApi") KeyFactory keyFactory = KeyFactory.getInstance(KeyProperties.KEY_ALGORITHM_RSA);
-    PublicKey key = keyFactory.generatePublic(publicKeySpec);
+    return keyFactory.generatePublic(publicKeySpec);
+  }
 
+  private boolean verifyPublicRSASignature(PublicKey key, String plainText, String cipherText) throws NoSuchAlgorithmException,
+      InvalidKeyException, SignatureException {
+    Signature signature = Signature.getInstance("SHA256withRSA");
     signature.initVerify(key);
     signature.update(plainText.getBytes());
     return signature.verify(Base64.decode(cipherText, Base64.DEFAULT));
   }
+
+  private synchronized PublicKey getCachedPublicKey(String publicKeyUrl) {
+    CachedPublicKey cachedPublicKey = mPublicKeys.get(publicKeyUrl);
+    if (cachedPublicKey == null) {
+      return null;
+    }
+    if (isExpired(cachedPublicKey.parsedAt)) {
+      mPublicKeys.remove(publicKeyUrl);
+      return null;
+    }
+    return cachedPublicKey.key;
+  }
+
+  private synchronized void cachePublicKey(String publicKeyUrl, PublicKey key) {
+    mPublicKeys.put(publicKeyUrl, new CachedPublicKey(key, SystemClock.elapsedRealtime()));
+  }
+
+  private synchronized void evictPublicKey(String publicKeyUrl) {
+    mPublicKeys.remove(publicKeyUrl);
+  }
+
+  private static boolean isExpired(long cachedAt) {
+    return SystemClock.elapsedRealtime() - cachedAt > CACHE_TTL_MS;
+  }
+
+  private static String getVerificationKey(String publicKeyUrl, String plainText, String cipherText) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] plainTextDigest = digest.digest(plainText.getBytes(UTF_8));
+      return publicKeyUrl + "|" + Base64.encodeToString(plainTextDigest, Base64.NO_WRAP) + "|" + cipherText;
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+  }
 }
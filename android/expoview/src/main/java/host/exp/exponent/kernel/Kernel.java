@@ -26,7 +26,6 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.LifecycleState;
-import com.facebook.react.modules.network.ReactCookieJarContainer;
 import com.facebook.react.shell.MainReactPackage;
 import com.facebook.soloader.SoLoader;
 
@@ -39,10 +38,10 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import javax.inject.Provider;
 
 import de.greenrobot.event.EventBus;
 import expo.modules.notifications.notifications.model.NotificationResponse;
@@ -71,12 +70,12 @@ import host.exp.exponent.ExponentManifest;
 import host.exp.expoview.Exponent;
 import host.exp.expoview.ExpoViewBuildConfig;
 import host.exp.exponent.RNObject;
+import host.exp.exponent.analytics.Analytics;
 import host.exp.exponent.analytics.EXL;
 import host.exp.exponent.exceptions.ExceptionUtils;
 import host.exp.exponent.network.ExponentNetwork;
 import host.exp.exponent.storage.ExponentSharedPreferences;
 import host.exp.exponent.utils.AsyncCondition;
-import okhttp3.OkHttpClient;
 import versioned.host.exp.exponent.ExpoTurboPackage;
 import versioned.host.exp.exponent.ExponentPackage;
 import versioned.host.exp.exponent.ReactUnthemedRootView;
@@ -137,8 +136,9 @@ public class Kernel extends KernelInterface {
   private boolean mIsRunning = false;
   private boolean mHasError = false;
 
+  // Only needed once the JS kernel starts, so it isn't created while the kernel is constructed.
   @Inject
-  ExponentManifest mExponentManifest;
+  Provider<ExponentManifest> mExponentManifestProvider;
 
   @Inject
   ExponentSharedPreferences mExponentSharedPreferences;
@@ -147,7 +147,7 @@ public class Kernel extends KernelInterface {
   private static final Map<String, ExpoUpdatesAppLoader> mManifestUrlToAppLoader = new HashMap<>();
 
   @Inject
-  ExponentNetwork mExponentNetwork;
+  Provider<ExponentNetwork> mExponentNetworkProvider;
 
   public Kernel() {
     NativeModuleDepsProvider.getInstance().inject(Kernel.class, this);
@@ -158,20 +158,13 @@ public class Kernel extends KernelInterface {
   }
 
   private void updateKernelRNOkHttp() {
-    OkHttpClient.Builder client = new OkHttpClient.Builder()
-        .connectTimeout(0, TimeUnit.MILLISECONDS)
-        .readTimeout(0, TimeUnit.MILLISECONDS)
-        .writeTimeout(0, TimeUnit.MILLISECONDS)
-        .cookieJar(new ReactCookieJarContainer())
-        .cache(mExponentNetwork.getCache());
-
     if (BuildConfig.DEBUG) {
       // FIXME: 8/9/17
       // broke with lib versioning
       // clientBuilder.addNetworkInterceptor(new StethoInterceptor());
     }
 
-    ReactNativeStaticHelpers.setExponentNetwork(mExponentNetwork);
+    ReactNativeStaticHelpers.setExponentNetworkProvider(mExponentNetworkProvider);
   }
 
   @Nullable
@@ -219,7 +212,7 @@ public class Kernel extends KernelInterface {
       try {
         // Make sure we can get the manifest successfully. This can fail in dev mode
         // if the kernel packager is not running.
-        mExponentManifest.getKernelManifest();
+        mExponentManifestProvider.get().getKernelManifest();
       } catch (Throwable e) {
         Exponent.getInstance().runOnUiThread(new Runnable() {
           @Override
@@ -299,12 +292,12 @@ public class Kernel extends KernelInterface {
               .setCurrentActivity(getActivityContext())
               .setJSBundleFile(localBundlePath)
               .addPackage(new MainReactPackage())
-              .addPackage(ExponentPackage.kernelExponentPackage(mContext, mExponentManifest.getKernelManifest(), HomeActivity.homeExpoPackages(), initialURL))
-              .addPackage(ExpoTurboPackage.kernelExpoTurboPackage(mExponentManifest.getKernelManifest(), initialURL))
+              .addPackage(ExponentPackage.kernelExponentPackage(mContext, mExponentManifestProvider.get().getKernelManifest(), HomeActivity.homeExpoPackages(), initialURL))
+              .addPackage(ExpoTurboPackage.kernelExpoTurboPackage(mExponentManifestProvider.get().getKernelManifest(), initialURL))
               .setJSIModulesPackage((reactApplicationContext, jsContext) -> new ReanimatedJSIModulePackage().getJSIModules(reactApplicationContext, jsContext))
               .setInitialLifecycleState(LifecycleState.RESUMED);
 
-            if (!KernelConfig.FORCE_NO_KERNEL_DEBUG_MODE && mExponentManifest.getKernelManifest().isDevelopmentMode()) {
+            if (!KernelConfig.FORCE_NO_KERNEL_DEBUG_MODE && mExponentManifestProvider.get().getKernelManifest().isDevelopmentMode()) {
               Exponent.enableDeveloperSupport("UNVERSIONED", getKernelDebuggerHost(),
                   getKernelMainModuleName(), RNObject.wrap(builder));
             }
@@ -338,16 +331,16 @@ public class Kernel extends KernelInterface {
   }
 
   private String getKernelDebuggerHost() {
-    return mExponentManifest.getKernelManifest().getDebuggerHost();
+    return mExponentManifestProvider.get().getKernelManifest().getDebuggerHost();
   }
 
   private String getKernelMainModuleName() {
-    return mExponentManifest.getKernelManifest().getMainModuleName();
+    return mExponentManifestProvider.get().getKernelManifest().getMainModuleName();
   }
 
   private String getBundleUrl() {
     try {
-      return mExponentManifest.getKernelManifest().getBundleURL();
+      return mExponentManifestProvider.get().getKernelManifest().getBundleURL();
     } catch (JSONException e) {
       KernelProvider.getInstance().handleError(e);
       return null;
@@ -356,7 +349,7 @@ public class Kernel extends KernelInterface {
 
   private String getKernelRevisionId() {
     try {
-      return mExponentManifest.getKernelManifest().getRevisionId();
+      return mExponentManifestProvider.get().getKernelManifest().getRevisionId();
     } catch (JSONException e) {
       KernelProvider.getInstance().handleError(e);
       return null;
@@ -593,6 +586,7 @@ public class Kernel extends KernelInterface {
   }
 
   public void openExperience(final KernelConstants.ExperienceOptions options) {
+    Analytics.markEvent(Analytics.TimedEvent.STARTED_OPENING_EXPERIENCE);
     openManifestUrl(getManifestUrlFromFullUri(options.manifestUri), options, true);
   }
 
@@ -46,6 +46,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Pattern;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 
 import expo.modules.updates.manifest.raw.RawManifest;
 import host.exp.exponent.ActivityResultListener;
@@ -101,8 +102,9 @@ public class Exponent {
   @Inject
   ExponentNetwork mExponentNetwork;
 
+  // Only needed to preload experiences, so it isn't created on startup.
   @Inject
-  ExponentManifest mExponentManifest;
+  Provider<ExponentManifest> mExponentManifestProvider;
 
   @Inject
   ExponentSharedPreferences mExponentSharedPreferences;
@@ -581,7 +583,7 @@ public class Exponent {
 
   public void preloadManifestAndBundle(final String manifestUrl) {
     try {
-      mExponentManifest.fetchManifest(manifestUrl, new ExponentManifest.ManifestListener() {
+      mExponentManifestProvider.get().fetchManifest(manifestUrl, new ExponentManifest.ManifestListener() {
         @Override
         public void onCompleted(RawManifest manifest) {
           try {
@@ -0,0 +1,59 @@
+package versioned.host.exp.exponent.modules.api.components.svg;
+
+import android.graphics.Path;
+
+import java.util.ArrayList;
+
+/**
+ * Result of parsing the `d` attribute of a path: the scaled {@link Path} plus the unscaled segment
+ * points that markers are positioned from. Instances are shared through the {@link PathParser}
+ * cache and never modified, so callers that need a mutable path use {@link #copyPath()}.
+ */
+final class ParsedPath {
+    private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+
+    private final Path mPath;
+    private final float mScale;
+    private final byte[] mTypes;
+    private final float[] mPoints;
+
+    ParsedPath(Path path, float scale, byte[] types, float[] points) {
+        mPath = path;
+        mScale = scale;
+        mTypes = types;
+        mPoints = points;
+    }
+
+    float getScale() {
+        return mScale;
+    }
+
+    int getElementCount() {
+        return mTypes.length;
+    }
+
+    Path copyPath() {
+        Path copy = new Path();
+        copy.set(mPath);
+        return copy;
+    }
+
+    /**
+     * Builds the {@link PathElement} list used by {@link RNSVGMarkerPosition}. Only needed when the
+     * path has markers, so it is not materialised while parsing.
+     */
+    ArrayList<PathElement> toElements() {
+        ArrayList<PathElement> elements = new ArrayList<>(mTypes.length);
+        int p = 0;
+        for (byte t : mTypes) {
+            ElementType type = ELEMENT_TYPES[t];
+            Point[] points = new Point[type == ElementType.kCGPathElementAddCurveToPoint ? 3 : 1];
+            for (int j = 0; j < points.length; j++) {
+                points[j] = new Point(mPoints[p], mPoints[p + 1]);
+                p += 2;
+            }
+            elements.add(new PathElement(type, points));
+        }
+        return elements;
+    }
+}
@@ -3,7 +3,9 @@ package versioned.host.exp.exponent.modules.api.components.svg;
 import android.graphics.Path;
 import android.graphics.RectF;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 class PathElement {
     ElementType type;
@@ -15,27 +17,94 @@ class PathElement {
 }
 
 class PathParser {
-    static float mScale;
-
-    private static int i;
-    private static int l;
-    private static String s;
-    private static Path mPath;
-    static ArrayList<PathElement> elements;
-
-    private static float mPenX;
-    private static float mPenY;
-    private static float mPivotX;
-    private static float mPivotY;
-    private static float mPenDownX;
-    private static float mPenDownY;
-    private static boolean mPenDown;
-
-    static Path parse(String d) {
-        elements = new ArrayList<>();
+    private static final int CACHE_SIZE = 256;
+    private static final long MAX_MANTISSA = 100000000000000000L;
+    private static final int MAX_EXPONENT = 10000;
+
+    // Icons are usually rendered many times with the same `d` attribute, so parsed paths are kept
+    // in a small LRU cache. Entries are immutable; callers get copies of the cached path.
+    private static final Map<String, ParsedPath> sCache =
+            new LinkedHashMap<String, ParsedPath>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedPath> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    private static final ThreadLocal<PathParser> sParsers = new ThreadLocal<>();
+
+    private final float mScale;
+    private final RectF mOval = new RectF();
+
+    private int i;
+    private int l;
+    private String s;
+    private Path mPath;
+
+    private byte[] mTypes = new byte[16];
+    private float[] mPoints = new float[64];
+    private int mElementCount;
+    private int mPointCount;
+
+    private float mPenX;
+    private float mPenY;
+    private float mPivotX;
+    private float mPivotY;
+    private float mPenDownX;
+    private float mPenDownY;
+    private boolean mPenDown;
+
+    PathParser(float scale) {
+        mScale = scale;
+    }
+
+    /**
+     * Returns the parsed representation of {@code d} scaled by {@code scale}, from the cache when
+     * possible. Safe to call from any thread.
+     */
+    static ParsedPath parse(String d, float scale) {
+        if (d == null) {
+            return getParser(scale).parse(null);
+        }
+        ParsedPath parsed;
+        synchronized (sCache) {
+            parsed = sCache.get(d);
+        }
+        if (parsed != null && parsed.getScale() == scale) {
+            return parsed;
+        }
+        parsed = getParser(scale).parse(d);
+        synchronized (sCache) {
+            sCache.put(d, parsed);
+        }
+        return parsed;
+    }
+
+    static void clearCache() {
+        synchronized (sCache) {
+            sCache.clear();
+        }
+    }
+
+    private static PathParser getParser(float scale) {
+        PathParser parser = sParsers.get();
+        if (parser == null || parser.mScale != scale) {
+            parser = new PathParser(scale);
+            sParsers.set(parser);
+        }
+        return parser;
+    }
+
+    /**
+     * Parses {@code d} into a new {@link ParsedPath}. A parser instance keeps its segment buffers
+     * between calls, but must not be used from several threads at once.
+     */
+    ParsedPath parse(String d) {
         mPath = new Path();
-        if(d == null){
-            return mPath;
+        mElementCount = 0;
+        mPointCount = 0;
+        if (d == null) {
+            return build();
         }
         char prev_cmd = ' ';
         l = d.length();
@@ -62,7 +131,7 @@ class PathParser {
 
             if (!has_prev_cmd && first_char != 'M' && first_char != 'm') {
                 // The first segment must be a MoveTo.
-                throw new Error(String.format("Unexpected character '%c' (i=%d, s=%s)", first_char, i, s));
+                throw new Error("Unexpected character '" + first_char + "' (i=" + i + ", s=" + s + ")");
             }
 
             // TODO: simplify
@@ -75,7 +144,7 @@ class PathParser {
             } else if (is_number_start(first_char) && has_prev_cmd) {
                 if (prev_cmd == 'Z' || prev_cmd == 'z') {
                     // ClosePath cannot be followed by a number.
-                    throw new Error(String.format("Unexpected number after 'z' (s=%s)", s));
+                    throw new Error("Unexpected number after 'z' (s=" + s + ")");
                 }
 
                 if (prev_cmd == 'M' || prev_cmd == 'm') {
@@ -93,7 +162,7 @@ class PathParser {
                     cmd = prev_cmd;
                 }
             } else {
-                throw new Error(String.format("Unexpected character '%c' (i=%d, s=%s)", first_char, i, s));
+                throw new Error("Unexpected character '" + first_char + "' (i=" + i + ", s=" + s + ")");
             }
 
             boolean absolute = is_absolute(cmd);
@@ -176,7 +245,7 @@ class PathParser {
                     break;
                 }
                 default: {
-                    throw new Error(String.format("Unexpected comand '%c' (s=%s)", cmd, s));
+                    throw new Error("Unexpected comand '" + cmd + "' (s=" + s + ")");
                 }
             }
 
@@ -193,58 +262,69 @@ class PathParser {
 
         }
 
-        return mPath;
+        return build();
+    }
+
+    private ParsedPath build() {
+        ParsedPath parsed = new ParsedPath(
+                mPath,
+                mScale,
+                Arrays.copyOf(mTypes, mElementCount),
+                Arrays.copyOf(mPoints, mPointCount));
+        mPath = null;
+        s = null;
+        return parsed;
     }
 
-    private static void move(float x, float y) {
+    private void move(float x, float y) {
         moveTo(x + mPenX, y + mPenY);
     }
 
-    private static void moveTo(float x, float y) {
+    private void moveTo(float x, float y) {
         //FLog.w(ReactConstants.TAG, "move x: " + x + " y: " + y);
         mPenDownX = mPivotX = mPenX = x;
         mPenDownY = mPivotY = mPenY = y;
         mPath.moveTo(x * mScale, y * mScale);
-        elements.add(new PathElement(ElementType.kCGPathElementMoveToPoint, new Point[]{new Point(x,y)}));
+        addElement(ElementType.kCGPathElementMoveToPoint, x, y);
     }
 
-    private static void line(float x, float y) {
+    private void line(float x, float y) {
         lineTo(x + mPenX, y + mPenY);
     }
 
-    private static void lineTo(float x, float y) {
+    private void lineTo(float x, float y) {
         //FLog.w(ReactConstants.TAG, "line x: " + x + " y: " + y);
         setPenDown();
         mPivotX = mPenX = x;
         mPivotY = mPenY = y;
         mPath.lineTo(x * mScale, y * mScale);
-        elements.add(new PathElement(ElementType.kCGPathElementAddLineToPoint, new Point[]{new Point(x,y)}));
+        addElement(ElementType.kCGPathElementAddLineToPoint, x, y);
     }
 
-    private static void curve(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+    private void curve(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
         curveTo(c1x + mPenX, c1y + mPenY, c2x + mPenX, c2y + mPenY, ex + mPenX, ey + mPenY);
     }
 
-    private static void curveTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+    private void curveTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
         //FLog.w(ReactConstants.TAG, "curve c1x: " + c1x + " c1y: " + c1y + "ex: " + ex + " ey: " + ey);
         mPivotX = c2x;
         mPivotY = c2y;
         cubicTo(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void cubicTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+    private void cubicTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
         setPenDown();
         mPenX = ex;
         mPenY = ey;
         mPath.cubicTo(c1x * mScale, c1y * mScale, c2x * mScale, c2y * mScale, ex * mScale, ey * mScale);
-        elements.add(new PathElement(ElementType.kCGPathElementAddCurveToPoint, new Point[]{new Point(c1x, c1y), new Point(c2x, c2y), new Point(ex, ey)}));
+        addElement(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void smoothCurve(float c1x, float c1y, float ex, float ey) {
+    private void smoothCurve(float c1x, float c1y, float ex, float ey) {
         smoothCurveTo(c1x + mPenX, c1y + mPenY, ex + mPenX, ey + mPenY);
     }
 
-    private static void smoothCurveTo(float c1x, float c1y, float ex, float ey) {
+    private void smoothCurveTo(float c1x, float c1y, float ex, float ey) {
         //FLog.w(ReactConstants.TAG, "smoothcurve c1x: " + c1x + " c1y: " + c1y + "ex: " + ex + " ey: " + ey);
         float c2x = c1x;
         float c2y = c1y;
@@ -255,11 +335,11 @@ class PathParser {
         cubicTo(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void quadraticBezierCurve(float c1x, float c1y, float c2x, float c2y) {
+    private void quadraticBezierCurve(float c1x, float c1y, float c2x, float c2y) {
         quadraticBezierCurveTo(c1x + mPenX, c1y + mPenY, c2x + mPenX, c2y + mPenY);
     }
 
-    private static void quadraticBezierCurveTo(float c1x, float c1y, float c2x, float c2y) {
+    private void quadraticBezierCurveTo(float c1x, float c1y, float c2x, float c2y) {
         //FLog.w(ReactConstants.TAG, "quad c1x: " + c1x + " c1y: " + c1y + "c2x: " + c2x + " c2y: " + c2y);
         mPivotX = c1x;
         mPivotY = c1y;
@@ -272,11 +352,11 @@ class PathParser {
         cubicTo(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void smoothQuadraticBezierCurve(float c1x, float c1y) {
+    private void smoothQuadraticBezierCurve(float c1x, float c1y) {
         smoothQuadraticBezierCurveTo(c1x + mPenX, c1y + mPenY);
     }
 
-    private static void smoothQuadraticBezierCurveTo(float c1x, float c1y) {
+    private void smoothQuadraticBezierCurveTo(float c1x, float c1y) {
         //FLog.w(ReactConstants.TAG, "smoothquad c1x: " + c1x + " c1y: " + c1y);
         float c2x = c1x;
         float c2y = c1y;
@@ -285,11 +365,11 @@ class PathParser {
         quadraticBezierCurveTo(c1x, c1y, c2x, c2y);
     }
 
-    private static void arc(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
+    private void arc(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
         arcTo(rx, ry, rotation, outer, clockwise, x + mPenX, y + mPenY);
     }
 
-    private static void arcTo(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
+    private void arcTo(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
         //FLog.w(ReactConstants.TAG, "arc rx: " + rx + " ry: " + ry + " rotation: " + rotation + " outer: " + outer + " clockwise: " + clockwise + " x: " + x + " y: " + y);
         float tX = mPenX;
         float tY = mPenY;
@@ -376,28 +456,30 @@ class PathParser {
                 sweep = -sweep;
             }
 
-            RectF oval = new RectF(
+            mOval.set(
                     (cx - rx) * mScale,
                     (cy - rx) * mScale,
                     (cx + rx) * mScale,
                     (cy + rx) * mScale);
 
-            mPath.arcTo(oval, start, sweep);
-            elements.add(new PathElement(ElementType.kCGPathElementAddCurveToPoint, new Point[]{new Point(x, y)}));
+            mPath.arcTo(mOval, start, sweep);
+            // Recorded as a line to the end point: markers only need the end position and the
+            // tangents, and a curve element needs all three of its control points.
+            addElement(ElementType.kCGPathElementAddLineToPoint, x, y);
         }
     }
 
-    private static void close() {
+    private void close() {
         if (mPenDown) {
             mPenX = mPenDownX;
             mPenY = mPenDownY;
             mPenDown = false;
             mPath.close();
-            elements.add(new PathElement(ElementType.kCGPathElementCloseSubpath, new Point[]{new Point(mPenX, mPenY)}));
+            addElement(ElementType.kCGPathElementCloseSubpath, mPenX, mPenY);
         }
     }
 
-    private static void arcToBezier(float cx, float cy, float rx, float ry, float sa, float ea, boolean clockwise, float rad) {
+    private void arcToBezier(float cx, float cy, float rx, float ry, float sa, float ea, boolean clockwise, float rad) {
         // Inverse Rotation + Scale Transform
         float cos = (float) Math.cos(rad);
         float sin = (float) Math.sin(rad);
@@ -441,11 +523,38 @@ class PathParser {
             float ey = (cy + xy * x + yy * y);
 
             mPath.cubicTo(c1x * mScale, c1y * mScale, c2x * mScale, c2y * mScale, ex * mScale, ey * mScale);
-            elements.add(new PathElement(ElementType.kCGPathElementAddCurveToPoint, new Point[]{new Point(c1x, c1y), new Point(c2x, c2y), new Point(ex, ey)}));
+            addElement(c1x, c1y, c2x, c2y, ex, ey);
         }
     }
 
-    private static void setPenDown() {
+    private void addElement(ElementType type, float x, float y) {
+        ensureCapacity(2);
+        mTypes[mElementCount++] = (byte) type.ordinal();
+        mPoints[mPointCount++] = x;
+        mPoints[mPointCount++] = y;
+    }
+
+    private void addElement(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+        ensureCapacity(6);
+        mTypes[mElementCount++] = (byte) ElementType.kCGPathElementAddCurveToPoint.ordinal();
+        mPoints[mPointCount++] = c1x;
+        mPoints[mPointCount++] = c1y;
+        mPoints[mPointCount++] = c2x;
+        mPoints[mPointCount++] = c2y;
+        mPoints[mPointCount++] = ex;
+        mPoints[mPointCount++] = ey;
+    }
+
+    private void ensureCapacity(int points) {
+        if (mElementCount == mTypes.length) {
+            mTypes = Arrays.copyOf(mTypes, mTypes.length * 2);
+        }
+        if (mPointCount + points > mPoints.length) {
+            mPoints = Arrays.copyOf(mPoints, Math.max(mPoints.length * 2, mPointCount + points));
+        }
+    }
+
+    private void setPenDown() {
         if (!mPenDown) {
             mPenDownX = mPenX;
             mPenDownY = mPenY;
@@ -458,7 +567,7 @@ class PathParser {
         return Math.round(val * multiplier) / multiplier;
     }
 
-    private static void skip_spaces() {
+    private void skip_spaces() {
         while (i < l && Character.isWhitespace(s.charAt(i))) i++;
     }
 
@@ -499,7 +608,7 @@ class PathParser {
 
     // By the SVG spec 'large-arc' and 'sweep' must contain only one char
     // and can be written without any separators, e.g.: 10 20 30 01 10 20.
-    private static boolean parse_flag() {
+    private boolean parse_flag() {
         skip_spaces();
 
         char c = s.charAt(i);
@@ -514,15 +623,15 @@ class PathParser {
                 break;
             }
             default:
-                throw new Error(String.format("Unexpected flag '%c' (i=%d, s=%s)", c, i, s));
+                throw new Error("Unexpected flag '" + c + "' (i=" + i + ", s=" + s + ")");
         }
 
         return c == '1';
     }
 
-    private static float parse_list_number() {
+    private float parse_list_number() {
         if (i == l) {
-            throw new Error(String.format("Unexpected end (s=%s)", s));
+            throw new Error("Unexpected end (s=" + s + ")");
         }
 
         float n = parse_number();
@@ -532,12 +641,14 @@ class PathParser {
         return n;
     }
 
-    private static float parse_number() {
+    // Numbers are accumulated into a long mantissa and a decimal exponent instead of going through
+    // substring and Float.parseFloat, so parsing does not allocate.
+    private float parse_number() {
         // Strip off leading whitespaces.
         skip_spaces();
 
         if (i == l) {
-            throw new Error(String.format("Unexpected end (s=%s)", s));
+            throw new Error("Unexpected end (s=" + s + ")");
         }
 
         int start = i;
@@ -545,30 +656,52 @@ class PathParser {
         char c = s.charAt(i);
 
         // Consume sign.
+        boolean negative = false;
         if (c == '-' || c == '+') {
+            negative = c == '-';
             i += 1;
+            if (i == l) {
+                throw new Error("Unexpected end (s=" + s + ")");
+            }
             c = s.charAt(i);
         }
 
+        long mantissa = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+
         // Consume integer.
         if (c >= '0' && c <= '9') {
-            skip_digits();
-            if (i < l) {
-                c = s.charAt(i);
+            hasDigits = true;
+            while (i < l && (c = s.charAt(i)) >= '0' && c <= '9') {
+                if (mantissa < MAX_MANTISSA) {
+                    mantissa = mantissa * 10 + (c - '0');
+                } else {
+                    exponent += 1;
+                }
+                i += 1;
             }
         } else if (c != '.') {
-            throw new Error(String.format("Invalid number formating character '%c' (i=%d, s=%s)", c ,i, s));
+            throw new Error("Invalid number formating character '" + c + "' (i=" + i + ", s=" + s + ")");
         }
 
         // Consume fraction.
         if (c == '.') {
             i += 1;
-            skip_digits();
-            if (i < l) {
-                c = s.charAt(i);
+            while (i < l && (c = s.charAt(i)) >= '0' && c <= '9') {
+                hasDigits = true;
+                if (mantissa < MAX_MANTISSA) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    exponent -= 1;
+                }
+                i += 1;
             }
         }
 
+        if (!hasDigits) {
+            throw new Error("Invalid number '" + s.substring(start, i) + "' (start=" + start + ", i=" + i + ", s=" + s + ")");
+        }
+
         if ((c == 'e' || c == 'E') && i + 1 < l) {
             char c2 = s.charAt(i + 1);
             // Check for `em`/`ex`.
@@ -576,35 +709,48 @@ class PathParser {
                 i += 1;
                 c = s.charAt(i);
 
+                boolean negativeExponent = false;
                 if (c == '+' || c == '-') {
+                    negativeExponent = c == '-';
                     i += 1;
-                    skip_digits();
-                } else if (c >= '0' && c <= '9') {
-                    skip_digits();
-                } else {
-                    throw new Error(String.format("Invalid number formating character '%c' (i=%d, s=%s)", c, i, s));
+                } else if (c < '0' || c > '9') {
+                    throw new Error("Invalid number formating character '" + c + "' (i=" + i + ", s=" + s + ")");
+                }
+
+                int exponentStart = i;
+                int e = 0;
+                while (i < l && (c = s.charAt(i)) >= '0' && c <= '9') {
+                    if (e < MAX_EXPONENT) {
+                        e = e * 10 + (c - '0');
+                    }
+                    i += 1;
+                }
+                if (i == exponentStart) {
+                    throw new Error("Invalid number '" + s.substring(start, i) + "' (start=" + start + ", i=" + i + ", s=" + s + ")");
                 }
+                exponent += negativeExponent ? -e : e;
             }
         }
 
-        String num = s.substring(start, i);
-        float n = Float.parseFloat(num);
+        double value = mantissa;
+        if (exponent > 0) {
+            value *= Math.pow(10, exponent);
+        } else if (exponent < 0) {
+            value /= Math.pow(10, -exponent);
+        }
+        float n = (float) (negative ? -value : value);
 
         // inf, nan, etc. are an error.
         if (Float.isInfinite(n) || Float.isNaN(n)) {
-            throw new Error(String.format("Invalid number '%s' (start=%d, i=%d, s=%s)", num, start, i, s));
+            throw new Error("Invalid number '" + s.substring(start, i) + "' (start=" + start + ", i=" + i + ", s=" + s + ")");
         }
 
         return n;
     }
 
-    private static void parse_list_separator() {
+    private void parse_list_separator() {
         if (i < l && s.charAt(i) == ',') {
             i += 1;
         }
     }
-
-    private static void skip_digits() {
-        while (i < l && Character.isDigit(s.charAt(i))) i++;
-    }
 }
@@ -17,23 +17,34 @@ import android.graphics.Path;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
+import java.util.ArrayList;
+
 @SuppressLint("ViewConstructor")
 class PathView extends RenderableView {
     private Path mPath;
+    private ParsedPath mParsedPath;
 
     public PathView(ReactContext reactContext) {
         super(reactContext);
-        PathParser.mScale = mScale;
         mPath = new Path();
     }
 
     @ReactProp(name = "d")
     public void setD(String d) {
-        mPath = PathParser.parse(d);
-        elements = PathParser.elements;
+        mParsedPath = PathParser.parse(d, mScale);
+        mPath = mParsedPath.copyPath();
+        elements = null;
         invalidate();
     }
 
+    @Override
+    ArrayList<PathElement> getMarkerElements() {
+        if (elements == null && mParsedPath != null) {
+            elements = mParsedPath.toElements();
+        }
+        return elements;
+    }
+
     @Override
     Path getPath(Canvas canvas, Paint paint) {
         return mPath;
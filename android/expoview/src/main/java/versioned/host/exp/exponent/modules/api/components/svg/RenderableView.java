@@ -97,6 +97,12 @@ abstract public class RenderableView extends VirtualView {
 
     private static final Pattern regex = Pattern.compile("[0-9.-]+");
 
+    @Nullable RectF mRenderBounds;
+    // Holds mRenderBounds whenever it's set, reused across renders.
+    private final RectF mPaintedBounds = new RectF();
+    private final Matrix mRenderMatrix = new Matrix();
+    private final RectF mStrokeRenderBounds = new RectF();
+
     @Override
     public void setId(int id) {
         super.setId(id);
@@ -385,13 +391,41 @@ abstract public class RenderableView extends VirtualView {
             canvas.drawPath(path, paint);
         }
         renderMarkers(canvas, paint, opacity);
+        updateRenderBounds(canvas, nonScalingStroke);
+    }
+
+    /**
+     * Records the canvas space bounds of everything this element painted, so that {@link SvgView}
+     * can redraw only that area when the element changes. Left null when the painted area can not
+     * be determined cheaply (markers, masks and non-scaling strokes).
+     */
+    private void updateRenderBounds(Canvas canvas, boolean nonScalingStroke) {
+        if (nonScalingStroke || mMask != null || mMarkerStart != null || mMarkerMid != null || mMarkerEnd != null) {
+            mRenderBounds = null;
+            return;
+        }
+        RectF bounds = mPaintedBounds;
+        bounds.set(mBox);
+        if (mStrokePath != null) {
+            mStrokePath.computeBounds(mStrokeRenderBounds, true);
+            bounds.union(mStrokeRenderBounds);
+        }
+        //noinspection deprecation
+        canvas.getMatrix(mRenderMatrix);
+        mRenderMatrix.mapRect(bounds);
+        // Leave room for anti-aliasing.
+        bounds.inset(-1, -1);
+        mRenderBounds = bounds;
     }
 
     void renderMarkers(Canvas canvas, Paint paint, float opacity) {
         MarkerView markerStart = (MarkerView)getSvgView().getDefinedMarker(mMarkerStart);
         MarkerView markerMid = (MarkerView)getSvgView().getDefinedMarker(mMarkerMid);
         MarkerView markerEnd = (MarkerView)getSvgView().getDefinedMarker(mMarkerEnd);
-        if (elements != null && (markerStart != null || markerMid != null  || markerEnd != null)) {
+        ArrayList<PathElement> elements = markerStart != null || markerMid != null || markerEnd != null
+                ? getMarkerElements()
+                : null;
+        if (elements != null) {
             contextElement = this;
             ArrayList<RNSVGMarkerPosition> positions = RNSVGMarkerPosition.fromPath(elements);
             float width = (float)(this.strokeWidth != null ? relativeOnOther(this.strokeWidth) : 1);
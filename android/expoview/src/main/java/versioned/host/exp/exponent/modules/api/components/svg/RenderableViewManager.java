@@ -1263,7 +1263,7 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
     private void invalidateSvgView(VirtualView node) {
         SvgView view = node.getSvgView();
         if (view!= null) {
-            view.invalidate();
+            view.invalidateNode(node);
         }
         if (node instanceof TextView) {
             ((TextView)node).getTextContainer().clearChildCache();
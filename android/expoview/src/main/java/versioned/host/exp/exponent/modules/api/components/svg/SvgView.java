@@ -12,8 +12,10 @@ package versioned.host.exp.exponent.modules.api.components.svg;
 import android.annotation.SuppressLint;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
@@ -32,6 +34,7 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.views.view.ReactViewGroup;
 
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -66,6 +69,13 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     }
 
     private @Nullable Bitmap mBitmap;
+    // Whether mBitmap holds an up to date rendering, apart from the area covered by mDirtyRect.
+    private boolean mBitmapValid = false;
+    private final RectF mDirtyRect = new RectF();
+    private final ArrayList<RenderableView> mDirtyNodes = new ArrayList<>();
+    private final RectF mRedrawRect = new RectF();
+    private @Nullable Rect mCanvasBounds;
+    private boolean mHardwareLayer = false;
 
     public SvgView(ReactContext reactContext) {
         super(reactContext);
@@ -90,10 +100,51 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             ((VirtualView) parent).getSvgView().invalidate();
             return;
         }
-        if (mBitmap != null) {
-            mBitmap.recycle();
+        // The bitmap is kept and redrawn in place on the next draw.
+        mBitmapValid = false;
+    }
+
+    /**
+     * Invalidates only the area painted by {@code node}, so that the next draw re-renders just that
+     * part of the bitmap. Falls back to a full invalidation for anything that may paint elsewhere,
+     * such as groups, definitions and elements that are referenced by name.
+     */
+    void invalidateNode(VirtualView node) {
+        if (!mBitmapValid || mHardwareLayer || !isIsolatedShape(node)) {
+            invalidate();
+            return;
         }
-        mBitmap = null;
+        RenderableView shape = (RenderableView) node;
+        if (shape.mRenderBounds == null) {
+            invalidate();
+            return;
+        }
+        mDirtyRect.union(shape.mRenderBounds);
+        mDirtyNodes.add(shape);
+        super.invalidate();
+    }
+
+    private boolean isIsolatedShape(VirtualView node) {
+        if (!(node instanceof PathView || node instanceof RectView || node instanceof CircleView
+                || node instanceof EllipseView || node instanceof LineView) || node.mName != null) {
+            return false;
+        }
+        ViewParent parent = node.getParent();
+        while (parent != this) {
+            if (parent == null || parent.getClass() != GroupView.class || ((GroupView) parent).mName != null) {
+                return false;
+            }
+            parent = parent.getParent();
+        }
+        return true;
+    }
+
+    @ReactProp(name = "hardwareLayer")
+    public void setHardwareLayer(boolean hardwareLayer) {
+        mHardwareLayer = hardwareLayer;
+        setLayerType(hardwareLayer ? LAYER_TYPE_HARDWARE : LAYER_TYPE_NONE, null);
+        releaseBitmap();
+        invalidate();
     }
 
     @Override
@@ -102,15 +153,24 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             return;
         }
         super.onDraw(canvas);
-        if (mBitmap == null) {
-            mBitmap = drawOutput();
-        }
-        if (mBitmap != null) {
-            canvas.drawBitmap(mBitmap, 0, 0, null);
-            if (toDataUrlTask != null) {
-                toDataUrlTask.run();
-                toDataUrlTask = null;
+        if (mHardwareLayer) {
+            // Render straight into the hardware layer, which caches the result between frames.
+            if (!isValidSize(getWidth(), getHeight())) {
+                return;
+            }
+            drawChildren(canvas);
+        } else {
+            if (!mBitmapValid || !mDirtyRect.isEmpty()) {
+                drawOutput();
             }
+            if (mBitmap == null) {
+                return;
+            }
+            canvas.drawBitmap(mBitmap, 0, 0, null);
+        }
+        if (toDataUrlTask != null) {
+            toDataUrlTask.run();
+            toDataUrlTask = null;
         }
     }
 
@@ -123,9 +183,24 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
+        releaseBitmap();
         this.invalidate();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseBitmap();
+    }
+
+    private void releaseBitmap() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+        }
+        mBitmap = null;
+        mBitmapValid = false;
+    }
+
     @Override
     public int reactTagForTouch(float touchX, float touchY) {
         return hitTest(touchX, touchY);
@@ -239,24 +314,79 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
         clearChildCache();
     }
 
-    private Bitmap drawOutput() {
+    private static boolean isValidSize(float width, float height) {
+        return !(Float.isNaN(width) || Float.isNaN(height) || width < 1 || height < 1 || (Math.log10(width) + Math.log10(height) > 42));
+    }
+
+    /**
+     * Renders into mBitmap, reusing it while the size is unchanged. When only some shapes changed
+     * since the last draw, just the area they covered before and after the change is redrawn.
+     */
+    private void drawOutput() {
         mRendered = true;
         float width = getWidth();
         float height = getHeight();
-        boolean invalid = Float.isNaN(width) || Float.isNaN(height) || width < 1 || height < 1 || (Math.log10(width) + Math.log10(height) > 42);
-        if (invalid) {
-            return null;
+        if (!isValidSize(width, height)) {
+            releaseBitmap();
+            return;
+        }
+        if (mBitmap == null) {
+            mBitmap = Bitmap.createBitmap(
+                    (int) width,
+                    (int) height,
+                    Bitmap.Config.ARGB_8888);
+            mBitmapValid = false;
         }
-        Bitmap bitmap = Bitmap.createBitmap(
-                (int) width,
-                (int) height,
-                Bitmap.Config.ARGB_8888);
 
-        drawChildren(new Canvas(bitmap));
-        return bitmap;
+        Canvas canvas = new Canvas(mBitmap);
+        if (!mBitmapValid) {
+            mBitmap.eraseColor(Color.TRANSPARENT);
+            drawChildren(canvas);
+        } else {
+            RectF dirty = mRedrawRect;
+            dirty.set(mDirtyRect);
+            drawRegion(canvas, dirty);
+            // Shapes may have moved or grown out of the area they covered before the change.
+            boolean grown = false;
+            for (RenderableView node : mDirtyNodes) {
+                if (node.mRenderBounds == null) {
+                    dirty.set(0, 0, width, height);
+                    grown = true;
+                    break;
+                }
+                if (!dirty.contains(node.mRenderBounds)) {
+                    dirty.union(node.mRenderBounds);
+                    grown = true;
+                }
+            }
+            if (grown) {
+                drawRegion(canvas, dirty);
+            }
+        }
+        mBitmapValid = true;
+        mDirtyRect.setEmpty();
+        mDirtyNodes.clear();
+    }
+
+    private void drawRegion(Canvas canvas, RectF region) {
+        mCanvasBounds = new Rect(0, 0, canvas.getWidth(), canvas.getHeight());
+        int count = canvas.save();
+        try {
+            canvas.clipRect(region);
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            drawChildren(canvas);
+        } finally {
+            canvas.restoreToCount(count);
+            mCanvasBounds = null;
+        }
     }
 
     Rect getCanvasBounds() {
+        // While redrawing a dirty region the clip only covers that region, so report the full
+        // canvas to keep percentages relative to the whole drawing.
+        if (mCanvasBounds != null) {
+            return mCanvasBounds;
+        }
         return mCanvas.getClipBounds();
     }
 
@@ -126,4 +126,9 @@ class SvgViewManager extends ReactViewManager {
     public void setMeetOrSlice(SvgView node, int meetOrSlice) {
         node.setMeetOrSlice(meetOrSlice);
     }
+
+    @ReactProp(name = "hardwareLayer")
+    public void setHardwareLayer(SvgView node, boolean hardwareLayer) {
+        node.setHardwareLayer(hardwareLayer);
+    }
 }
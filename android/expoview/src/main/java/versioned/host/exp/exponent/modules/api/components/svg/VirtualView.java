@@ -105,6 +105,10 @@ abstract public class VirtualView extends ReactViewGroup {
     ArrayList<PathElement> elements;
     PointerEvents mPointerEvents;
 
+    ArrayList<PathElement> getMarkerElements() {
+        return elements;
+    }
+
     void setPointerEvents(PointerEvents pointerEvents) {
         mPointerEvents = pointerEvents;
     }
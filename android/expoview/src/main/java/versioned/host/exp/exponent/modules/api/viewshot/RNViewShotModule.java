@@ -9,6 +9,7 @@ import androidx.annotation.NonNull;
 import android.util.DisplayMetrics;
 import android.util.Log;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.GuardedAsyncTask;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -16,6 +17,7 @@ import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.UIManagerModule;
 
 import java.io.File;
@@ -114,6 +116,19 @@ public class RNViewShotModule extends ReactContextBaseJavaModule {
         captureRef(-1, options, promise);
     }
 
+    @ReactMethod
+    public void getLastCaptureTimings(Promise promise) {
+        final ViewShot.Timings timings = ViewShot.getLastCaptureTimings();
+        if (timings == null) {
+            promise.resolve(null);
+            return;
+        }
+        final WritableMap map = Arguments.createMap();
+        map.putDouble("draw", timings.drawTime);
+        map.putDouble("encode", timings.encodeTime);
+        promise.resolve(map);
+    }
+
     private static final String TEMP_FILE_PREFIX = "ReactNative-snapshot-image";
 
     /**
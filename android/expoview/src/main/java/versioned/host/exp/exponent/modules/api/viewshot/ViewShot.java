@@ -6,12 +6,13 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.Point;
 import android.net.Uri;
+import android.os.SystemClock;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.StringDef;
 import android.util.Base64;
+import android.util.Base64OutputStream;
 import android.util.Log;
 import android.view.TextureView;
 import android.view.View;
@@ -23,6 +24,7 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.uimanager.NativeViewHierarchyManager;
 import com.facebook.react.uimanager.UIBlock;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -38,7 +40,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.WeakHashMap;
-import java.util.zip.Deflater;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DeflaterOutputStream;
 
 import javax.annotation.Nullable;
 
@@ -107,9 +111,18 @@ public class ViewShot implements UIBlock {
 
     //region Static members
     /**
-     * Image output buffer used as a source for base64 encoding
+     * Image output buffer used for RAW pixels. Only accessed from {@link #encoderExecutor}.
      */
     private static byte[] outputBuffer = new byte[PREALLOCATE_SIZE];
+    /**
+     * Executor that compresses and encodes captured bitmaps, off the UI thread.
+     */
+    private static final ExecutorService encoderExecutor = Executors.newSingleThreadExecutor();
+    /**
+     * Stage timings of the most recent capture.
+     */
+    @Nullable
+    private static volatile Timings lastCaptureTimings;
     //endregion
 
     //region Class members
@@ -177,101 +190,121 @@ public class ViewShot implements UIBlock {
             return;
         }
 
+        final Timings timings = new Timings();
+        final Bitmap bitmap;
         try {
-            final ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream(outputBuffer);
-            stream.setSize(proposeSize(view));
-            outputBuffer = stream.innerBuffer();
-
-            if (Results.TEMP_FILE.equals(result) && Formats.RAW == this.format) {
-                saveToRawFileOnDevice(view);
-            } else if (Results.TEMP_FILE.equals(result) && Formats.RAW != this.format) {
-                saveToTempFileOnDevice(view);
-            } else if (Results.BASE_64.equals(result) || Results.ZIP_BASE_64.equals(result)) {
-                saveToBase64String(view);
-            } else if (Results.DATA_URI.equals(result)) {
-                saveToDataUriString(view);
-            }
+            bitmap = captureView(view, timings);
         } catch (final Throwable ex) {
             Log.e(TAG, "Failed to capture view snapshot", ex);
             promise.reject(ERROR_UNABLE_TO_SNAPSHOT, "Failed to capture view snapshot");
+            return;
         }
+
+        // The views have to be drawn on the UI thread, as the bitmaps they draw (image drawables,
+        // pooled bitmaps of image loaders) may be recycled or reused right after. Only the
+        // finished bitmap, which nothing else references, is compressed and encoded off it.
+        encoderExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    encode(bitmap, timings);
+                } catch (final Throwable ex) {
+                    Log.e(TAG, "Failed to capture view snapshot", ex);
+                    promise.reject(ERROR_UNABLE_TO_SNAPSHOT, "Failed to capture view snapshot");
+                }
+            }
+        });
     }
     //endregion
 
     //region Implementation
-    private void saveToTempFileOnDevice(@NonNull final View view) throws IOException {
-        final FileOutputStream fos = new FileOutputStream(output);
-        captureView(view, fos);
-
-        promise.resolve(Uri.fromFile(output).toString());
+    private void encode(@NonNull final Bitmap bitmap, @NonNull final Timings timings) throws IOException {
+        final long encodeStart = SystemClock.uptimeMillis();
+        try {
+            if (Results.TEMP_FILE.equals(result)) {
+                saveToTempFileOnDevice(bitmap);
+            } else if (Results.BASE_64.equals(result) || Results.ZIP_BASE_64.equals(result)) {
+                saveToBase64String(bitmap);
+            } else if (Results.DATA_URI.equals(result)) {
+                saveToDataUriString(bitmap);
+            }
+        } finally {
+            recycleBitmap(bitmap);
+            timings.encodeTime = SystemClock.uptimeMillis() - encodeStart;
+            lastCaptureTimings = timings;
+        }
     }
 
-    private void saveToRawFileOnDevice(@NonNull final View view) throws IOException {
-        final String uri = Uri.fromFile(output).toString();
-
-        final FileOutputStream fos = new FileOutputStream(output);
-        final ReusableByteArrayOutputStream os = new ReusableByteArrayOutputStream(outputBuffer);
-        final Point size = captureView(view, os);
-
-        // in case of buffer grow that will be a new array with bigger size
-        outputBuffer = os.innerBuffer();
-        final int length = os.size();
-        final String resolution = String.format(Locale.US, "%d:%d|", size.x, size.y);
-
-        fos.write(resolution.getBytes(Charset.forName("US-ASCII")));
-        fos.write(outputBuffer, 0, length);
-        fos.close();
+    private void saveToTempFileOnDevice(@NonNull final Bitmap bitmap) throws IOException {
+        final OutputStream os = new BufferedOutputStream(new FileOutputStream(output));
+        try {
+            if (Formats.RAW == this.format) {
+                os.write(rawHeader(bitmap).getBytes(Charset.forName("US-ASCII")));
+            }
+            writeImage(bitmap, os);
+        } finally {
+            os.close();
+        }
 
-        promise.resolve(uri);
+        promise.resolve(Uri.fromFile(output).toString());
     }
 
-    private void saveToDataUriString(@NonNull final View view) throws IOException {
-        final ReusableByteArrayOutputStream os = new ReusableByteArrayOutputStream(outputBuffer);
-        captureView(view, os);
-
-        outputBuffer = os.innerBuffer();
-        final int length = os.size();
-
-        final String data = Base64.encodeToString(outputBuffer, 0, length, Base64.NO_WRAP);
-
+    private void saveToDataUriString(@NonNull final Bitmap bitmap) throws IOException {
         // correct the extension if JPG
         final String imageFormat = "jpg".equals(extension) ? "jpeg" : extension;
 
-        promise.resolve("data:image/" + imageFormat + ";base64," + data);
+        promise.resolve(encodeToBase64("data:image/" + imageFormat + ";base64,", bitmap, false));
     }
 
-    private void saveToBase64String(@NonNull final View view) throws IOException {
+    private void saveToBase64String(@NonNull final Bitmap bitmap) throws IOException {
         final boolean isRaw = Formats.RAW == this.format;
         final boolean isZippedBase64 = Results.ZIP_BASE_64.equals(this.result);
+        final String header = (isRaw ? rawHeader(bitmap) : "");
 
-        final ReusableByteArrayOutputStream os = new ReusableByteArrayOutputStream(outputBuffer);
-        final Point size = captureView(view, os);
-
-        // in case of buffer grow that will be a new array with bigger size
-        outputBuffer = os.innerBuffer();
-        final int length = os.size();
-        final String resolution = String.format(Locale.US, "%d:%d|", size.x, size.y);
-        final String header = (isRaw ? resolution : "");
-        final String data;
-
-        if (isZippedBase64) {
-            final Deflater deflater = new Deflater();
-            deflater.setInput(outputBuffer, 0, length);
-            deflater.finish();
-
-            final ReusableByteArrayOutputStream zipped = new ReusableByteArrayOutputStream(new byte[32]);
-            byte[] buffer = new byte[1024];
-            while (!deflater.finished()) {
-                int count = deflater.deflate(buffer); // returns the generated code... index
-                zipped.write(buffer, 0, count);
-            }
+        promise.resolve(encodeToBase64(header, bitmap, isZippedBase64));
+    }
 
-            data = header + Base64.encodeToString(zipped.innerBuffer(), 0, zipped.size(), Base64.NO_WRAP);
-        } else {
-            data = header + Base64.encodeToString(outputBuffer, 0, length, Base64.NO_WRAP);
+    /**
+     * Encode the image straight into its base64 representation, optionally zipping it on the way,
+     * without keeping intermediate copies of the encoded or zipped image.
+     */
+    @NonNull
+    private String encodeToBase64(@NonNull final String prefix, @NonNull final Bitmap bitmap, final boolean zip) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(PREALLOCATE_SIZE);
+        result.write(prefix.getBytes(Charset.forName("US-ASCII")));
+
+        OutputStream os = new Base64OutputStream(result, Base64.NO_WRAP);
+        if (zip) {
+            os = new DeflaterOutputStream(os);
+        }
+        try {
+            writeImage(bitmap, os);
+        } finally {
+            os.close();
         }
 
-        promise.resolve(data);
+        return result.toString("US-ASCII");
+    }
+
+    @NonNull
+    private static String rawHeader(@NonNull final Bitmap bitmap) {
+        return String.format(Locale.US, "%d:%d|", bitmap.getWidth(), bitmap.getHeight());
+    }
+
+    private void writeImage(@NonNull final Bitmap bitmap, @NonNull final OutputStream os) throws IOException {
+        // special case, just save RAW ARGB array without any compression
+        if (Formats.RAW == this.format) {
+            final int total = bitmap.getWidth() * bitmap.getHeight() * ARGB_SIZE;
+            final ReusableByteArrayOutputStream rbaos = new ReusableByteArrayOutputStream(outputBuffer);
+            bitmap.copyPixelsToBuffer(rbaos.asBuffer(total));
+            // in case of buffer grow that will be a new array with bigger size
+            outputBuffer = rbaos.innerBuffer();
+            os.write(outputBuffer, 0, total);
+        } else {
+            final Bitmap.CompressFormat cf = Formats.mapping[this.format];
+
+            bitmap.compress(cf, (int) (100.0 * quality), os);
+        }
     }
 
     @NonNull
@@ -297,25 +330,18 @@ public class ViewShot implements UIBlock {
     }
 
     /**
-     * Wrap {@link #captureViewImpl(View, OutputStream)} call and on end close output stream.
-     */
-    private Point captureView(@NonNull final View view, @NonNull final OutputStream os) throws IOException {
-        try {
-            DebugViews.longDebug(TAG, DebugViews.logViewHierarchy(this.currentActivity));
-
-            return captureViewImpl(view, os);
-        } finally {
-            os.close();
-        }
-    }
-
-    /**
-     * Screenshot a view and return the captured bitmap.
+     * Draw the view into a pooled bitmap of the requested output size. Scaling is applied while
+     * drawing, so no full size intermediate bitmap is needed.
      *
      * @param view the view to capture
-     * @return screenshot resolution, Width * Height
+     * @param timings receives the time spent drawing
+     * @return bitmap with the view's contents, to be passed to {@link #encode(Bitmap, Timings)}
      */
-    private Point captureViewImpl(@NonNull final View view, @NonNull final OutputStream os) {
+    @NonNull
+    private Bitmap captureView(@NonNull final View view, @NonNull final Timings timings) {
+        final long drawStart = SystemClock.uptimeMillis();
+        DebugViews.longDebug(TAG, DebugViews.logViewHierarchy(this.currentActivity));
+
         int w = view.getWidth();
         int h = view.getHeight();
 
@@ -332,8 +358,11 @@ public class ViewShot implements UIBlock {
             }
         }
 
-        final Point resolution = new Point(w, h);
-        Bitmap bitmap = getBitmapForScreenshot(w, h);
+        final boolean scale = width != null && height != null && (width != w || height != h);
+        final int targetWidth = scale ? width : w;
+        final int targetHeight = scale ? height : h;
+
+        final Bitmap bitmap = getBitmapForScreenshot(targetWidth, targetHeight);
 
         final Paint paint = new Paint();
         paint.setAntiAlias(true);
@@ -344,6 +373,9 @@ public class ViewShot implements UIBlock {
         //   Debug.waitForDebugger();
 
         final Canvas c = new Canvas(bitmap);
+        if (scale) {
+            c.scale((float) targetWidth / w, (float) targetHeight / h);
+        }
         view.draw(c);
 
         //after view is drawn, go through children
@@ -373,28 +405,9 @@ public class ViewShot implements UIBlock {
             recycleBitmap(childBitmapBuffer);
         }
 
-        if (width != null && height != null && (width != w || height != h)) {
-            final Bitmap scaledBitmap = Bitmap.createScaledBitmap(bitmap, width, height, true);
-            recycleBitmap(bitmap);
-
-            bitmap = scaledBitmap;
-        }
-
-        // special case, just save RAW ARGB array without any compression
-        if (Formats.RAW == this.format && os instanceof ReusableByteArrayOutputStream) {
-            final int total = w * h * ARGB_SIZE;
-            final ReusableByteArrayOutputStream rbaos = cast(os);
-            bitmap.copyPixelsToBuffer(rbaos.asBuffer(total));
-            rbaos.setSize(total);
-        } else {
-            final Bitmap.CompressFormat cf = Formats.mapping[this.format];
-
-            bitmap.compress(cf, (int) (100.0 * quality), os);
-        }
-
-        recycleBitmap(bitmap);
+        timings.drawTime = SystemClock.uptimeMillis() - drawStart;
 
-        return resolution; // return image width and height
+        return bitmap;
     }
 
     /**
@@ -435,11 +448,6 @@ public class ViewShot implements UIBlock {
 
         return transform;
     }
-
-    @SuppressWarnings("unchecked")
-    private static <T extends A, A> T cast(final A instance) {
-        return (T) instance;
-    }
     //endregion
 
     //region Cache re-usable bitmaps
@@ -452,16 +460,6 @@ public class ViewShot implements UIBlock {
      */
     private static final Set<Bitmap> weakBitmaps = Collections.newSetFromMap(new WeakHashMap<Bitmap, Boolean>());
 
-    /**
-     * Propose allocation size of the array output stream.
-     */
-    private static int proposeSize(@NonNull final View view) {
-        final int w = view.getWidth();
-        final int h = view.getHeight();
-
-        return Math.min(w * h * ARGB_SIZE, 32);
-    }
-
     /**
      * Return bitmap to set of available.
      */
@@ -511,6 +509,27 @@ public class ViewShot implements UIBlock {
 
     //region Nested declarations
 
+    /**
+     * Time spent in each stage of a capture, in milliseconds.
+     */
+    public static class Timings {
+        public long drawTime;
+        public long encodeTime;
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "draw: %dms, encode: %dms", drawTime, encodeTime);
+        }
+    }
+
+    /**
+     * Get stage timings of the most recent capture, or null if nothing was captured yet.
+     */
+    @Nullable
+    public static Timings getLastCaptureTimings() {
+        return lastCaptureTimings;
+    }
+
     /**
      * Stream that can re-use pre-allocated buffer.
      */
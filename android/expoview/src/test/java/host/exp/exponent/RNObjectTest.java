@@ -0,0 +1,57 @@
+package host.exp.exponent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class RNObjectTest {
+  public static class Target {
+    public Integer field;
+
+    public int add(int a, Integer b) {
+      return a + b;
+    }
+
+    public String describe(Object object) {
+      return "object " + object;
+    }
+
+    public String describe(String string) {
+      return "string " + string;
+    }
+  }
+
+  @Before
+  public void resetCounters() {
+    RNObject.resetLookupCounters();
+  }
+
+  @Test
+  public void resolvesMembersOnce() {
+    RNObject target = RNObject.wrap(new Target());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(3, target.call("add", 1, 2));
+    }
+    target.setField("field", 7);
+    target.setField("field", 8);
+    assertEquals(8, (int) ((Target) target.get()).field);
+
+    Map<String, Long> counters = RNObject.getLookupCounters();
+    assertEquals(7, (long) counters.get("lookupCount"));
+    assertEquals(2, (long) counters.get("lookupCacheMissCount"));
+  }
+
+  @Test
+  public void cachesMembersPerArgumentTypes() {
+    RNObject target = RNObject.wrap(new Target());
+    String first = (String) target.call("describe", "a");
+    String second = (String) target.call("describe", 1);
+    // Cached lookups resolve to the same overload as the first one with given argument types.
+    assertEquals(first, target.call("describe", "a"));
+    assertEquals(second, target.call("describe", 1));
+    assertEquals(2, (long) RNObject.getLookupCounters().get("lookupCacheMissCount"));
+  }
+}
@@ -0,0 +1,204 @@
+package versioned.host.exp.exponent.modules.api.components.svg;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PathParserTest {
+  private static final float APPROXIMATION_ERROR = 0.01f;
+
+  // Material Design and Feather icons.
+  private static final String[] ICON_PATHS = {
+      "M12 21.35l-1.45-1.32C5.4 15.36 2 12.28 2 8.5 2 5.42 4.42 3 7.5 3c1.74 0 3.41.81 4.5 2.09C13.09 3.81 14.76 3 16.5 3 19.58 3 22 5.42 22 8.5c0 3.78-3.4 6.86-8.55 11.54L12 21.35z",
+      "M10 20v-6h4v6h5v-8h3L12 3 2 12h3v8z",
+      "M15.5 14h-.79l-.28-.27C15.41 12.59 16 11.11 16 9.5 16 5.91 13.09 3 9.5 3S3 5.91 3 9.5 5.91 16 9.5 16c1.61 0 3.09-.59 4.23-1.57l.27.28v.79l5 4.99L20.49 19l-4.99-5zm-6 0C7.01 14 5 11.99 5 9.5S7.01 5 9.5 5 14 7.01 14 9.5 11.99 14 9.5 14z",
+      "M19 6.41L17.59 5 12 10.59 6.41 5 5 6.41 10.59 12 5 17.59 6.41 19 12 13.41 17.59 19 19 17.59 13.41 12z",
+      "M3 18h18v-2H3v2zm0-5h18v-2H3v2zm0-7v2h18V6H3z",
+      "M12 2C6.48 2 2 6.48 2 12s4.48 10 10 10 10-4.48 10-10S17.52 2 12 2zm1 15h-2v-6h2v6zm0-8h-2V7h2v2z",
+      "M12 12c2.21 0 4-1.79 4-4s-1.79-4-4-4-4 1.79-4 4 1.79 4 4 4zm0 2c-2.67 0-8 1.34-8 4v2h16v-2c0-2.66-5.33-4-8-4z",
+      "M9 16.17L4.83 12l-1.42 1.41L9 19 21 7l-1.41-1.41z",
+      "M12 8c1.1 0 2-.9 2-2s-.9-2-2-2-2 .9-2 2 .9 2 2 2zm0 2c-1.1 0-2 .9-2 2s.9 2 2 2 2-.9 2-2-.9-2-2-2zm0 6c-1.1 0-2 .9-2 2s.9 2 2 2 2-.9 2-2-.9-2-2-2z",
+      "M21 12.79A9 9 0 1 1 11.21 3 7 7 0 0 0 21 12.79z",
+      "M22 11.08V12a10 10 0 1 1-5.93-9.14",
+      "M20.84 4.61a5.5 5.5 0 0 0-7.78 0L12 5.67l-1.06-1.06a5.5 5.5 0 0 0-7.78 7.78l1.06 1.06L12 21.23l7.78-7.78 1.06-1.06a5.5 5.5 0 0 0 0-7.78z",
+      "M18 8A6 6 0 0 0 6 8c0 7-3 9-3 9h18s-3-2-3-9M13.73 21a2 2 0 0 1-3.46 0",
+      "M2.5 1e1q1.5-2.5E0 3 0t3 2.5",
+  };
+
+  @Test
+  public void parsesNumbersWithoutSeparators() {
+    ArrayList<PathElement> elements = new PathParser(1f).parse("M-1.5.5L2e1-3E-1").toElements();
+    assertEquals(2, elements.size());
+    assertEquals(-1.5, elements.get(0).points[0].x, 1e-6);
+    assertEquals(0.5, elements.get(0).points[0].y, 1e-6);
+    assertEquals(20, elements.get(1).points[0].x, 1e-6);
+    assertEquals(-0.3, elements.get(1).points[0].y, 1e-6);
+  }
+
+  @Test
+  public void recordsCurvesWithAllControlPoints() {
+    ArrayList<PathElement> elements = new PathParser(1f).parse(ICON_PATHS[0]).toElements();
+    assertEquals(ElementType.kCGPathElementMoveToPoint, elements.get(0).type);
+    assertEquals(ElementType.kCGPathElementAddCurveToPoint, elements.get(2).type);
+    assertEquals(3, elements.get(2).points.length);
+    assertEquals(ElementType.kCGPathElementCloseSubpath, elements.get(elements.size() - 1).type);
+  }
+
+  @Test
+  public void reusesCachedPathsForTheSameScale() {
+    PathParser.clearCache();
+    ParsedPath first = PathParser.parse(ICON_PATHS[1], 2f);
+    assertSame(first, PathParser.parse(ICON_PATHS[1], 2f));
+    ParsedPath rescaled = PathParser.parse(ICON_PATHS[1], 3f);
+    assertEquals(3f, rescaled.getScale(), 0f);
+    assertEquals(first.getElementCount(), rescaled.getElementCount());
+  }
+
+  @Test(expected = Error.class)
+  public void rejectsPathsNotStartingWithMoveTo() {
+    new PathParser(1f).parse("L10 10");
+  }
+
+  @Test
+  public void drawsScaledSegments() {
+    Path expected = new Path();
+    expected.moveTo(20, 40);
+    expected.lineTo(20, 28);
+    expected.lineTo(28, 28);
+    expected.close();
+    assertSamePath(expected, PathParser.parse("M10 20v-6h4z", 2f).copyPath());
+  }
+
+  @Test
+  public void drawsImplicitLineTosAfterMoveTo() {
+    Path expected = new Path();
+    expected.moveTo(2, 2);
+    expected.lineTo(6, 6);
+    expected.lineTo(12, 12);
+    assertSamePath(expected, new PathParser(2f).parse("m1 1 2 2 3 3").copyPath());
+  }
+
+  @Test
+  public void drawsQuadraticCurvesAsCubics() {
+    Path expected = new Path();
+    expected.moveTo(2, 2);
+    expected.cubicTo(10 / 3f, 14 / 3f, 16 / 3f, 14 / 3f, 8, 2);
+    expected.cubicTo(32 / 3f, -2 / 3f, 12, -2 / 3f, 12, 2);
+    assertSamePath(expected, new PathParser(2f).parse("M1 1q1 2 3 0t2 0").copyPath());
+  }
+
+  @Test
+  public void drawsArcsWithinTheirOval() {
+    Path expected = new Path();
+    expected.moveTo(0, 0);
+    expected.arcTo(new RectF(0, -10, 20, 10), 180, 180);
+    assertSamePath(expected, new PathParser(2f).parse("M0 0A5 5 0 0 1 10 0").copyPath());
+  }
+
+  @Test
+  public void copiesDoNotShareTheCachedPath() {
+    ParsedPath parsed = PathParser.parse(ICON_PATHS[7], 1f);
+    Path original = parsed.copyPath();
+    Path copy = parsed.copyPath();
+    copy.lineTo(100, 100);
+    assertNotEquals(approximate(original).length, approximate(copy).length);
+    assertSamePath(original, parsed.copyPath());
+  }
+
+  @Test
+  public void elementsDescribeTheDrawnPath() {
+    PathParser parser = new PathParser(1f);
+    for (String d : ICON_PATHS) {
+      if (d.indexOf('a') >= 0 || d.indexOf('A') >= 0) {
+        // Circular arcs are drawn as arcs but recorded as lines to their end point.
+        continue;
+      }
+      ParsedPath parsed = parser.parse(d);
+      Path replayed = new Path();
+      for (PathElement element : parsed.toElements()) {
+        Point[] points = element.points;
+        switch (element.type) {
+          case kCGPathElementMoveToPoint:
+            replayed.moveTo((float) points[0].x, (float) points[0].y);
+            break;
+          case kCGPathElementAddLineToPoint:
+            replayed.lineTo((float) points[0].x, (float) points[0].y);
+            break;
+          case kCGPathElementAddCurveToPoint:
+            replayed.cubicTo(
+                (float) points[0].x, (float) points[0].y,
+                (float) points[1].x, (float) points[1].y,
+                (float) points[2].x, (float) points[2].y);
+            break;
+          case kCGPathElementCloseSubpath:
+            replayed.close();
+            break;
+          default:
+            throw new AssertionError(d + ": unexpected " + element.type);
+        }
+      }
+      assertSamePath(d, replayed, parsed.copyPath());
+    }
+  }
+
+  // Measurement over the icon corpus, comparing uncached parsing with cache hits.
+  @Test
+  public void measureIconCorpus() {
+    int iterations = 2000;
+    PathParser parser = new PathParser(1f);
+    for (int i = 0; i < iterations; i++) {
+      for (String d : ICON_PATHS) {
+        parser.parse(d);
+        PathParser.parse(d, 1f);
+      }
+    }
+
+    long start = System.nanoTime();
+    int elements = 0;
+    for (int i = 0; i < iterations; i++) {
+      for (String d : ICON_PATHS) {
+        elements += parser.parse(d).getElementCount();
+      }
+    }
+    long parseNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (String d : ICON_PATHS) {
+        elements -= PathParser.parse(d, 1f).getElementCount();
+      }
+    }
+    long cachedNanos = System.nanoTime() - start;
+
+    assertEquals(0, elements);
+    int paths = iterations * ICON_PATHS.length;
+    System.out.println("PathParser: " + parseNanos / paths + " ns/path parsed, "
+        + cachedNanos / paths + " ns/path cached");
+  }
+
+  private static void assertSamePath(Path expected, Path actual) {
+    assertSamePath(null, expected, actual);
+  }
+
+  // Compares the points the paths are flattened into, along with how far along the path each is.
+  private static void assertSamePath(String message, Path expected, Path actual) {
+    assertArrayEquals(message, approximate(expected), approximate(actual), 1e-4f);
+  }
+
+  private static float[] approximate(Path path) {
+    return path.approximate(APPROXIMATION_ERROR);
+  }
+}
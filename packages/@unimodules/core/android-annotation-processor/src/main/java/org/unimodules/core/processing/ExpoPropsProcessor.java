@@ -0,0 +1,258 @@
+package org.unimodules.core.processing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code <ViewManagerClass>$$ExpoPropsSetter} class for every view manager declaring
+ * {@code @ExpoProp} methods. {@code org.unimodules.core.ViewManager} uses it to set props with
+ * plain method calls instead of going through reflection.
+ */
+@SupportedAnnotationTypes(ExpoPropsProcessor.EXPO_PROP_ANNOTATION)
+public class ExpoPropsProcessor extends AbstractProcessor {
+  static final String EXPO_PROP_ANNOTATION = "org.unimodules.core.interfaces.ExpoProp";
+  static final String SETTER_CLASS_SUFFIX = "$$ExpoPropsSetter";
+  private static final String PROPS_SETTER_INTERFACE = "org.unimodules.core.ViewManager.PropsSetter";
+
+  private static class Prop {
+    final String name;
+    final ExecutableElement method;
+
+    Prop(String name, ExecutableElement method) {
+      this.name = name;
+      this.method = method;
+    }
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement expoPropType = processingEnv.getElementUtils().getTypeElement(EXPO_PROP_ANNOTATION);
+    if (expoPropType == null) {
+      return false;
+    }
+
+    Map<TypeElement, List<Prop>> propsByClass = new LinkedHashMap<>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(expoPropType)) {
+      if (element.getKind() != ElementKind.METHOD) {
+        continue;
+      }
+      ExecutableElement method = (ExecutableElement) element;
+      TypeElement viewManager = (TypeElement) method.getEnclosingElement();
+      String propName = getPropName(method, expoPropType);
+
+      List<Prop> props = propsByClass.get(viewManager);
+      if (props == null) {
+        props = new ArrayList<>();
+        propsByClass.put(viewManager, props);
+      }
+      props.add(new Prop(propName, method));
+    }
+
+    for (Map.Entry<TypeElement, List<Prop>> entry : propsByClass.entrySet()) {
+      TypeElement viewManager = entry.getKey();
+      if (!canGenerateSetterFor(viewManager) || !validateProps(entry.getValue())) {
+        // ViewManager falls back to reflection for this class.
+        continue;
+      }
+      try {
+        writeSetterClass(viewManager, entry.getValue());
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "Could not generate prop setter: " + e.getMessage(), viewManager);
+      }
+    }
+    return true;
+  }
+
+  private static String getPropName(ExecutableElement method, TypeElement expoPropType) {
+    for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+      if (annotation.getAnnotationType().asElement().equals(expoPropType)) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()) {
+          if (value.getKey().getSimpleName().contentEquals("name")) {
+            return (String) value.getValue().getValue();
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private boolean canGenerateSetterFor(TypeElement viewManager) {
+    if (viewManager.getModifiers().contains(Modifier.PRIVATE) || !viewManager.getTypeParameters().isEmpty()) {
+      return false;
+    }
+    Element enclosing = viewManager.getEnclosingElement();
+    if (enclosing.getKind() != ElementKind.PACKAGE && !viewManager.getModifiers().contains(Modifier.STATIC)) {
+      return false;
+    }
+    return enclosing.getKind() == ElementKind.PACKAGE || canGenerateSetterFor((TypeElement) enclosing);
+  }
+
+  // Mirrors validation that ViewManager does when looking up prop setters with reflection.
+  private boolean validateProps(List<Prop> props) {
+    Set<String> names = new HashSet<>();
+    for (Prop prop : props) {
+      if (prop.method.getParameters().size() != 2) {
+        error(prop.method, "Expo prop setter should define two arguments: view and prop value. Prop setter for " + prop.name + " does not define these arguments.");
+        return false;
+      }
+      if (!names.add(prop.name)) {
+        error(prop.method, "Prop setter name already registered: " + prop.name + ".");
+        return false;
+      }
+      if (prop.method.getModifiers().contains(Modifier.PRIVATE) || prop.method.getModifiers().contains(Modifier.STATIC)) {
+        // Reflection can still call these, so let it.
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void writeSetterClass(TypeElement viewManager, List<Prop> props) throws IOException {
+    String packageName = processingEnv.getElementUtils().getPackageOf(viewManager).getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(viewManager).toString();
+    String setterClassName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SETTER_CLASS_SUFFIX;
+    String viewManagerType = viewManager.getQualifiedName().toString();
+
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("// Generated by ").append(ExpoPropsProcessor.class.getName()).append(", do not edit.\n");
+    source.append("@SuppressWarnings(\"unchecked\")\n");
+    source.append("public final class ").append(setterClassName)
+        .append(" implements ").append(PROPS_SETTER_INTERFACE).append("<").append(viewManagerType).append("> {\n");
+
+    source.append("  @Override\n");
+    source.append("  public void getPropTypes(java.util.Map<String, Class<?>> propTypes) {\n");
+    for (Prop prop : props) {
+      TypeMirror valueType = prop.method.getParameters().get(1).asType();
+      source.append("    propTypes.put(").append(quote(prop.name)).append(", ")
+          .append(processingEnv.getTypeUtils().erasure(valueType)).append(".class);\n");
+    }
+    source.append("  }\n\n");
+
+    source.append("  @Override\n");
+    source.append("  public boolean setProp(").append(viewManagerType)
+        .append(" viewManager, android.view.View view, String propName, Object value) {\n");
+    source.append("    switch (propName) {\n");
+    for (Prop prop : props) {
+      TypeMirror viewType = prop.method.getParameters().get(0).asType();
+      TypeMirror valueType = prop.method.getParameters().get(1).asType();
+      source.append("      case ").append(quote(prop.name)).append(":\n");
+      appendValueCheck(source, valueType);
+      source.append("        viewManager.").append(prop.method.getSimpleName())
+          .append("((").append(processingEnv.getTypeUtils().erasure(viewType)).append(") view, ")
+          .append(convertValue(valueType)).append(");\n");
+      source.append("        return true;\n");
+    }
+    source.append("      default:\n");
+    source.append("        return false;\n");
+    source.append("    }\n");
+    source.append("  }\n\n");
+
+    // Same messages as ArgumentsHelper, which checks values before reflective calls.
+    source.append("  private static IllegalArgumentException incompatibleValue(Object value, Class<?> expectedClass) {\n");
+    source.append("    if (value == null) {\n");
+    source.append("      return new IllegalArgumentException(\"Argument null cannot be passed to an argument to parameter expecting \" + expectedClass + \".\");\n");
+    source.append("    }\n");
+    source.append("    return new IllegalArgumentException(\"Argument of an incompatible class: \" + value.getClass()\n");
+    source.append("        + \" cannot be passed as an argument to parameter expecting \" + expectedClass + \".\");\n");
+    source.append("  }\n");
+    source.append("}\n");
+
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(
+        (packageName.isEmpty() ? "" : packageName + ".") + setterClassName, viewManager);
+    try (Writer writer = file.openWriter()) {
+      writer.write(source.toString());
+    }
+  }
+
+  // Primitives can't be null, and numbers are accepted regardless of which Number subclass the
+  // platform adapter provided. Other values only need to be null or of the parameter's class.
+  private void appendValueCheck(StringBuilder source, TypeMirror type) {
+    String erasure = processingEnv.getTypeUtils().erasure(type).toString();
+    String acceptedClass;
+    switch (type.getKind()) {
+      case BOOLEAN:
+        acceptedClass = "Boolean";
+        break;
+      case CHAR:
+        acceptedClass = "Character";
+        break;
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        acceptedClass = "Number";
+        break;
+      default:
+        source.append("        if (value != null && !(value instanceof ").append(erasure).append(")) {\n");
+        source.append("          throw incompatibleValue(value, ").append(erasure).append(".class);\n");
+        source.append("        }\n");
+        return;
+    }
+    source.append("        if (!(value instanceof ").append(acceptedClass).append(")) {\n");
+    source.append("          throw incompatibleValue(value, ").append(erasure).append(".class);\n");
+    source.append("        }\n");
+  }
+
+  private String convertValue(TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN:
+        return "(Boolean) value";
+      case CHAR:
+        return "(Character) value";
+      case BYTE:
+        return "((Number) value).byteValue()";
+      case SHORT:
+        return "((Number) value).shortValue()";
+      case INT:
+        return "((Number) value).intValue()";
+      case LONG:
+        return "((Number) value).longValue()";
+      case FLOAT:
+        return "((Number) value).floatValue()";
+      case DOUBLE:
+        return "((Number) value).doubleValue()";
+      default:
+        return "(" + type + ") value";
+    }
+  }
+
+  private static String quote(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -11,3 +11,5 @@
 -keepclassmembers class * {
   @org.unimodules.core.interfaces.DoNotStrip *;
 }
+
+-keep class **$$ExpoPropsSetter { *; }
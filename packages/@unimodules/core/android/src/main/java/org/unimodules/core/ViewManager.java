@@ -29,6 +29,17 @@ public abstract class ViewManager<V extends View> implements RegistryLifecycleLi
     }
   }
 
+  /**
+   * Implemented by {@code <ViewManagerClass>$$ExpoPropsSetter} classes generated at compile time
+   * by the unimodules annotation processor. Lets us set props without using reflection.
+   */
+  public interface PropsSetter<T extends ViewManager<?>> {
+    void getPropTypes(Map<String, Class<?>> propTypes);
+    boolean setProp(T viewManager, View view, String propName, Object value);
+  }
+
+  private static final String PROPS_SETTER_SUFFIX = "$$ExpoPropsSetter";
+
   public enum ViewManagerType {
     SIMPLE,
     GROUP
@@ -36,6 +47,8 @@ public abstract class ViewManager<V extends View> implements RegistryLifecycleLi
 
   private Map<String, PropSetterInfo> mPropSetterInfos;
   private Map<String, Method> mPropSetters;
+  private PropsSetter<ViewManager<V>> mGeneratedPropsSetter;
+  private boolean mGeneratedPropsSetterLookedUp = false;
 
 
   public abstract String getName();
@@ -60,8 +73,17 @@ public abstract class ViewManager<V extends View> implements RegistryLifecycleLi
     }
 
     Map<String, PropSetterInfo> propSetterInfos = new HashMap<>();
-    for (Map.Entry<String, Method> entry : getPropSetters().entrySet()) {
-      propSetterInfos.put(entry.getKey(), new PropSetterInfo(entry.getValue().getParameterTypes()));
+    PropsSetter<ViewManager<V>> generatedPropsSetter = getGeneratedPropsSetter();
+    if (generatedPropsSetter != null) {
+      Map<String, Class<?>> propTypes = new HashMap<>();
+      generatedPropsSetter.getPropTypes(propTypes);
+      for (Map.Entry<String, Class<?>> entry : propTypes.entrySet()) {
+        propSetterInfos.put(entry.getKey(), new PropSetterInfo(new Class<?>[]{entry.getValue()}));
+      }
+    } else {
+      for (Map.Entry<String, Method> entry : getPropSetters().entrySet()) {
+        propSetterInfos.put(entry.getKey(), new PropSetterInfo(entry.getValue().getParameterTypes()));
+      }
     }
 
     mPropSetterInfos = propSetterInfos;
@@ -69,6 +91,12 @@ public abstract class ViewManager<V extends View> implements RegistryLifecycleLi
   }
 
   public void updateProp(V view, String propName, Object propValue) throws RuntimeException {
+    PropsSetter<ViewManager<V>> generatedPropsSetter = getGeneratedPropsSetter();
+    if (generatedPropsSetter != null) {
+      updatePropWithGeneratedSetter(generatedPropsSetter, view, propName, propValue);
+      return;
+    }
+
     Method propSetter = getPropSetters().get(propName);
     if (propSetter == null) {
       throw new IllegalArgumentException("There is no propSetter in " + getName() + " for prop of name " + propName + ".");
@@ -85,10 +113,46 @@ public abstract class ViewManager<V extends View> implements RegistryLifecycleLi
     }
   }
 
+  // Generated setters check and convert the value themselves, the same way ArgumentsHelper would.
+  private void updatePropWithGeneratedSetter(PropsSetter<ViewManager<V>> propsSetter, V view, String propName, Object propValue) {
+    boolean hasPropSetter;
+    try {
+      hasPropSetter = propsSetter.setProp(this, view, propName, propValue);
+    } catch (RuntimeException e) {
+      throw new RuntimeException("Exception occurred while updating property " + propName
+              + " on module " + getName() + ": " + e.getMessage(), e);
+    }
+    if (!hasPropSetter) {
+      throw new IllegalArgumentException("There is no propSetter in " + getName() + " for prop of name " + propName + ".");
+    }
+  }
+
   protected Object transformArgumentToClass(Object argument, Class<?> expectedArgumentClass) {
     return ArgumentsHelper.validatedArgumentForClass(argument, expectedArgumentClass);
   }
 
+  /**
+   * Returns an instance of the setter class generated for this view manager
+   * or null if there is none, eg. when the manager is written in Kotlin.
+   */
+  @SuppressWarnings("unchecked")
+  private PropsSetter<ViewManager<V>> getGeneratedPropsSetter() {
+    if (mGeneratedPropsSetterLookedUp) {
+      return mGeneratedPropsSetter;
+    }
+
+    try {
+      Class<?> setterClass = Class.forName(getClass().getName() + PROPS_SETTER_SUFFIX);
+      mGeneratedPropsSetter = (PropsSetter<ViewManager<V>>) setterClass.newInstance();
+    } catch (ClassNotFoundException e) {
+      mGeneratedPropsSetter = null;
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new RuntimeException("Could not instantiate generated prop setter for " + getName() + ": " + e.getMessage(), e);
+    }
+    mGeneratedPropsSetterLookedUp = true;
+    return mGeneratedPropsSetter;
+  }
+
   /**
    * Creates or returns a cached map of propName => methodSettingThatProp. Validates returned methods.
    * @return Map of { propName => methodSettingThatProp }
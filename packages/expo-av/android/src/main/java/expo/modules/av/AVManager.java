@@ -14,6 +14,10 @@ import android.os.Build;
 import android.os.Bundle;
 import android.os.SystemClock;
 
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.util.Util;
+
 import org.unimodules.core.ModuleRegistry;
 import org.unimodules.core.Promise;
 import org.unimodules.core.arguments.ReadableArguments;
@@ -34,8 +38,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import expo.modules.av.player.PlayerData;
+import expo.modules.av.player.datasource.DataSourceFactoryProvider;
+import expo.modules.av.player.datasource.MediaCache;
+import expo.modules.av.progress.ChoreographerTimeMachine;
+import expo.modules.av.progress.ProgressTicker;
 import expo.modules.av.video.VideoView;
 import expo.modules.av.video.VideoViewWrapper;
 
@@ -84,6 +94,11 @@ public class AVManager implements LifecycleEventListener, AudioManager.OnAudioFo
   private final Map<Integer, PlayerData> mSoundMap = new HashMap<>();
   private final Set<VideoView> mVideoViewSet = new HashSet<>();
 
+  private MediaCache mMediaCache = null;
+  // Drives progress updates of all sounds and videos, so they share one frame-aligned clock.
+  private final ProgressTicker mProgressTicker = new ProgressTicker(new ChoreographerTimeMachine());
+  private final ExecutorService mPreloadExecutor = Executors.newSingleThreadExecutor();
+
   private MediaRecorder mAudioRecorder = null;
   private String mAudioRecordingFilePath = null;
   private long mAudioRecorderUptimeOfLastStartResume = 0L;
@@ -511,6 +526,72 @@ public class AVManager implements LifecycleEventListener, AudioManager.OnAudioFo
 
   // Note that setStatusUpdateCallback happens in the JS for video via onStatusUpdate
 
+  @Override
+  public ProgressTicker getProgressTicker() {
+    return mProgressTicker;
+  }
+
+  // Media cache API
+
+  @Override
+  public synchronized MediaCache getMediaCache() {
+    if (mMediaCache == null) {
+      mMediaCache = MediaCache.forContext(mContext);
+    }
+    return mMediaCache;
+  }
+
+  @Override
+  public void preloadMedia(final ReadableArguments source, final Double byteCount, final Promise promise) {
+    final String uriString = source.getString(PlayerData.STATUS_URI_KEY_PATH);
+    final Uri uri = uriString != null ? Uri.parse(uriString) : null;
+    if (uri == null || !MediaCache.isCacheable(uri)) {
+      promise.reject("E_PRELOAD_UNSUPPORTED", "Only http and https sources can be preloaded.");
+      return;
+    }
+    final MediaCache mediaCache = getMediaCache();
+    if (!mediaCache.isEnabled()) {
+      promise.reject("E_PRELOAD_CACHE_DISABLED", "Cannot preload media while the media cache is disabled, enable it with setMediaCacheSizeAsync first.");
+      return;
+    }
+    final Map requestHeaders = source.containsKey(PlayerData.STATUS_HEADERS_KEY_PATH) ? source.getMap(PlayerData.STATUS_HEADERS_KEY_PATH) : null;
+    final DataSource.Factory factory = mModuleRegistry.getModule(DataSourceFactoryProvider.class)
+        .createFactory(mContext, mModuleRegistry, Util.getUserAgent(mContext, "yourApplicationName"), requestHeaders, null);
+    final long length = byteCount != null && byteCount > 0 ? byteCount.longValue() : C.LENGTH_UNSET;
+
+    mPreloadExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          promise.resolve((double) mediaCache.preload(uri, length, factory.createDataSource()));
+        } catch (IOException e) {
+          promise.reject("E_PRELOAD_FAILED", "Failed to preload " + uriString + ".", e);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          promise.reject("E_PRELOAD_FAILED", "Preloading " + uriString + " was interrupted.", e);
+        }
+      }
+    });
+  }
+
+  @Override
+  public void setMediaCacheSize(final Double byteCount, final Promise promise) {
+    if (byteCount == null || byteCount < 0) {
+      promise.reject("E_INVALID_CACHE_SIZE", "Media cache size must be a non-negative number of bytes.");
+      return;
+    }
+    final MediaCache mediaCache = getMediaCache();
+    // Shrinking the cache may remove files, so keep it off the calling thread and serialized
+    // with any preloads in flight.
+    mPreloadExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        mediaCache.setMaxBytes(byteCount.longValue());
+        promise.resolve((double) mediaCache.getCacheSpace());
+      }
+    });
+  }
+
   // Recording API
 
   private boolean isMissingAudioRecordingPermissions() {
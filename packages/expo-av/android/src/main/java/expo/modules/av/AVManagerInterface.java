@@ -5,6 +5,8 @@ import android.content.Context;
 import org.unimodules.core.ModuleRegistry;
 import org.unimodules.core.Promise;
 import org.unimodules.core.arguments.ReadableArguments;
+import expo.modules.av.player.datasource.MediaCache;
+import expo.modules.av.progress.ProgressTicker;
 import expo.modules.av.video.VideoView;
 
 public interface AVManagerInterface {
@@ -56,5 +58,13 @@ public interface AVManagerInterface {
 
   void unloadAudioRecorder(final Promise promise);
 
+  void preloadMedia(final ReadableArguments source, final Double byteCount, final Promise promise);
+
+  void setMediaCacheSize(final Double byteCount, final Promise promise);
+
+  MediaCache getMediaCache();
+
+  ProgressTicker getProgressTicker();
+
   ModuleRegistry getModuleRegistry();
 }
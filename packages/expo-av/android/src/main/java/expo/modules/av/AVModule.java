@@ -121,6 +121,16 @@ public class AVModule extends ExportedModule {
     mAVManager.unloadAudioRecorder(promise);
   }
 
+  @ExpoMethod
+  public void preloadAsync(final ReadableArguments source, final Double byteCount, final Promise promise) {
+    mAVManager.preloadMedia(source, byteCount, promise);
+  }
+
+  @ExpoMethod
+  public void setMediaCacheSizeAsync(final Double byteCount, final Promise promise) {
+    mAVManager.setMediaCacheSize(byteCount, promise);
+  }
+
   @ExpoMethod
   public void requestPermissionsAsync(final Promise promise) {
     Permissions.askForPermissionsWithPermissionsManager(mModuleRegistry.getModule(Permissions.class), promise, Manifest.permission.RECORD_AUDIO);
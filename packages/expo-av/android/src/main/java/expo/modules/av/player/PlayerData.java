@@ -14,12 +14,11 @@ import java.util.Map;
 import expo.modules.av.AVManagerInterface;
 import expo.modules.av.AudioEventHandler;
 import expo.modules.av.AudioFocusNotAcquiredException;
-import expo.modules.av.progress.AndroidLooperTimeMachine;
-import expo.modules.av.progress.ProgressLooper;
+import expo.modules.av.progress.ProgressTicker;
 
 public abstract class PlayerData implements AudioEventHandler {
   static final String STATUS_ANDROID_IMPLEMENTATION_KEY_PATH = "androidImplementation";
-  static final String STATUS_HEADERS_KEY_PATH = "headers";
+  public static final String STATUS_HEADERS_KEY_PATH = "headers";
   static final String STATUS_IS_LOADED_KEY_PATH = "isLoaded";
   public static final String STATUS_URI_KEY_PATH = "uri";
   static final String STATUS_OVERRIDING_EXTENSION_KEY_PATH = "overridingExtension";
@@ -77,8 +76,7 @@ public abstract class PlayerData implements AudioEventHandler {
   final Uri mUri;
   final Map<String, Object> mRequestHeaders;
 
-  private ProgressLooper mProgressUpdater = new ProgressLooper(new AndroidLooperTimeMachine());
-
+  private final ProgressTicker mProgressTicker;
 
   private FullscreenPresenter mFullscreenPresenter = null;
   private StatusUpdateListener mStatusUpdateListener = null;
@@ -96,6 +94,7 @@ public abstract class PlayerData implements AudioEventHandler {
     mRequestHeaders = requestHeaders;
     mAVModule = avModule;
     mUri = uri;
+    mProgressTicker = avModule.getProgressTicker();
   }
 
   public static PlayerData createUnloadedPlayerData(final AVManagerInterface avModule, final Context context, final ReadableArguments source, final Bundle status) {
@@ -145,12 +144,12 @@ public abstract class PlayerData implements AudioEventHandler {
   abstract boolean shouldContinueUpdatingProgress();
 
   final void stopUpdatingProgressIfNecessary() {
-    mProgressUpdater.stopLooping();
+    mProgressTicker.unsubscribe(this);
   }
 
   final void beginUpdatingProgressIfNecessary() {
-    if (shouldContinueUpdatingProgress() && !mProgressUpdater.isLooping() && (mStatusUpdateListener != null)) {
-      mProgressUpdater.loop(mProgressUpdateIntervalMillis, () -> {
+    if (shouldContinueUpdatingProgress() && !mProgressTicker.isSubscribed(this) && (mStatusUpdateListener != null)) {
+      mProgressTicker.subscribe(this, mProgressUpdateIntervalMillis, () -> {
         this.callStatusUpdateListener();
         return null;
       });
@@ -195,7 +194,7 @@ public abstract class PlayerData implements AudioEventHandler {
         mProgressUpdateIntervalMillis = (int) status.getDouble(STATUS_PROGRESS_UPDATE_INTERVAL_MILLIS_KEY_PATH);
 
         // Restart looper when update interval is changed
-        if (mProgressUpdater.isLooping()) {
+        if (mProgressTicker.isSubscribed(this)) {
           stopUpdatingProgressIfNecessary();
           beginUpdatingProgressIfNecessary();
         }
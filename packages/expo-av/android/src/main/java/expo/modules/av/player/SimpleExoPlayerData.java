@@ -51,6 +51,7 @@ import expo.modules.av.AVManagerInterface;
 import expo.modules.av.AudioFocusNotAcquiredException;
 import expo.modules.av.player.datasource.CustomHeadersOkHttpDataSourceFactory;
 import expo.modules.av.player.datasource.DataSourceFactoryProvider;
+import expo.modules.av.player.datasource.MediaCache;
 
 class SimpleExoPlayerData extends PlayerData
   implements Player.EventListener, ExtractorMediaSource.EventListener, SimpleExoPlayer.VideoListener, AdaptiveMediaSourceEventListener {
@@ -106,7 +107,13 @@ class SimpleExoPlayerData extends PlayerData
     mSimpleExoPlayer.addVideoListener(this);
 
     // Produces DataSource instances through which media data is loaded.
-    final DataSource.Factory dataSourceFactory = mAVModule.getModuleRegistry().getModule(DataSourceFactoryProvider.class).createFactory(mReactContext, mAVModule.getModuleRegistry(), Util.getUserAgent(mAVModule.getContext(), "yourApplicationName"), mRequestHeaders, bandwidthMeter.getTransferListener());
+    DataSource.Factory dataSourceFactory = mAVModule.getModuleRegistry().getModule(DataSourceFactoryProvider.class).createFactory(mReactContext, mAVModule.getModuleRegistry(), Util.getUserAgent(mAVModule.getContext(), "yourApplicationName"), mRequestHeaders, bandwidthMeter.getTransferListener());
+    // Progressive media fetched over the network goes through the disk cache, so replaying
+    // and seeking back don't hit the network again. Adaptive streams manage their own segments.
+    final MediaCache mediaCache = mAVModule.getMediaCache();
+    if (mediaCache.isEnabled() && MediaCache.isCacheable(mUri) && inferContentType(mUri, mOverridingExtension) == C.TYPE_OTHER) {
+      dataSourceFactory = mediaCache.wrap(dataSourceFactory);
+    }
     try {
       // This is the MediaSource representing the media to be played.
       final MediaSource source = buildMediaSource(mUri, mOverridingExtension, mainHandler, dataSourceFactory);
@@ -121,6 +128,7 @@ class SimpleExoPlayerData extends PlayerData
 
   @Override
   public synchronized void release() {
+    stopUpdatingProgressIfNecessary();
     if (mSimpleExoPlayer != null) {
       mSimpleExoPlayer.release();
       mSimpleExoPlayer = null;
@@ -383,7 +391,7 @@ class SimpleExoPlayerData extends PlayerData
     } catch (Exception e) {
       Log.e(TAG, "Error reading raw resource from ExoPlayer", e);
     }
-    @C.ContentType int type = TextUtils.isEmpty(overrideExtension) ? Util.inferContentType(String.valueOf(uri)) : Util.inferContentType("." + overrideExtension);
+    @C.ContentType int type = inferContentType(uri, overrideExtension);
     switch (type) {
       case C.TYPE_SS:
         return new SsMediaSource(uri, factory,
@@ -401,6 +409,10 @@ class SimpleExoPlayerData extends PlayerData
     }
   }
 
+  private static @C.ContentType int inferContentType(Uri uri, String overrideExtension) {
+    return TextUtils.isEmpty(overrideExtension) ? Util.inferContentType(String.valueOf(uri)) : Util.inferContentType("." + overrideExtension);
+  }
+
   // AdaptiveMediaSourceEventListener
   @Override
   public void onMediaPeriodCreated(int windowIndex, MediaSource.MediaPeriodId mediaPeriodId) {
@@ -0,0 +1,97 @@
+package expo.modules.av.player.datasource;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSource;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSourceFactory;
+import com.google.android.exoplayer2.upstream.cache.CacheUtil;
+import com.google.android.exoplayer2.upstream.cache.SimpleCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least recently used disk cache for media loaded over the network. The cache lives in
+ * the cache directory of the given context, so each experience gets its own cache.
+ * <p>
+ * The cache takes up disk space the app may not expect, so it is disabled until it's given
+ * a size with {@code setMediaCacheSizeAsync}.
+ */
+public class MediaCache {
+  public static final long DEFAULT_MAX_BYTES = 0;
+  private static final String CACHE_DIRECTORY = "ExponentAV";
+
+  // A SimpleCache locks its directory, so there may only be one instance per directory.
+  private static final Map<File, MediaCache> sCaches = new HashMap<>();
+
+  private final SimpleCache mCache;
+  private final MediaCacheEvictor mEvictor;
+
+  private MediaCache(File directory, long maxBytes) {
+    mEvictor = new MediaCacheEvictor(maxBytes);
+    mCache = new SimpleCache(directory, mEvictor);
+  }
+
+  public static MediaCache forContext(Context context) {
+    File directory = new File(context.getCacheDir(), CACHE_DIRECTORY);
+    synchronized (sCaches) {
+      MediaCache cache = sCaches.get(directory);
+      if (cache == null) {
+        cache = new MediaCache(directory, DEFAULT_MAX_BYTES);
+        sCaches.put(directory, cache);
+      }
+      return cache;
+    }
+  }
+
+  public static boolean isCacheable(Uri uri) {
+    String scheme = uri.getScheme();
+    return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+  }
+
+  public boolean isEnabled() {
+    return mEvictor.getMaxBytes() > 0;
+  }
+
+  /**
+   * Changes the maximum size of the cache, evicting least recently used media if it's now too
+   * big. A size of 0 disables caching.
+   */
+  public void setMaxBytes(long maxBytes) {
+    mEvictor.setMaxBytes(mCache, maxBytes);
+  }
+
+  public long getCacheSpace() {
+    return mCache.getCacheSpace();
+  }
+
+  /**
+   * Wraps {@code upstream} so that data is read from the cache when available and written to it
+   * while it is loaded from the network.
+   */
+  public DataSource.Factory wrap(@NonNull DataSource.Factory upstream) {
+    return new CacheDataSourceFactory(mCache, upstream, CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+  }
+
+  /**
+   * Loads the first {@code length} bytes of {@code uri} into the cache, or the whole media if
+   * {@code length} is {@link C#LENGTH_UNSET}. Blocks until done, so it must not be called on the
+   * main thread.
+   *
+   * @return the number of bytes of the requested range that are now cached.
+   */
+  public long preload(@NonNull Uri uri, long length, @NonNull DataSource upstream) throws IOException, InterruptedException {
+    DataSpec dataSpec = new DataSpec(uri, 0, length, null);
+    CacheUtil.CachingCounters counters = new CacheUtil.CachingCounters();
+    CacheUtil.cache(dataSpec, mCache, upstream, counters, null);
+    return counters.totalCachedBytes();
+  }
+}
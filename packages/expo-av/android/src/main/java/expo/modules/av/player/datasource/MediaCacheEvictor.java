@@ -0,0 +1,87 @@
+package expo.modules.av.player.datasource;
+
+import com.google.android.exoplayer2.upstream.cache.Cache;
+import com.google.android.exoplayer2.upstream.cache.CacheEvictor;
+import com.google.android.exoplayer2.upstream.cache.CacheSpan;
+
+import java.util.TreeSet;
+
+// Mainly a copy of com.google.android.exoplayer2.upstream.cache.LeastRecentlyUsedCacheEvictor,
+// with a maximum size that can be changed after the cache has been created.
+class MediaCacheEvictor implements CacheEvictor {
+  private final TreeSet<CacheSpan> mLeastRecentlyUsed = new TreeSet<>(MediaCacheEvictor::compare);
+  private long mMaxBytes;
+  private long mCurrentSize;
+
+  MediaCacheEvictor(long maxBytes) {
+    mMaxBytes = maxBytes;
+  }
+
+  void setMaxBytes(Cache cache, long maxBytes) {
+    // SimpleCache calls the evictor while holding its own lock, and evicting calls back into the
+    // cache, so the locks have to be taken in the same order here: the cache's, then ours.
+    synchronized (cache) {
+      synchronized (this) {
+        mMaxBytes = maxBytes;
+        evictCache(cache, 0);
+      }
+    }
+  }
+
+  synchronized long getMaxBytes() {
+    return mMaxBytes;
+  }
+
+  @Override
+  public boolean requiresCacheSpanTouches() {
+    return true;
+  }
+
+  @Override
+  public void onCacheInitialized() {
+    // Do nothing.
+  }
+
+  @Override
+  public synchronized void onStartFile(Cache cache, String key, long position, long length) {
+    evictCache(cache, length);
+  }
+
+  @Override
+  public synchronized void onSpanAdded(Cache cache, CacheSpan span) {
+    mLeastRecentlyUsed.add(span);
+    mCurrentSize += span.length;
+    evictCache(cache, 0);
+  }
+
+  @Override
+  public synchronized void onSpanRemoved(Cache cache, CacheSpan span) {
+    mLeastRecentlyUsed.remove(span);
+    mCurrentSize -= span.length;
+  }
+
+  @Override
+  public synchronized void onSpanTouched(Cache cache, CacheSpan oldSpan, CacheSpan newSpan) {
+    onSpanRemoved(cache, oldSpan);
+    onSpanAdded(cache, newSpan);
+  }
+
+  private void evictCache(Cache cache, long requiredSpace) {
+    while (mCurrentSize + requiredSpace > mMaxBytes && !mLeastRecentlyUsed.isEmpty()) {
+      try {
+        cache.removeSpan(mLeastRecentlyUsed.first());
+      } catch (Cache.CacheException e) {
+        // do nothing.
+      }
+    }
+  }
+
+  private static int compare(CacheSpan lhs, CacheSpan rhs) {
+    long lastAccessTimestampDelta = lhs.lastAccessTimestamp - rhs.lastAccessTimestamp;
+    if (lastAccessTimestampDelta == 0) {
+      // Use the standard compareTo method as a tie-break.
+      return lhs.compareTo(rhs);
+    }
+    return lhs.lastAccessTimestamp < rhs.lastAccessTimestamp ? -1 : 1;
+  }
+}
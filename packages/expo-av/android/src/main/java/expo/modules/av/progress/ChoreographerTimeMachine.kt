@@ -0,0 +1,31 @@
+package expo.modules.av.progress
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import android.view.Choreographer
+
+/**
+ * Runs callbacks on the main thread at the start of the first frame after the requested delay,
+ * so progress updates line up with vsync instead of landing in the middle of a frame.
+ */
+class ChoreographerTimeMachine : TimeMachine {
+
+  private val mainHandler = Handler(Looper.getMainLooper())
+
+  override fun scheduleAt(intervalMillis: Long, callback: TimeMachineTick) {
+    val delay = intervalMillis.coerceAtLeast(0L)
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      Choreographer.getInstance().postFrameCallbackDelayed({ callback() }, delay)
+    } else {
+      val postedAt = time
+      mainHandler.post {
+        val remaining = (delay - (time - postedAt)).coerceAtLeast(0L)
+        Choreographer.getInstance().postFrameCallbackDelayed({ callback() }, remaining)
+      }
+    }
+  }
+
+  override val time: Long
+    get() = SystemClock.uptimeMillis()
+}
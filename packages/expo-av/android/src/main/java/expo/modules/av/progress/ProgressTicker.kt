@@ -0,0 +1,92 @@
+package expo.modules.av.progress
+
+typealias PlayerProgressListener = () -> Unit
+
+/**
+ * Single progress clock shared by all players of an [expo.modules.av.AVManager].
+ *
+ * Players subscribe with their own update interval and the ticker schedules one callback for the
+ * earliest pending deadline. Subscribers falling due within [coalescingWindowMillis] of each other
+ * are notified on the same tick, so players with equal intervals end up in lockstep and share a
+ * frame.
+ */
+class ProgressTicker @JvmOverloads constructor(
+  private val timeMachine: TimeMachine,
+  private val coalescingWindowMillis: Long = DEFAULT_COALESCING_WINDOW_MILLIS
+) {
+
+  private class Subscription(val interval: Long, val listener: PlayerProgressListener, var nextTick: Long)
+
+  private val subscriptions = LinkedHashMap<Any, Subscription>()
+
+  // Time machine callbacks can't be cancelled, so stale ones are recognized by their generation.
+  private var generation = 0L
+  private var scheduledTick = -1L
+
+  @Synchronized
+  fun subscribe(owner: Any, interval: Long, listener: PlayerProgressListener) {
+    if (interval <= 0) {
+      unsubscribe(owner)
+      return
+    }
+    subscriptions[owner] = Subscription(interval, listener, timeMachine.time + interval)
+    scheduleNextTick()
+  }
+
+  @Synchronized
+  fun unsubscribe(owner: Any) {
+    if (subscriptions.remove(owner) != null && subscriptions.isEmpty()) {
+      generation++
+      scheduledTick = -1L
+    }
+  }
+
+  @Synchronized
+  fun isSubscribed(owner: Any): Boolean {
+    return subscriptions.containsKey(owner)
+  }
+
+  private fun scheduleNextTick() {
+    val nextTick = subscriptions.values.minOfOrNull { it.nextTick } ?: return
+    if (scheduledTick in 0..nextTick) {
+      return
+    }
+    val tickGeneration = ++generation
+    scheduledTick = nextTick
+    timeMachine.scheduleAt(nextTick - timeMachine.time) {
+      onTick(tickGeneration)
+    }
+  }
+
+  private fun onTick(tickGeneration: Long) {
+    val due = ArrayList<PlayerProgressListener>()
+    synchronized(this) {
+      if (tickGeneration != generation) {
+        return
+      }
+      scheduledTick = -1L
+      val now = timeMachine.time
+      for (subscription in subscriptions.values) {
+        if (subscription.nextTick <= now + coalescingWindowMillis) {
+          due.add(subscription.listener)
+          subscription.nextTick = nextTickAfter(subscription, now)
+        }
+      }
+      scheduleNextTick()
+    }
+    // Listeners are called outside of the lock, they build statuses and may unsubscribe.
+    due.forEach { it() }
+  }
+
+  // Ticks missed because the thread was busy are skipped rather than delivered in a burst.
+  private fun nextTickAfter(subscription: Subscription, now: Long) =
+    if (subscription.nextTick + subscription.interval > now) {
+      subscription.nextTick + subscription.interval
+    } else {
+      subscription.nextTick + ((now - subscription.nextTick) / subscription.interval + 1) * subscription.interval
+    }
+
+  companion object {
+    const val DEFAULT_COALESCING_WINDOW_MILLIS = 8L
+  }
+}
@@ -0,0 +1,166 @@
+package expo.modules.av.progress
+
+import io.mockk.Runs
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.spyk
+import io.mockk.verify
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+internal class ProgressTickerTest {
+
+  object TimeMachineInstance : TimeMachine {
+
+    override var time = 0L
+
+    var callbacks: List<Pair<TimeMachineTick, Long>> = ArrayList()
+
+    fun advanceBy(interval: Long) {
+      time += interval
+      val toInvoke = callbacks.filter { it.second <= time }
+      callbacks = callbacks.filter { it.second > time }
+      toInvoke.forEach {
+        it.first()
+      }
+    }
+
+    override fun scheduleAt(intervalMillis: Long, callback: TimeMachineTick) {
+      callbacks = callbacks.plus(callback to time + intervalMillis)
+    }
+
+    fun reset() {
+      callbacks = ArrayList()
+      time = 0
+    }
+  }
+
+  lateinit var ticker: ProgressTicker
+  lateinit var first: PlayerProgressListener
+  lateinit var second: PlayerProgressListener
+  lateinit var timeMachine: TimeMachineInstance
+
+  private val firstOwner = Any()
+  private val secondOwner = Any()
+
+  @BeforeEach
+  fun setUp() {
+    TimeMachineInstance.reset()
+    timeMachine = spyk(TimeMachineInstance)
+    ticker = ProgressTicker(timeMachine)
+    first = mockk()
+    second = mockk()
+    every { first() } just Runs
+    every { second() } just Runs
+  }
+
+  @Test
+  fun `listener not invoked prematurely`() {
+    ticker.subscribe(firstOwner, 1000, first)
+    timeMachine.advanceBy(900)
+    verify(exactly = 0) { first() }
+  }
+
+  @Test
+  fun `listener invoked on every interval`() {
+    ticker.subscribe(firstOwner, 1000, first)
+    timeMachine.advanceBy(1000)
+    timeMachine.advanceBy(1000)
+    verify(exactly = 2) { first() }
+  }
+
+  @Test
+  fun `listeners with equal intervals share one scheduled tick`() {
+    ticker.subscribe(firstOwner, 500, first)
+    ticker.subscribe(secondOwner, 500, second)
+    verify(exactly = 1) { timeMachine.scheduleAt(any(), any()) }
+
+    timeMachine.advanceBy(500)
+    verify(exactly = 1) { first() }
+    verify(exactly = 1) { second() }
+    verify(exactly = 2) { timeMachine.scheduleAt(any(), any()) }
+  }
+
+  @Test
+  fun `listeners due within coalescing window are invoked together`() {
+    ticker.subscribe(firstOwner, 500, first)
+    timeMachine.advanceBy(5)
+    ticker.subscribe(secondOwner, 500, second)
+
+    timeMachine.advanceBy(495)
+    verify(exactly = 1) { first() }
+    verify(exactly = 1) { second() }
+  }
+
+  @Test
+  fun `listeners with different intervals are invoked at their own pace`() {
+    ticker.subscribe(firstOwner, 100, first)
+    ticker.subscribe(secondOwner, 300, second)
+
+    repeat(6) { timeMachine.advanceBy(100) }
+    verify(exactly = 6) { first() }
+    verify(exactly = 2) { second() }
+  }
+
+  @Test
+  fun `shorter interval subscribed later is not delayed by pending tick`() {
+    ticker.subscribe(firstOwner, 1000, first)
+    ticker.subscribe(secondOwner, 100, second)
+
+    timeMachine.advanceBy(100)
+    verify(exactly = 1) { second() }
+    verify(exactly = 0) { first() }
+  }
+
+  @Test
+  fun `missed ticks are skipped`() {
+    ticker.subscribe(firstOwner, 100, first)
+    timeMachine.advanceBy(350)
+    verify(exactly = 1) { first() }
+    verify(exactly = 1) { timeMachine.scheduleAt(50, any()) }
+  }
+
+  @Test
+  fun `listener not invoked after unsubscribing`() {
+    ticker.subscribe(firstOwner, 100, first)
+    ticker.subscribe(secondOwner, 100, second)
+    timeMachine.advanceBy(100)
+    ticker.unsubscribe(firstOwner)
+    timeMachine.advanceBy(100)
+
+    verify(exactly = 1) { first() }
+    verify(exactly = 2) { second() }
+  }
+
+  @Test
+  fun `time machine not called after everyone unsubscribed`() {
+    ticker.subscribe(firstOwner, 100, first)
+    ticker.unsubscribe(firstOwner)
+    timeMachine.advanceBy(100)
+    timeMachine.advanceBy(100)
+
+    verify(exactly = 1) { timeMachine.scheduleAt(any(), any()) }
+    verify(exactly = 0) { first() }
+  }
+
+  @Test
+  fun `listener may unsubscribe while being invoked`() {
+    every { first() } answers { ticker.unsubscribe(firstOwner) }
+    ticker.subscribe(firstOwner, 100, first)
+    timeMachine.advanceBy(100)
+    timeMachine.advanceBy(100)
+
+    verify(exactly = 1) { first() }
+  }
+
+  @Test
+  fun `resubscribing replaces the interval`() {
+    ticker.subscribe(firstOwner, 1000, first)
+    ticker.subscribe(firstOwner, 100, first)
+    timeMachine.advanceBy(100)
+    verify(exactly = 1) { first() }
+    assertTrue(ticker.isSubscribed(firstOwner))
+  }
+}
@@ -0,0 +1,41 @@
+import { UnavailabilityError } from '@unimodules/core';
+
+import { AVPlaybackSource, getNativeSourceFromSource } from './AV';
+import ExponentAV from './ExponentAV';
+
+/**
+ * Loads the first `byteCount` bytes of the media at an http(s) source into the media cache, or
+ * all of it if `byteCount` is not given, so that playing it later starts without waiting for the
+ * network. Resolves with the number of bytes of the requested range that are cached.
+ *
+ * The media cache is disabled until it's given a size with `setMediaCacheSizeAsync`.
+ *
+ * @platform android
+ */
+export async function preloadAsync(
+  source: AVPlaybackSource,
+  byteCount: number = 0
+): Promise<number> {
+  if (!ExponentAV.preloadAsync) {
+    throw new UnavailabilityError('expo-av', 'preloadAsync');
+  }
+  const nativeSource = getNativeSourceFromSource(source);
+  if (nativeSource === null) {
+    throw new Error(`Cannot preload media from a null playback source`);
+  }
+  return await ExponentAV.preloadAsync(nativeSource, byteCount);
+}
+
+/**
+ * Sets the maximum size of the disk cache that media played over http(s) is read through,
+ * evicting the least recently used media if it is over the new size. The cache is disabled by
+ * default and a size of 0 disables it again. Resolves with the number of bytes the cache takes up.
+ *
+ * @platform android
+ */
+export async function setMediaCacheSizeAsync(byteCount: number): Promise<number> {
+  if (!ExponentAV.setMediaCacheSizeAsync) {
+    throw new UnavailabilityError('expo-av', 'setMediaCacheSizeAsync');
+  }
+  return await ExponentAV.setMediaCacheSizeAsync(byteCount);
+}
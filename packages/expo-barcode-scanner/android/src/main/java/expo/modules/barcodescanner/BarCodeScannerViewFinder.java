@@ -1,10 +1,11 @@
 package expo.modules.barcodescanner;
 
 import android.content.Context;
+import android.graphics.ImageFormat;
 import android.graphics.SurfaceTexture;
 import android.hardware.Camera;
-import android.os.AsyncTask;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
 import android.view.TextureView;
 
@@ -24,14 +25,35 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
   private volatile boolean mIsStopping;
   private volatile boolean mIsChanging;
   private BarCodeScannerView mBarCodeScannerView;
-  private Camera mCamera;
+  private volatile Camera mCamera;
 
-  // Concurrency lock for barcode scanner to avoid flooding the runtime
-  public static volatile boolean barCodeScannerTaskLock = false;
+  // Number of preview buffers handed to the camera: one being scanned, one waiting, one being filled.
+  private static final int PREVIEW_BUFFERS_COUNT = 3;
+
+  // Frames are scanned one at a time on a dedicated thread. Frames arriving while
+  // the scanner is busy replace the waiting one, so the newest frame is scanned next.
+  private final Object mFrameLock = new Object();
+  private HandlerThread mScannerThread;
+  private Handler mScannerHandler;
+  private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+  private PreviewFrame mPendingFrame;
+  private boolean mIsScanning;
+  private volatile int mPreviewWidth;
+  private volatile int mPreviewHeight;
 
   // Scanner instance for the barcode scanning
   private BarCodeScanner mBarCodeScanner;
 
+  private static class PreviewFrame {
+    final byte[] data;
+    final Camera camera;
+
+    PreviewFrame(byte[] data, Camera camera) {
+      this.data = data;
+      this.camera = camera;
+    }
+  }
+
   public BarCodeScannerViewFinder(Context context, int type, BarCodeScannerView barCodeScannerView, ModuleRegistry moduleRegistry) {
     super(context);
     mModuleRegistry = moduleRegistry;
@@ -119,9 +141,19 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
 
         mCamera.setParameters(parameters);
         mCamera.setPreviewTexture(mSurfaceTexture);
-        mCamera.startPreview();
+        startScannerThread();
+        // Reading preview size for every frame would mean parsing all the parameters again.
+        Camera.Parameters previewParameters = mCamera.getParameters();
+        Camera.Size previewSize = previewParameters.getPreviewSize();
+        mPreviewWidth = previewSize.width;
+        mPreviewHeight = previewSize.height;
+        int bufferSize = previewSize.width * previewSize.height * ImageFormat.getBitsPerPixel(previewParameters.getPreviewFormat()) / 8;
+        for (int i = 0; i < PREVIEW_BUFFERS_COUNT; i++) {
+          mCamera.addCallbackBuffer(new byte[bufferSize]);
+        }
         // send previews to `onPreviewFrame`
-        mCamera.setPreviewCallback(this);
+        mCamera.setPreviewCallbackWithBuffer(this);
+        mCamera.startPreview();
         mBarCodeScannerView.layoutViewFinder();
       } catch (NullPointerException e) {
         e.printStackTrace();
@@ -138,10 +170,12 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
     if (!mIsStopping) {
       mIsStopping = true;
       try {
+        // Stop scanning first, so that no frame buffer is given back to a released camera.
+        stopScannerThread();
         if (mCamera != null) {
           mCamera.stopPreview();
           // stop sending previews to `onPreviewFrame`
-          mCamera.setPreviewCallback(null);
+          mCamera.setPreviewCallbackWithBuffer(null);
           ExpoBarCodeScanner.getInstance().releaseCameraInstance();
           mCamera = null;
         }
@@ -166,9 +200,23 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
   }
 
   public void onPreviewFrame(byte[] data, Camera camera) {
-    if (!BarCodeScannerViewFinder.barCodeScannerTaskLock) {
-      BarCodeScannerViewFinder.barCodeScannerTaskLock = true;
-      new BarCodeScannerAsyncTask(camera, data, mBarCodeScannerView).execute();
+    if (data == null) {
+      return;
+    }
+    synchronized (mFrameLock) {
+      if (mScannerHandler == null) {
+        return;
+      }
+      if (mIsScanning) {
+        // Drop the frame that has been waiting, there's a newer one.
+        if (mPendingFrame != null && mPendingFrame.camera == camera) {
+          mPendingFrame.camera.addCallbackBuffer(mPendingFrame.data);
+        }
+        mPendingFrame = new PreviewFrame(data, camera);
+        return;
+      }
+      mIsScanning = true;
+      mScannerHandler.post(new ScanRunnable(new PreviewFrame(data, camera)));
     }
   }
 
@@ -176,37 +224,47 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
     mBarCodeScanner.setSettings(settings);
   }
 
-  private class BarCodeScannerAsyncTask extends AsyncTask<Void, Void, Void> {
-    private byte[] mImageData;
-    private final Camera mCamera;
-
-    BarCodeScannerAsyncTask(Camera camera, byte[] imageData, BarCodeScannerView barCodeScannerView) {
-      mCamera = camera;
-      mImageData = imageData;
-      mBarCodeScannerView = barCodeScannerView;
+  private void startScannerThread() {
+    synchronized (mFrameLock) {
+      if (mScannerThread == null) {
+        mScannerThread = new HandlerThread("ExpoBarCodeScanner");
+        mScannerThread.start();
+        mScannerHandler = new Handler(mScannerThread.getLooper());
+      }
     }
+  }
 
-    @Override
-    protected Void doInBackground(Void... ignored) {
-      if (isCancelled()) {
-        return null;
+  private void stopScannerThread() {
+    synchronized (mFrameLock) {
+      if (mScannerThread != null) {
+        mScannerThread.quitSafely();
+        mScannerThread = null;
+        mScannerHandler = null;
       }
+      mPendingFrame = null;
+      mIsScanning = false;
+    }
+  }
 
-      // setting PreviewCallback does not really have an effect - this method is called anyway so we
-      // need to check if camera changing is in progress or not
-      if (!mIsChanging && mCamera != null) {
-        Camera.Size size = mCamera.getParameters().getPreviewSize();
+  private class ScanRunnable implements Runnable {
+    private final PreviewFrame mFrame;
 
-        int width = size.width;
-        int height = size.height;
+    ScanRunnable(PreviewFrame frame) {
+      mFrame = frame;
+    }
 
+    @Override
+    public void run() {
+      // setting PreviewCallback does not really have an effect - this method is called anyway so we
+      // need to check if camera changing is in progress or not
+      if (!mIsChanging && mFrame.camera == mCamera) {
         int properRotation = ExpoBarCodeScanner.getInstance().getRotation();
 
-        final BarCodeScannerResult result = mBarCodeScanner.scan(mImageData, width,
-            height, properRotation);
+        final BarCodeScannerResult result = mBarCodeScanner.scan(mFrame.data, mPreviewWidth,
+            mPreviewHeight, properRotation);
 
         if (result != null) {
-          new Handler(Looper.getMainLooper()).post(new Runnable() {
+          mMainHandler.post(new Runnable() {
             @Override
             public void run() {
               mBarCodeScannerView.onBarCodeScanned(result);
@@ -215,8 +273,19 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
         }
       }
 
-      BarCodeScannerViewFinder.barCodeScannerTaskLock = false;
-      return null;
+      synchronized (mFrameLock) {
+        // Give the buffer back to the camera it came from, it's of no use to a new one.
+        if (mScannerHandler != null && mFrame.camera == mCamera) {
+          mFrame.camera.addCallbackBuffer(mFrame.data);
+        }
+        PreviewFrame nextFrame = mPendingFrame;
+        mPendingFrame = null;
+        if (nextFrame != null && mScannerHandler != null) {
+          mScannerHandler.post(new ScanRunnable(nextFrame));
+        } else {
+          mIsScanning = false;
+        }
+      }
     }
   }
 }
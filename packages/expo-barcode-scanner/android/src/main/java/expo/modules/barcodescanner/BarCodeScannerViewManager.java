@@ -9,6 +9,7 @@ import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettings;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 public class BarCodeScannerViewManager extends ViewManager<BarCodeScannerView> {
   public enum Events {
@@ -74,4 +75,16 @@ public class BarCodeScannerViewManager extends ViewManager<BarCodeScannerView> {
     }};
     view.setBarCodeScannerSettings(settings);
   }
+
+  /**
+   * Limits scanning to { x, y, width, height } (fractions of the preview) where supported,
+   * which makes scanning each frame cheaper.
+   */
+  @ExpoProp(name = "regionOfInterest")
+  public void setRegionOfInterest(BarCodeScannerView view, final Map<String, Object> regionOfInterest) {
+    BarCodeScannerSettings settings = new BarCodeScannerSettings() {{
+      putRegionOfInterest(regionOfInterest);
+    }};
+    view.setBarCodeScannerSettings(settings);
+  }
 }
@@ -10,11 +10,14 @@ import java.util.Set;
 
 import org.unimodules.interfaces.barcodescanner.BarCodeScanner;
 import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettings;
+import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettingsKey;
 
 public abstract class ExpoBarCodeScanner implements BarCodeScanner {
 
   protected Context mContext;
   protected List<Integer> mBarCodeTypes;
+  // Part of the (rotated) frame to scan as { left, top, width, height } fractions, null for the whole frame.
+  protected float[] mRegionOfInterest;
 
   ExpoBarCodeScanner(Context context) {
     mContext = context;
@@ -54,5 +57,29 @@ public abstract class ExpoBarCodeScanner implements BarCodeScanner {
     return result;
   }
 
+  void updateRegionOfInterestFromSettings(BarCodeScannerSettings settings) {
+    if (!settings.containsKey(BarCodeScannerSettingsKey.REGION_OF_INTEREST)) {
+      return;
+    }
+    Object regionOfInterest = settings.getRegionOfInterest();
+    if (!(regionOfInterest instanceof Map)) {
+      mRegionOfInterest = null;
+      return;
+    }
+    Map region = (Map) regionOfInterest;
+    float left = getFraction(region.get("x"), 0);
+    float top = getFraction(region.get("y"), 0);
+    float width = Math.min(getFraction(region.get("width"), 1), 1 - left);
+    float height = Math.min(getFraction(region.get("height"), 1), 1 - top);
+    mRegionOfInterest = width > 0 && height > 0 ? new float[]{left, top, width, height} : null;
+  }
+
+  private static float getFraction(Object value, float defaultValue) {
+    if (!(value instanceof Number)) {
+      return defaultValue;
+    }
+    return Math.max(0, Math.min(1, ((Number) value).floatValue()));
+  }
+
   public abstract boolean isAvailable();
 }
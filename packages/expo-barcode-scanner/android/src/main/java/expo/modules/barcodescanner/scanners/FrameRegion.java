@@ -0,0 +1,111 @@
+package expo.modules.barcodescanner.scanners;
+
+import java.util.List;
+
+/**
+ * Rectangle of an NV21 camera frame selected by a region of interest, for scanners that can't be
+ * told to scan only a part of the frame (GMV). The region of interest is given the same way as to
+ * {@link ZxingBarCodeScanner}: in portrait (rotation 0) it refers to the frame rotated by 90 degrees
+ * clockwise, in landscape to the frame as it is. The rectangle itself is in the frame's coordinates
+ * and its edges are even, so that it can be cut out along with the subsampled chroma plane.
+ */
+class FrameRegion {
+  final int left;
+  final int top;
+  final int width;
+  final int height;
+
+  FrameRegion(int left, int top, int width, int height) {
+    this.left = left;
+    this.top = top;
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * @param regionOfInterest { left, top, width, height } fractions, see {@link ExpoBarCodeScanner#mRegionOfInterest}.
+   */
+  static FrameRegion fromRegionOfInterest(float[] regionOfInterest, int frameWidth, int frameHeight, int rotation) {
+    float left = regionOfInterest[0];
+    float top = regionOfInterest[1];
+    float width = regionOfInterest[2];
+    float height = regionOfInterest[3];
+    if (rotation == 0) {
+      // Pixel (x, y) of the rotated frame is pixel (y, frameHeight - 1 - x) of the frame.
+      float rotatedLeft = left;
+      left = top;
+      top = 1 - rotatedLeft - width;
+      float rotatedWidth = width;
+      width = height;
+      height = rotatedWidth;
+    }
+    int regionLeft = floorToEven(left * frameWidth);
+    int regionTop = floorToEven(top * frameHeight);
+    int regionRight = Math.max(regionLeft + 2, Math.min(ceilToEven((left + width) * frameWidth), frameWidth & ~1));
+    int regionBottom = Math.max(regionTop + 2, Math.min(ceilToEven((top + height) * frameHeight), frameHeight & ~1));
+    return new FrameRegion(regionLeft, regionTop, regionRight - regionLeft, regionBottom - regionTop);
+  }
+
+  /**
+   * Copies the region out of an NV21 frame into {@code buffer}, which is reallocated if it's too small.
+   *
+   * @return the NV21 image of the region.
+   */
+  byte[] crop(byte[] data, int frameWidth, int frameHeight, byte[] buffer) {
+    int frameLumaSize = frameWidth * frameHeight;
+    if (data.length < frameLumaSize + frameLumaSize / 2) {
+      throw new IllegalArgumentException("Image data is smaller than its dimensions.");
+    }
+    int lumaSize = width * height;
+    int size = lumaSize + lumaSize / 2;
+    if (buffer == null || buffer.length < size) {
+      buffer = new byte[size];
+    }
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(data, (top + y) * frameWidth + left, buffer, y * width, width);
+    }
+    // Interleaved V and U samples, one pair for each 2x2 block of pixels.
+    for (int y = 0; y < height / 2; y++) {
+      System.arraycopy(data, frameLumaSize + (top / 2 + y) * frameWidth + left, buffer, lumaSize + y * width, width);
+    }
+    return buffer;
+  }
+
+  /**
+   * Translates points found in the region, given as x, y pairs in the upright orientation that
+   * {@code rotation} turns the frame into, to the same orientation of the whole frame.
+   */
+  void translatePoints(List<Integer> points, int frameWidth, int frameHeight, int rotation) {
+    int offsetX;
+    int offsetY;
+    switch (rotation) {
+      case 90:
+        offsetX = frameHeight - top - height;
+        offsetY = left;
+        break;
+      case 180:
+        offsetX = frameWidth - left - width;
+        offsetY = frameHeight - top - height;
+        break;
+      case 270:
+        offsetX = top;
+        offsetY = frameWidth - left - width;
+        break;
+      default:
+        offsetX = left;
+        offsetY = top;
+    }
+    for (int i = 0; i + 1 < points.size(); i += 2) {
+      points.set(i, points.get(i) + offsetX);
+      points.set(i + 1, points.get(i + 1) + offsetY);
+    }
+  }
+
+  private static int floorToEven(float value) {
+    return ((int) Math.floor(value)) & ~1;
+  }
+
+  private static int ceilToEven(float value) {
+    return (((int) Math.ceil(value)) + 1) & ~1;
+  }
+}
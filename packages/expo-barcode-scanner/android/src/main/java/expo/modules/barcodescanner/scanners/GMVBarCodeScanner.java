@@ -18,12 +18,15 @@ import java.util.Collections;
 import java.util.List;
 
 import expo.modules.barcodescanner.utils.FrameFactory;
+import expo.modules.barcodescanner.utils.ImageDimensions;
 
 public class GMVBarCodeScanner extends ExpoBarCodeScanner {
 
   private String TAG = GMVBarCodeScanner.class.getSimpleName();
 
   private BarcodeDetector mBarcodeDetector;
+  // Reused by consecutive scans of preview frames with a region of interest, which happen on a single thread.
+  private byte[] mRegionBuffer;
 
   public GMVBarCodeScanner(Context context) {
     super(context);
@@ -35,8 +38,24 @@ public class GMVBarCodeScanner extends ExpoBarCodeScanner {
   @Override
   public BarCodeScannerResult scan(byte[] data, int width, int height, int rotation) {
     try {
-      List<BarCodeScannerResult> results = scan(FrameFactory.buildFrame(data, width, height, rotation));
-      return results.size() > 0 ? results.get(0) : null;
+      float[] regionOfInterest = mRegionOfInterest;
+      if (regionOfInterest == null) {
+        List<BarCodeScannerResult> results = scan(FrameFactory.buildFrame(data, width, height, rotation));
+        return results.size() > 0 ? results.get(0) : null;
+      }
+
+      // The detector can't be told to scan only a part of the frame, so it gets a copy of that part.
+      FrameRegion region = FrameRegion.fromRegionOfInterest(regionOfInterest, width, height, rotation);
+      mRegionBuffer = region.crop(data, width, height, mRegionBuffer);
+      List<BarCodeScannerResult> results = scan(FrameFactory.buildFrame(mRegionBuffer, region.width, region.height, rotation));
+      if (results.isEmpty()) {
+        return null;
+      }
+      BarCodeScannerResult result = results.get(0);
+      List<Integer> cornerPoints = result.getCornerPoints();
+      region.translatePoints(cornerPoints, width, height, rotation);
+      ImageDimensions dimensions = new ImageDimensions(width, height, rotation);
+      return new BarCodeScannerResult(result.getType(), result.getValue(), cornerPoints, dimensions.getHeight(), dimensions.getWidth());
     } catch (Exception e) {
       // Sometimes data has different size than width and height would suggest:
       // ByteBuffer.wrap(data).capacity() < width * height.
@@ -86,8 +105,9 @@ public class GMVBarCodeScanner extends ExpoBarCodeScanner {
 
   @Override
   public void setSettings(BarCodeScannerSettings settings) {
+    updateRegionOfInterestFromSettings(settings);
     List<Integer> newBarCodeTypes = parseBarCodeTypesFromSettings(settings);
-    if (areNewAndOldBarCodeTypesEqual(newBarCodeTypes)) {
+    if (newBarCodeTypes == null || areNewAndOldBarCodeTypesEqual(newBarCodeTypes)) {
       return;
     }
 
@@ -0,0 +1,83 @@
+package expo.modules.barcodescanner.scanners;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Luminance of a YUV (eg. NV21) camera frame rotated by 90 degrees clockwise, optionally cropped.
+ * Reads straight from the frame's Y plane, so the frame doesn't have to be rotated up front.
+ * Coordinates of the crop refer to the rotated image.
+ */
+class RotatedYUVLuminanceSource extends LuminanceSource {
+  private final byte[] mYuvData;
+  private final int mDataWidth;
+  private final int mDataHeight;
+  private final int mLeft;
+  private final int mTop;
+  private byte[] mMatrix;
+
+  /**
+   * @param matrixBuffer reused for {@link #getMatrix()} if it's big enough, so callers scanning
+   *                     many frames can avoid allocating a new array for each of them.
+   */
+  RotatedYUVLuminanceSource(byte[] yuvData, int dataWidth, int dataHeight, int left, int top, int width, int height, byte[] matrixBuffer) {
+    super(width, height);
+    if (left < 0 || top < 0 || left + width > dataHeight || top + height > dataWidth) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within rotated image data.");
+    }
+    if (yuvData.length < dataWidth * dataHeight) {
+      throw new IllegalArgumentException("Image data is smaller than its dimensions.");
+    }
+    mYuvData = yuvData;
+    mDataWidth = dataWidth;
+    mDataHeight = dataHeight;
+    mLeft = left;
+    mTop = top;
+    mMatrix = matrixBuffer;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    // Pixel (x, y) of the rotated image is pixel (y, dataHeight - 1 - x) of the frame.
+    int sourceX = mTop + y;
+    int sourceRow = mDataHeight - 1 - mLeft;
+    for (int x = 0; x < width; x++, sourceRow--) {
+      row[x] = mYuvData[sourceRow * mDataWidth + sourceX];
+    }
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+    if (mMatrix == null || mMatrix.length < width * height) {
+      mMatrix = new byte[width * height];
+    }
+    // Walk the frame row by row so reads stay sequential.
+    for (int x = 0; x < width; x++) {
+      int sourceOffset = (mDataHeight - 1 - mLeft - x) * mDataWidth + mTop;
+      int matrixOffset = x;
+      for (int y = 0; y < height; y++, matrixOffset += width) {
+        mMatrix[matrixOffset] = mYuvData[sourceOffset + y];
+      }
+    }
+    return mMatrix;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new RotatedYUVLuminanceSource(mYuvData, mDataWidth, mDataHeight, mLeft + left, mTop + top, width, height, null);
+  }
+}
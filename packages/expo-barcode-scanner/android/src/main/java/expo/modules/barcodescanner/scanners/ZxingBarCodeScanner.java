@@ -27,10 +27,13 @@ import java.util.Map;
 
 import org.unimodules.interfaces.barcodescanner.BarCodeScannerResult;
 import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettings;
+import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettingsKey;
 
 public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
 
   private final MultiFormatReader mMultiFormatReader;
+  // Reused by consecutive scans of preview frames, which happen on a single thread.
+  private byte[] mLuminanceBuffer;
 
   public ZxingBarCodeScanner(Context context) {
     super(context);
@@ -49,25 +52,33 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
   }
 
   public BarCodeScannerResult scan(byte[] data, int width, int height, int rotation) {
+    if (data.length < width * height) {
+      // Happens for some of the first preview frames, see GMVBarCodeScanner.
+      return null;
+    }
+
     // rotate for zxing if orientation is portrait
-    if (rotation == 0) {
-      byte[] rotated = new byte[data.length];
-      for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++) {
-          int sourceIx = x + y * width;
-          int destIx = x * height + height - y - 1;
-          if (sourceIx >= 0 && sourceIx < data.length && destIx >= 0 && destIx < data.length) {
-            rotated[destIx] = data[sourceIx];
-          }
-        }
-      }
-      width = width + height;
-      height = width - height;
-      width = width - height;
-      data = rotated;
+    boolean shouldRotate = rotation == 0;
+    int scanWidth = shouldRotate ? height : width;
+    int scanHeight = shouldRotate ? width : height;
+
+    int left = 0;
+    int top = 0;
+    float[] regionOfInterest = mRegionOfInterest;
+    if (regionOfInterest != null) {
+      left = (int) (regionOfInterest[0] * scanWidth);
+      top = (int) (regionOfInterest[1] * scanHeight);
+      scanWidth = Math.max(1, Math.min((int) (regionOfInterest[2] * scanWidth), scanWidth - left));
+      scanHeight = Math.max(1, Math.min((int) (regionOfInterest[3] * scanHeight), scanHeight - top));
     }
 
-    return scan(generateSourceFromImageData(data, width, height));
+    if (shouldRotate) {
+      if (mLuminanceBuffer == null || mLuminanceBuffer.length < scanWidth * scanHeight) {
+        mLuminanceBuffer = new byte[scanWidth * scanHeight];
+      }
+      return scan(new RotatedYUVLuminanceSource(data, width, height, left, top, scanWidth, scanHeight, mLuminanceBuffer));
+    }
+    return scan(generateSourceFromImageData(data, width, height, left, top, scanWidth, scanHeight));
   }
 
   private BarCodeScannerResult scan(LuminanceSource source) {
@@ -97,6 +108,11 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
 
   @Override
   public void setSettings(BarCodeScannerSettings settings) {
+    updateRegionOfInterestFromSettings(settings);
+    if (!settings.containsKey(BarCodeScannerSettingsKey.TYPES)) {
+      return;
+    }
+
     List<Integer> newBarCodeTypes = parseBarCodeTypesFromSettings(settings);
     if (areNewAndOldBarCodeTypesEqual(newBarCodeTypes)) {
       return;
@@ -123,15 +139,15 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
     return true;
   }
 
-  private LuminanceSource generateSourceFromImageData(byte[] imageData, int width, int height) {
+  private LuminanceSource generateSourceFromImageData(byte[] imageData, int width, int height, int left, int top, int scanWidth, int scanHeight) {
     return new PlanarYUVLuminanceSource(
         imageData, // byte[] yuvData
         width, // int dataWidth
         height, // int dataHeight
-        0, // int left
-        0, // int top
-        width, // int width
-        height, // int height
+        left, // int left
+        top, // int top
+        scanWidth, // int width
+        scanHeight, // int height
         false // boolean reverseHorizontal
     );
   }
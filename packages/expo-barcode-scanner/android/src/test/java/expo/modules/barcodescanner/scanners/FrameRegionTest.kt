@@ -0,0 +1,96 @@
+package expo.modules.barcodescanner.scanners
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+internal class FrameRegionTest {
+
+  private val frameWidth = 640
+  private val frameHeight = 480
+
+  @Test
+  fun `landscape region refers to the frame`() {
+    val region = FrameRegion.fromRegionOfInterest(floatArrayOf(0.25f, 0.5f, 0.5f, 0.25f), frameWidth, frameHeight, 90)
+
+    assertRegion(160, 240, 320, 120, region)
+  }
+
+  @Test
+  fun `portrait region refers to the rotated frame`() {
+    // The top right quarter of the rotated frame is the top left quarter of the frame.
+    val region = FrameRegion.fromRegionOfInterest(floatArrayOf(0.5f, 0f, 0.5f, 0.5f), frameWidth, frameHeight, 0)
+
+    assertRegion(0, 0, 320, 240, region)
+  }
+
+  @Test
+  fun `region edges are even`() {
+    val region = FrameRegion.fromRegionOfInterest(floatArrayOf(0.1f, 0.1f, 0.3f, 0.3f), frameWidth, frameHeight, 90)
+
+    assertRegion(64, 48, 192, 144, region)
+    val odd = FrameRegion.fromRegionOfInterest(floatArrayOf(0.0016f, 0.0021f, 0.001f, 0.001f), frameWidth, frameHeight, 90)
+    assertRegion(0, 0, 2, 2, odd)
+  }
+
+  @Test
+  fun `crops luma and chroma planes`() {
+    val data = ByteArray(frameWidth * frameHeight * 3 / 2) { (it % 251).toByte() }
+    val region = FrameRegion(160, 240, 320, 120)
+
+    val cropped = region.crop(data, frameWidth, frameHeight, null)
+
+    for (y in 0 until region.height) {
+      val frameOffset = (region.top + y) * frameWidth + region.left
+      assertArrayEquals(
+        data.copyOfRange(frameOffset, frameOffset + region.width),
+        cropped.copyOfRange(y * region.width, (y + 1) * region.width)
+      )
+    }
+    val lumaSize = region.width * region.height
+    for (y in 0 until region.height / 2) {
+      val frameOffset = frameWidth * frameHeight + (region.top / 2 + y) * frameWidth + region.left
+      assertArrayEquals(
+        data.copyOfRange(frameOffset, frameOffset + region.width),
+        cropped.copyOfRange(lumaSize + y * region.width, lumaSize + (y + 1) * region.width)
+      )
+    }
+  }
+
+  @Test
+  fun `reuses big enough buffers`() {
+    val data = ByteArray(frameWidth * frameHeight * 3 / 2)
+    val buffer = ByteArray(frameWidth * frameHeight)
+
+    val cropped = FrameRegion(0, 0, 320, 240).crop(data, frameWidth, frameHeight, buffer)
+
+    assertEquals(buffer, cropped)
+  }
+
+  @Test(expected = IllegalArgumentException::class)
+  fun `rejects frames smaller than their dimensions`() {
+    FrameRegion(0, 0, 320, 240).crop(ByteArray(frameWidth * frameHeight), frameWidth, frameHeight, null)
+  }
+
+  @Test
+  fun `translates points to the whole frame`() {
+    val region = FrameRegion(160, 240, 320, 120)
+
+    // Point (10, 20) of the region is point (170, 260) of the frame.
+    assertEquals(listOf(170, 260), translate(region, 10, 20, 0))
+    // Rotated by 90 degrees clockwise, pixel (x, y) ends up at (height - 1 - y, x).
+    assertEquals(listOf(frameHeight - 1 - 260, 170), translate(region, region.height - 1 - 20, 10, 90))
+    assertEquals(listOf(frameWidth - 1 - 170, frameHeight - 1 - 260), translate(region, region.width - 1 - 10, region.height - 1 - 20, 180))
+    assertEquals(listOf(260, frameWidth - 1 - 170), translate(region, 20, region.width - 1 - 10, 270))
+  }
+
+  private fun translate(region: FrameRegion, x: Int, y: Int, rotation: Int): List<Int> {
+    val points = mutableListOf(x, y)
+    region.translatePoints(points, frameWidth, frameHeight, rotation)
+    return points
+  }
+
+  private fun assertRegion(left: Int, top: Int, width: Int, height: Int, region: FrameRegion) {
+    assertEquals(listOf(left, top, width, height), listOf(region.left, region.top, region.width, region.height))
+  }
+}
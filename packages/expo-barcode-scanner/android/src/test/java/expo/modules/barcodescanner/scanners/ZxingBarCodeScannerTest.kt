@@ -0,0 +1,157 @@
+package expo.modules.barcodescanner.scanners
+
+import com.google.android.gms.vision.barcode.Barcode
+import com.google.zxing.BarcodeFormat
+import com.google.zxing.qrcode.QRCodeWriter
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.unimodules.interfaces.barcodescanner.BarCodeScannerSettings
+import java.util.Random
+
+/**
+ * Scans NV21 preview frames like the ones delivered by the camera. In portrait (rotation 0)
+ * frames are rotated by 90 degrees clockwise before scanning and the region of interest refers
+ * to the rotated frame, in landscape they're scanned as they are.
+ */
+internal class ZxingBarCodeScannerTest {
+
+  private val frameWidth = 640
+  private val frameHeight = 480
+  private val portraitRotation = 0
+  private val landscapeRotation = 90
+
+  private lateinit var scanner: ZxingBarCodeScanner
+  private lateinit var random: Random
+
+  @Before
+  fun setUp() {
+    scanner = ZxingBarCodeScanner(null)
+    random = Random(42)
+  }
+
+  @Test
+  fun `rotated luminance source matches rotating the frame up front`() {
+    val data = createFrame("expo-barcode-scanner", CODE_LEFT, CODE_TOP)
+    val rotated = ByteArray(frameWidth * frameHeight)
+    for (y in 0 until frameHeight) {
+      for (x in 0 until frameWidth) {
+        rotated[x * frameHeight + frameHeight - y - 1] = data[x + y * frameWidth]
+      }
+    }
+
+    val source = RotatedYUVLuminanceSource(data, frameWidth, frameHeight, 0, 0, frameHeight, frameWidth, null)
+
+    assertArrayEquals(rotated, source.matrix.copyOf(rotated.size))
+    assertArrayEquals(rotated.copyOfRange(frameHeight * 10, frameHeight * 11), source.getRow(10, null))
+  }
+
+  @Test
+  fun `scans consecutive portrait frames`() {
+    // Frames share the scanner's luminance buffer, none of them may see the previous one.
+    repeat(FRAMES_COUNT) { index ->
+      val text = "expo-barcode-scanner-$index"
+      val result = scanner.scan(createFrame(text, CODE_LEFT, CODE_TOP), frameWidth, frameHeight, portraitRotation)
+
+      assertNotNull("Frame with \"$text\" was not scanned", result)
+      assertEquals(text, result.value)
+      assertEquals(Barcode.QR_CODE, result.type)
+      assertEquals(frameHeight, result.referenceImageWidth)
+      assertEquals(frameWidth, result.referenceImageHeight)
+    }
+  }
+
+  @Test
+  fun `scans landscape frames without rotating them`() {
+    val result = scanner.scan(createFrame("landscape", CODE_LEFT, CODE_TOP), frameWidth, frameHeight, landscapeRotation)
+
+    assertNotNull(result)
+    assertEquals("landscape", result.value)
+    assertEquals(frameWidth, result.referenceImageWidth)
+    assertEquals(frameHeight, result.referenceImageHeight)
+  }
+
+  @Test
+  fun `scans only the region of interest of portrait frames`() {
+    // The code is drawn in the top left corner of the frame, which is the top right corner once
+    // the frame is rotated.
+    val frame = createFrame("portrait", CODE_LEFT, CODE_TOP)
+
+    setRegionOfInterest(0.0, 0.0, 0.5, 0.5)
+    assertNull(scanner.scan(frame, frameWidth, frameHeight, portraitRotation))
+
+    setRegionOfInterest(0.5, 0.0, 0.5, 0.5)
+    val result = scanner.scan(frame, frameWidth, frameHeight, portraitRotation)
+    assertNotNull(result)
+    assertEquals("portrait", result.value)
+    assertEquals(frameHeight / 2, result.referenceImageWidth)
+    assertEquals(frameWidth / 2, result.referenceImageHeight)
+  }
+
+  @Test
+  fun `scans only the region of interest of landscape frames`() {
+    val frame = createFrame("landscape", CODE_LEFT, CODE_TOP)
+
+    setRegionOfInterest(0.5, 0.0, 0.5, 0.5)
+    assertNull(scanner.scan(frame, frameWidth, frameHeight, landscapeRotation))
+
+    setRegionOfInterest(0.0, 0.0, 0.5, 0.5)
+    val result = scanner.scan(frame, frameWidth, frameHeight, landscapeRotation)
+    assertNotNull(result)
+    assertEquals("landscape", result.value)
+    assertEquals(frameWidth / 2, result.referenceImageWidth)
+    assertEquals(frameHeight / 2, result.referenceImageHeight)
+  }
+
+  @Test
+  fun `scans whole frames again once the region of interest is cleared`() {
+    val frame = createFrame("cleared", CODE_LEFT, CODE_TOP)
+    setRegionOfInterest(0.0, 0.0, 0.5, 0.5)
+    assertNull(scanner.scan(frame, frameWidth, frameHeight, portraitRotation))
+
+    scanner.setSettings(BarCodeScannerSettings().apply { putRegionOfInterest(null) })
+
+    assertEquals("cleared", scanner.scan(frame, frameWidth, frameHeight, portraitRotation)?.value)
+  }
+
+  @Test
+  fun `ignores incomplete frames`() {
+    assertNull(scanner.scan(ByteArray(frameWidth * frameHeight - 1), frameWidth, frameHeight, portraitRotation))
+  }
+
+  private fun setRegionOfInterest(x: Double, y: Double, width: Double, height: Double) {
+    scanner.setSettings(BarCodeScannerSettings().apply {
+      putRegionOfInterest(mapOf("x" to x, "y" to y, "width" to width, "height" to height))
+    })
+  }
+
+  /**
+   * Draws a QR code with some sensor-like noise into the Y plane of an NV21 frame,
+   * with its top left corner at given position.
+   */
+  private fun createFrame(text: String, left: Int, top: Int): ByteArray {
+    val frame = ByteArray(frameWidth * frameHeight * 3 / 2)
+    val code = QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, CODE_SIZE, CODE_SIZE)
+    for (y in 0 until frameHeight) {
+      for (x in 0 until frameWidth) {
+        val isInCode = x - left in 0 until CODE_SIZE && y - top in 0 until CODE_SIZE
+        val luminance = if (isInCode && code[x - left, y - top]) 30 else 220
+        frame[y * frameWidth + x] = (luminance + random.nextInt(21) - 10).toByte()
+      }
+    }
+    // Neutral chroma
+    frame.fill(128.toByte(), frameWidth * frameHeight, frame.size)
+    return frame
+  }
+
+  companion object {
+    private const val FRAMES_COUNT = 5
+    // Fits within a quarter of the frame both before and after rotating it.
+    private const val CODE_SIZE = 160
+    private const val CODE_LEFT = 20
+    private const val CODE_TOP = 20
+  }
+}
@@ -42,12 +42,23 @@ export type BarCodeEventCallbackArguments = {
 
 export type BarCodeScannedCallback = (params: BarCodeEvent) => void;
 
+// Part of the camera preview to scan, as fractions of its width and height. Scanning a smaller
+// region is faster, barcodes outside of it are not reported.
+export type BarCodeScannerRegionOfInterest = {
+  x: number;
+  y: number;
+  width: number;
+  height: number;
+};
+
 export { PermissionResponse, PermissionStatus };
 
 export interface BarCodeScannerProps extends ViewProps {
   type?: 'front' | 'back' | number;
   barCodeTypes?: string[];
   onBarCodeScanned?: BarCodeScannedCallback;
+  // Android only.
+  regionOfInterest?: BarCodeScannerRegionOfInterest;
 }
 
 export class BarCodeScanner extends React.Component<BarCodeScannerProps> {
@@ -176,7 +176,8 @@ public class CameraModule extends ExportedModule {
           }
         } else {
           Bitmap image = CameraViewHelper.generateSimulatorPhoto(view.getWidth(), view.getHeight());
-          new ResolveTakenPictureAsyncTask(image, promise, options, cacheDirectory, view).execute();
+          new ResolveTakenPictureAsyncTask(image, promise, options, cacheDirectory, view)
+              .executeOnExecutor(ResolveTakenPictureAsyncTask.EXECUTOR);
         }
       }
 
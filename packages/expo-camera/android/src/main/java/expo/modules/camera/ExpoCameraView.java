@@ -103,7 +103,8 @@ public class ExpoCameraView extends CameraView implements LifecycleEventListener
           promise.resolve(null);
         }
 
-        new ResolveTakenPictureAsyncTask(data, promise, options, cacheDirectory, ExpoCameraView.this).execute();
+        new ResolveTakenPictureAsyncTask(data, promise, options, cacheDirectory, ExpoCameraView.this)
+            .executeOnExecutor(ResolveTakenPictureAsyncTask.EXECUTOR);
       }
 
       @Override
@@ -11,13 +11,23 @@ import androidx.exifinterface.media.ExifInterface;
 import android.net.Uri;
 import android.os.AsyncTask;
 import android.util.Base64;
+import android.util.Base64OutputStream;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.unimodules.core.Promise;
 
@@ -37,6 +47,7 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
   private static final String SKIP_PROCESSING_KEY = "skipProcessing";
   private static final String FAST_MODE_KEY = "fastMode";
   private static final String QUALITY_KEY = "quality";
+  private static final String SCALE_KEY = "scale";
   private static final String BASE64_KEY = "base64";
   private static final String HEIGHT_KEY = "height";
   private static final String WIDTH_KEY = "width";
@@ -46,6 +57,19 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
   private static final String ID_KEY = "id";
 
   private static final int DEFAULT_QUALITY = 1;
+  private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+  // Every picture being processed may hold a full resolution bitmap, so only a couple of them
+  // are processed at once instead of competing for memory (and AsyncTask's shared executor).
+  private static final int MAX_CONCURRENT_PICTURES = 2;
+  public static final Executor EXECUTOR = createExecutor();
+
+  private static Executor createExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        MAX_CONCURRENT_PICTURES, MAX_CONCURRENT_PICTURES, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
 
   private Promise mPromise;
   private byte[] mImageData;
@@ -79,6 +103,17 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
     return DEFAULT_QUALITY * 100;
   }
 
+  private float getScale() {
+    if (mOptions.get(SCALE_KEY) instanceof Number) {
+      float requestedScale = ((Number) mOptions.get(SCALE_KEY)).floatValue();
+      if (requestedScale > 0 && requestedScale < 1) {
+        return requestedScale;
+      }
+    }
+
+    return 1.0f;
+  }
+
   @Override
   protected Bundle doInBackground(Void... voids) {
     // handle SkipProcessing
@@ -88,45 +123,70 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
 
     Bundle response = new Bundle();
 
-    if (mBitmap == null) {
-      mBitmap = BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length);
-    }
-
-    ByteArrayInputStream inputStream = new ByteArrayInputStream(mImageData);
-
     try {
-      ExifInterface exifInterface = new ExifInterface(inputStream);
-      // Get orientation of the image from mImageData via inputStream
-      int orientation = exifInterface.getAttributeInt(
-          ExifInterface.TAG_ORIENTATION,
-          ExifInterface.ORIENTATION_UNDEFINED
-      );
-
-      // Rotate the bitmap to the proper orientation if needed
-      if (orientation != ExifInterface.ORIENTATION_UNDEFINED) {
-        mBitmap = rotateBitmap(mBitmap, getImageRotation(orientation));
-      }
+      // Get orientation of the image from mImageData, pictures generated on simulators don't have any
+      ExifInterface exifInterface = mImageData != null ? new ExifInterface(new ByteArrayInputStream(mImageData)) : null;
+      int orientation = exifInterface != null
+          ? exifInterface.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_UNDEFINED)
+          : ExifInterface.ORIENTATION_UNDEFINED;
+      int rotation = getImageRotation(orientation);
+      float scale = getScale();
 
       // Write Exif data to the response if requested
-      if (isOptionEnabled(EXIF_KEY)) {
+      if (exifInterface != null && isOptionEnabled(EXIF_KEY)) {
         Bundle exifData = CameraViewHelper.getExifData(exifInterface);
         response.putBundle(EXIF_KEY, exifData);
       }
 
-      // Upon rotating, write the image's dimensions to the response
-      response.putInt(WIDTH_KEY, mBitmap.getWidth());
-      response.putInt(HEIGHT_KEY, mBitmap.getHeight());
+      String filePath = null;
+      if (mImageData != null && rotation == 0 && scale == 1.0f && getQuality() >= 100) {
+        // The camera has already given us exactly what we want, there is no need
+        // to decode and re-encode the picture. Its metadata (e.g. the location) is only
+        // kept if Exif data was requested, as it is when the picture is re-encoded.
+        if (isOptionEnabled(EXIF_KEY)) {
+          filePath = writeImageDataToFile();
+        } else {
+          int[] segments = findJpegSegmentsWithoutMetadata(mImageData);
+          if (segments != null) {
+            filePath = writeImageDataToFile(segments);
+          }
+        }
+      }
 
-      // Cache compressed image in imageStream
-      ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
-      mBitmap.compress(Bitmap.CompressFormat.JPEG, getQuality(), imageStream);
-      // Write compressed image to file in cache directory
-      String filePath = writeStreamToFile(imageStream);
+      if (filePath != null) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length, bounds);
+        response.putInt(WIDTH_KEY, bounds.outWidth);
+        response.putInt(HEIGHT_KEY, bounds.outHeight);
+      } else {
+        // Scale down as much as possible while decoding, the rest is done together with the rotation
+        int sampleSize = mBitmap != null ? 1 : getSampleSize(scale);
+        Bitmap source = mBitmap != null ? mBitmap : decodeImageData(sampleSize);
+        mBitmap = null;
+        Bitmap bitmap = transformBitmap(source, rotation, scale * sampleSize);
+
+        // Upon rotating, write the image's dimensions to the response
+        response.putInt(WIDTH_KEY, bitmap.getWidth());
+        response.putInt(HEIGHT_KEY, bitmap.getHeight());
+
+        // Write compressed image to file in cache directory
+        try {
+          filePath = writeBitmapToFile(bitmap);
+        } finally {
+          bitmap.recycle();
+        }
 
-      // Save Exif data to the image if requested
-      if (isOptionEnabled(EXIF_KEY)) {
-        ExifInterface exifFromFile = new ExifInterface(filePath);
-        CameraViewHelper.addExifData(exifFromFile, exifInterface);
+        // Save Exif data to the image if requested
+        if (exifInterface != null && isOptionEnabled(EXIF_KEY)) {
+          ExifInterface exifFromFile = new ExifInterface(filePath);
+          CameraViewHelper.addExifData(exifFromFile, exifInterface);
+          // Pixels have been rotated already, viewers must not rotate them again
+          if (orientation != ExifInterface.ORIENTATION_UNDEFINED) {
+            exifFromFile.setAttribute(ExifInterface.TAG_ORIENTATION, String.valueOf(ExifInterface.ORIENTATION_NORMAL));
+            exifFromFile.saveAttributes();
+          }
+        }
       }
 
       File imageFile = new File(filePath);
@@ -135,14 +195,9 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
 
       // Write base64-encoded image to the response if requested
       if (isOptionEnabled(BASE64_KEY)) {
-        response.putString(BASE64_KEY, Base64.encodeToString(imageStream.toByteArray(), Base64.NO_WRAP));
+        response.putString(BASE64_KEY, encodeFileToBase64(imageFile));
       }
 
-      // Cleanup
-      imageStream.close();
-      inputStream.close();
-      inputStream = null;
-
       return response;
     } catch (Resources.NotFoundException e) {
       mPromise.reject(ERROR_TAG, DIRECTORY_NOT_FOUND_MSG, e);
@@ -153,14 +208,6 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
     } catch (Exception e) {
       mPromise.reject(ERROR_TAG, UNKNOWN_EXCEPTION_MSG, e);
       e.printStackTrace();
-    } finally {
-      try {
-        if (inputStream != null) {
-          inputStream.close();
-        }
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
     }
 
     // An exception had to occur, promise has already been rejected. Do not try to resolve it again.
@@ -170,12 +217,8 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
   private Bundle handleSkipProcessing() {
     Bundle response = new Bundle();
     try {
-      // save byte array (it's already a JPEG)
-      ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
-      imageStream.write(mImageData);
-
-      // write compressed image to file in cache directory
-      String filePath = writeStreamToFile(imageStream);
+      // write byte array (it's already a JPEG) to file in cache directory
+      String filePath = writeImageDataToFile();
       File imageFile = new File(filePath);
 
       // handle image uri
@@ -229,40 +272,133 @@ public class ResolveTakenPictureAsyncTask extends AsyncTask<Void, Void, Bundle>
     }
   }
 
-  // Write stream to file in cache directory
-  private String writeStreamToFile(ByteArrayOutputStream inputStream) throws Exception {
-    String outputPath = null;
-    Exception exception = null;
-    FileOutputStream outputStream = null;
+  private Bitmap decodeImageData(int sampleSize) {
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inSampleSize = sampleSize;
+    return BitmapFactory.decodeByteArray(mImageData, 0, mImageData.length, options);
+  }
+
+  // Largest power of two that doesn't shrink the picture more than requested
+  private static int getSampleSize(float scale) {
+    int sampleSize = 1;
+    while (scale * sampleSize * 2 <= 1.0f) {
+      sampleSize *= 2;
+    }
+    return sampleSize;
+  }
 
-    try {
-      outputPath = FileSystemUtils.generateOutputPath(mDirectory, DIRECTORY_NAME, EXTENSION);
-      outputStream = new FileOutputStream(outputPath);
-      inputStream.writeTo(outputStream);
-    } catch (IOException e) {
-      e.printStackTrace();
-      exception = e;
-    } finally {
-      try {
-        if (outputStream != null) {
-          outputStream.close();
-        }
-      } catch (IOException e) {
-        e.printStackTrace();
+  // Rotates and scales the bitmap in a single pass, recycling the source if a new bitmap had to be created
+  private Bitmap transformBitmap(Bitmap source, int angle, float scale) {
+    if (angle == 0 && scale == 1.0f) {
+      return source;
+    }
+
+    Matrix matrix = new Matrix();
+    matrix.postScale(scale, scale);
+    matrix.postRotate(angle);
+    Bitmap result = Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+    if (result != source) {
+      source.recycle();
+    }
+    return result;
+  }
+
+  private String writeImageDataToFile() throws IOException {
+    return writeImageDataToFile(new int[] { 0, mImageData.length });
+  }
+
+  // Writes the given (offset, length) pairs of the image data to the file
+  private String writeImageDataToFile(int[] segments) throws IOException {
+    String outputPath = FileSystemUtils.generateOutputPath(mDirectory, DIRECTORY_NAME, EXTENSION);
+    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputPath), OUTPUT_BUFFER_SIZE)) {
+      for (int i = 0; i + 1 < segments.length; i += 2) {
+        outputStream.write(mImageData, segments[i], segments[i + 1]);
       }
     }
+    return outputPath;
+  }
 
-    if (exception != null) {
-      throw exception;
+  /**
+   * Finds the parts of a JPEG that remain once its metadata segments (Exif and XMP in APP1, IPTC,
+   * comments, ...) are left out. APP0 (JFIF), APP2 (ICC profile) and APP14 (Adobe color transform)
+   * are kept since they affect how the pixels are decoded.
+   *
+   * @return (offset, length) pairs, or null if the data can't be parsed as a JPEG.
+   */
+  private static int[] findJpegSegmentsWithoutMetadata(byte[] data) {
+    if (data.length < 4 || (data[0] & 0xFF) != 0xFF || (data[1] & 0xFF) != 0xD8) {
+      return null;
+    }
+    int[] segments = new int[16];
+    int count = 0;
+    int keptStart = 0;
+    int offset = 2;
+    while (offset + 1 < data.length) {
+      if ((data[offset] & 0xFF) != 0xFF) {
+        return null;
+      }
+      int marker = data[offset + 1] & 0xFF;
+      if (marker == 0xFF) {
+        // fill byte
+        offset++;
+        continue;
+      }
+      if (marker == 0xDA || marker == 0xD9) {
+        // start of scan (or end of image), the rest is image data
+        break;
+      }
+      if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+        offset += 2;
+        continue;
+      }
+      if (offset + 3 >= data.length) {
+        return null;
+      }
+      int segmentEnd = offset + 2 + (((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF));
+      if (segmentEnd > data.length) {
+        return null;
+      }
+      boolean isMetadata = marker == 0xFE || (marker >= 0xE1 && marker <= 0xEF && marker != 0xE2 && marker != 0xEE);
+      if (isMetadata) {
+        if (offset > keptStart) {
+          if (count + 2 > segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+          }
+          segments[count++] = keptStart;
+          segments[count++] = offset - keptStart;
+        }
+        keptStart = segmentEnd;
+      }
+      offset = segmentEnd;
     }
+    if (count + 2 > segments.length) {
+      segments = Arrays.copyOf(segments, segments.length + 2);
+    }
+    segments[count++] = keptStart;
+    segments[count++] = data.length - keptStart;
+    return Arrays.copyOf(segments, count);
+  }
 
+  // Compresses the bitmap straight into the file, without buffering the whole JPEG in memory
+  private String writeBitmapToFile(Bitmap bitmap) throws IOException {
+    String outputPath = FileSystemUtils.generateOutputPath(mDirectory, DIRECTORY_NAME, EXTENSION);
+    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputPath), OUTPUT_BUFFER_SIZE)) {
+      bitmap.compress(Bitmap.CompressFormat.JPEG, getQuality(), outputStream);
+    }
     return outputPath;
   }
 
-  private Bitmap rotateBitmap(Bitmap source, int angle) {
-    Matrix matrix = new Matrix();
-    matrix.postRotate(angle);
-    return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+  private static String encodeFileToBase64(File file) throws IOException {
+    ByteArrayOutputStream base64Stream = new ByteArrayOutputStream((int) (file.length() * 4 / 3 + 4));
+    try (InputStream inputStream = new FileInputStream(file);
+         OutputStream outputStream = new Base64OutputStream(base64Stream, Base64.NO_WRAP)) {
+      byte[] buffer = new byte[OUTPUT_BUFFER_SIZE];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, read);
+      }
+    }
+    return base64Stream.toString("US-ASCII");
   }
 
   // Get rotation degrees from Exif orientation enum
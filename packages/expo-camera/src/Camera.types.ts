@@ -135,8 +135,9 @@ export type CameraPictureOptions = {
   onPictureSaved?: (picture: CameraCapturedPicture) => void;
   // TODO(Bacon): Is it possible to implement this in the browser?
   skipProcessing?: boolean;
-  // Web-only
+  // Web and Android
   scale?: number;
+  // Web-only
   imageType?: ImageType;
   isImageMirror?: boolean;
   // internal
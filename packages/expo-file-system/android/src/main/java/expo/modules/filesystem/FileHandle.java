@@ -0,0 +1,117 @@
+package expo.modules.filesystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File opened with `openFileHandleAsync`. Reads and writes are positional, so they don't
+ * depend on each other and a file of any size can be processed one chunk at a time.
+ */
+class FileHandle implements Closeable {
+  private final FileChannel mReadChannel;
+  private final FileChannel mWriteChannel;
+  private final Closeable mResource;
+
+  // End of a character split by the previous utf8 read and the position right after it,
+  // carried over to the read continuing from there.
+  private byte[] mPendingUtf8Bytes = new byte[0];
+  private long mPendingUtf8Position = -1;
+
+  /**
+   * @param writeChannel channel to write to or null if the file was opened for reading only
+   * @param resource     closed together with the handle, owns the channels
+   */
+  FileHandle(FileChannel readChannel, FileChannel writeChannel, Closeable resource) {
+    mReadChannel = readChannel;
+    mWriteChannel = writeChannel;
+    mResource = resource;
+  }
+
+  boolean isWritable() {
+    return mWriteChannel != null;
+  }
+
+  long size() throws IOException {
+    return mReadChannel.size();
+  }
+
+  /**
+   * Fills the buffer with the file contents starting at given position, stopping early only at the end of the file.
+   *
+   * @return number of bytes read
+   */
+  int read(ByteBuffer buffer, long position) throws IOException {
+    int totalBytesRead = 0;
+    while (buffer.hasRemaining()) {
+      int bytesRead = mReadChannel.read(buffer, position + totalBytesRead);
+      if (bytesRead == -1) {
+        break;
+      }
+      totalBytesRead += bytesRead;
+    }
+    return totalBytesRead;
+  }
+
+  /**
+   * Reads up to {@code length} bytes at given position as utf8. A multi-byte character split by
+   * the end of the chunk isn't returned, but prepended to the next read starting right where this
+   * one ended, so reading a file chunk by chunk yields the same text as reading it at once.
+   * Incomplete characters are only replaced with U+FFFD at the end of the file.
+   */
+  synchronized String readUtf8(long position, int length) throws IOException {
+    byte[] pendingBytes = position == mPendingUtf8Position ? mPendingUtf8Bytes : new byte[0];
+    ByteBuffer buffer = ByteBuffer.allocate(pendingBytes.length + length);
+    buffer.put(pendingBytes);
+    int bytesRead = read(buffer, position);
+    buffer.flip();
+
+    boolean isEndOfFile = position + bytesRead >= size();
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    // Decoding never yields more chars than there are bytes.
+    CharBuffer chars = CharBuffer.allocate(buffer.remaining());
+    decoder.decode(buffer, chars, isEndOfFile);
+    if (isEndOfFile) {
+      decoder.flush(chars);
+    }
+
+    // Without the end of input, the decoder leaves an incomplete character in the buffer.
+    mPendingUtf8Bytes = new byte[buffer.remaining()];
+    buffer.get(mPendingUtf8Bytes);
+    mPendingUtf8Position = position + bytesRead;
+
+    chars.flip();
+    return chars.toString();
+  }
+
+  /**
+   * Writes the whole buffer at given position or at the end of the file if the position is negative.
+   *
+   * @return number of bytes written
+   */
+  int write(ByteBuffer buffer, long position) throws IOException {
+    if (mWriteChannel == null) {
+      throw new IOException("File handle is opened for reading only.");
+    }
+    if (position < 0) {
+      position = mWriteChannel.size();
+    }
+    int totalBytesWritten = 0;
+    while (buffer.hasRemaining()) {
+      totalBytesWritten += mWriteChannel.write(buffer, position + totalBytesWritten);
+    }
+    return totalBytesWritten;
+  }
+
+  @Override
+  public void close() throws IOException {
+    mResource.close();
+  }
+}
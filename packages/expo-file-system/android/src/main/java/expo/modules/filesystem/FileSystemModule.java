@@ -10,6 +10,7 @@ import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
 import android.os.StatFs;
 import android.provider.DocumentsContract;
 import android.util.Base64;
@@ -40,15 +41,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
 import java.math.BigInteger;
 import java.net.CookieHandler;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import androidx.documentfile.provider.DocumentFile;
 import okhttp3.Call;
@@ -64,7 +73,6 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import okio.Buffer;
-import okio.BufferedSink;
 import okio.BufferedSource;
 import okio.ForwardingSource;
 import okio.Okio;
@@ -74,15 +82,26 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
   private static final String NAME = "ExponentFileSystem";
   private static final String TAG = FileSystemModule.class.getSimpleName();
   private static final String EXDownloadProgressEventName = "expo-file-system.downloadProgress";
+  private static final String EXTransferProgressEventName = "expo-file-system.transferProgress";
   private static final long MIN_EVENT_DT_MS = 100;
   private static final String HEADER_KEY = "headers";
   private static final int DIR_PERMISSIONS_REQUEST_CODE = 5394;
+  // Copies are mostly I/O bound, a few of them at once keep the storage busy without thrashing it.
+  private static final int FILE_TRANSFER_THREADS_COUNT = 4;
+  private static final int MAX_DOWNLOAD_SEGMENTS_COUNT = 8;
+  // Shared by the segments of all downloads, the first segment of each runs on its own thread.
+  private static final int DOWNLOAD_THREADS_COUNT = 8;
 
   private ModuleRegistry mModuleRegistry;
   private OkHttpClient mClient;
   private Promise mDirPermissionsRequest;
 
   private final Map<String, DownloadResumable> mDownloadResumableMap = new HashMap<>();
+  private final Map<String, FileHandle> mFileHandles = new ConcurrentHashMap<>();
+  private final AtomicInteger mNextFileHandleId = new AtomicInteger();
+  private final Map<String, FileTransfer> mFileTransfers = new ConcurrentHashMap<>();
+  private ExecutorService mFileTransferExecutor;
+  private ExecutorService mDownloadExecutor;
 
   private enum UploadType {
     INVALID(-1),
@@ -121,6 +140,32 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     mModuleRegistry = moduleRegistry;
   }
 
+  @Override
+  public void onDestroy() {
+    for (FileHandle handle : mFileHandles.values()) {
+      try {
+        handle.close();
+      } catch (IOException e) {
+        Log.e(TAG, e.getMessage());
+      }
+    }
+    mFileHandles.clear();
+
+    for (FileTransfer transfer : mFileTransfers.values()) {
+      transfer.cancel();
+    }
+    synchronized (this) {
+      if (mFileTransferExecutor != null) {
+        mFileTransferExecutor.shutdown();
+        mFileTransferExecutor = null;
+      }
+      if (mDownloadExecutor != null) {
+        mDownloadExecutor.shutdown();
+        mDownloadExecutor = null;
+      }
+    }
+  }
+
   @Override
   public String getName() {
     return NAME;
@@ -310,8 +355,8 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
             int length = ((Number) options.get("length")).intValue();
             int position = ((Number) options.get("position")).intValue();
             byte[] buffer = new byte[length];
-            inputStream.skip(position);
-            int bytesRead = inputStream.read(buffer, 0, length);
+            skipFully(inputStream, position);
+            int bytesRead = readFully(inputStream, buffer, length);
             contents = Base64.encodeToString(buffer, 0, bytesRead, Base64.NO_WRAP);
           } else {
             byte[] inputData = getInputStreamBytes(inputStream);
@@ -367,6 +412,133 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  @ExpoMethod
+  public void openFileHandleAsync(String uriStr, Map<String, Object> options, Promise promise) {
+    try {
+      Uri uri = Uri.parse(uriStr);
+      boolean writable = options.containsKey("mode") && "rw".equals(options.get("mode"));
+      ensurePermission(uri, Permission.READ);
+      if (writable) {
+        ensurePermission(uri, Permission.WRITE);
+      }
+
+      FileHandle handle;
+      if ("file".equals(uri.getScheme())) {
+        if (writable) {
+          checkIfFileDirExists(uri);
+        }
+        RandomAccessFile file = new RandomAccessFile(uriToFile(uri), writable ? "rw" : "r");
+        handle = new FileHandle(file.getChannel(), writable ? file.getChannel() : null, file);
+      } else if (isSAFUri(uri)) {
+        ParcelFileDescriptor fileDescriptor = getContext().getContentResolver().openFileDescriptor(uri, writable ? "rw" : "r");
+        if (fileDescriptor == null) {
+          throw new FileNotFoundException("File '" + uri + "' could not be opened.");
+        }
+        // Streams created from a descriptor don't own it, it's closed together with the handle.
+        FileChannel readChannel = new FileInputStream(fileDescriptor.getFileDescriptor()).getChannel();
+        FileChannel writeChannel = writable ? new FileOutputStream(fileDescriptor.getFileDescriptor()).getChannel() : null;
+        handle = new FileHandle(readChannel, writeChannel, fileDescriptor);
+      } else {
+        throw new IOException("Unsupported scheme for location '" + uri + "'.");
+      }
+
+      String handleId = String.valueOf(mNextFileHandleId.getAndIncrement());
+      mFileHandles.put(handleId, handle);
+
+      Bundle result = new Bundle();
+      result.putString("handle", handleId);
+      result.putDouble("size", handle.size());
+      promise.resolve(result);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void readFileHandleAsync(String handleId, Map<String, Object> options, Promise promise) {
+    FileHandle handle = mFileHandles.get(handleId);
+    if (handle == null) {
+      promise.reject("ERR_FILESYSTEM_INVALID_HANDLE", "File handle '" + handleId + "' is not open.");
+      return;
+    }
+    if (!options.containsKey("length")) {
+      promise.reject("ERR_FILESYSTEM_MISSING_PARAMETER", "`FileSystem.readFileHandleAsync` needs a `length`.");
+      return;
+    }
+
+    try {
+      String encoding = "utf8";
+      if (options.containsKey("encoding") && options.get("encoding") instanceof String) {
+        encoding = ((String) options.get("encoding")).toLowerCase();
+      }
+      long position = options.containsKey("position") ? ((Number) options.get("position")).longValue() : 0;
+      long length = ((Number) options.get("length")).longValue();
+
+      // Only allocate what is left in the file, so reading with a large length is cheap at the end of it.
+      int bufferSize = (int) Math.max(0, Math.min(Math.min(length, handle.size() - position), Integer.MAX_VALUE));
+
+      String contents;
+      if (encoding.equals("base64")) {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        int bytesRead = handle.read(buffer, position);
+        contents = Base64.encodeToString(buffer.array(), 0, bytesRead, Base64.NO_WRAP);
+      } else {
+        contents = handle.readUtf8(position, bufferSize);
+      }
+      promise.resolve(contents);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void writeFileHandleAsync(String handleId, String string, Map<String, Object> options, Promise promise) {
+    FileHandle handle = mFileHandles.get(handleId);
+    if (handle == null) {
+      promise.reject("ERR_FILESYSTEM_INVALID_HANDLE", "File handle '" + handleId + "' is not open.");
+      return;
+    }
+
+    try {
+      String encoding = "utf8";
+      if (options.containsKey("encoding") && options.get("encoding") instanceof String) {
+        encoding = ((String) options.get("encoding")).toLowerCase();
+      }
+      // Appends to the file unless a position is given.
+      long position = options.containsKey("position") ? ((Number) options.get("position")).longValue() : -1;
+
+      byte[] bytes;
+      if (encoding.equals("base64")) {
+        bytes = Base64.decode(string, Base64.DEFAULT);
+      } else {
+        bytes = string.getBytes(StandardCharsets.UTF_8);
+      }
+      promise.resolve(handle.write(ByteBuffer.wrap(bytes), position));
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void closeFileHandleAsync(String handleId, Promise promise) {
+    FileHandle handle = mFileHandles.remove(handleId);
+    if (handle == null) {
+      promise.reject("ERR_FILESYSTEM_INVALID_HANDLE", "File handle '" + handleId + "' is not open.");
+      return;
+    }
+
+    try {
+      handle.close();
+      promise.resolve(null);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
   @ExpoMethod
   public void deleteAsync(String uriStr, Map<String, Object> options, Promise promise) {
     try {
@@ -420,33 +592,38 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
         promise.reject("ERR_FILESYSTEM_MISSING_PARAMETER", "`FileSystem.moveAsync` needs a `from` path.");
         return;
       }
-      Uri fromUri = Uri.parse((String) options.get("from"));
+      final Uri fromUri = Uri.parse((String) options.get("from"));
       ensurePermission(Uri.withAppendedPath(fromUri, ".."), Permission.WRITE, "Location '" + fromUri + "' isn't movable.");
       if (!options.containsKey("to")) {
         promise.reject("ERR_FILESYSTEM_MISSING_PARAMETER", "`FileSystem.moveAsync` needs a `to` path.");
         return;
       }
-      Uri toUri = Uri.parse((String) options.get("to"));
+      final Uri toUri = Uri.parse((String) options.get("to"));
       ensurePermission(toUri, Permission.WRITE);
 
+      String errorMessage = "File '" + fromUri + "' could not be moved to '" + toUri + "'";
       if ("file".equals(fromUri.getScheme())) {
-        File from = uriToFile(fromUri);
-        File to = uriToFile(toUri);
-        if (from.renameTo(to)) {
-          promise.resolve(null);
-        } else {
-          promise.reject("ERR_FILESYSTEM_CANNOT_MOVE_FILE",
-            "File '" + fromUri + "' could not be moved to '" + toUri + "'");
-        }
+        final File from = uriToFile(fromUri);
+        final File to = uriToFile(toUri);
+        runFileTransfer(options, new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            transfer.move(from, to);
+          }
+        }, "ERR_FILESYSTEM_CANNOT_MOVE_FILE", errorMessage, promise);
       } else if (isSAFUri(fromUri)) {
-        DocumentFile documentFile = getNearestSAFFile(fromUri);
+        final DocumentFile documentFile = getNearestSAFFile(fromUri);
         if (!documentFile.exists()) {
-          promise.reject("ERR_FILESYSTEM_CANNOT_MOVE_FILE", "File '" + fromUri + "' could not be moved to '" + toUri + "'");
+          promise.reject("ERR_FILESYSTEM_CANNOT_MOVE_FILE", errorMessage);
           return;
         }
-        File output = new File(toUri.getPath());
-        transformFilesFromSAF(documentFile, output, false);
-        promise.resolve(null);
+        final File output = new File(toUri.getPath());
+        runFileTransfer(options, new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            transfer.copyFromSAF(getContext().getContentResolver(), documentFile, output, true);
+          }
+        }, "ERR_FILESYSTEM_CANNOT_MOVE_FILE", errorMessage, promise);
       } else {
         throw new IOException("Unsupported scheme for location '" + fromUri + "'.");
       }
@@ -457,101 +634,169 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
   }
 
   @ExpoMethod
-  public void copyAsync(Map<String, Object> options, Promise promise) {
+  public void copyAsync(final Map<String, Object> options, Promise promise) {
     try {
       if (!options.containsKey("from")) {
         promise.reject("ERR_FILESYSTEM_MISSING_PARAMETER", "`FileSystem.moveAsync` needs a `from` path.");
         return;
       }
-      Uri fromUri = Uri.parse((String) options.get("from"));
+      final Uri fromUri = Uri.parse((String) options.get("from"));
       ensurePermission(fromUri, Permission.READ);
       if (!options.containsKey("to")) {
         promise.reject("ERR_FILESYSTEM_MISSING_PARAMETER", "`FileSystem.moveAsync` needs a `to` path.");
         return;
       }
-      Uri toUri = Uri.parse((String) options.get("to"));
+      final Uri toUri = Uri.parse((String) options.get("to"));
       ensurePermission(toUri, Permission.WRITE);
 
+      FileTransferTask task;
       if ("file".equals(fromUri.getScheme())) {
-        File from = uriToFile(fromUri);
-        File to = uriToFile(toUri);
-        if (from.isDirectory()) {
-          FileUtils.copyDirectory(from, to);
-        } else {
-          FileUtils.copyFile(from, to);
-        }
-        promise.resolve(null);
+        task = new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            transfer.copy(uriToFile(fromUri), uriToFile(toUri));
+          }
+        };
       } else if (isSAFUri(fromUri)) {
-        DocumentFile documentFile = getNearestSAFFile(fromUri);
+        final DocumentFile documentFile = getNearestSAFFile(fromUri);
         if (!documentFile.exists()) {
           promise.reject("ERR_FILESYSTEM_CANNOT_FIND_FILE", "File '" + fromUri + "' could not be copied because it could not be found");
           return;
         }
-        File output = new File(toUri.getPath());
-        transformFilesFromSAF(documentFile, output, true);
-        promise.resolve(null);
+        task = new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            transfer.copyFromSAF(getContext().getContentResolver(), documentFile, new File(toUri.getPath()), false);
+          }
+        };
       } else if ("content".equals(fromUri.getScheme())) {
-        InputStream in = getContext().getContentResolver().openInputStream(fromUri);
-        OutputStream out = new FileOutputStream(uriToFile(toUri));
-        IOUtils.copy(in, out);
-        promise.resolve(null);
+        task = new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            InputStream in = getContext().getContentResolver().openInputStream(fromUri);
+            if (in == null) {
+              throw new FileNotFoundException("File '" + fromUri + "' could not be opened.");
+            }
+            transfer.copyStream(in, uriToFile(toUri));
+          }
+        };
       } else if ("asset".equals(fromUri.getScheme())) {
-        InputStream in = openAssetInputStream(fromUri);
-        OutputStream out = new FileOutputStream(uriToFile(toUri));
-        IOUtils.copy(in, out);
-        promise.resolve(null);
+        task = new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            transfer.copyStream(openAssetInputStream(fromUri), uriToFile(toUri));
+          }
+        };
       } else if (fromUri.getScheme() == null) {
         // this is probably an asset embedded by the packager in resources
-        InputStream in = openResourceInputStream((String) options.get("from"));
-        OutputStream out = new FileOutputStream(uriToFile(toUri));
-        IOUtils.copy(in, out);
-        promise.resolve(null);
+        task = new FileTransferTask() {
+          @Override
+          public void run(FileTransfer transfer) throws IOException {
+            transfer.copyStream(openResourceInputStream((String) options.get("from")), uriToFile(toUri));
+          }
+        };
       } else {
         throw new IOException("Unsupported scheme for location '" + fromUri + "'.");
       }
+      runFileTransfer(options, task, null, null, promise);
     } catch (Exception e) {
       Log.e(TAG, e.getMessage());
       promise.reject(e);
     }
   }
 
-  private void transformFilesFromSAF(DocumentFile documentFile, File outputDir, boolean copy) throws IOException {
-    if (!documentFile.exists()) {
-      return;
+  @ExpoMethod
+  public void cancelTransferAsync(String uuid, Promise promise) {
+    FileTransfer transfer = mFileTransfers.get(uuid);
+    if (transfer != null) {
+      transfer.cancel();
     }
+    promise.resolve(null);
+  }
+
+  private interface FileTransferTask {
+    void run(FileTransfer transfer) throws IOException;
+  }
 
-    if (!outputDir.exists() && !outputDir.mkdirs()) {
-      throw new IOException("Couldn't create folder in output dir.");
+  /**
+   * Runs the copy or move in the background. When the options contain `uuid`, progress events are sent
+   * for it and the transfer can be cancelled with `cancelTransferAsync`.
+   *
+   * @param errorCode code to reject with on failure, the error is rejected as is if null
+   */
+  private void runFileTransfer(Map<String, Object> options, final FileTransferTask task, final String errorCode, final String errorMessage, final Promise promise) {
+    final String uuid = options.get("uuid") instanceof String ? (String) options.get("uuid") : null;
+    final FileTransfer transfer = new FileTransfer(getFileTransferExecutor(), uuid != null ? createTransferProgressListener(uuid) : null);
+    if (uuid != null) {
+      mFileTransfers.put(uuid, transfer);
     }
 
-    if (documentFile.isDirectory()) {
-      for (DocumentFile file : documentFile.listFiles()) {
-        if (documentFile.getName() == null) {
-          continue;
+    AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          task.run(transfer);
+          promise.resolve(null);
+        } catch (FileTransfer.CancelledException e) {
+          promise.reject("ERR_FILESYSTEM_TRANSFER_CANCELLED", e.getMessage(), e);
+        } catch (Exception e) {
+          Log.e(TAG, e.getMessage());
+          if (errorCode != null) {
+            promise.reject(errorCode, errorMessage + ": " + e.getMessage(), e);
+          } else {
+            promise.reject(e);
+          }
+        } finally {
+          if (uuid != null) {
+            mFileTransfers.remove(uuid);
+          }
         }
-        transformFilesFromSAF(file, new File(outputDir, documentFile.getName()), copy);
       }
+    });
+  }
 
-      if (!copy) {
-        documentFile.delete();
-      }
+  private FileTransfer.ProgressListener createTransferProgressListener(final String uuid) {
+    return new FileTransfer.ProgressListener() {
+      long mLastUpdate = -1;
 
-      return;
-    }
-
-    if (documentFile.getName() == null) {
-      return;
-    }
+      @Override
+      public synchronized void update(long bytesCopied, long totalBytes, int filesCopied, int totalFiles) {
+        EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
+        if (eventEmitter == null) {
+          return;
+        }
+        long currentTime = System.currentTimeMillis();
+
+        // Throttle events the same way as download progress. Make sure to send the last event.
+        if (currentTime > mLastUpdate + MIN_EVENT_DT_MS || filesCopied == totalFiles) {
+          mLastUpdate = currentTime;
+          Bundle transferProgress = new Bundle();
+          Bundle transferProgressData = new Bundle();
+          transferProgressData.putDouble("totalBytesCopied", bytesCopied);
+          transferProgressData.putDouble("totalBytesExpectedToCopy", totalBytes);
+          transferProgressData.putInt("filesCopied", filesCopied);
+          transferProgressData.putInt("totalFiles", totalFiles);
+          transferProgress.putString("uuid", uuid);
+          transferProgress.putBundle("data", transferProgressData);
+
+          eventEmitter.emit(EXTransferProgressEventName, transferProgress);
+        }
+      }
+    };
+  }
 
-    File newFile = new File(outputDir.getPath(), documentFile.getName());
-    try (InputStream in = getContext().getContentResolver().openInputStream(documentFile.getUri());
-         OutputStream out = new FileOutputStream(newFile)) {
-      IOUtils.copy(in, out);
+  private synchronized ExecutorService getDownloadExecutor() {
+    if (mDownloadExecutor == null) {
+      mDownloadExecutor = Executors.newFixedThreadPool(DOWNLOAD_THREADS_COUNT);
     }
+    return mDownloadExecutor;
+  }
 
-    if (!copy) {
-      documentFile.delete();
+  private synchronized ExecutorService getFileTransferExecutor() {
+    if (mFileTransferExecutor == null) {
+      mFileTransferExecutor = Executors.newFixedThreadPool(FILE_TRANSFER_THREADS_COUNT);
     }
+    return mFileTransferExecutor;
   }
 
   @ExpoMethod
@@ -714,18 +959,17 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
         String packageName = context.getPackageName();
         int resourceId = resources.getIdentifier(url, "raw", packageName);
 
-        BufferedSource bufferedSource = Okio.buffer(Okio.source(context.getResources().openRawResource(resourceId)));
         File file = uriToFile(uri);
         file.delete();
-        BufferedSink sink = Okio.buffer(Okio.sink(file));
-        sink.writeAll(bufferedSource);
-        sink.close();
+        IncrementalHasher hasher = createDownloadHasher(options);
+        try (InputStream inputStream = context.getResources().openRawResource(resourceId);
+             OutputStream outputStream = new FileOutputStream(file)) {
+          writeAndHash(inputStream, outputStream, hasher, 0);
+        }
 
         Bundle result = new Bundle();
         result.putString("uri", Uri.fromFile(file).toString());
-        if (options != null && options.containsKey("md5") && (Boolean) options.get("md5")) {
-          result.putString("md5", md5(file));
-        }
+        putHashes(result, hasher.getMd5(), hasher.getSha256());
         promise.resolve(result);
       } else if ("file".equals(uri.getScheme())) {
         Request.Builder requestBuilder = new Request.Builder().url(url);
@@ -740,6 +984,32 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
             return;
           }
         }
+
+        int segmentsCount = getDownloadSegmentsCount(options);
+        if (segmentsCount > 1) {
+          final SegmentedDownload download = new SegmentedDownload(getOkHttpClient(), requestBuilder.build(), uriToFile(uri), segmentsCount,
+            getDownloadExecutor(), isOptionEnabled(options, "md5"), isOptionEnabled(options, "sha256"), null);
+          AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+              try {
+                // Continues an interrupted segmented download of the same url into the same file.
+                SegmentedDownload.Result downloadResult = download.run(true);
+                Bundle result = new Bundle();
+                result.putString("uri", Uri.fromFile(uriToFile(uri)).toString());
+                putHashes(result, downloadResult.md5, downloadResult.sha256);
+                result.putInt("status", downloadResult.status);
+                result.putBundle("headers", translateHeaders(downloadResult.headers));
+                promise.resolve(result);
+              } catch (Exception e) {
+                Log.e(TAG, String.valueOf(e.getMessage()));
+                promise.reject(e);
+              }
+            }
+          });
+          return;
+        }
+
         getOkHttpClient().newCall(requestBuilder.build()).enqueue(new Callback() {
           @Override
           public void onFailure(Call call, IOException e) {
@@ -751,15 +1021,15 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
           public void onResponse(Call call, Response response) throws IOException {
             File file = uriToFile(uri);
             file.delete();
-            BufferedSink sink = Okio.buffer(Okio.sink(file));
-            sink.writeAll(response.body().source());
-            sink.close();
+            IncrementalHasher hasher = createDownloadHasher(options);
+            try (InputStream inputStream = response.body().byteStream();
+                 OutputStream outputStream = new FileOutputStream(file)) {
+              writeAndHash(inputStream, outputStream, hasher, 0);
+            }
 
             Bundle result = new Bundle();
             result.putString("uri", Uri.fromFile(file).toString());
-            if (options != null && options.containsKey("md5") && (Boolean) options.get("md5")) {
-              result.putString("md5", md5(file));
-            }
+            putHashes(result, hasher.getMd5(), hasher.getSha256());
             result.putInt("status", response.code());
             result.putBundle("headers", translateHeaders(response.headers()));
             response.close();
@@ -847,30 +1117,26 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
 
       final boolean isResume = resumeData != null;
 
+      int segmentsCount = getDownloadSegmentsCount(options);
+      if (segmentsCount > 1) {
+        startSegmentedDownloadResumable(url, fileUri, uuid, options, isResume, segmentsCount, promise);
+        return;
+      }
+
       final ProgressListener progressListener = new ProgressListener() {
         long mLastUpdate = -1;
 
         @Override
         public void update(long bytesRead, long contentLength, boolean done) {
-          EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
-          if (eventEmitter != null) {
-            Bundle downloadProgress = new Bundle();
-            Bundle downloadProgressData = new Bundle();
-            long totalBytesWritten = isResume ? bytesRead + Long.parseLong(resumeData) : bytesRead;
-            long totalBytesExpectedToWrite = isResume ? contentLength + Long.parseLong(resumeData) : contentLength;
-            long currentTime = System.currentTimeMillis();
-
-            // Throttle events. Sending too many events will block the JS event loop.
-            // Make sure to send the last event when we're at 100%.
-            if (currentTime > mLastUpdate + MIN_EVENT_DT_MS || totalBytesWritten == totalBytesExpectedToWrite) {
-              mLastUpdate = currentTime;
-              downloadProgressData.putDouble("totalBytesWritten", totalBytesWritten);
-              downloadProgressData.putDouble("totalBytesExpectedToWrite", totalBytesExpectedToWrite);
-              downloadProgress.putString("uuid", uuid);
-              downloadProgress.putBundle("data", downloadProgressData);
-
-              eventEmitter.emit(EXDownloadProgressEventName, downloadProgress);
-            }
+          long totalBytesWritten = isResume ? bytesRead + Long.parseLong(resumeData) : bytesRead;
+          long totalBytesExpectedToWrite = isResume ? contentLength + Long.parseLong(resumeData) : contentLength;
+          long currentTime = System.currentTimeMillis();
+
+          // Throttle events. Sending too many events will block the JS event loop.
+          // Make sure to send the last event when we're at 100%.
+          if (currentTime > mLastUpdate + MIN_EVENT_DT_MS || totalBytesWritten == totalBytesExpectedToWrite) {
+            mLastUpdate = currentTime;
+            emitDownloadProgress(uuid, totalBytesWritten, totalBytesExpectedToWrite);
           }
         }
       };
@@ -915,16 +1181,85 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  private void startSegmentedDownloadResumable(String url, final Uri fileUri, final String uuid, Map<String, Object> options, final boolean isResume, int segmentsCount, final Promise promise) {
+    Request.Builder requestBuilder = new Request.Builder().url(url);
+    if (options != null && options.containsKey(HEADER_KEY)) {
+      final Map<String, Object> headers = (Map<String, Object>) options.get(HEADER_KEY);
+      for (String key : headers.keySet()) {
+        requestBuilder.addHeader(key, headers.get(key).toString());
+      }
+    }
+
+    SegmentedDownload.ProgressListener progressListener = new SegmentedDownload.ProgressListener() {
+      long mLastUpdate = -1;
+
+      @Override
+      public synchronized void update(long bytesWritten, long contentLength) {
+        long currentTime = System.currentTimeMillis();
+
+        // Throttle events the same way as for single connection downloads.
+        if (currentTime > mLastUpdate + MIN_EVENT_DT_MS || bytesWritten == contentLength) {
+          mLastUpdate = currentTime;
+          emitDownloadProgress(uuid, bytesWritten, contentLength);
+        }
+      }
+    };
+
+    final SegmentedDownload download = new SegmentedDownload(getOkHttpClient(), requestBuilder.build(), uriToFile(fileUri), segmentsCount,
+      getDownloadExecutor(), isOptionEnabled(options, "md5"), isOptionEnabled(options, "sha256"), progressListener);
+    this.mDownloadResumableMap.put(uuid, new DownloadResumable(uuid, url, fileUri, download));
+
+    AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // Segments continue from the journal saved when the download was paused.
+          SegmentedDownload.Result downloadResult = download.run(isResume);
+          Bundle result = new Bundle();
+          result.putString("uri", Uri.fromFile(uriToFile(fileUri)).toString());
+          putHashes(result, downloadResult.md5, downloadResult.sha256);
+          result.putInt("status", downloadResult.status);
+          result.putBundle("headers", translateHeaders(downloadResult.headers));
+          promise.resolve(result);
+        } catch (Exception e) {
+          Log.e(TAG, String.valueOf(e.getMessage()));
+          promise.reject(e);
+        }
+      }
+    });
+  }
+
+  private void emitDownloadProgress(String uuid, long totalBytesWritten, long totalBytesExpectedToWrite) {
+    EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
+    if (eventEmitter == null) {
+      return;
+    }
+    Bundle downloadProgress = new Bundle();
+    Bundle downloadProgressData = new Bundle();
+    downloadProgressData.putDouble("totalBytesWritten", totalBytesWritten);
+    downloadProgressData.putDouble("totalBytesExpectedToWrite", totalBytesExpectedToWrite);
+    downloadProgress.putString("uuid", uuid);
+    downloadProgress.putBundle("data", downloadProgressData);
+    eventEmitter.emit(EXDownloadProgressEventName, downloadProgress);
+  }
+
   @ExpoMethod
   public void downloadResumablePauseAsync(final String uuid, final Promise promise) {
     DownloadResumable downloadResumable = this.mDownloadResumableMap.get(uuid);
     if (downloadResumable != null) {
-      downloadResumable.call.cancel();
       this.mDownloadResumableMap.remove(downloadResumable.uuid);
       try {
-        File file = uriToFile(downloadResumable.fileUri);
+        String resumeData;
+        if (downloadResumable.segmentedDownload != null) {
+          // The file is preallocated, progress of the segments is in the journal.
+          downloadResumable.segmentedDownload.cancel();
+          resumeData = String.valueOf(downloadResumable.segmentedDownload.getBytesWritten());
+        } else {
+          downloadResumable.call.cancel();
+          resumeData = String.valueOf(uriToFile(downloadResumable.fileUri).length());
+        }
         Bundle result = new Bundle();
-        result.putString("resumeData", String.valueOf(file.length()));
+        result.putString("resumeData", resumeData);
         promise.resolve(result);
       } catch (Exception e) {
         Log.e(TAG, e.getMessage());
@@ -1109,6 +1444,73 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     return bytesResult;
   }
 
+  // InputStream#skip and #read may process less than requested, these loop until done or at the end of the stream.
+
+  private static void skipFully(InputStream inputStream, long count) throws IOException {
+    while (count > 0) {
+      long skipped = inputStream.skip(count);
+      if (skipped <= 0) {
+        // skip() can return 0 before the end of the stream, read() tells these cases apart.
+        if (inputStream.read() == -1) {
+          return;
+        }
+        skipped = 1;
+      }
+      count -= skipped;
+    }
+  }
+
+  private static int readFully(InputStream inputStream, byte[] buffer, int length) throws IOException {
+    int totalBytesRead = 0;
+    while (totalBytesRead < length) {
+      int bytesRead = inputStream.read(buffer, totalBytesRead, length - totalBytesRead);
+      if (bytesRead == -1) {
+        break;
+      }
+      totalBytesRead += bytesRead;
+    }
+    return totalBytesRead;
+  }
+
+  private static boolean isOptionEnabled(Map<String, Object> options, String key) {
+    return options != null && options.containsKey(key) && (Boolean) options.get(key);
+  }
+
+  private static int getDownloadSegmentsCount(Map<String, Object> options) {
+    if (options == null || !(options.get("segments") instanceof Number)) {
+      return 1;
+    }
+    return Math.min(((Number) options.get("segments")).intValue(), MAX_DOWNLOAD_SEGMENTS_COUNT);
+  }
+
+  private static IncrementalHasher createDownloadHasher(Map<String, Object> options) {
+    return new IncrementalHasher(isOptionEnabled(options, "md5"), isOptionEnabled(options, "sha256"));
+  }
+
+  private static void putHashes(Bundle result, String md5, String sha256) {
+    if (md5 != null) {
+      result.putString("md5", md5);
+    }
+    if (sha256 != null) {
+      result.putString("sha256", sha256);
+    }
+  }
+
+  /**
+   * Copies the stream while hashing it, so the file doesn't need to be read again to compute its hashes.
+   *
+   * @param position where in the file the stream starts
+   */
+  private static void writeAndHash(InputStream inputStream, OutputStream outputStream, IncrementalHasher hasher, long position) throws IOException {
+    byte[] buffer = new byte[64 * 1024];
+    int count;
+    while ((count = inputStream.read(buffer)) != -1) {
+      outputStream.write(buffer, 0, count);
+      hasher.update(position, buffer, 0, count);
+      position += count;
+    }
+  }
+
   private static class DownloadResumableTaskParams {
     Map<String, Object> options;
     Call call;
@@ -1137,26 +1539,24 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
       try {
         Response response = call.execute();
         ResponseBody responseBody = response.body();
-        BufferedInputStream input = new BufferedInputStream(responseBody.byteStream());
-        OutputStream output;
-
+        IncrementalHasher hasher = createDownloadHasher(options);
+        long position = 0;
         if (isResume) {
-          output = new FileOutputStream(file, true);
-        } else {
-          output = new FileOutputStream(file, false);
+          // The beginning of the file comes from the previous run.
+          position = file.length();
+          try (FileInputStream existingFile = new FileInputStream(file)) {
+            hasher.catchUp(existingFile.getChannel(), position);
+          }
         }
 
-        byte[] data = new byte[1024];
-        int count = 0;
-        while ((count = input.read(data)) != -1) {
-          output.write(data, 0, count);
+        try (InputStream input = new BufferedInputStream(responseBody.byteStream());
+             OutputStream output = new FileOutputStream(file, isResume)) {
+          writeAndHash(input, output, hasher, position);
         }
 
         Bundle result = new Bundle();
         result.putString("uri", Uri.fromFile(file).toString());
-        if (options != null && options.containsKey("md5") && (Boolean) options.get("md5")) {
-          result.putString("md5", md5(file));
-        }
+        putHashes(result, hasher.getMd5(), hasher.getSha256());
         result.putInt("status", response.code());
         result.putBundle("headers", translateHeaders(response.headers()));
 
@@ -1193,12 +1593,22 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     public final String url;
     public final Uri fileUri;
     public final Call call;
+    public final SegmentedDownload segmentedDownload;
 
     public DownloadResumable(String uuid, String url, Uri fileUri, Call call) {
       this.uuid = uuid;
       this.url = url;
       this.fileUri = fileUri;
       this.call = call;
+      this.segmentedDownload = null;
+    }
+
+    public DownloadResumable(String uuid, String url, Uri fileUri, SegmentedDownload segmentedDownload) {
+      this.uuid = uuid;
+      this.url = url;
+      this.fileUri = fileUri;
+      this.call = null;
+      this.segmentedDownload = segmentedDownload;
     }
   }
 
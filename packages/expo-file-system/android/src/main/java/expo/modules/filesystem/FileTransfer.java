@@ -0,0 +1,341 @@
+package expo.modules.filesystem;
+
+import android.content.ContentResolver;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.Nullable;
+import androidx.documentfile.provider.DocumentFile;
+
+/**
+ * Single copy or move operation. Files are copied kernel-side with {@link FileChannel#transferTo}
+ * and the files of a directory tree are copied in parallel on the given executor.
+ * The operation can be cancelled from any thread, it stops at the next chunk.
+ */
+class FileTransfer {
+  // How much is copied between progress updates and cancellation checks.
+  private static final long TRANSFER_CHUNK_SIZE = 4 * 1024 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  interface ProgressListener {
+    void update(long bytesCopied, long totalBytes, int filesCopied, int totalFiles);
+  }
+
+  static class CancelledException extends IOException {
+    CancelledException() {
+      super("File transfer has been cancelled.");
+    }
+  }
+
+  private final ExecutorService mExecutor;
+  @Nullable
+  private final ProgressListener mProgressListener;
+  private final AtomicLong mBytesCopied = new AtomicLong();
+  private final AtomicInteger mFilesCopied = new AtomicInteger();
+  private volatile long mTotalBytes;
+  private volatile int mTotalFiles;
+  private volatile boolean mIsCancelled;
+
+  FileTransfer(ExecutorService executor, @Nullable ProgressListener progressListener) {
+    mExecutor = executor;
+    mProgressListener = progressListener;
+  }
+
+  void cancel() {
+    mIsCancelled = true;
+  }
+
+  /**
+   * Copies a file or the contents of a directory, merging them with existing contents of the destination.
+   */
+  void copy(File from, File to) throws IOException {
+    if (!from.exists()) {
+      throw new FileNotFoundException("Source '" + from + "' does not exist");
+    }
+    if (from.getCanonicalPath().equals(to.getCanonicalPath())) {
+      throw new IOException("Source '" + from + "' and destination '" + to + "' are the same");
+    }
+
+    List<File> sources = new ArrayList<>();
+    List<File> targets = new ArrayList<>();
+    if (from.isDirectory()) {
+      if (to.getCanonicalPath().startsWith(from.getCanonicalPath() + File.separator)) {
+        throw new IOException("Destination '" + to + "' is inside of the source directory '" + from + "'");
+      }
+      collectFiles(from, to, sources, targets);
+    } else {
+      if (to.isDirectory()) {
+        throw new IOException("Destination '" + to + "' exists but is a directory");
+      }
+      ensureDirExists(to.getParentFile());
+      sources.add(from);
+      targets.add(to);
+    }
+
+    long totalBytes = 0;
+    for (File source : sources) {
+      totalBytes += source.length();
+    }
+    mTotalBytes = totalBytes;
+    mTotalFiles = sources.size();
+
+    List<Callable<Void>> tasks = new ArrayList<>(sources.size());
+    for (int i = 0; i < sources.size(); i++) {
+      final File source = sources.get(i);
+      final File target = targets.get(i);
+      tasks.add(new Callable<Void>() {
+        @Override
+        public Void call() throws IOException {
+          copyFile(source, target);
+          return null;
+        }
+      });
+    }
+    runAll(tasks);
+  }
+
+  /**
+   * Renames the file or directory, falling back to copying and deleting the source
+   * when renaming isn't possible, e.g. between different file systems.
+   */
+  void move(File from, File to) throws IOException {
+    if (from.renameTo(to)) {
+      return;
+    }
+    copy(from, to);
+    deleteRecursively(from);
+  }
+
+  /**
+   * Copies a Storage Access Framework document into given directory. Directories are copied
+   * together with their name, so their contents end up in `outputDir/<directory name>`.
+   */
+  void copyFromSAF(final ContentResolver contentResolver, DocumentFile documentFile, File outputDir, boolean deleteSource) throws IOException {
+    if (!documentFile.exists()) {
+      return;
+    }
+    ensureDirExists(outputDir);
+
+    // Listing documents goes through the provider one directory at a time, only the copies run in parallel.
+    List<DocumentFile> sources = new ArrayList<>();
+    List<File> targets = new ArrayList<>();
+    collectDocuments(documentFile, outputDir, sources, targets);
+
+    long totalBytes = 0;
+    for (DocumentFile source : sources) {
+      totalBytes += source.length();
+    }
+    mTotalBytes = totalBytes;
+    mTotalFiles = sources.size();
+
+    List<Callable<Void>> tasks = new ArrayList<>(sources.size());
+    for (int i = 0; i < sources.size(); i++) {
+      final DocumentFile source = sources.get(i);
+      final File target = targets.get(i);
+      tasks.add(new Callable<Void>() {
+        @Override
+        public Void call() throws IOException {
+          InputStream inputStream = contentResolver.openInputStream(source.getUri());
+          if (inputStream == null) {
+            throw new FileNotFoundException("File '" + source.getUri() + "' could not be opened.");
+          }
+          copyStream(inputStream, target);
+          return null;
+        }
+      });
+    }
+    runAll(tasks);
+
+    if (deleteSource) {
+      documentFile.delete();
+    }
+  }
+
+  /**
+   * Copies the stream into the file and closes it.
+   */
+  void copyStream(InputStream inputStream, File to) throws IOException {
+    boolean isCopied = false;
+    try (InputStream in = inputStream; OutputStream out = new FileOutputStream(to)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      long bytesSinceUpdate = 0;
+      int count;
+      while ((count = in.read(buffer)) != -1) {
+        out.write(buffer, 0, count);
+        bytesSinceUpdate += count;
+        if (bytesSinceUpdate >= TRANSFER_CHUNK_SIZE) {
+          throwIfCancelled();
+          onBytesCopied(bytesSinceUpdate);
+          bytesSinceUpdate = 0;
+        }
+      }
+      onBytesCopied(bytesSinceUpdate);
+      isCopied = true;
+    } finally {
+      if (!isCopied) {
+        to.delete();
+      }
+    }
+    onFileCopied();
+  }
+
+  private void copyFile(File from, File to) throws IOException {
+    throwIfCancelled();
+    boolean isCopied = false;
+    try (FileInputStream in = new FileInputStream(from); FileOutputStream out = new FileOutputStream(to)) {
+      FileChannel inChannel = in.getChannel();
+      FileChannel outChannel = out.getChannel();
+      long size = inChannel.size();
+      long position = 0;
+      while (position < size) {
+        throwIfCancelled();
+        long count = inChannel.transferTo(position, Math.min(size - position, TRANSFER_CHUNK_SIZE), outChannel);
+        if (count <= 0) {
+          // The file has been truncated in the meantime.
+          break;
+        }
+        position += count;
+        onBytesCopied(count);
+      }
+      isCopied = true;
+    } finally {
+      if (!isCopied) {
+        to.delete();
+      }
+    }
+    to.setLastModified(from.lastModified());
+    onFileCopied();
+  }
+
+  private void runAll(List<Callable<Void>> tasks) throws IOException {
+    if (tasks.size() == 1) {
+      try {
+        tasks.get(0).call();
+      } catch (IOException | RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new IOException(e);
+      }
+      return;
+    }
+
+    List<Future<Void>> futures = new ArrayList<>(tasks.size());
+    for (Callable<Void> task : tasks) {
+      futures.add(mExecutor.submit(task));
+    }
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      cancelAll(futures);
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(cause);
+    } catch (InterruptedException e) {
+      cancelAll(futures);
+      Thread.currentThread().interrupt();
+      throw new CancelledException();
+    }
+  }
+
+  private void cancelAll(List<Future<Void>> futures) {
+    // Tasks that already started stop at their next chunk.
+    mIsCancelled = true;
+    for (Future<Void> future : futures) {
+      future.cancel(false);
+    }
+  }
+
+  private void throwIfCancelled() throws CancelledException {
+    if (mIsCancelled) {
+      throw new CancelledException();
+    }
+  }
+
+  private void onBytesCopied(long count) {
+    long bytesCopied = mBytesCopied.addAndGet(count);
+    if (mProgressListener != null) {
+      mProgressListener.update(bytesCopied, mTotalBytes, mFilesCopied.get(), mTotalFiles);
+    }
+  }
+
+  private void onFileCopied() {
+    int filesCopied = mFilesCopied.incrementAndGet();
+    if (mProgressListener != null) {
+      mProgressListener.update(mBytesCopied.get(), mTotalBytes, filesCopied, mTotalFiles);
+    }
+  }
+
+  private static void collectFiles(File dir, File targetDir, List<File> sources, List<File> targets) throws IOException {
+    ensureDirExists(targetDir);
+    File[] files = dir.listFiles();
+    if (files == null) {
+      throw new IOException("Failed to list contents of " + dir);
+    }
+    for (File file : files) {
+      File target = new File(targetDir, file.getName());
+      if (file.isDirectory()) {
+        collectFiles(file, target, sources, targets);
+      } else {
+        sources.add(file);
+        targets.add(target);
+      }
+    }
+  }
+
+  private static void collectDocuments(DocumentFile documentFile, File outputDir, List<DocumentFile> sources, List<File> targets) throws IOException {
+    String name = documentFile.getName();
+    if (name == null) {
+      return;
+    }
+    File target = new File(outputDir, name);
+    if (documentFile.isDirectory()) {
+      ensureDirExists(target);
+      for (DocumentFile file : documentFile.listFiles()) {
+        collectDocuments(file, target, sources, targets);
+      }
+    } else {
+      sources.add(documentFile);
+      targets.add(target);
+    }
+  }
+
+  private static void ensureDirExists(File dir) throws IOException {
+    if (dir != null && !(dir.isDirectory() || dir.mkdirs())) {
+      throw new IOException("Couldn't create directory '" + dir + "'");
+    }
+  }
+
+  private static void deleteRecursively(File file) throws IOException {
+    if (file.isDirectory()) {
+      File[] files = file.listFiles();
+      if (files == null) {
+        throw new IOException("Failed to list contents of " + file);
+      }
+      for (File child : files) {
+        deleteRecursively(child);
+      }
+    }
+    if (!file.delete()) {
+      throw new IOException("Unable to delete " + file);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package expo.modules.filesystem;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Hashes a file while it's being written, so it doesn't have to be read again afterwards.
+ * Digests need the bytes in order: bytes written right at the hashed position are hashed
+ * directly, bytes written further in the file are read back once everything before them is there.
+ */
+class IncrementalHasher {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Nullable
+  private final MessageDigest mMd5;
+  @Nullable
+  private final MessageDigest mSha256;
+  private long mHashedLength;
+
+  IncrementalHasher(boolean md5, boolean sha256) {
+    try {
+      mMd5 = md5 ? MessageDigest.getInstance("MD5") : null;
+      mSha256 = sha256 ? MessageDigest.getInstance("SHA-256") : null;
+    } catch (NoSuchAlgorithmException e) {
+      // Both are required to be available on every platform.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Hashes the bytes written at given position if they are the next ones to be hashed.
+   */
+  synchronized void update(long position, byte[] buffer, int offset, int count) {
+    if (position != mHashedLength) {
+      return;
+    }
+    digest(buffer, offset, count);
+    mHashedLength += count;
+  }
+
+  /**
+   * Reads back and hashes the file up to given position, e.g. bytes written earlier
+   * out of order or by a previous, interrupted download.
+   */
+  synchronized void catchUp(FileChannel channel, long end) throws IOException {
+    if (mHashedLength >= end) {
+      return;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, end - mHashedLength));
+    while (mHashedLength < end) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), end - mHashedLength));
+      int count = channel.read(buffer, mHashedLength);
+      if (count == -1) {
+        throw new IOException("File ended before the expected length of " + end + " bytes.");
+      }
+      digest(buffer.array(), 0, count);
+      mHashedLength += count;
+    }
+  }
+
+  synchronized long getHashedLength() {
+    return mHashedLength;
+  }
+
+  @Nullable
+  synchronized String getMd5() {
+    return mMd5 != null ? String.valueOf(Hex.encodeHex(mMd5.digest())) : null;
+  }
+
+  @Nullable
+  synchronized String getSha256() {
+    return mSha256 != null ? String.valueOf(Hex.encodeHex(mSha256.digest())) : null;
+  }
+
+  private void digest(byte[] buffer, int offset, int count) {
+    if (mMd5 != null) {
+      mMd5.update(buffer, offset, count);
+    }
+    if (mSha256 != null) {
+      mSha256.update(buffer, offset, count);
+    }
+  }
+}
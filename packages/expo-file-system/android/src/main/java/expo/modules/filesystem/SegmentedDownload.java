@@ -0,0 +1,512 @@
+package expo.modules.filesystem;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import androidx.annotation.Nullable;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Downloads a file over several connections at once, each fetching a byte range into its part of
+ * the preallocated file. Servers that don't support ranges get a regular single connection download.
+ *
+ * Progress of all segments is kept in a journal next to the file, `<file>.segments`, so an interrupted
+ * download can continue where each segment stopped. Requested hashes are computed while downloading.
+ */
+class SegmentedDownload {
+  static final String JOURNAL_SUFFIX = ".segments";
+
+  private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final long JOURNAL_SAVE_INTERVAL_MS = 1000;
+  private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+  interface ProgressListener {
+    void update(long bytesWritten, long contentLength);
+  }
+
+  static class Result {
+    final int status;
+    final Headers headers;
+    @Nullable
+    final String md5;
+    @Nullable
+    final String sha256;
+
+    Result(int status, Headers headers, @Nullable String md5, @Nullable String sha256) {
+      this.status = status;
+      this.headers = headers;
+      this.md5 = md5;
+      this.sha256 = sha256;
+    }
+  }
+
+  /**
+   * Thrown when the server no longer has the version of the file that part of it was downloaded from.
+   */
+  static class FileChangedException extends IOException {
+    FileChangedException(String message) {
+      super(message);
+    }
+  }
+
+  private static class Segment {
+    final long start;
+    // Inclusive, like in the Range header.
+    final long end;
+    // Only changed by the thread downloading the segment.
+    volatile long written;
+
+    Segment(long start, long end, long written) {
+      this.start = start;
+      this.end = end;
+      this.written = written;
+    }
+
+    long position() {
+      return start + written;
+    }
+
+    boolean isComplete() {
+      return position() > end;
+    }
+  }
+
+  private final OkHttpClient mClient;
+  private final Request mRequest;
+  private final File mFile;
+  private final File mJournalFile;
+  private final int mSegmentsCount;
+  private final ExecutorService mExecutor;
+  private final boolean mMd5;
+  private final boolean mSha256;
+  private final boolean mIsHashing;
+  @Nullable
+  private final ProgressListener mProgressListener;
+
+  private final List<Call> mCalls = new ArrayList<>();
+  private final AtomicLong mBytesWritten = new AtomicLong();
+  // Set when segments have to stop, either because the download is cancelled or one of them failed.
+  private volatile boolean mIsCancelled;
+  private volatile boolean mIsCancelledByUser;
+  private IncrementalHasher mHasher;
+  private volatile List<Segment> mSegments;
+  private long mContentLength;
+  @Nullable
+  private String mValidator;
+  private Headers mHeaders;
+  private FileChannel mChannel;
+  private long mLastJournalSaveTime;
+
+  /**
+   * @param request       request for the whole file, a Range header is added to it for each segment
+   * @param segmentsCount maximum number of connections, segments are never smaller than 1 MB
+   * @param executor      runs all segments but the first one, which is downloaded on the calling thread
+   */
+  SegmentedDownload(OkHttpClient client, Request request, File file, int segmentsCount, ExecutorService executor,
+                    boolean md5, boolean sha256, @Nullable ProgressListener progressListener) {
+    mClient = client;
+    mRequest = request;
+    mFile = file;
+    mJournalFile = new File(file.getPath() + JOURNAL_SUFFIX);
+    mSegmentsCount = segmentsCount;
+    mExecutor = executor;
+    mMd5 = md5;
+    mSha256 = sha256;
+    mHasher = new IncrementalHasher(md5, sha256);
+    mIsHashing = md5 || sha256;
+    mProgressListener = progressListener;
+  }
+
+  /**
+   * Blocks until the download is complete. If the file changes on the server in the meantime,
+   * what has been downloaded is thrown away and the download starts over once.
+   *
+   * @param resume continue from the journal left by a previous run, if there is a valid one
+   */
+  Result run(boolean resume) throws IOException {
+    try {
+      return runOnce(resume);
+    } catch (FileChangedException e) {
+      if (mIsCancelledByUser) {
+        throw e;
+      }
+      restart();
+      return runOnce(false);
+    }
+  }
+
+  private Result runOnce(boolean resume) throws IOException {
+    Response firstResponse = null;
+    if (!resume || !readJournal()) {
+      mJournalFile.delete();
+      // Ask for the whole file as a range. A partial response tells the server supports ranges
+      // and its body is used for the first segment, a full one is downloaded as is.
+      firstResponse = execute(mRequest.newBuilder().header("Range", "bytes=0-").build());
+      if (firstResponse.code() != 206) {
+        return downloadWhole(firstResponse);
+      }
+      Long contentLength = parseContentLength(firstResponse.header("Content-Range"));
+      if (contentLength == null) {
+        firstResponse.close();
+        throw new IOException("Server returned an unexpected range of " + mRequest.url() + ": " + firstResponse.header("Content-Range"));
+      }
+      mContentLength = contentLength;
+      mValidator = getValidator(firstResponse);
+      mHeaders = firstResponse.headers();
+      mSegments = split(contentLength);
+      mFile.delete();
+    }
+
+    try (RandomAccessFile file = new RandomAccessFile(mFile, "rw")) {
+      file.setLength(mContentLength);
+      mChannel = file.getChannel();
+      if (mIsHashing) {
+        // Part of the file may come from the previous run.
+        mHasher.catchUp(mChannel, getContiguousLength());
+      }
+      downloadSegments(firstResponse);
+      if (mIsHashing) {
+        mHasher.catchUp(mChannel, mContentLength);
+      }
+    } catch (FileChangedException e) {
+      if (firstResponse != null) {
+        firstResponse.close();
+      }
+      // Resuming this download later would fail in the same way.
+      synchronized (this) {
+        mSegments = null;
+        mJournalFile.delete();
+      }
+      mFile.delete();
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      if (firstResponse != null) {
+        firstResponse.close();
+      }
+      saveJournal();
+      throw e;
+    }
+
+    mJournalFile.delete();
+    // Headers are missing only if the journal says everything has been downloaded already.
+    return new Result(200, mHeaders != null ? mHeaders : Headers.of(), mHasher.getMd5(), mHasher.getSha256());
+  }
+
+  /**
+   * Stops all segments. Their progress is saved in the journal, so the download can be resumed.
+   */
+  void cancel() {
+    mIsCancelledByUser = true;
+    mIsCancelled = true;
+    synchronized (mCalls) {
+      for (Call call : mCalls) {
+        call.cancel();
+      }
+    }
+    saveJournal();
+  }
+
+  long getBytesWritten() {
+    return mBytesWritten.get();
+  }
+
+  private void downloadSegments(@Nullable Response firstResponse) throws IOException {
+    List<Future<Void>> futures = new ArrayList<>();
+    for (int i = firstResponse != null ? 1 : 0; i < mSegments.size(); i++) {
+      final Segment segment = mSegments.get(i);
+      if (segment.isComplete()) {
+        continue;
+      }
+      futures.add(mExecutor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws IOException {
+          downloadSegment(segment, null);
+          return null;
+        }
+      }));
+    }
+
+    try {
+      if (firstResponse != null) {
+        downloadSegment(mSegments.get(0), firstResponse);
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      stopSegments(futures);
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } catch (IOException | RuntimeException e) {
+      stopSegments(futures);
+      throw e;
+    } catch (InterruptedException e) {
+      stopSegments(futures);
+      Thread.currentThread().interrupt();
+      throw new IOException("Download of " + mRequest.url() + " has been interrupted.", e);
+    }
+  }
+
+  private void downloadSegment(Segment segment, @Nullable Response response) throws IOException {
+    if (response == null) {
+      Request.Builder requestBuilder = mRequest.newBuilder().header("Range", "bytes=" + segment.position() + "-" + segment.end);
+      if (mValidator != null) {
+        // The server sends the whole file instead of the range if it has changed.
+        requestBuilder.header("If-Range", mValidator);
+      }
+      response = execute(requestBuilder.build());
+      if (response.code() == 200 || response.code() == 416) {
+        // 200 is the answer to a failed If-Range, 416 to a range beyond the end of a shorter file.
+        response.close();
+        throw new FileChangedException("Server didn't return the requested range of " + mRequest.url() + " (status " + response.code() + "), the file has changed.");
+      }
+      if (response.code() != 206) {
+        response.close();
+        throw new IOException("Server didn't return the requested range of " + mRequest.url() + " (status " + response.code() + ").");
+      }
+      if (mHeaders == null) {
+        mHeaders = response.headers();
+      }
+    }
+
+    try (ResponseBody body = response.body()) {
+      InputStream inputStream = body.byteStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!segment.isComplete()) {
+        if (mIsCancelled) {
+          throw new IOException("Download of " + mRequest.url() + " has been cancelled.");
+        }
+        long position = segment.position();
+        int count = inputStream.read(buffer, 0, (int) Math.min(buffer.length, segment.end + 1 - position));
+        if (count == -1) {
+          throw new EOFException("Response ended before the end of range " + segment.start + "-" + segment.end + " of " + mRequest.url());
+        }
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, count);
+        while (byteBuffer.hasRemaining()) {
+          mChannel.write(byteBuffer, position + byteBuffer.position());
+        }
+        segment.written += count;
+        if (mIsHashing) {
+          mHasher.update(position, buffer, 0, count);
+          mHasher.catchUp(mChannel, getContiguousLength());
+        }
+        onBytesWritten(count);
+      }
+    }
+  }
+
+  /**
+   * Fallback for servers that don't support ranges, the response is written as it comes.
+   */
+  private Result downloadWhole(Response response) throws IOException {
+    mFile.delete();
+    try (ResponseBody body = response.body(); OutputStream outputStream = new FileOutputStream(mFile)) {
+      mContentLength = body.contentLength();
+      InputStream inputStream = body.byteStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      long position = 0;
+      int count;
+      while ((count = inputStream.read(buffer)) != -1) {
+        if (mIsCancelled) {
+          throw new IOException("Download of " + mRequest.url() + " has been cancelled.");
+        }
+        outputStream.write(buffer, 0, count);
+        mHasher.update(position, buffer, 0, count);
+        position += count;
+        onBytesWritten(count);
+      }
+    }
+    return new Result(response.code(), response.headers(), mHasher.getMd5(), mHasher.getSha256());
+  }
+
+  private Response execute(Request request) throws IOException {
+    Call call = mClient.newCall(request);
+    synchronized (mCalls) {
+      if (mIsCancelled) {
+        throw new IOException("Download of " + mRequest.url() + " has been cancelled.");
+      }
+      mCalls.add(call);
+    }
+    return call.execute();
+  }
+
+  // Forgets everything about the previous attempt, runOnce(false) then starts from scratch.
+  private void restart() throws IOException {
+    synchronized (mCalls) {
+      if (mIsCancelledByUser) {
+        throw new IOException("Download of " + mRequest.url() + " has been cancelled.");
+      }
+      mCalls.clear();
+      mIsCancelled = false;
+    }
+    mBytesWritten.set(0);
+    mHasher = new IncrementalHasher(mMd5, mSha256);
+    mValidator = null;
+    mHeaders = null;
+  }
+
+  private void stopSegments(List<Future<Void>> futures) {
+    synchronized (mCalls) {
+      // Also keeps segments that haven't sent their request yet from starting it.
+      mIsCancelled = true;
+      for (Call call : mCalls) {
+        call.cancel();
+      }
+    }
+    for (Future<Void> future : futures) {
+      future.cancel(false);
+    }
+    // Wait for the segments, so the journal saved afterwards has their final progress.
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (Exception ignored) {
+      }
+    }
+  }
+
+  private void onBytesWritten(long count) {
+    long bytesWritten = mBytesWritten.addAndGet(count);
+    if (mProgressListener != null) {
+      mProgressListener.update(bytesWritten, mContentLength);
+    }
+    if (mSegments != null && System.currentTimeMillis() > mLastJournalSaveTime + JOURNAL_SAVE_INTERVAL_MS) {
+      saveJournal();
+    }
+  }
+
+  // Length of the downloaded beginning of the file.
+  private long getContiguousLength() {
+    for (Segment segment : mSegments) {
+      if (!segment.isComplete()) {
+        return segment.position();
+      }
+    }
+    return mContentLength;
+  }
+
+  private List<Segment> split(long contentLength) {
+    long count = Math.max(1, Math.min(mSegmentsCount, (contentLength + MIN_SEGMENT_SIZE - 1) / MIN_SEGMENT_SIZE));
+    long segmentSize = contentLength / count;
+    List<Segment> segments = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      long start = i * segmentSize;
+      long end = i == count - 1 ? contentLength - 1 : start + segmentSize - 1;
+      segments.add(new Segment(start, end, 0));
+    }
+    return segments;
+  }
+
+  /**
+   * Journal format: url, content length, validator (may be empty), then a line with start, end
+   * and written bytes of each segment.
+   */
+  private synchronized void saveJournal() {
+    List<Segment> segments = mSegments;
+    if (segments == null) {
+      return;
+    }
+    mLastJournalSaveTime = System.currentTimeMillis();
+    File temporaryFile = new File(mJournalFile.getPath() + ".tmp");
+    try (Writer writer = new FileWriter(temporaryFile)) {
+      writer.write(mRequest.url().toString() + "\n");
+      writer.write(mContentLength + "\n");
+      writer.write((mValidator != null ? mValidator : "") + "\n");
+      for (Segment segment : segments) {
+        writer.write(segment.start + " " + segment.end + " " + segment.written + "\n");
+      }
+    } catch (IOException e) {
+      // Without the journal the download will just start over.
+      temporaryFile.delete();
+      return;
+    }
+    temporaryFile.renameTo(mJournalFile);
+  }
+
+  private boolean readJournal() {
+    if (!mJournalFile.exists() || !mFile.exists()) {
+      return false;
+    }
+    try (BufferedReader reader = new BufferedReader(new FileReader(mJournalFile))) {
+      if (!mRequest.url().toString().equals(reader.readLine())) {
+        return false;
+      }
+      long contentLength = Long.parseLong(reader.readLine());
+      String validator = reader.readLine();
+      if (validator == null || mFile.length() != contentLength) {
+        return false;
+      }
+
+      List<Segment> segments = new ArrayList<>();
+      long bytesWritten = 0;
+      String line;
+      while ((line = reader.readLine()) != null && !line.isEmpty()) {
+        String[] values = line.split(" ");
+        Segment segment = new Segment(Long.parseLong(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2]));
+        segments.add(segment);
+        bytesWritten += segment.written;
+      }
+      if (segments.isEmpty()) {
+        return false;
+      }
+
+      mContentLength = contentLength;
+      mValidator = validator.isEmpty() ? null : validator;
+      mSegments = segments;
+      mBytesWritten.set(bytesWritten);
+      return true;
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  @Nullable
+  private static Long parseContentLength(@Nullable String contentRange) {
+    if (contentRange == null) {
+      return null;
+    }
+    Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+    if (!matcher.matches() || Long.parseLong(matcher.group(1)) != 0) {
+      return null;
+    }
+    return Long.parseLong(matcher.group(3));
+  }
+
+  // If-Range only accepts strong ETags.
+  @Nullable
+  private static String getValidator(Response response) {
+    String eTag = response.header("ETag");
+    if (eTag != null && !eTag.startsWith("W/")) {
+      return eTag;
+    }
+    return response.header("Last-Modified");
+  }
+}
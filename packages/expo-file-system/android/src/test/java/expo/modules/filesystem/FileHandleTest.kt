@@ -0,0 +1,109 @@
+package expo.modules.filesystem
+
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+
+internal class FileHandleTest {
+  private val text = "zażółć gęślą jaźń 😀 ✓"
+  private lateinit var file: File
+
+  @Before
+  fun setup() {
+    file = File.createTempFile("handle", ".txt")
+    file.writeBytes(text.toByteArray(Charsets.UTF_8))
+  }
+
+  @After
+  fun cleanup() {
+    file.delete()
+  }
+
+  @Test
+  fun `reads chunks at given positions`() {
+    open(writable = false).use { handle ->
+      val bytes = text.toByteArray(Charsets.UTF_8)
+      val buffer = ByteBuffer.allocate(4)
+
+      Assert.assertEquals(bytes.size.toLong(), handle.size())
+      Assert.assertEquals(4, handle.read(buffer, 5))
+      Assert.assertArrayEquals(bytes.copyOfRange(5, 9), buffer.array())
+
+      buffer.clear()
+      Assert.assertEquals(2, handle.read(buffer, bytes.size - 2L))
+      Assert.assertEquals(0, handle.read(ByteBuffer.allocate(4), bytes.size.toLong()))
+    }
+  }
+
+  @Test
+  fun `reading utf8 chunk by chunk keeps characters split between chunks`() {
+    val size = text.toByteArray(Charsets.UTF_8).size
+    for (chunkSize in 1..5) {
+      open(writable = false).use { handle ->
+        val contents = StringBuilder()
+        var position = 0L
+        while (position < size) {
+          val length = minOf(chunkSize, size - position.toInt())
+          contents.append(handle.readUtf8(position, length))
+          position += length
+        }
+        Assert.assertEquals("Read in chunks of $chunkSize bytes", text, contents.toString())
+      }
+    }
+  }
+
+  @Test
+  fun `reading utf8 elsewhere doesn't carry over the split character`() {
+    // "ż" takes bytes 2 and 3.
+    open(writable = false).use { handle ->
+      Assert.assertEquals("za", handle.readUtf8(0, 3))
+      Assert.assertEquals("a", handle.readUtf8(1, 1))
+      Assert.assertEquals("�ółć", handle.readUtf8(3, 7))
+    }
+  }
+
+  @Test
+  fun `replaces an incomplete character at the end of the file`() {
+    file.writeBytes(byteArrayOf('a'.toByte(), 0xC5.toByte()))
+    open(writable = false).use { handle ->
+      Assert.assertEquals("a�", handle.readUtf8(0, 2))
+    }
+  }
+
+  @Test
+  fun `writes at given positions and appends otherwise`() {
+    open(writable = true).use { handle ->
+      Assert.assertEquals(2, handle.write(ByteBuffer.wrap("Za".toByteArray(Charsets.UTF_8)), 0))
+      Assert.assertEquals(3, handle.write(ByteBuffer.wrap("!ż".toByteArray(Charsets.UTF_8)), -1))
+    }
+    Assert.assertEquals("Za" + text.substring(2) + "!ż", file.readText(Charsets.UTF_8))
+  }
+
+  @Test(expected = IOException::class)
+  fun `refuses to write when opened for reading`() {
+    open(writable = false).use { handle ->
+      Assert.assertFalse(handle.isWritable)
+      handle.write(ByteBuffer.wrap(byteArrayOf(1)), 0)
+    }
+  }
+
+  @Test
+  fun `closing closes the file`() {
+    val randomAccessFile = RandomAccessFile(file, "r")
+    val handle = FileHandle(randomAccessFile.channel, null, randomAccessFile)
+
+    handle.close()
+
+    Assert.assertFalse(randomAccessFile.channel.isOpen)
+  }
+
+  private fun open(writable: Boolean): FileHandle {
+    val randomAccessFile = RandomAccessFile(file, if (writable) "rw" else "r")
+    return FileHandle(randomAccessFile.channel, if (writable) randomAccessFile.channel else null, randomAccessFile)
+  }
+}
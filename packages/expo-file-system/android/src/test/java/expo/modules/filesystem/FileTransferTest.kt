@@ -0,0 +1,161 @@
+package expo.modules.filesystem
+
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.IOException
+import java.util.Collections
+import java.util.Random
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+internal class FileTransferTest {
+  private data class Progress(val bytesCopied: Long, val totalBytes: Long, val filesCopied: Int, val totalFiles: Int)
+
+  private val random = Random(1)
+  private val updates = Collections.synchronizedList(mutableListOf<Progress>())
+  private lateinit var executor: ExecutorService
+  private lateinit var root: File
+
+  @Before
+  fun setup() {
+    executor = Executors.newFixedThreadPool(4)
+    root = createTempDir("transfer")
+  }
+
+  @After
+  fun cleanup() {
+    executor.shutdownNow()
+    root.deleteRecursively()
+  }
+
+  @Test
+  fun `copies a file into missing directories`() {
+    val source = createFile("source.bin", 10 * 1024)
+    source.setLastModified(1_600_000_000_000L)
+    val target = File(root, "a/b/target.bin")
+
+    createTransfer().copy(source, target)
+
+    Assert.assertArrayEquals(source.readBytes(), target.readBytes())
+    Assert.assertEquals(source.lastModified(), target.lastModified())
+    Assert.assertEquals(Progress(10 * 1024L, 10 * 1024L, 1, 1), updates.last())
+  }
+
+  @Test
+  fun `copies a directory tree and merges it with the destination`() {
+    val source = File(root, "source")
+    val files = listOf("a.bin", "b.bin", "nested/c.bin", "nested/deeper/d.bin").map { createFile("source/$it", 5 * 1024 * 1024 + it.length) }
+    val target = File(root, "target")
+    val existing = createFile("target/existing.bin", 100)
+
+    createTransfer().copy(source, target)
+
+    for (file in files) {
+      Assert.assertArrayEquals(file.readBytes(), File(target, file.relativeTo(source).path).readBytes())
+    }
+    Assert.assertTrue(existing.exists())
+    Assert.assertTrue(source.exists())
+
+    val totalBytes = files.map { it.length() }.sum()
+    // Files are copied in parallel, so only the update of the last copied file is known.
+    Assert.assertTrue(updates.contains(Progress(totalBytes, totalBytes, files.size, files.size)))
+    Assert.assertTrue(updates.all { it.totalBytes == totalBytes && it.totalFiles == files.size })
+  }
+
+  @Test
+  fun `refuses to copy a directory into itself`() {
+    createFile("source/a.bin", 100)
+
+    try {
+      createTransfer().copy(File(root, "source"), File(root, "source/nested"))
+      Assert.fail("Copying a directory into itself should fail")
+    } catch (e: IOException) {
+      Assert.assertFalse(File(root, "source/nested").exists())
+    }
+  }
+
+  @Test
+  fun `moves a directory to another directory`() {
+    val file = createFile("from/dir/a.bin", 1024)
+    val contents = file.readBytes()
+    val target = File(root, "to/dir")
+    target.parentFile!!.mkdirs()
+
+    createTransfer().move(File(root, "from/dir"), target)
+
+    Assert.assertFalse(File(root, "from/dir").exists())
+    Assert.assertArrayEquals(contents, File(target, "a.bin").readBytes())
+  }
+
+  @Test
+  fun `moves by copying when the destination can't be renamed over`() {
+    // Renaming onto a directory that isn't empty fails, so the contents are merged instead.
+    val file = createFile("from/dir/a.bin", 1024)
+    val contents = file.readBytes()
+    val existing = createFile("to/dir/existing.bin", 100)
+    val target = File(root, "to/dir")
+
+    createTransfer().move(File(root, "from/dir"), target)
+
+    Assert.assertFalse(File(root, "from/dir").exists())
+    Assert.assertArrayEquals(contents, File(target, "a.bin").readBytes())
+    Assert.assertTrue(existing.exists())
+    Assert.assertEquals(1, updates.last().filesCopied)
+  }
+
+  @Test
+  fun `stops copying once cancelled`() {
+    // Three chunks, the transfer is cancelled after the first one.
+    val source = createFile("source.bin", 9 * 1024 * 1024)
+    val target = File(root, "target.bin")
+    lateinit var transfer: FileTransfer
+    transfer = FileTransfer(executor, FileTransfer.ProgressListener { bytesCopied, totalBytes, filesCopied, totalFiles ->
+      updates.add(Progress(bytesCopied, totalBytes, filesCopied, totalFiles))
+      transfer.cancel()
+    })
+
+    try {
+      transfer.copy(source, target)
+      Assert.fail("Cancelled transfer should throw")
+    } catch (e: FileTransfer.CancelledException) {
+      // expected
+    }
+
+    Assert.assertEquals(1, updates.size)
+    Assert.assertTrue(updates[0].bytesCopied < source.length())
+    Assert.assertFalse(target.exists())
+    Assert.assertTrue(source.exists())
+  }
+
+  @Test
+  fun `cancelled move keeps the source`() {
+    createFile("from/dir/a.bin", 1024)
+    createFile("to/dir/existing.bin", 100)
+    val transfer = createTransfer()
+    transfer.cancel()
+
+    try {
+      transfer.move(File(root, "from/dir"), File(root, "to/dir"))
+      Assert.fail("Cancelled transfer should throw")
+    } catch (e: FileTransfer.CancelledException) {
+      // expected
+    }
+
+    Assert.assertTrue(File(root, "from/dir/a.bin").exists())
+    Assert.assertFalse(File(root, "to/dir/a.bin").exists())
+  }
+
+  private fun createTransfer() = FileTransfer(executor, FileTransfer.ProgressListener { bytesCopied, totalBytes, filesCopied, totalFiles ->
+    updates.add(Progress(bytesCopied, totalBytes, filesCopied, totalFiles))
+  })
+
+  private fun createFile(path: String, size: Int): File {
+    val file = File(root, path)
+    file.parentFile!!.mkdirs()
+    file.writeBytes(ByteArray(size).also { random.nextBytes(it) })
+    return file
+  }
+}
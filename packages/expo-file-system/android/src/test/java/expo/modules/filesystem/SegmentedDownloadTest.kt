@@ -0,0 +1,157 @@
+package expo.modules.filesystem
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okio.Buffer
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.Collections
+import java.util.Random
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+internal class SegmentedDownloadTest {
+  @Volatile
+  private var data = ByteArray(5 * 1024 * 1024 + 123).also { Random(1).nextBytes(it) }
+  @Volatile
+  private var eTag = "\"v1\""
+  private val ranges = Collections.synchronizedList(mutableListOf<String?>())
+  private val server = MockWebServer()
+  private val client = OkHttpClient()
+  private lateinit var executor: ExecutorService
+  private lateinit var file: File
+
+  @Volatile
+  private var supportsRanges = true
+
+  @Before
+  fun setup() {
+    server.setDispatcher(object : Dispatcher() {
+      override fun dispatch(request: RecordedRequest): MockResponse {
+        val range = request.getHeader("Range")
+        val ifRange = request.getHeader("If-Range")
+        ranges.add(range)
+        val data = data
+        val response = MockResponse().setHeader("ETag", eTag)
+        if (range == null || !supportsRanges || (ifRange != null && ifRange != eTag)) {
+          return response.setResponseCode(200).setBody(Buffer().write(data))
+        }
+        val bounds = range.removePrefix("bytes=").split("-")
+        val start = bounds[0].toInt()
+        val end = bounds[1].toIntOrNull() ?: data.size - 1
+        return response
+          .setResponseCode(206)
+          .setHeader("Content-Range", "bytes $start-$end/${data.size}")
+          .setBody(Buffer().write(data, start, end - start + 1))
+      }
+    })
+    server.start()
+    executor = Executors.newFixedThreadPool(4)
+    file = File.createTempFile("segmented", ".bin")
+  }
+
+  @After
+  fun cleanup() {
+    executor.shutdownNow()
+    server.shutdown()
+    file.delete()
+    File(file.path + SegmentedDownload.JOURNAL_SUFFIX).delete()
+  }
+
+  @Test
+  fun `downloads segments in parallel and hashes them`() {
+    val result = createDownload(null).run(false)
+
+    Assert.assertEquals(200, result.status)
+    Assert.assertArrayEquals(data, file.readBytes())
+    Assert.assertEquals(hash("MD5"), result.md5)
+    Assert.assertEquals(hash("SHA-256"), result.sha256)
+    Assert.assertEquals(4, ranges.size)
+    Assert.assertTrue(ranges.contains("bytes=0-"))
+    Assert.assertFalse(File(file.path + SegmentedDownload.JOURNAL_SUFFIX).exists())
+  }
+
+  @Test
+  fun `falls back to single connection when server ignores ranges`() {
+    supportsRanges = false
+
+    val result = createDownload(null).run(false)
+
+    Assert.assertEquals(200, result.status)
+    Assert.assertArrayEquals(data, file.readBytes())
+    Assert.assertEquals(hash("MD5"), result.md5)
+    Assert.assertEquals(hash("SHA-256"), result.sha256)
+    Assert.assertEquals(listOf("bytes=0-"), ranges.toList())
+  }
+
+  @Test
+  fun `resumes cancelled download from the journal`() {
+    cancelHalfway()
+    ranges.clear()
+
+    val result = createDownload(null).run(true)
+
+    Assert.assertArrayEquals(data, file.readBytes())
+    Assert.assertEquals(hash("MD5"), result.md5)
+    Assert.assertEquals(hash("SHA-256"), result.sha256)
+    // Only the missing parts are requested again.
+    Assert.assertFalse(ranges.contains("bytes=0-"))
+    Assert.assertTrue(ranges.size <= 4)
+  }
+
+  @Test
+  fun `starts over when the file changed since the download was cancelled`() {
+    cancelHalfway()
+    data = ByteArray(4 * 1024 * 1024 + 321).also { Random(2).nextBytes(it) }
+    eTag = "\"v2\""
+    ranges.clear()
+
+    val result = createDownload(null).run(true)
+
+    Assert.assertEquals(200, result.status)
+    Assert.assertArrayEquals(data, file.readBytes())
+    Assert.assertEquals(hash("MD5"), result.md5)
+    Assert.assertEquals(hash("SHA-256"), result.sha256)
+    Assert.assertTrue(ranges.contains("bytes=0-"))
+    Assert.assertFalse(File(file.path + SegmentedDownload.JOURNAL_SUFFIX).exists())
+  }
+
+  private fun cancelHalfway() {
+    lateinit var download: SegmentedDownload
+    download = createDownload(SegmentedDownload.ProgressListener { bytesWritten, contentLength ->
+      if (bytesWritten > contentLength / 2) {
+        download.cancel()
+      }
+    })
+    try {
+      download.run(false)
+      Assert.fail("Cancelled download should throw")
+    } catch (e: IOException) {
+    }
+    Assert.assertTrue(File(file.path + SegmentedDownload.JOURNAL_SUFFIX).exists())
+  }
+
+  private fun createDownload(progressListener: SegmentedDownload.ProgressListener?) =
+    SegmentedDownload(
+      client,
+      Request.Builder().url(server.url("/file")).build(),
+      file,
+      4,
+      executor,
+      true,
+      true,
+      progressListener
+    )
+
+  private fun hash(algorithm: String) =
+    MessageDigest.getInstance(algorithm).digest(data).joinToString("") { "%02x".format(it) }
+}
@@ -10,6 +10,9 @@ import {
   DownloadProgressData,
   DownloadResult,
   EncodingType,
+  FileHandleOpenOptions,
+  FileHandleReadingOptions,
+  FileHandleWritingOptions,
   FileInfo,
   FileSystemAcceptedUploadHttpMethod,
   FileSystemDownloadResult,
@@ -20,6 +23,10 @@ import {
   FileSystemUploadType,
   ProgressEvent,
   ReadingOptions,
+  RelocatingOptions,
+  TransferProgressCallback,
+  TransferProgressData,
+  TransferProgressEvent,
   WritingOptions,
 } from './FileSystem.types';
 
@@ -38,6 +45,9 @@ export {
   DownloadProgressData,
   DownloadResult,
   EncodingType,
+  FileHandleOpenOptions,
+  FileHandleReadingOptions,
+  FileHandleWritingOptions,
   FileInfo,
   FileSystemDownloadResult,
   FileSystemRequestDirectoryPermissionsResult,
@@ -48,6 +58,9 @@ export {
   FileSystemUploadType,
   ProgressEvent,
   ReadingOptions,
+  RelocatingOptions,
+  TransferProgressCallback,
+  TransferProgressData,
   WritingOptions,
 };
 
@@ -125,18 +138,67 @@ export async function deleteLegacyDocumentDirectoryAndroid(): Promise<void> {
   return await deleteAsync(legacyDocumentDirectory, { idempotent: true });
 }
 
-export async function moveAsync(options: { from: string; to: string }): Promise<void> {
+export async function moveAsync(
+  options: RelocatingOptions,
+  callback?: TransferProgressCallback
+): Promise<void> {
   if (!ExponentFileSystem.moveAsync) {
     throw new UnavailabilityError('expo-file-system', 'moveAsync');
   }
-  return await ExponentFileSystem.moveAsync(options);
+  return await _runTransferAsync(options, callback, options =>
+    ExponentFileSystem.moveAsync(options)
+  );
 }
 
-export async function copyAsync(options: { from: string; to: string }): Promise<void> {
+export async function copyAsync(
+  options: RelocatingOptions,
+  callback?: TransferProgressCallback
+): Promise<void> {
   if (!ExponentFileSystem.copyAsync) {
     throw new UnavailabilityError('expo-file-system', 'copyAsync');
   }
-  return await ExponentFileSystem.copyAsync(options);
+  return await _runTransferAsync(options, callback, options =>
+    ExponentFileSystem.copyAsync(options)
+  );
+}
+
+/**
+ * Cancels the copy or move started with given `uuid`, its promise then rejects. Files copied
+ * up to that point are left in place.
+ *
+ * @platform android
+ */
+export async function cancelTransferAsync(uuid: string): Promise<void> {
+  if (!ExponentFileSystem.cancelTransferAsync) {
+    throw new UnavailabilityError('expo-file-system', 'cancelTransferAsync');
+  }
+  return await ExponentFileSystem.cancelTransferAsync(uuid);
+}
+
+// Progress is only reported on Android, which identifies the transfer's events by its uuid.
+async function _runTransferAsync(
+  options: RelocatingOptions,
+  callback: TransferProgressCallback | undefined,
+  transfer: (options: RelocatingOptions) => Promise<void>
+): Promise<void> {
+  if (!callback) {
+    return await transfer(options);
+  }
+  const uuid = options.uuid || uuidv4();
+  const emitter = new EventEmitter(ExponentFileSystem);
+  const subscription = emitter.addListener(
+    'expo-file-system.transferProgress',
+    (event: TransferProgressEvent) => {
+      if (event.uuid === uuid) {
+        callback(event.data);
+      }
+    }
+  );
+  try {
+    return await transfer({ ...options, uuid });
+  } finally {
+    emitter.removeSubscription(subscription);
+  }
 }
 
 export async function makeDirectoryAsync(
@@ -316,6 +378,64 @@ export class DownloadResumable {
   }
 }
 
+/**
+ * Opens the file for reading it, or also writing it with the `'rw'` mode, in parts. Unlike
+ * `readAsStringAsync` and `writeAsStringAsync`, large files don't have to fit into memory at once.
+ * The handle must be closed with `closeAsync` when it's no longer needed.
+ *
+ * @platform android
+ */
+export async function openFileHandleAsync(
+  fileUri: string,
+  options: FileHandleOpenOptions = {}
+): Promise<FileHandle> {
+  if (!ExponentFileSystem.openFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'openFileHandleAsync');
+  }
+  const { handle, size } = await ExponentFileSystem.openFileHandleAsync(fileUri, options);
+  return new FileHandle(handle, size);
+}
+
+export class FileHandle {
+  _handle: string;
+  // Size of the file when it was opened.
+  size: number;
+
+  constructor(handle: string, size: number) {
+    this._handle = handle;
+    this.size = size;
+  }
+
+  /**
+   * Reads `length` bytes from `position`, or from the start of the file. Resolves with fewer bytes
+   * at the end of the file.
+   */
+  async readAsync(options: FileHandleReadingOptions): Promise<string> {
+    if (!ExponentFileSystem.readFileHandleAsync) {
+      throw new UnavailabilityError('expo-file-system', 'FileHandle.readAsync');
+    }
+    return await ExponentFileSystem.readFileHandleAsync(this._handle, options);
+  }
+
+  /**
+   * Writes the contents at `position`, or at the end of the file. Resolves with the number of
+   * bytes written.
+   */
+  async writeAsync(contents: string, options: FileHandleWritingOptions = {}): Promise<number> {
+    if (!ExponentFileSystem.writeFileHandleAsync) {
+      throw new UnavailabilityError('expo-file-system', 'FileHandle.writeAsync');
+    }
+    return await ExponentFileSystem.writeFileHandleAsync(this._handle, contents, options);
+  }
+
+  async closeAsync(): Promise<void> {
+    if (!ExponentFileSystem.closeFileHandleAsync) {
+      throw new UnavailabilityError('expo-file-system', 'FileHandle.closeAsync');
+    }
+    return await ExponentFileSystem.closeFileHandleAsync(this._handle);
+  }
+}
+
 const baseReadAsStringAsync = readAsStringAsync;
 const baseWriteAsStringAsync = writeAsStringAsync;
 const baseDeleteAsync = deleteAsync;
@@ -19,6 +19,15 @@ export enum FileSystemUploadType {
 
 export type DownloadOptions = {
   md5?: boolean;
+  /*
+   * Android only
+   */
+  sha256?: boolean;
+  /*
+   * Android only. Downloads the file in up to 8 parallel ranges if the server supports range
+   * requests, or in a single one otherwise.
+   */
+  segments?: number;
   cache?: boolean;
   headers?: Record<string, string>;
   /*
@@ -36,6 +45,7 @@ export type FileSystemHttpResult = {
 export type FileSystemDownloadResult = FileSystemHttpResult & {
   uri: string;
   md5?: string;
+  sha256?: string;
 };
 
 /**
@@ -70,6 +80,27 @@ export type DownloadProgressData = {
   totalBytesExpectedToWrite: number;
 };
 
+export type RelocatingOptions = {
+  from: string;
+  to: string;
+  // Identifies the copy or move for cancelTransferAsync and its progress events. Android only.
+  uuid?: string;
+};
+
+export type TransferProgressCallback = (data: TransferProgressData) => void;
+
+export type TransferProgressData = {
+  totalBytesCopied: number;
+  totalBytesExpectedToCopy: number;
+  filesCopied: number;
+  totalFiles: number;
+};
+
+export type TransferProgressEvent = {
+  uuid: string;
+  data: TransferProgressData;
+};
+
 export type DownloadPauseState = {
   url: string;
   fileUri: string;
@@ -112,6 +143,23 @@ export type WritingOptions = {
   encoding?: EncodingType | 'utf8' | 'base64';
 };
 
+export type FileHandleOpenOptions = {
+  // 'rw' also opens the file for writing, creating it if it doesn't exist.
+  mode?: 'r' | 'rw';
+};
+
+export type FileHandleReadingOptions = {
+  encoding?: EncodingType | 'utf8' | 'base64';
+  position?: number;
+  length: number;
+};
+
+export type FileHandleWritingOptions = {
+  encoding?: EncodingType | 'utf8' | 'base64';
+  // Contents are appended to the file if no position is given.
+  position?: number;
+};
+
 export type ProgressEvent = {
   uuid: string;
   data: {
@@ -156,6 +204,11 @@ export interface ExponentFileSystemModule {
   readonly readSAFDirectoryAsync?: PlatformMethod;
   readonly makeSAFDirectoryAsync?: PlatformMethod;
   readonly createSAFFileAsync?: PlatformMethod;
+  readonly openFileHandleAsync?: PlatformMethod;
+  readonly readFileHandleAsync?: PlatformMethod;
+  readonly writeFileHandleAsync?: PlatformMethod;
+  readonly closeFileHandleAsync?: PlatformMethod;
+  readonly cancelTransferAsync?: PlatformMethod;
   startObserving?: () => void;
   stopObserving?: () => void;
   addListener: (eventName: string) => void;
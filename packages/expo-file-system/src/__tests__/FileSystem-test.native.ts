@@ -87,4 +87,69 @@ describe('FileSystem', () => {
       expect(downloadPauseState).toMatchObject(fakeObject);
     });
   });
+
+  describe('FileHandle', () => {
+    const localUri = FileSystem.documentDirectory + 'large.bin';
+
+    beforeEach(() => {
+      mockProperty(
+        ExponentFileSystem,
+        'openFileHandleAsync',
+        jest.fn(async () => ({ handle: '1', size: 1024 }))
+      );
+      mockProperty(ExponentFileSystem, 'readFileHandleAsync', jest.fn(async () => 'contents'));
+      mockProperty(ExponentFileSystem, 'writeFileHandleAsync', jest.fn(async () => 8));
+      mockProperty(ExponentFileSystem, 'closeFileHandleAsync', jest.fn(async () => {}));
+    });
+
+    afterEach(() => {
+      unmockProperty(ExponentFileSystem, 'openFileHandleAsync');
+      unmockProperty(ExponentFileSystem, 'readFileHandleAsync');
+      unmockProperty(ExponentFileSystem, 'writeFileHandleAsync');
+      unmockProperty(ExponentFileSystem, 'closeFileHandleAsync');
+    });
+
+    it(`passes its handle to the native methods`, async () => {
+      const fileHandle = await FileSystem.openFileHandleAsync(localUri, { mode: 'rw' });
+      expect(ExponentFileSystem.openFileHandleAsync).toHaveBeenCalledWith(localUri, { mode: 'rw' });
+      expect(fileHandle.size).toBe(1024);
+
+      const readingOptions = { position: 512, length: 8 };
+      await expect(fileHandle.readAsync(readingOptions)).resolves.toBe('contents');
+      expect(ExponentFileSystem.readFileHandleAsync).toHaveBeenCalledWith('1', readingOptions);
+
+      await expect(fileHandle.writeAsync('contents')).resolves.toBe(8);
+      expect(ExponentFileSystem.writeFileHandleAsync).toHaveBeenCalledWith('1', 'contents', {});
+
+      await fileHandle.closeAsync();
+      expect(ExponentFileSystem.closeFileHandleAsync).toHaveBeenCalledWith('1');
+    });
+  });
+
+  describe('copyAsync', () => {
+    const options = {
+      from: FileSystem.documentDirectory + 'a',
+      to: FileSystem.documentDirectory + 'b',
+    };
+
+    it(`passes the options as they are without a progress callback`, async () => {
+      await FileSystem.copyAsync(options);
+
+      expect(ExponentFileSystem.copyAsync).toHaveBeenLastCalledWith(options);
+    });
+
+    it(`identifies the transfer to report its progress`, async () => {
+      await FileSystem.copyAsync(options, jest.fn());
+      expect(ExponentFileSystem.copyAsync).toHaveBeenLastCalledWith({
+        ...options,
+        uuid: expect.any(String),
+      });
+
+      await FileSystem.copyAsync({ ...options, uuid: 'transfer' }, jest.fn());
+      expect(ExponentFileSystem.copyAsync).toHaveBeenLastCalledWith({
+        ...options,
+        uuid: 'transfer',
+      });
+    });
+  });
 });
@@ -3,7 +3,6 @@ package expo.modules.gl;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.Matrix;
 import android.graphics.SurfaceTexture;
 import android.net.Uri;
 import android.opengl.EGL14;
@@ -12,10 +11,12 @@ import android.os.AsyncTask;
 import android.os.Bundle;
 import android.util.Log;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.ref.WeakReference;
-import java.nio.IntBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -49,6 +50,8 @@ public class GLContext {
   private EGL10 mEGL;
 
   private BlockingQueue<Runnable> mEventQueue = new LinkedBlockingQueue<>();
+  // Created lazily on the GL thread, the first time a snapshot is taken
+  private GLSnapshotReader mSnapshotReader;
 
   public GLContext(GLObjectManagerModule manager) {
     super();
@@ -185,13 +188,15 @@ public class GLContext {
   public void takeSnapshot(final Map<String, Object> options, final Context context, final Promise promise) {
     flush();
 
+    final GLContext glContext = this;
+
     runAsync(new Runnable() {
       @Override
       public void run() {
         Map<String, Object> rect = options.containsKey("rect") ? (Map<String, Object>) options.get("rect") : getViewportRect();
-        Boolean flip = options.containsKey("flip") && (Boolean) options.get("flip");
-        String format = options.containsKey("format") ? (String) options.get("format") : null;
-        int compressionQuality = options.containsKey("compress") ? (int) (100.0 * (Double) options.get("compress")) : 100;
+        final Boolean flip = options.containsKey("flip") && (Boolean) options.get("flip");
+        final String format = options.containsKey("format") ? (String) options.get("format") : null;
+        final int compressionQuality = options.containsKey("compress") ? (int) (100.0 * (Double) options.get("compress")) : 100;
 
         int x = castNumberToInt(rect.get("x"));
         int y = castNumberToInt(rect.get("y"));
@@ -214,70 +219,87 @@ public class GLContext {
         // Bind source framebuffer
         glBindFramebuffer(GL_FRAMEBUFFER, sourceFramebuffer);
 
-        // Allocate pixel buffer and read pixels
-        final int[] dataArray = new int[width * height];
-        final IntBuffer dataBuffer = IntBuffer.wrap(dataArray);
-        dataBuffer.position(0);
-        glReadPixels(x, y, width, height, GL_RGBA, GL_UNSIGNED_BYTE, dataBuffer);
+        // Read pixels, asynchronously if the context supports pixel buffer objects
+        if (mSnapshotReader == null) {
+          mSnapshotReader = new GLSnapshotReader(glContext);
+        }
+        mSnapshotReader.readPixels(x, y, width, height, new GLSnapshotReader.Callback() {
+          @Override
+          public void onPixelsRead(Bitmap bitmap) {
+            new TakeSnapshot(context, bitmap, flip, format, compressionQuality, promise)
+                .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+          }
+
+          @Override
+          public void onError(String message) {
+            promise.reject("E_GL_CANT_READ_PIXELS", message);
+          }
+        });
 
         // Restore surrounding framebuffer
         glBindFramebuffer(GL_FRAMEBUFFER, prevFramebuffer[0]);
-
-        new TakeSnapshot(context, width, height, flip, format, compressionQuality, dataArray, promise)
-            .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
       }
     });
   }
 
   private static class TakeSnapshot extends AsyncTask<Void, Void, Void> {
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     private final WeakReference<Context> mContext;
+    private final Bitmap mBitmap;
     private final int mWidth;
     private final int mHeight;
     private final boolean mFlip;
     private final String mFormat;
     private final int mCompress;
-    private final int[] mDataArray;
     private final Promise mPromise;
 
-    TakeSnapshot(Context context, int width, int height, boolean flip, String format, int compress, int[] dataArray, Promise promise) {
+    TakeSnapshot(Context context, Bitmap bitmap, boolean flip, String format, int compress, Promise promise) {
       mContext = new WeakReference<>(context);
-      mWidth = width;
-      mHeight = height;
+      mBitmap = bitmap;
+      mWidth = bitmap.getWidth();
+      mHeight = bitmap.getHeight();
       mFlip = flip;
       mFormat = format;
       mCompress = compress;
-      mDataArray = dataArray;
       mPromise = promise;
     }
 
     @Override
     protected Void doInBackground(Void... params) {
-      // Convert RGBA data format to bitmap's ARGB
-      for (int i = 0; i < mHeight; i++) {
-        for (int j = 0; j < mWidth; j++) {
-          int offset = i * mWidth + j;
-          int pixel = mDataArray[offset];
-          int blue = (pixel >> 16) & 0xff;
-          int red = (pixel << 16) & 0x00ff0000;
-          mDataArray[offset] = (pixel & 0xff00ff00) | red | blue;
+      try {
+        if (!mFlip) {
+          // Rows come from GL bottom-up, so the bitmap is upside down. Flip it unless we take
+          // a snapshot from a framebuffer that is already flipped.
+          flipVertically(mBitmap);
         }
+        writeSnapshot();
+      } finally {
+        GLSnapshotReader.recycleBitmap(mBitmap);
       }
+      return null;
+    }
 
-      // Create Bitmap and flip
-      Bitmap bitmap = Bitmap.createBitmap(mDataArray, mWidth, mHeight, Bitmap.Config.ARGB_8888);
-
-      if (!mFlip) {
-        // the bitmap is automatically flipped on Android, however we may want to unflip it
-        // in case we take a snapshot from framebuffer that is already flipped
-        Matrix flipMatrix = new Matrix();
-        flipMatrix.postScale(1, -1, mWidth / 2, mHeight / 2);
-        bitmap = Bitmap.createBitmap(bitmap, 0, 0, mWidth, mHeight, flipMatrix, true);
+    // Swaps rows in place, so flipping doesn't need a second full-size bitmap.
+    private static void flipVertically(Bitmap bitmap) {
+      int width = bitmap.getWidth();
+      int height = bitmap.getHeight();
+      int[] topRow = new int[width];
+      int[] bottomRow = new int[width];
+
+      for (int top = 0, bottom = height - 1; top < bottom; top++, bottom--) {
+        bitmap.getPixels(topRow, 0, width, 0, top, width, 1);
+        bitmap.getPixels(bottomRow, 0, width, 0, bottom, width, 1);
+        bitmap.setPixels(bottomRow, 0, width, 0, top, width, 1);
+        bitmap.setPixels(topRow, 0, width, 0, bottom, width, 1);
       }
+    }
 
+    private void writeSnapshot() {
       // Write bitmap to file
       String path = null;
       String extension = ".jpeg";
-      FileOutputStream output = null;
+      OutputStream output = null;
       Bitmap.CompressFormat compressFormat = Bitmap.CompressFormat.JPEG;
 
       if (mFormat != null) {
@@ -294,13 +316,14 @@ public class GLContext {
 
       if (context == null) {
         mPromise.reject("E_GL_CONTEXT_DESTROYED", "Context has been garbage collected.");
-        return null;
+        return;
       }
 
       try {
         path = FileSystemUtils.generateOutputPath(context.getCacheDir(), "GLView", extension);
-        output = new FileOutputStream(path);
-        bitmap.compress(compressFormat, mCompress, output);
+        // Compressed data is streamed straight to the file
+        output = new BufferedOutputStream(new FileOutputStream(path), OUTPUT_BUFFER_SIZE);
+        mBitmap.compress(compressFormat, mCompress, output);
         output.flush();
         output.close();
         output = null;
@@ -308,21 +331,25 @@ public class GLContext {
       } catch (Exception e) {
         e.printStackTrace();
         mPromise.reject("E_GL_CANT_SAVE_SNAPSHOT", e.getMessage());
+        if (output != null) {
+          try {
+            output.close();
+          } catch (IOException ignored) {
+          }
+        }
+        return;
       }
 
-      if (output == null) {
-        // Return result object which imitates Expo.Asset so it can be used again to fill the texture
-        Bundle result = new Bundle();
-        String fileUri = Uri.fromFile(new File(path)).toString();
+      // Return result object which imitates Expo.Asset so it can be used again to fill the texture
+      Bundle result = new Bundle();
+      String fileUri = Uri.fromFile(new File(path)).toString();
 
-        result.putString("uri", fileUri);
-        result.putString("localUri", fileUri);
-        result.putInt("width", mWidth);
-        result.putInt("height", mHeight);
+      result.putString("uri", fileUri);
+      result.putString("localUri", fileUri);
+      result.putInt("width", mWidth);
+      result.putInt("height", mHeight);
 
-        mPromise.resolve(result);
-      }
-      return null;
+      mPromise.resolve(result);
     }
   }
 
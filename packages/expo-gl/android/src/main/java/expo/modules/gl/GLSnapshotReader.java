@@ -0,0 +1,185 @@
+package expo.modules.gl;
+
+import android.graphics.Bitmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+import static android.opengl.GLES30.*;
+
+/**
+ * Reads framebuffer pixels into bitmaps for snapshots. On OpenGL ES 3 contexts pixels are read
+ * into a pixel buffer object and only mapped once the GPU has finished writing them, so the GL
+ * thread keeps processing other work instead of stalling on the read. Older contexts fall back to
+ * a synchronous read into a reused direct buffer.
+ *
+ * Bitmaps returned by the reader hold rows in GL order (bottom row first) and should be given
+ * back with {@link #recycleBitmap(Bitmap)} once they're no longer needed.
+ */
+class GLSnapshotReader {
+  interface Callback {
+    void onPixelsRead(Bitmap bitmap);
+
+    void onError(String message);
+  }
+
+  // How long a single poll of the fence may block the GL thread before yielding to other work.
+  private static final long FENCE_POLL_TIMEOUT_NANOS = 1000000;
+  private static final int MAX_POOLED_PIXEL_BUFFERS = 2;
+
+  private static final Object sBitmapPoolLock = new Object();
+  private static Bitmap sPooledBitmap = null;
+
+  private final GLContext mGLContext;
+  private final boolean mUsePixelBuffers;
+  // Pixel buffer objects that aren't used by an in-flight read, as {name, allocated size} pairs.
+  private final ArrayDeque<int[]> mFreePixelBuffers = new ArrayDeque<>();
+  private ByteBuffer mReadBuffer = null;
+
+  // must be created in GL thread
+  GLSnapshotReader(GLContext glContext) {
+    mGLContext = glContext;
+    mUsePixelBuffers = getMajorVersion(glGetString(GL_VERSION)) >= 3;
+  }
+
+  // must be called in GL thread, with the source framebuffer bound
+  void readPixels(final int x, final int y, final int width, final int height, final Callback callback) {
+    final int size = width * height * 4;
+
+    if (!mUsePixelBuffers) {
+      if (mReadBuffer == null || mReadBuffer.capacity() < size) {
+        mReadBuffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+      }
+      mReadBuffer.clear();
+      mReadBuffer.limit(size);
+      glReadPixels(x, y, width, height, GL_RGBA, GL_UNSIGNED_BYTE, mReadBuffer);
+      callback.onPixelsRead(copyToBitmap(mReadBuffer, width, height));
+      return;
+    }
+
+    final int[] pixelBuffer = obtainPixelBuffer();
+    final int previousPixelBuffer = bindPixelPackBuffer(pixelBuffer[0]);
+    if (pixelBuffer[1] != size) {
+      glBufferData(GL_PIXEL_PACK_BUFFER, size, null, GL_STREAM_READ);
+      pixelBuffer[1] = size;
+    }
+    // With a pixel pack buffer bound the last argument is an offset into it, so this returns
+    // as soon as the read is queued.
+    glReadPixels(x, y, width, height, GL_RGBA, GL_UNSIGNED_BYTE, 0);
+    glBindBuffer(GL_PIXEL_PACK_BUFFER, previousPixelBuffer);
+
+    final long fence = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+    glFlush();
+
+    mGLContext.runAsync(new Runnable() {
+      @Override
+      public void run() {
+        int status = glClientWaitSync(fence, 0, FENCE_POLL_TIMEOUT_NANOS);
+        if (status == GL_TIMEOUT_EXPIRED) {
+          // Let other queued GL work run and check again afterwards.
+          mGLContext.runAsync(this);
+          return;
+        }
+        glDeleteSync(fence);
+
+        if (status == GL_WAIT_FAILED) {
+          releasePixelBuffer(pixelBuffer);
+          callback.onError("Failed waiting for pixels to be read.");
+          return;
+        }
+
+        final int previousPixelBuffer = bindPixelPackBuffer(pixelBuffer[0]);
+        ByteBuffer pixels = (ByteBuffer) glMapBufferRange(GL_PIXEL_PACK_BUFFER, 0, size, GL_MAP_READ_BIT);
+        Bitmap bitmap = null;
+        if (pixels != null) {
+          bitmap = copyToBitmap(pixels, width, height);
+          glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+        }
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, previousPixelBuffer);
+        releasePixelBuffer(pixelBuffer);
+
+        if (bitmap != null) {
+          callback.onPixelsRead(bitmap);
+        } else {
+          callback.onError("Failed to map pixel buffer.");
+        }
+      }
+    });
+  }
+
+  static void recycleBitmap(Bitmap bitmap) {
+    synchronized (sBitmapPoolLock) {
+      if (sPooledBitmap == null) {
+        sPooledBitmap = bitmap;
+      } else if (sPooledBitmap.getAllocationByteCount() < bitmap.getAllocationByteCount()) {
+        sPooledBitmap.recycle();
+        sPooledBitmap = bitmap;
+      } else {
+        bitmap.recycle();
+      }
+    }
+  }
+
+  private static Bitmap obtainBitmap(int width, int height) {
+    Bitmap bitmap = null;
+    synchronized (sBitmapPoolLock) {
+      if (sPooledBitmap != null && sPooledBitmap.getAllocationByteCount() >= width * height * 4) {
+        bitmap = sPooledBitmap;
+        sPooledBitmap = null;
+      }
+    }
+    if (bitmap != null) {
+      bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+    } else {
+      bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+    // GL gives us straight alpha, keep it that way so no precision is lost before encoding.
+    bitmap.setPremultiplied(false);
+    return bitmap;
+  }
+
+  // ARGB_8888 bitmaps are laid out as RGBA bytes in memory, same as what glReadPixels returns,
+  // so the pixels can be copied without any per-pixel conversion.
+  private static Bitmap copyToBitmap(ByteBuffer pixels, int width, int height) {
+    Bitmap bitmap = obtainBitmap(width, height);
+    pixels.position(0);
+    bitmap.copyPixelsFromBuffer(pixels);
+    return bitmap;
+  }
+
+  private int[] obtainPixelBuffer() {
+    int[] pixelBuffer = mFreePixelBuffers.poll();
+    if (pixelBuffer == null) {
+      pixelBuffer = new int[2];
+      glGenBuffers(1, pixelBuffer, 0);
+    }
+    return pixelBuffer;
+  }
+
+  private void releasePixelBuffer(int[] pixelBuffer) {
+    if (mFreePixelBuffers.size() < MAX_POOLED_PIXEL_BUFFERS) {
+      mFreePixelBuffers.push(pixelBuffer);
+    } else {
+      glDeleteBuffers(1, pixelBuffer, 0);
+    }
+  }
+
+  // Binds given buffer to GL_PIXEL_PACK_BUFFER and returns the one that was bound before,
+  // so that we don't mess with the state the app set up.
+  private static int bindPixelPackBuffer(int buffer) {
+    int[] previousBuffer = new int[1];
+    glGetIntegerv(GL_PIXEL_PACK_BUFFER_BINDING, previousBuffer, 0);
+    glBindBuffer(GL_PIXEL_PACK_BUFFER, buffer);
+    return previousBuffer[0];
+  }
+
+  // GL_VERSION of OpenGL ES contexts has the form "OpenGL ES <major>.<minor> <vendor info>".
+  private static int getMajorVersion(String version) {
+    final String prefix = "OpenGL ES ";
+    if (version == null || !version.startsWith(prefix) || version.length() <= prefix.length()) {
+      return 0;
+    }
+    return Character.digit(version.charAt(prefix.length()), 10);
+  }
+}
@@ -0,0 +1,22 @@
+package expo.modules.imagemanipulator;
+
+import org.unimodules.core.errors.CodedException;
+
+class ImageManipulationException extends CodedException {
+  private final String mCode;
+
+  ImageManipulationException(String code, String message) {
+    super(message);
+    mCode = code;
+  }
+
+  ImageManipulationException(String code, String message, Throwable cause) {
+    super(message, cause);
+    mCode = code;
+  }
+
+  @Override
+  public String getCode() {
+    return mCode;
+  }
+}
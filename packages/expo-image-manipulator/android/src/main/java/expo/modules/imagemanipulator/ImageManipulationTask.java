@@ -0,0 +1,254 @@
+package expo.modules.imagemanipulator;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Base64;
+import androidx.annotation.Nullable;
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.unimodules.interfaces.imageloader.ImageLoader;
+
+import expo.modules.imagemanipulator.arguments.Action;
+import expo.modules.imagemanipulator.arguments.SaveOptions;
+
+/**
+ * Applies all actions to an image in a single draw and saves the result.
+ *
+ * Local images are decoded with {@link BitmapRegionDecoder}, so only the part of the image
+ * that ends up in the result is decoded, subsampled as much as the requested size allows.
+ * Other images are loaded with the {@link ImageLoader}.
+ */
+class ImageManipulationTask {
+  private static final String ERROR_TAG = "E_IMAGE_MANIPULATOR";
+
+  private final Context mContext;
+  private final ImageLoader mImageLoader;
+  private final String mUri;
+  private final List<Action> mActions;
+  private final SaveOptions mSaveOptions;
+
+  ImageManipulationTask(Context context, ImageLoader imageLoader, String uri, List<Action> actions, SaveOptions saveOptions) {
+    mContext = context;
+    mImageLoader = imageLoader;
+    mUri = uri;
+    mActions = actions;
+    mSaveOptions = saveOptions;
+  }
+
+  Bundle run() throws ImageManipulationException {
+    try {
+      return saveBitmap(decodeAndTransform());
+    } catch (RuntimeException | OutOfMemoryError e) {
+      throw new ImageManipulationException(ERROR_TAG, "Could not manipulate image " + mUri + ": " + e.toString(), e);
+    }
+  }
+
+  private Bitmap decodeAndTransform() throws ImageManipulationException {
+    Uri uri = Uri.parse(mUri);
+    if (ContentResolver.SCHEME_FILE.equals(uri.getScheme()) || ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
+      try {
+        Bitmap bitmap = decodeRegionAndTransform(uri);
+        if (bitmap != null) {
+          return bitmap;
+        }
+      } catch (IOException e) {
+        // Format not supported by BitmapRegionDecoder, let the image loader handle it.
+      }
+    }
+
+    Bitmap bitmap = loadBitmap();
+    ImageTransform transform = compileActions(bitmap.getWidth(), bitmap.getHeight(), ExifInterface.ORIENTATION_NORMAL);
+    return drawTransformed(bitmap, new Rect(0, 0, bitmap.getWidth(), bitmap.getHeight()), transform);
+  }
+
+  @Nullable
+  private Bitmap decodeRegionAndTransform(Uri uri) throws IOException, ImageManipulationException {
+    ContentResolver contentResolver = mContext.getContentResolver();
+    BitmapRegionDecoder decoder;
+    try (InputStream inputStream = contentResolver.openInputStream(uri)) {
+      decoder = BitmapRegionDecoder.newInstance(inputStream, false);
+    }
+    if (decoder == null) {
+      return null;
+    }
+
+    try {
+      ImageTransform transform = compileActions(decoder.getWidth(), decoder.getHeight(), readExifOrientation(contentResolver, uri));
+
+      // Map the result back onto the source to find the pixels that are actually needed.
+      // One pixel margin keeps filtering at the region edges the same as for the whole image.
+      Matrix inverse = new Matrix();
+      transform.getMatrix().invert(inverse);
+      RectF neededBounds = new RectF(0, 0, transform.getWidth(), transform.getHeight());
+      inverse.mapRect(neededBounds);
+      Rect region = new Rect();
+      neededBounds.roundOut(region);
+      region.inset(-1, -1);
+      if (!region.intersect(0, 0, decoder.getWidth(), decoder.getHeight())) {
+        region.set(0, 0, decoder.getWidth(), decoder.getHeight());
+      }
+
+      BitmapFactory.Options options = new BitmapFactory.Options();
+      options.inSampleSize = calculateSampleSize(transform.getMatrix());
+      options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+      Bitmap source = decoder.decodeRegion(region, options);
+      if (source == null) {
+        return null;
+      }
+
+      Bitmap result = drawTransformed(source, region, transform);
+      if (result != source) {
+        source.recycle();
+      }
+      return result;
+    } finally {
+      decoder.recycle();
+    }
+  }
+
+  private Bitmap loadBitmap() throws ImageManipulationException {
+    String basicMessage = "Could not get decoded bitmap of " + mUri;
+    try {
+      return mImageLoader.loadImageForManipulationFromURL(mUri).get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause() instanceof ExecutionException && e.getCause().getCause() != null
+          ? e.getCause().getCause()
+          : e.getCause();
+      if (cause != null) {
+        throw new ImageManipulationException(ERROR_TAG + "_DECODE", basicMessage + ": " + cause.toString(), cause);
+      }
+      throw new ImageManipulationException(ERROR_TAG + "_DECODE", basicMessage + ".");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ImageManipulationException(ERROR_TAG + "_DECODE", basicMessage + ": " + e.toString(), e);
+    }
+  }
+
+  private ImageTransform compileActions(int width, int height, int exifOrientation) throws ImageManipulationException {
+    ImageTransform transform = new ImageTransform(width, height);
+    transform.orient(exifOrientation);
+    for (Action action : mActions) {
+      if (action.getResize() != null) {
+        try {
+          transform.resize(action.getResize());
+        } catch (IllegalArgumentException e) {
+          throw new ImageManipulationException(ERROR_TAG + "_INVALID_ARG", e.getMessage(), e);
+        }
+      } else if (action.getRotate() != null) {
+        transform.rotate(action.getRotate());
+      } else if (action.getFlip() != null) {
+        transform.flip(action.getFlip());
+      } else if (action.getCrop() != null) {
+        try {
+          transform.crop(action.getCrop());
+        } catch (IllegalArgumentException e) {
+          throw new ImageManipulationException(ERROR_TAG + "_CROP_DATA", e.getMessage(), e);
+        }
+      }
+    }
+    return transform;
+  }
+
+  /**
+   * Draws given region of the source image, which may have been decoded subsampled,
+   * into a bitmap of the transformed size.
+   */
+  private static Bitmap drawTransformed(Bitmap source, Rect region, ImageTransform transform) {
+    Matrix matrix = new Matrix(transform.getMatrix());
+    matrix.preTranslate(region.left, region.top);
+    matrix.preScale((float) region.width() / source.getWidth(), (float) region.height() / source.getHeight());
+
+    if (matrix.isIdentity() && source.getWidth() == transform.getWidth() && source.getHeight() == transform.getHeight()) {
+      return source;
+    }
+
+    Bitmap result = Bitmap.createBitmap(transform.getWidth(), transform.getHeight(), Bitmap.Config.ARGB_8888);
+    // Rotations by other angles than multiples of 90 leave transparent corners.
+    result.setHasAlpha(source.hasAlpha() || !matrix.rectStaysRect());
+    Canvas canvas = new Canvas(result);
+    canvas.drawBitmap(source, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+    return result;
+  }
+
+  /**
+   * Largest power of two that still leaves the subsampled image at least as large as the result.
+   */
+  private static int calculateSampleSize(Matrix matrix) {
+    float[] values = new float[9];
+    matrix.getValues(values);
+    double scaleX = Math.hypot(values[Matrix.MSCALE_X], values[Matrix.MSKEW_Y]);
+    double scaleY = Math.hypot(values[Matrix.MSKEW_X], values[Matrix.MSCALE_Y]);
+    double scale = Math.min(scaleX, scaleY);
+
+    int sampleSize = 1;
+    while (sampleSize * 2 * scale <= 1) {
+      sampleSize *= 2;
+    }
+    return sampleSize;
+  }
+
+  private static int readExifOrientation(ContentResolver contentResolver, Uri uri) {
+    try (InputStream inputStream = contentResolver.openInputStream(uri)) {
+      if (inputStream == null) {
+        return ExifInterface.ORIENTATION_NORMAL;
+      }
+      return new ExifInterface(inputStream).getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+    } catch (IOException e) {
+      return ExifInterface.ORIENTATION_NORMAL;
+    }
+  }
+
+  private Bundle saveBitmap(Bitmap bitmap) throws ImageManipulationException {
+    Bitmap.CompressFormat compressFormat = mSaveOptions.getFormat().getCompressFormat();
+    int compression = (int) (mSaveOptions.getCompress() * 100);
+
+    String path;
+    String base64String = null;
+    try {
+      path = FileUtils.generateOutputPath(mContext.getCacheDir(), "ImageManipulator", mSaveOptions.getFormat().getFileExtension());
+      if (mSaveOptions.hasBase64()) {
+        // Encode once and use the same bytes for the file and the base64 string.
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        bitmap.compress(compressFormat, compression, byteOut);
+        byte[] bytes = byteOut.toByteArray();
+        try (FileOutputStream out = new FileOutputStream(path)) {
+          out.write(bytes);
+        }
+        base64String = Base64.encodeToString(bytes, Base64.NO_WRAP);
+      } else {
+        try (FileOutputStream out = new FileOutputStream(path)) {
+          bitmap.compress(compressFormat, compression, out);
+        }
+      }
+    } catch (IOException e) {
+      throw new ImageManipulationException(ERROR_TAG + "_SAVE", "Could not save manipulated image of " + mUri + ": " + e.toString(), e);
+    }
+
+    Bundle response = new Bundle();
+    response.putString("uri", Uri.fromFile(new File(path)).toString());
+    response.putInt("width", bitmap.getWidth());
+    response.putInt("height", bitmap.getHeight());
+    if (mSaveOptions.hasBase64()) {
+      response.putString("base64", base64String);
+    }
+    return response;
+  }
+}
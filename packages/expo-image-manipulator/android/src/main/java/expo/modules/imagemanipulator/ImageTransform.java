@@ -0,0 +1,131 @@
+package expo.modules.imagemanipulator;
+
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import androidx.exifinterface.media.ExifInterface;
+
+import expo.modules.imagemanipulator.arguments.ActionCrop;
+import expo.modules.imagemanipulator.arguments.ActionFlip;
+import expo.modules.imagemanipulator.arguments.ActionResize;
+
+/**
+ * Accumulates manipulation actions into a single matrix instead of applying them to
+ * intermediate bitmaps. Tracks the size the image would have after each action,
+ * so actions depending on it (resize with one dimension, crop) see the same values
+ * as when applied one by one.
+ */
+class ImageTransform {
+  private final Matrix mMatrix = new Matrix();
+  private int mWidth;
+  private int mHeight;
+
+  ImageTransform(int width, int height) {
+    mWidth = width;
+    mHeight = height;
+  }
+
+  /**
+   * Rotates and flips the image the way image loaders do when displaying it,
+   * so the actions operate on the image as the user sees it.
+   */
+  void orient(int exifOrientation) {
+    Matrix orientationMatrix = new Matrix();
+    switch (exifOrientation) {
+      case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+        orientationMatrix.setScale(-1, 1);
+        break;
+      case ExifInterface.ORIENTATION_ROTATE_180:
+        orientationMatrix.setRotate(180);
+        break;
+      case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+        orientationMatrix.setScale(1, -1);
+        break;
+      case ExifInterface.ORIENTATION_TRANSPOSE:
+        orientationMatrix.setRotate(90);
+        orientationMatrix.postScale(-1, 1);
+        break;
+      case ExifInterface.ORIENTATION_ROTATE_90:
+        orientationMatrix.setRotate(90);
+        break;
+      case ExifInterface.ORIENTATION_TRANSVERSE:
+        orientationMatrix.setRotate(-90);
+        orientationMatrix.postScale(-1, 1);
+        break;
+      case ExifInterface.ORIENTATION_ROTATE_270:
+        orientationMatrix.setRotate(-90);
+        break;
+      default:
+        return;
+    }
+    concatAndFit(orientationMatrix);
+  }
+
+  void resize(ActionResize resize) throws IllegalArgumentException {
+    float imageRatio = (float) mWidth / mHeight;
+    int requestedWidth = resize.getWidth() != 0
+        ? resize.getWidth()
+        : resize.getHeight() != 0
+          ? (int) (resize.getHeight() * imageRatio)
+          : 0;
+    int requestedHeight = resize.getHeight() != 0
+        ? resize.getHeight()
+        : resize.getWidth() != 0
+          ? (int) (resize.getWidth() / imageRatio)
+          : 0;
+    if (requestedWidth <= 0 || requestedHeight <= 0) {
+      throw new IllegalArgumentException("Invalid resize options has been passed. Resized image must be at least 1x1.");
+    }
+    mMatrix.postScale((float) requestedWidth / mWidth, (float) requestedHeight / mHeight);
+    mWidth = requestedWidth;
+    mHeight = requestedHeight;
+  }
+
+  void rotate(int rotation) {
+    Matrix rotationMatrix = new Matrix();
+    rotationMatrix.postRotate(rotation);
+    concatAndFit(rotationMatrix);
+  }
+
+  void flip(ActionFlip flip) {
+    concatAndFit(flip.getRotationMatrix());
+  }
+
+  void crop(ActionCrop crop) throws IllegalArgumentException {
+    if (crop.getOriginX() > mWidth
+        || crop.getOriginY() > mHeight
+        || crop.getOriginX() + crop.getWidth() > mWidth
+        || crop.getOriginY() + crop.getHeight() > mHeight
+    ) {
+      throw new IllegalArgumentException("Invalid crop options has been passed. Please make sure the requested crop rectangle is inside source image.");
+    }
+    mMatrix.postTranslate(-crop.getOriginX(), -crop.getOriginY());
+    mWidth = crop.getWidth();
+    mHeight = crop.getHeight();
+  }
+
+  /**
+   * Matrix mapping the source image onto the result.
+   */
+  Matrix getMatrix() {
+    return mMatrix;
+  }
+
+  int getWidth() {
+    return mWidth;
+  }
+
+  int getHeight() {
+    return mHeight;
+  }
+
+  // Same as Bitmap.createBitmap with a matrix: the transformed image is moved back to the origin
+  // and the result takes the size of its bounds.
+  private void concatAndFit(Matrix matrix) {
+    RectF bounds = new RectF(0, 0, mWidth, mHeight);
+    matrix.mapRect(bounds);
+    mMatrix.postConcat(matrix);
+    mMatrix.postTranslate(-bounds.left, -bounds.top);
+    mWidth = Math.round(bounds.width());
+    mHeight = Math.round(bounds.height());
+  }
+}
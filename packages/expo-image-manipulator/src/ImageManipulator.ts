@@ -1,7 +1,13 @@
 import { UnavailabilityError } from '@unimodules/core';
 
 import ExpoImageManipulator from './ExpoImageManipulator';
-import { Action, ImageResult, SaveFormat, SaveOptions } from './ImageManipulator.types';
+import {
+  Action,
+  ImageBatchResult,
+  ImageResult,
+  SaveFormat,
+  SaveOptions,
+} from './ImageManipulator.types';
 
 export async function manipulateAsync(
   uri: string,
@@ -17,4 +23,25 @@ export async function manipulateAsync(
   return await ExpoImageManipulator.manipulateAsync(uri, actions, { format, ...rest });
 }
 
+/**
+ * Applies the same actions to each of the images, for example to create thumbnails of many
+ * images at once. Resolves with a result for each uri, in the same order. A failure of one
+ * image doesn't fail the others, its result has an `error` message instead.
+ *
+ * @platform android
+ */
+export async function manipulateBatchAsync(
+  uris: string[],
+  actions: Action[] = [],
+  { format = SaveFormat.JPEG, ...rest }: SaveOptions = {}
+): Promise<ImageBatchResult[]> {
+  if (!ExpoImageManipulator.manipulateBatchAsync) {
+    throw new UnavailabilityError('ImageManipulator', 'manipulateBatchAsync');
+  }
+  if (!Array.isArray(uris) || !uris.every(uri => typeof uri === 'string')) {
+    throw new TypeError('The "uris" argument must be an array of strings');
+  }
+  return await ExpoImageManipulator.manipulateBatchAsync(uris, actions, { format, ...rest });
+}
+
 export * from './ImageManipulator.types';
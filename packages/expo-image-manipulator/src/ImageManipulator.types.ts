@@ -5,6 +5,9 @@ export type ImageResult = {
   base64?: string;
 };
 
+// Result of one image of a batch, images that failed have an error message instead.
+export type ImageBatchResult = ImageResult | { error: string };
+
 export type ActionResize = {
   resize: {
     width?: number;
@@ -0,0 +1,120 @@
+package expo.modules.image;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.request.target.Target;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.PixelUtil;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public class ExpoImageModule extends ReactContextBaseJavaModule {
+  private static final String NAME = "ExpoImageModule";
+  private static final String ERROR_INVALID_URL = "ERR_IMAGE_INVALID_URL";
+  private static final String OPTION_PRIORITY_KEY = "priority";
+  private static final String OPTION_WIDTH_KEY = "width";
+  private static final String OPTION_HEIGHT_KEY = "height";
+
+  private final ExpoImagePrefetcher mPrefetcher;
+
+  public ExpoImageModule(ReactApplicationContext reactContext) {
+    super(reactContext);
+    mPrefetcher = new ExpoImagePrefetcher(Glide.with(reactContext));
+  }
+
+  @NonNull
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * Loads the images into the disk and memory caches. Options may contain `priority` and
+   * the `width` and `height` in points that the images are going to be displayed in, images
+   * are decoded in their original size otherwise. Resolves with `true` if all of them
+   * have been cached and `false` if any failed or got aborted.
+   */
+  @ReactMethod
+  public void prefetch(ReadableArray urls, @Nullable ReadableMap options, final Promise promise) {
+    for (int i = 0; i < urls.size(); i++) {
+      String url = urls.getString(i);
+      if (url == null || url.isEmpty()) {
+        promise.reject(ERROR_INVALID_URL, "Cannot prefetch an image for an empty URL.");
+        return;
+      }
+    }
+    if (urls.size() == 0) {
+      promise.resolve(true);
+      return;
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(urls.size());
+    final AtomicBoolean allSucceeded = new AtomicBoolean(true);
+    ExpoImagePrefetcher.Callback callback = new ExpoImagePrefetcher.Callback() {
+      @Override
+      public void onPrefetchFinished(String url, boolean success) {
+        if (!success) {
+          allSucceeded.set(false);
+        }
+        if (remaining.decrementAndGet() == 0) {
+          promise.resolve(allSucceeded.get());
+        }
+      }
+    };
+
+    Priority prefetchPriority = parsePriority(getString(options, OPTION_PRIORITY_KEY));
+    int width = getSizeInPixels(options, OPTION_WIDTH_KEY);
+    int height = getSizeInPixels(options, OPTION_HEIGHT_KEY);
+    for (int i = 0; i < urls.size(); i++) {
+      mPrefetcher.prefetch(urls.getString(i), width, height, prefetchPriority, callback);
+    }
+  }
+
+  @ReactMethod
+  public void abortPrefetch(ReadableArray urls) {
+    for (int i = 0; i < urls.size(); i++) {
+      String url = urls.getString(i);
+      if (url != null) {
+        mPrefetcher.cancel(url);
+      }
+    }
+  }
+
+  @Override
+  public void onCatalystInstanceDestroy() {
+    super.onCatalystInstanceDestroy();
+    mPrefetcher.cancelAll();
+  }
+
+  @Nullable
+  private static String getString(@Nullable ReadableMap options, String key) {
+    return options != null && options.hasKey(key) && !options.isNull(key) ? options.getString(key) : null;
+  }
+
+  private static int getSizeInPixels(@Nullable ReadableMap options, String key) {
+    if (options == null || !options.hasKey(key) || options.isNull(key)) {
+      return Target.SIZE_ORIGINAL;
+    }
+    int size = Math.round(PixelUtil.toPixelFromDIP(options.getDouble(key)));
+    return size > 0 ? size : Target.SIZE_ORIGINAL;
+  }
+
+  // Prefetches default to low priority so that they don't hold up images of visible views.
+  private static Priority parsePriority(@Nullable String priority) {
+    if ("high".equals(priority)) {
+      return Priority.HIGH;
+    } else if ("normal".equals(priority)) {
+      return Priority.NORMAL;
+    }
+    return Priority.LOW;
+  }
+}
@@ -14,7 +14,7 @@ public class ExpoImagePackage implements ReactPackage {
   @NonNull
   @Override
   public List<NativeModule> createNativeModules(@NonNull ReactApplicationContext reactContext) {
-    return Collections.emptyList();
+    return Collections.<NativeModule>singletonList(new ExpoImageModule(reactContext));
   }
 
   @NonNull
@@ -0,0 +1,226 @@
+package expo.modules.image;
+
+import android.graphics.drawable.Drawable;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.request.FutureTarget;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Loads images into Glide's disk and memory caches ahead of time, so that views binding them
+ * later on don't have to wait for the network or the decoder.
+ * <p>
+ * Images are decoded the way {@code RequestBuilder#preload} does it: the resource is loaded for
+ * given size and the request is cleared right away, which hands the resource over to the memory
+ * cache. The request has the options of {@link ExpoImageView}'s requests (see
+ * {@link ExpoImageRequestOptions}), so views hit the memory cache if they request the same size,
+ * otherwise they still find the image in the disk cache. The request is submitted rather than
+ * preloaded to know when it finishes.
+ * <p>
+ * At most {@link #MAX_CONCURRENT_PREFETCHES} images are downloaded at a time (Glide's own
+ * executors still decide when the requests run, which is why prefetches should have lower
+ * priority than loads of visible views). Pending prefetches are started in order of priority
+ * and can be cancelled.
+ */
+public class ExpoImagePrefetcher {
+  private static final int MAX_CONCURRENT_PREFETCHES = 2;
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  public interface Callback {
+    void onPrefetchFinished(String url, boolean success);
+  }
+
+  private final RequestManager mRequestManager;
+  // Keyed by url and size, see getTaskKey.
+  private final Map<String, PrefetchTask> mTasks = new ConcurrentHashMap<>();
+  private final AtomicLong mSequenceNumber = new AtomicLong();
+  private final ThreadPoolExecutor mExecutor;
+
+  public ExpoImagePrefetcher(RequestManager requestManager) {
+    mRequestManager = requestManager;
+    mExecutor = new ThreadPoolExecutor(
+      MAX_CONCURRENT_PREFETCHES,
+      MAX_CONCURRENT_PREFETCHES,
+      KEEP_ALIVE_SECONDS,
+      TimeUnit.SECONDS,
+      new PriorityBlockingQueue<Runnable>());
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Schedules loading of the image at given url in given size in pixels, which can be
+   * {@link Target#SIZE_ORIGINAL}. If the image is already being prefetched in that size,
+   * the callback is added to the existing request and its priority may be raised.
+   */
+  public void prefetch(@NonNull String url, int width, int height, @NonNull Priority priority, @NonNull Callback callback) {
+    String key = getTaskKey(url, width, height);
+    while (true) {
+      PrefetchTask task = mTasks.get(key);
+      if (task == null) {
+        task = new PrefetchTask(key, url, width, height, priority, mSequenceNumber.getAndIncrement());
+        task.addCallback(callback);
+        if (mTasks.putIfAbsent(key, task) == null) {
+          mExecutor.execute(task);
+          return;
+        }
+        // Someone else has just scheduled this url, join their task instead.
+        continue;
+      }
+      if (task.addCallback(callback)) {
+        if (task.shouldRaisePriority(priority) && mExecutor.remove(task)) {
+          task.setPriority(priority);
+          mExecutor.execute(task);
+        }
+        return;
+      }
+      // The task finished in the meantime, schedule a new one.
+      mTasks.remove(key, task);
+    }
+  }
+
+  /**
+   * Cancels prefetches of the image at given url in all sizes.
+   */
+  public void cancel(@NonNull String url) {
+    for (PrefetchTask task : new ArrayList<>(mTasks.values())) {
+      if (task.mUrl.equals(url)) {
+        cancel(task);
+      }
+    }
+  }
+
+  public void cancelAll() {
+    for (PrefetchTask task : new ArrayList<>(mTasks.values())) {
+      cancel(task);
+    }
+  }
+
+  private void cancel(PrefetchTask task) {
+    if (mTasks.remove(task.mKey, task)) {
+      mExecutor.remove(task);
+      task.cancel();
+    }
+  }
+
+  private static String getTaskKey(String url, int width, int height) {
+    return width + "x" + height + " " + url;
+  }
+
+  private class PrefetchTask implements Runnable, Comparable<PrefetchTask> {
+    private final String mKey;
+    private final String mUrl;
+    private final int mWidth;
+    private final int mHeight;
+    private final long mSequenceNumber;
+    private final List<Callback> mCallbacks = new ArrayList<>();
+    private volatile Priority mPriority;
+    private @Nullable FutureTarget<Drawable> mTarget;
+    private boolean mIsFinished = false;
+    private boolean mIsCancelled = false;
+
+    PrefetchTask(String key, String url, int width, int height, Priority priority, long sequenceNumber) {
+      mKey = key;
+      mUrl = url;
+      mWidth = width;
+      mHeight = height;
+      mPriority = priority;
+      mSequenceNumber = sequenceNumber;
+    }
+
+    synchronized boolean addCallback(Callback callback) {
+      if (mIsFinished) {
+        return false;
+      }
+      mCallbacks.add(callback);
+      return true;
+    }
+
+    boolean shouldRaisePriority(Priority priority) {
+      // Glide's priorities are ordered from the highest one.
+      return priority.ordinal() < mPriority.ordinal();
+    }
+
+    void setPriority(Priority priority) {
+      mPriority = priority;
+    }
+
+    @Override
+    public int compareTo(@NonNull PrefetchTask other) {
+      int priorityComparison = mPriority.compareTo(other.mPriority);
+      if (priorityComparison != 0) {
+        return priorityComparison;
+      }
+      return Long.compare(mSequenceNumber, other.mSequenceNumber);
+    }
+
+    @Override
+    public void run() {
+      FutureTarget<Drawable> target;
+      synchronized (this) {
+        if (mIsCancelled) {
+          return;
+        }
+        target = mRequestManager
+          .load(new GlideUrl(mUrl))
+          .apply(ExpoImageRequestOptions.create(mWidth, mHeight))
+          .priority(mPriority)
+          .submit(mWidth, mHeight);
+        mTarget = target;
+      }
+
+      boolean success;
+      try {
+        success = target.get() != null;
+      } catch (Exception e) {
+        success = false;
+      }
+      // Releases the decoded image into the memory cache.
+      mRequestManager.clear(target);
+      mTasks.remove(mKey, this);
+      finish(success);
+    }
+
+    void cancel() {
+      FutureTarget<Drawable> target;
+      synchronized (this) {
+        mIsCancelled = true;
+        target = mTarget;
+      }
+      if (target != null) {
+        // Makes target.get() in run() throw, which finishes the task.
+        target.cancel(true);
+      } else {
+        finish(false);
+      }
+    }
+
+    private void finish(boolean success) {
+      List<Callback> callbacks;
+      synchronized (this) {
+        if (mIsFinished) {
+          return;
+        }
+        mIsFinished = true;
+        callbacks = new ArrayList<>(mCallbacks);
+        mCallbacks.clear();
+      }
+      for (Callback callback : callbacks) {
+        callback.onPrefetchFinished(mUrl, success);
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package expo.modules.image;
+
+import com.bumptech.glide.request.RequestOptions;
+import com.facebook.react.bridge.ReadableMap;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Creates the options of image requests. Glide's memory cache keys are derived from them
+ * (together with the url and the size), so views and {@link ExpoImagePrefetcher} must create
+ * them here for prefetched images to be found in the memory cache.
+ */
+public class ExpoImageRequestOptions {
+  private static final String SOURCE_WIDTH_KEY = "width";
+  private static final String SOURCE_HEIGHT_KEY = "height";
+  private static final String SOURCE_SCALE_KEY = "scale";
+
+  private ExpoImageRequestOptions() {
+  }
+
+  /**
+   * Options of images loaded in the size of the target they are loaded into.
+   */
+  public static RequestOptions create() {
+    return new RequestOptions().fitCenter();
+  }
+
+  /**
+   * Options of images loaded in given size in pixels, which can be
+   * {@link com.bumptech.glide.request.target.Target#SIZE_ORIGINAL}.
+   */
+  public static RequestOptions create(int width, int height) {
+    return create().override(width, height);
+  }
+
+  public static RequestOptions fromSourceMap(@Nullable ReadableMap sourceMap) {
+    // Override the size for local assets. This ensures that
+    // resizeMode "center" displays the image in the correct size.
+    if (sourceMap != null && sourceMap.hasKey(SOURCE_WIDTH_KEY) && sourceMap.hasKey(SOURCE_HEIGHT_KEY) && sourceMap.hasKey(SOURCE_SCALE_KEY)) {
+      double scale = sourceMap.getDouble(SOURCE_SCALE_KEY);
+      int width = sourceMap.getInt(SOURCE_WIDTH_KEY);
+      int height = sourceMap.getInt(SOURCE_HEIGHT_KEY);
+      return create((int) (width * scale), (int) (height * scale));
+    }
+    return create();
+  }
+}
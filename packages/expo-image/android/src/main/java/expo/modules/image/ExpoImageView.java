@@ -6,9 +6,14 @@ import android.graphics.Canvas;
 import android.graphics.PorterDuff;
 import android.graphics.drawable.Drawable;
 
+import com.bumptech.glide.Priority;
 import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
 import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.request.target.Target;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.modules.i18nmanager.I18nUtil;
@@ -28,9 +33,6 @@ import expo.modules.image.okhttp.OkHttpClientProgressInterceptor;
 @SuppressLint("ViewConstructor")
 public class ExpoImageView extends AppCompatImageView {
   private static final String SOURCE_URI_KEY = "uri";
-  private static final String SOURCE_WIDTH_KEY = "width";
-  private static final String SOURCE_HEIGHT_KEY = "height";
-  private static final String SOURCE_SCALE_KEY = "scale";
 
   private OkHttpClientProgressInterceptor mProgressInterceptor;
   private RequestManager mRequestManager;
@@ -40,6 +42,23 @@ public class ExpoImageView extends AppCompatImageView {
 
   private ReadableMap mSourceMap;
   private GlideUrl mLoadedSource;
+  private ImageLoadEventsManager mEventsManager;
+  private boolean mIsLoading = false;
+
+  // Called on the main thread, like the view lifecycle methods.
+  private final RequestListener<Drawable> mLoadStateListener = new RequestListener<Drawable>() {
+    @Override
+    public boolean onLoadFailed(@Nullable GlideException e, Object model, Target<Drawable> target, boolean isFirstResource) {
+      mIsLoading = false;
+      return false;
+    }
+
+    @Override
+    public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target, DataSource dataSource, boolean isFirstResource) {
+      mIsLoading = false;
+      return false;
+    }
+  };
 
   public ExpoImageView(ReactContext context, RequestManager requestManager, OkHttpClientProgressInterceptor progressInterceptor) {
     super(context);
@@ -108,29 +127,65 @@ public class ExpoImageView extends AppCompatImageView {
     GlideUrl sourceToLoad = createUrlFromSourceMap(mSourceMap);
 
     if (sourceToLoad == null) {
-      mRequestManager.clear(this);
+      clearLoad();
       setImageDrawable(null);
-      mLoadedSource = null;
     } else if (!sourceToLoad.equals(mLoadedSource)) {
+      clearLoad();
       mLoadedSource = sourceToLoad;
       RequestOptions options = createOptionsFromSourceMap(mSourceMap);
-      ImageLoadEventsManager eventsManager = new ImageLoadEventsManager(getId(), mEventEmitter);
-      mProgressInterceptor.registerProgressListener(sourceToLoad.toStringUrl(), eventsManager);
-      eventsManager.onLoadStarted();
+      mEventsManager = new ImageLoadEventsManager(getId(), mEventEmitter);
+      mProgressInterceptor.registerProgressListener(sourceToLoad.toStringUrl(), mEventsManager);
+      mEventsManager.onLoadStarted();
+      mIsLoading = true;
       mRequestManager
         .load(sourceToLoad)
         .apply(options)
-        .listener(eventsManager)
+        // Images of mounted views go before prefetches, see ExpoImagePrefetcher.
+        .priority(Priority.HIGH)
+        .listener(mEventsManager)
+        .addListener(mLoadStateListener)
         .into(this);
       mRequestManager
         .as(BitmapFactory.Options.class)
         .load(sourceToLoad)
-        .into(eventsManager);
+        .into(mEventsManager);
     }
   }
 
   protected void onDrop() {
+    clearLoad();
+  }
+
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    // Restart a load cancelled when the view went off-screen.
+    if (mLoadedSource == null && mSourceMap != null) {
+      onAfterUpdateTransaction();
+    }
+  }
+
+  @Override
+  protected void onDetachedFromWindow() {
+    // Off-screen views (eg. clipped by lists) shouldn't take up the network and decoders.
+    // Loaded images are kept, so scrolling back doesn't make them blink.
+    if (mIsLoading) {
+      clearLoad();
+    }
+    super.onDetachedFromWindow();
+  }
+
+  private void clearLoad() {
     mRequestManager.clear(this);
+    if (mEventsManager != null) {
+      mRequestManager.clear(mEventsManager);
+      if (mLoadedSource != null) {
+        mProgressInterceptor.unregisterProgressListener(mLoadedSource.toStringUrl(), mEventsManager);
+      }
+      mEventsManager = null;
+    }
+    mLoadedSource = null;
+    mIsLoading = false;
   }
 
   @Nullable
@@ -143,20 +198,7 @@ public class ExpoImageView extends AppCompatImageView {
   }
 
   protected RequestOptions createOptionsFromSourceMap(@Nullable ReadableMap sourceMap) {
-    RequestOptions options = new RequestOptions();
-    if (sourceMap != null) {
-
-      // Override the size for local assets. This ensures that
-      // resizeMode "center" displays the image in the correct size.
-      if (sourceMap.hasKey(SOURCE_WIDTH_KEY) && sourceMap.hasKey(SOURCE_HEIGHT_KEY) && sourceMap.hasKey(SOURCE_SCALE_KEY)) {
-        double scale = sourceMap.getDouble(SOURCE_SCALE_KEY);
-        int width = sourceMap.getInt(SOURCE_WIDTH_KEY);
-        int height = sourceMap.getInt(SOURCE_HEIGHT_KEY);
-        options.override((int) (width * scale), (int) (height * scale));
-      }
-    }
-    options.fitCenter();
-    return options;
+    return ExpoImageRequestOptions.fromSourceMap(sourceMap);
   }
 
   private BorderDrawable getOrCreateBorderDrawable() {
@@ -6,9 +6,9 @@ import com.facebook.react.modules.network.ProgressResponseBody;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import androidx.annotation.NonNull;
 import okhttp3.Interceptor;
@@ -17,10 +17,11 @@ import okhttp3.Response;
 
 public class OkHttpClientProgressInterceptor implements Interceptor {
   private static OkHttpClientProgressInterceptor sInstance;
-  private Map<String, Collection<WeakReference<ProgressListener>>> mProgressListeners;
+  // Listeners are registered from the UI thread and notified from OkHttp threads.
+  private final ConcurrentMap<String, Collection<WeakReference<ProgressListener>>> mProgressListeners;
 
   private OkHttpClientProgressInterceptor() {
-    mProgressListeners = new HashMap<>();
+    mProgressListeners = new ConcurrentHashMap<>();
   }
 
   public static OkHttpClientProgressInterceptor getInstance() {
@@ -62,8 +63,9 @@ public class OkHttpClientProgressInterceptor implements Interceptor {
               }
             }
 
-            if (done) {
-              strongThis.mProgressListeners.remove(requestUrl);
+            if (done && urlListeners != null) {
+              // Only remove the listeners we've notified, not ones registered for a new request in the meantime.
+              strongThis.mProgressListeners.remove(requestUrl, urlListeners);
             }
           }
         }
@@ -74,9 +76,28 @@ public class OkHttpClientProgressInterceptor implements Interceptor {
   public void registerProgressListener(String requestUrl, ProgressListener requestListener) {
     Collection<WeakReference<ProgressListener>> requestListeners = mProgressListeners.get(requestUrl);
     if (requestListeners == null) {
-      requestListeners = new HashSet<>();
-      mProgressListeners.put(requestUrl, requestListeners);
+      Collection<WeakReference<ProgressListener>> newListeners = new CopyOnWriteArrayList<>();
+      requestListeners = mProgressListeners.putIfAbsent(requestUrl, newListeners);
+      if (requestListeners == null) {
+        requestListeners = newListeners;
+      }
     }
     requestListeners.add(new WeakReference<>(requestListener));
   }
+
+  public void unregisterProgressListener(String requestUrl, ProgressListener requestListener) {
+    Collection<WeakReference<ProgressListener>> requestListeners = mProgressListeners.get(requestUrl);
+    if (requestListeners == null) {
+      return;
+    }
+    for (WeakReference<ProgressListener> listenerReference : requestListeners) {
+      ProgressListener listener = listenerReference.get();
+      if (listener == null || listener == requestListener) {
+        requestListeners.remove(listenerReference);
+      }
+    }
+    if (requestListeners.isEmpty()) {
+      mProgressListeners.remove(requestUrl, requestListeners);
+    }
+  }
 }
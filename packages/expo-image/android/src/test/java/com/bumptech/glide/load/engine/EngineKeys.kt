@@ -0,0 +1,21 @@
+package com.bumptech.glide.load.engine
+
+import android.graphics.drawable.Drawable
+import com.bumptech.glide.load.Key
+import com.bumptech.glide.request.BaseRequestOptions
+
+/**
+ * Creates the key under which [Engine] keeps the drawable loaded from [model] with [options]
+ * for a target of given size in its memory cache.
+ */
+fun memoryCacheKey(model: Any, options: BaseRequestOptions<*>, width: Int, height: Int): Key =
+  EngineKey(
+    model,
+    options.signature,
+    width,
+    height,
+    options.transformations,
+    options.resourceClass,
+    Drawable::class.java,
+    options.options
+  )
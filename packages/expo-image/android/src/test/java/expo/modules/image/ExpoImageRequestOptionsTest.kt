@@ -0,0 +1,57 @@
+package expo.modules.image
+
+import com.bumptech.glide.load.engine.memoryCacheKey
+import com.bumptech.glide.load.model.GlideUrl
+import com.bumptech.glide.request.RequestOptions
+import com.facebook.react.bridge.JavaOnlyMap
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+/**
+ * Prefetched images are only found in the memory cache if [ExpoImagePrefetcher] requests them
+ * under the same key as [ExpoImageView] does.
+ */
+@RunWith(RobolectricTestRunner::class)
+internal class ExpoImageRequestOptionsTest {
+
+  private val url = "https://example.com/image.png"
+
+  @Test
+  fun `prefetch has the cache key of a view with source size`() {
+    val viewOptions = ExpoImageRequestOptions.fromSourceMap(
+      JavaOnlyMap.of("uri", url, "width", 100, "height", 50, "scale", 2.0)
+    )
+    val prefetchOptions = ExpoImageRequestOptions.create(200, 100)
+
+    assertEquals(viewOptions, prefetchOptions)
+    assertEquals(
+      memoryCacheKey(GlideUrl(url), viewOptions, viewOptions.overrideWidth, viewOptions.overrideHeight),
+      memoryCacheKey(GlideUrl(url), prefetchOptions, 200, 100)
+    )
+  }
+
+  @Test
+  fun `prefetch has the cache key of a view of the same size`() {
+    val viewOptions = ExpoImageRequestOptions.fromSourceMap(JavaOnlyMap.of("uri", url))
+    val prefetchOptions = ExpoImageRequestOptions.create(200, 100)
+
+    // Views without source size load images in their own size.
+    assertEquals(
+      memoryCacheKey(GlideUrl(url), viewOptions, 200, 100),
+      memoryCacheKey(GlideUrl(url), prefetchOptions, 200, 100)
+    )
+  }
+
+  @Test
+  fun `prefetch without view options has a different cache key`() {
+    val viewOptions = ExpoImageRequestOptions.fromSourceMap(JavaOnlyMap.of("uri", url))
+
+    assertNotEquals(
+      memoryCacheKey(GlideUrl(url), viewOptions, 200, 100),
+      memoryCacheKey(GlideUrl(url), RequestOptions().override(200, 100), 200, 100)
+    )
+  }
+}
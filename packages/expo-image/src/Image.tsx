@@ -4,13 +4,21 @@ import {
   ImageResizeMode,
   ImageSourcePropType,
   ImageStyle as RNImageStyle,
+  NativeModules,
   NativeSyntheticEvent,
   StyleProp,
   StyleSheet,
 } from 'react-native';
 
 import ExpoImage from './ExpoImage';
-import { ImageErrorEventData, ImageLoadEventData, ImageLoadProgressEventData } from './Image.types';
+import {
+  ImageErrorEventData,
+  ImageLoadEventData,
+  ImageLoadProgressEventData,
+  ImagePrefetchOptions,
+} from './Image.types';
+
+const { ExpoImageModule } = NativeModules;
 
 const DEFAULT_RESIZE_MODE = 'cover';
 
@@ -41,6 +49,31 @@ interface ImageState {
 }
 
 export default class Image extends React.Component<ImageProps, ImageState> {
+  /**
+   * Downloads the images into the disk and memory caches, so that views can display them without
+   * waiting for the network. Resolves with `true` if all of them have been cached.
+   *
+   * @platform android
+   */
+  static async prefetch(
+    urls: string | string[],
+    options: ImagePrefetchOptions = {}
+  ): Promise<boolean> {
+    if (!ExpoImageModule) {
+      throw new Error('Image.prefetch is not available on this platform.');
+    }
+    return await ExpoImageModule.prefetch(Array.isArray(urls) ? urls : [urls], options);
+  }
+
+  /**
+   * Cancels prefetches of the images, their promises resolve with `false`.
+   *
+   * @platform android
+   */
+  static abortPrefetch(urls: string | string[]): void {
+    ExpoImageModule?.abortPrefetch(Array.isArray(urls) ? urls : [urls]);
+  }
+
   static getDerivedStateFromProps(props: ImageProps) {
     return {
       onLoad: props.onLoadEnd
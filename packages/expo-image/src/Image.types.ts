@@ -15,6 +15,17 @@ export interface ImageLoadEventData {
   };
 }
 
+export type ImagePrefetchPriority = 'low' | 'normal' | 'high';
+
+export interface ImagePrefetchOptions {
+  // Prefetches go after images of mounted views unless they are given high priority.
+  priority?: ImagePrefetchPriority;
+  // Size in points of the views that are going to display the images. Images are kept in
+  // the memory cache in this size, otherwise they are only ready to be decoded from the disk.
+  width?: number;
+  height?: number;
+}
+
 export interface ImageLoadProgressEventData {
   loaded: number;
   total: number;
@@ -14,6 +14,9 @@ import androidx.room.Room;
 import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
 import androidx.test.platform.app.InstrumentationRegistry;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -124,4 +127,36 @@ public class DatabaseIntegrityCheckTest {
     // cleanup
     db.updateDao().deleteUpdates(allUpdates);
   }
+
+  @Test
+  public void testFindMissingAssets_Parallel() throws IOException {
+    File updatesDirectory = new File(context.getCacheDir(), "DatabaseIntegrityCheckTest");
+    updatesDirectory.mkdirs();
+
+    // enough assets to be checked on several threads
+    List<AssetEntity> assets = new ArrayList<>();
+    List<AssetEntity> expectedMissingAssets = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      AssetEntity asset = new AssetEntity("asset" + i, "png");
+      asset.relativePath = "asset" + i + ".png";
+      assets.add(asset);
+      if (i % 3 == 0) {
+        expectedMissingAssets.add(asset);
+      } else {
+        Assert.assertTrue(new File(updatesDirectory, asset.relativePath).createNewFile());
+      }
+    }
+    AssetEntity assetWithoutPath = new AssetEntity("assetWithoutPath", "png");
+    assets.add(assetWithoutPath);
+    expectedMissingAssets.add(assetWithoutPath);
+
+    List<AssetEntity> missingAssets = new DatabaseIntegrityCheck().findMissingAssets(assets, updatesDirectory);
+    Assert.assertEquals(expectedMissingAssets, missingAssets);
+
+    // cleanup
+    for (File file : updatesDirectory.listFiles()) {
+      file.delete();
+    }
+    updatesDirectory.delete();
+  }
 }
@@ -100,4 +100,37 @@ public class UpdatesDatabaseMigrationTest {
     Cursor cursorUpdatesAssets6 = db.query("SELECT * FROM `updates_assets` WHERE `update_id` = X'594100ea066e4804b5c7c907c773f980' AND `asset_id` = 5");
     Assert.assertEquals(0, cursorUpdatesAssets6.getCount());
   }
+
+  @Test
+  public void testMigrate5To6() throws IOException {
+    SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 5);
+
+    db.execSQL("INSERT INTO \"assets\" (\"id\",\"url\",\"key\",\"headers\",\"type\",\"metadata\",\"download_time\",\"relative_path\",\"hash\",\"hash_type\",\"marked_for_deletion\") VALUES" +
+      " (2,'https://url.to/b56cf690e0afa93bd4dc7756d01edd3e','b56cf690e0afa93bd4dc7756d01edd3e.png',NULL,'image/png',NULL,1614137309295,'b56cf690e0afa93bd4dc7756d01edd3e.png',NULL,0,0),\n" +
+      " (3,'https://url.to/bundle-1614137308871','bundle-1614137308871',NULL,'application/javascript',NULL,1614137309513,'bundle-1614137308871',NULL,0,0)");
+    db.execSQL("INSERT INTO \"updates\" (\"id\",\"scope_key\",\"commit_time\",\"runtime_version\",\"launch_asset_id\",\"metadata\",\"status\",\"keep\") VALUES" +
+      " (X'8C263F9DE3FF48888496E3244C788661','http://192.168.4.44:3000',1614137308871,'40.0.0',3,NULL,1,1)");
+    db.execSQL("INSERT INTO \"updates_assets\" (\"update_id\",\"asset_id\") VALUES" +
+      " (X'8C263F9DE3FF48888496E3244C788661',2),\n" +
+      " (X'8C263F9DE3FF48888496E3244C788661',3)");
+
+    db.close();
+
+    db = helper.runMigrationsAndValidate(TEST_DB, 6, true, UpdatesDatabase.MIGRATION_5_6);
+
+    db.execSQL("PRAGMA foreign_keys=ON");
+
+    // existing assets are kept and haven't been verified yet
+    Cursor cursorAssets1 = db.query("SELECT * FROM `assets` WHERE `id` = 2 AND `key` = 'b56cf690e0afa93bd4dc7756d01edd3e.png' AND `relative_path` = 'b56cf690e0afa93bd4dc7756d01edd3e.png' AND `verification_time` IS NULL");
+    Assert.assertEquals(1, cursorAssets1.getCount());
+    Cursor cursorAssets2 = db.query("SELECT * FROM `assets` WHERE `id` = 3 AND `key` = 'bundle-1614137308871' AND `relative_path` = 'bundle-1614137308871' AND `verification_time` IS NULL");
+    Assert.assertEquals(1, cursorAssets2.getCount());
+
+    Cursor cursorUpdatesAssets = db.query("SELECT * FROM `updates_assets` WHERE `update_id` = X'8C263F9DE3FF48888496E3244C788661'");
+    Assert.assertEquals(2, cursorUpdatesAssets.getCount());
+
+    db.execSQL("UPDATE `assets` SET `verification_time` = 1614137409513 WHERE `id` = 3");
+    Cursor cursorAssets3 = db.query("SELECT * FROM `assets` WHERE `id` = 3 AND `verification_time` = 1614137409513");
+    Assert.assertEquals(1, cursorAssets3.getCount());
+  }
 }
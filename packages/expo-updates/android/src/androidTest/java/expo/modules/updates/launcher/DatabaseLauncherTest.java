@@ -0,0 +1,216 @@
+package expo.modules.updates.launcher;
+
+import android.content.Context;
+import android.net.Uri;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.room.Room;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+import expo.modules.updates.db.entity.UpdateEntity;
+import expo.modules.updates.db.enums.UpdateStatus;
+import expo.modules.updates.loader.FileDownloader;
+import expo.modules.updates.selectionpolicy.LoaderSelectionPolicyFilterAware;
+import expo.modules.updates.selectionpolicy.ReaperSelectionPolicyFilterAware;
+import expo.modules.updates.selectionpolicy.SelectionPolicy;
+import expo.modules.updates.selectionpolicy.SelectionPolicyFactory;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class DatabaseLauncherTest {
+
+  private static final String SCOPE_KEY = "testScopeKey";
+
+  private Context context;
+  private UpdatesDatabase db;
+  private UpdatesConfiguration configuration;
+  private SelectionPolicy selectionPolicy;
+  private File updatesDirectory;
+
+  @Before
+  public void setup() {
+    context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    db = Room.inMemoryDatabaseBuilder(context, UpdatesDatabase.class).build();
+
+    HashMap<String, Object> configMap = new HashMap<>();
+    configMap.put("updateUrl", Uri.parse("https://exp.host/@test/test"));
+    configMap.put("scopeKey", SCOPE_KEY);
+    configMap.put("runtimeVersion", "1.0");
+    configMap.put("hasEmbeddedUpdate", false);
+    configuration = new UpdatesConfiguration().loadValuesFromMap(configMap);
+    selectionPolicy = SelectionPolicyFactory.createFilterAwarePolicy("1.0");
+
+    updatesDirectory = new File(context.getCacheDir(), "DatabaseLauncherTest");
+    updatesDirectory.mkdirs();
+  }
+
+  @After
+  public void cleanup() {
+    db.close();
+    for (File file : updatesDirectory.listFiles()) {
+      file.delete();
+    }
+    updatesDirectory.delete();
+  }
+
+  @Test
+  public void testLaunchSnapshot() throws IOException {
+    UpdateEntity update1 = insertReadyUpdate(new Date(1608667857774L), "bundle1.js", "asset1.png");
+
+    DatabaseLauncher launcher1 = launch();
+    Assert.assertEquals(update1.id, launcher1.getLaunchedUpdate().id);
+    Assert.assertEquals(2, launcher1.getLocalAssetFiles().size());
+    LaunchSnapshot launchSnapshot = LaunchSnapshot.load(db, configuration);
+    Assert.assertNotNull(launchSnapshot);
+    Assert.assertEquals(update1.id, launchSnapshot.updateId);
+    Assert.assertEquals("bundle1.js", launchSnapshot.launchAssetPath);
+
+    // nothing changed, the next launch uses the snapshot
+    DatabaseLauncher launcher2 = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), selectionPolicy);
+    Assert.assertNotNull(launcher2.getValidLaunchSnapshot(db, context));
+    launch(launcher2);
+    Assert.assertEquals(update1.id, launcher2.getLaunchedUpdate().id);
+    Assert.assertEquals(launcher1.getLaunchAssetFile(), launcher2.getLaunchAssetFile());
+    Assert.assertEquals(localAssetsByKey(launcher1), localAssetsByKey(launcher2));
+
+    // a newer update became ready, so the snapshot no longer applies
+    UpdateEntity update2 = insertReadyUpdate(new Date(1608667857775L), "bundle2.js", "asset2.png");
+    DatabaseLauncher launcher3 = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), selectionPolicy);
+    Assert.assertNull(launcher3.getValidLaunchSnapshot(db, context));
+    launch(launcher3);
+    Assert.assertEquals(update2.id, launcher3.getLaunchedUpdate().id);
+    Assert.assertEquals(update2.id, LaunchSnapshot.load(db, configuration).updateId);
+  }
+
+  @Test
+  public void testLaunchSnapshot_MissingLaunchAsset() throws IOException {
+    UpdateEntity update = insertReadyUpdate(new Date(1608667857774L), "bundle1.js", "asset1.png");
+    launch();
+    Assert.assertTrue(new File(updatesDirectory, "bundle1.js").delete());
+
+    DatabaseLauncher launcher = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), selectionPolicy);
+    Assert.assertNull(launcher.getValidLaunchSnapshot(db, context));
+    Assert.assertEquals(update.id, launcher.getLaunchableUpdate(db, context).id);
+  }
+
+  @Test
+  public void testLaunchSnapshot_DifferentBinary() throws IOException {
+    insertReadyUpdate(new Date(1608667857774L), "bundle1.js", "asset1.png");
+    launch();
+
+    // a new binary that no longer supports the runtime version of the update, like Expo Go after
+    // dropping an SDK version, must not launch it from the snapshot
+    SelectionPolicy newSelectionPolicy = SelectionPolicyFactory.createFilterAwarePolicy(Arrays.asList("2.0", "3.0"));
+    DatabaseLauncher launcher = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), newSelectionPolicy);
+    Assert.assertNull(launcher.getValidLaunchSnapshot(db, context));
+    Assert.assertNull(launcher.getLaunchableUpdate(db, context));
+
+    LaunchSnapshot launchSnapshot = LaunchSnapshot.load(db, configuration);
+    Assert.assertEquals(selectionPolicy.getLauncherSelectionKey(), launchSnapshot.selectionKey);
+    Assert.assertFalse(launchSnapshot.matches(
+        launchSnapshot.launchableUpdates,
+        launchSnapshot.manifestFilters,
+        launchSnapshot.embeddedManifestDigest,
+        launchSnapshot.selectionKey,
+        launchSnapshot.appVersionCode + 1
+    ));
+  }
+
+  @Test
+  public void testLaunchSnapshot_NoSelectionKey() throws IOException {
+    insertReadyUpdate(new Date(1608667857774L), "bundle1.js", "asset1.png");
+
+    // a policy that doesn't say what its selection depends on can't rely on an earlier selection
+    SelectionPolicy policyWithoutKey = new SelectionPolicy(
+        (updates, filters) -> updates.isEmpty() ? null : updates.get(0),
+        new LoaderSelectionPolicyFilterAware(),
+        new ReaperSelectionPolicyFilterAware()
+    );
+    DatabaseLauncher launcher1 = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), policyWithoutKey);
+    launch(launcher1);
+    Assert.assertNull(LaunchSnapshot.load(db, configuration).selectionKey);
+
+    DatabaseLauncher launcher2 = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), policyWithoutKey);
+    Assert.assertNull(launcher2.getValidLaunchSnapshot(db, context));
+  }
+
+  @Test
+  public void testLaunchSnapshot_ValidationIsCached() throws IOException {
+    insertReadyUpdate(new Date(1608667857774L), "bundle1.js", "asset1.png");
+    launch();
+
+    DatabaseLauncher launcher = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), selectionPolicy);
+    Assert.assertNotNull(launcher.getValidLaunchSnapshot(db, context));
+
+    // not checked again until invalidated
+    UpdateEntity update2 = insertReadyUpdate(new Date(1608667857775L), "bundle2.js", "asset2.png");
+    Assert.assertNotNull(launcher.getValidLaunchSnapshot(db, context));
+    launcher.invalidateLaunchSnapshotValidation();
+    Assert.assertNull(launcher.getValidLaunchSnapshot(db, context));
+    launch(launcher);
+    Assert.assertEquals(update2.id, launcher.getLaunchedUpdate().id);
+  }
+
+  private UpdateEntity insertReadyUpdate(Date commitTime, String launchAssetPath, String assetPath) throws IOException {
+    UpdateEntity update = new UpdateEntity(UUID.randomUUID(), commitTime, "1.0", SCOPE_KEY);
+    update.status = UpdateStatus.READY;
+    db.updateDao().insertUpdate(update);
+
+    AssetEntity launchAsset = new AssetEntity(launchAssetPath, "js");
+    launchAsset.relativePath = launchAssetPath;
+    launchAsset.isLaunchAsset = true;
+    AssetEntity asset = new AssetEntity(assetPath, "png");
+    asset.relativePath = assetPath;
+    db.assetDao().insertAssets(Arrays.asList(launchAsset, asset), update);
+
+    Assert.assertTrue(new File(updatesDirectory, launchAssetPath).createNewFile());
+    Assert.assertTrue(new File(updatesDirectory, assetPath).createNewFile());
+    return update;
+  }
+
+  private DatabaseLauncher launch() {
+    DatabaseLauncher launcher = new DatabaseLauncher(configuration, updatesDirectory, Mockito.mock(FileDownloader.class), selectionPolicy);
+    launch(launcher);
+    return launcher;
+  }
+
+  private void launch(DatabaseLauncher launcher) {
+    final boolean[] succeeded = {false};
+    launcher.launch(db, context, new Launcher.LauncherCallback() {
+      @Override
+      public void onFailure(Exception e) {
+        Assert.fail(e.getMessage());
+      }
+
+      @Override
+      public void onSuccess() {
+        succeeded[0] = true;
+      }
+    });
+    Assert.assertTrue(succeeded[0]);
+  }
+
+  private static Map<String, String> localAssetsByKey(DatabaseLauncher launcher) {
+    Map<String, String> localAssets = new HashMap<>();
+    for (Map.Entry<AssetEntity, String> entry : launcher.getLocalAssetFiles().entrySet()) {
+      localAssets.put(entry.getKey().key, entry.getValue());
+    }
+    return localAssets;
+  }
+}
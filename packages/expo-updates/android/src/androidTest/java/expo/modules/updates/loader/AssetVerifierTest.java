@@ -0,0 +1,146 @@
+package expo.modules.updates.loader;
+
+import android.content.Context;
+import android.net.Uri;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.UUID;
+
+import androidx.room.Room;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.UpdatesUtils;
+import expo.modules.updates.db.DatabaseHolder;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+import expo.modules.updates.db.entity.UpdateEntity;
+import expo.modules.updates.db.enums.UpdateStatus;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AssetVerifierTest {
+
+  private static final String SCOPE_KEY = "testScopeKey";
+
+  private Context context;
+  private UpdatesDatabase db;
+  private File updatesDirectory;
+  private FileDownloader fileDownloader;
+
+  @Before
+  public void setup() {
+    context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    db = Room.inMemoryDatabaseBuilder(context, UpdatesDatabase.class).build();
+    updatesDirectory = new File(context.getCacheDir(), "AssetVerifierTest");
+    updatesDirectory.mkdirs();
+
+    // no network in these tests, every download fails
+    fileDownloader = Mockito.mock(FileDownloader.class);
+    Mockito.doAnswer(invocation -> {
+      FileDownloader.AssetDownloadCallback callback = invocation.getArgument(3);
+      callback.onFailure(new IOException("offline"), invocation.getArgument(0));
+      return null;
+    }).when(fileDownloader).downloadAsset(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
+  @After
+  public void cleanup() {
+    db.close();
+    for (File file : updatesDirectory.listFiles()) {
+      file.delete();
+    }
+    updatesDirectory.delete();
+  }
+
+  @Test
+  public void testVerifiesLaunchAssetFirst() throws Exception {
+    UpdateEntity update = insertReadyUpdate("bundle.js", "bundle contents", "asset.png", "asset contents");
+
+    // only enough budget for the launch asset
+    new AssetVerifier(createConfiguration("bundle contents".length()), updatesDirectory, fileDownloader).run(new DatabaseHolder(db), context, update);
+
+    AssetEntity launchAsset = db.assetDao().loadAssetWithKey("bundle.js");
+    AssetEntity asset = db.assetDao().loadAssetWithKey("asset.png");
+    Assert.assertNotNull(launchAsset.verificationTime);
+    Assert.assertNull(asset.verificationTime);
+
+    // the launch asset was verified recently, so the next run goes on with the other asset
+    new AssetVerifier(createConfiguration("asset contents".length()), updatesDirectory, fileDownloader).run(new DatabaseHolder(db), context, update);
+    Assert.assertEquals(launchAsset.verificationTime, db.assetDao().loadAssetWithKey("bundle.js").verificationTime);
+    Assert.assertNotNull(db.assetDao().loadAssetWithKey("asset.png").verificationTime);
+    Assert.assertEquals(UpdateStatus.READY, db.updateDao().loadUpdateWithId(update.id).status);
+  }
+
+  @Test
+  public void testCorruptedAsset() throws Exception {
+    UpdateEntity update = insertReadyUpdate("bundle.js", "bundle contents", "asset.png", "asset contents");
+    FileUtils.writeStringToFile(new File(updatesDirectory, "asset.png"), "corrupted contents", "UTF-8");
+
+    new AssetVerifier(createConfiguration(1024), updatesDirectory, fileDownloader).run(new DatabaseHolder(db), context, update);
+
+    // the download failed, so the update can't be launched anymore
+    Assert.assertFalse(new File(updatesDirectory, "asset.png").exists());
+    Assert.assertNull(db.assetDao().loadAssetWithKey("asset.png").verificationTime);
+    Assert.assertEquals(UpdateStatus.PENDING, db.updateDao().loadUpdateWithId(update.id).status);
+    Mockito.verify(fileDownloader).downloadAsset(ArgumentMatchers.argThat(asset -> "asset.png".equals(asset.key)), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
+  @Test
+  public void testNoBudget() throws Exception {
+    UpdateEntity update = insertReadyUpdate("bundle.js", "bundle contents", "asset.png", "asset contents");
+    FileUtils.writeStringToFile(new File(updatesDirectory, "asset.png"), "corrupted contents", "UTF-8");
+
+    // hashes aren't checked, only whether files exist
+    new AssetVerifier(createConfiguration(0), updatesDirectory, fileDownloader).run(new DatabaseHolder(db), context, update);
+
+    Assert.assertNull(db.assetDao().loadAssetWithKey("bundle.js").verificationTime);
+    Assert.assertEquals(UpdateStatus.READY, db.updateDao().loadUpdateWithId(update.id).status);
+    Mockito.verifyNoInteractions(fileDownloader);
+  }
+
+  private UpdatesConfiguration createConfiguration(int assetVerificationBudgetBytes) {
+    HashMap<String, Object> configMap = new HashMap<>();
+    configMap.put("updateUrl", Uri.parse("https://exp.host/@test/test"));
+    configMap.put("scopeKey", SCOPE_KEY);
+    configMap.put("runtimeVersion", "1.0");
+    configMap.put("hasEmbeddedUpdate", false);
+    configMap.put("assetVerificationBudgetBytes", assetVerificationBudgetBytes);
+    return new UpdatesConfiguration().loadValuesFromMap(configMap);
+  }
+
+  private UpdateEntity insertReadyUpdate(String launchAssetPath, String launchAssetContents, String assetPath, String assetContents) throws Exception {
+    UpdateEntity update = new UpdateEntity(UUID.randomUUID(), new Date(1608667857774L), "1.0", SCOPE_KEY);
+    update.status = UpdateStatus.READY;
+    db.updateDao().insertUpdate(update);
+
+    AssetEntity launchAsset = createAsset(launchAssetPath, "js", launchAssetContents);
+    launchAsset.isLaunchAsset = true;
+    AssetEntity asset = createAsset(assetPath, "png", assetContents);
+    db.assetDao().insertAssets(Arrays.asList(launchAsset, asset), update);
+    return db.updateDao().loadUpdateWithId(update.id);
+  }
+
+  private AssetEntity createAsset(String path, String type, String contents) throws Exception {
+    File file = new File(updatesDirectory, path);
+    FileUtils.writeStringToFile(file, contents, "UTF-8");
+
+    AssetEntity asset = new AssetEntity(path, type);
+    asset.url = Uri.parse("https://url.to/" + path);
+    asset.relativePath = path;
+    asset.hash = UpdatesUtils.sha256(file);
+    return asset;
+  }
+}
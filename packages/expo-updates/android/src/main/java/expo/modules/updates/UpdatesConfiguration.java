@@ -27,9 +27,11 @@ public class UpdatesConfiguration {
   public static final String UPDATES_CONFIGURATION_CHECK_ON_LAUNCH_KEY = "checkOnLaunch";
   public static final String UPDATES_CONFIGURATION_LAUNCH_WAIT_MS_KEY = "launchWaitMs";
   public static final String UPDATES_CONFIGURATION_HAS_EMBEDDED_UPDATE_KEY = "hasEmbeddedUpdate";
+  public static final String UPDATES_CONFIGURATION_ASSET_VERIFICATION_BUDGET_BYTES_KEY = "assetVerificationBudgetBytes";
 
   private static final String UPDATES_CONFIGURATION_RELEASE_CHANNEL_DEFAULT_VALUE = "default";
   private static final int UPDATES_CONFIGURATION_LAUNCH_WAIT_MS_DEFAULT_VALUE = 0;
+  private static final int UPDATES_CONFIGURATION_ASSET_VERIFICATION_BUDGET_BYTES_DEFAULT_VALUE = 0;
 
   public enum CheckAutomaticallyConfiguration {
     NEVER,
@@ -48,6 +50,7 @@ public class UpdatesConfiguration {
   private int mLaunchWaitMs = UPDATES_CONFIGURATION_LAUNCH_WAIT_MS_DEFAULT_VALUE;
   private CheckAutomaticallyConfiguration mCheckOnLaunch = CheckAutomaticallyConfiguration.ALWAYS;
   private boolean mHasEmbeddedUpdate = true;
+  private int mAssetVerificationBudgetBytes = UPDATES_CONFIGURATION_ASSET_VERIFICATION_BUDGET_BYTES_DEFAULT_VALUE;
 
   public boolean isEnabled() {
     return mIsEnabled;
@@ -100,6 +103,14 @@ public class UpdatesConfiguration {
     return mHasEmbeddedUpdate;
   }
 
+  /**
+   * How many bytes of assets may be hashed after each launch to check that they weren't corrupted
+   * on disk. 0 disables hash verification, missing assets are still repaired.
+   */
+  public int getAssetVerificationBudgetBytes() {
+    return mAssetVerificationBudgetBytes;
+  }
+
   public UpdatesConfiguration loadValuesFromMetadata(Context context) {
     try {
       ApplicationInfo ai = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
@@ -113,6 +124,7 @@ public class UpdatesConfiguration {
       mSdkVersion = ai.metaData.getString("expo.modules.updates.EXPO_SDK_VERSION");
       mReleaseChannel = ai.metaData.getString("expo.modules.updates.EXPO_RELEASE_CHANNEL", "default");
       mLaunchWaitMs = ai.metaData.getInt("expo.modules.updates.EXPO_UPDATES_LAUNCH_WAIT_MS", 0);
+      mAssetVerificationBudgetBytes = ai.metaData.getInt("expo.modules.updates.EXPO_UPDATES_ASSET_VERIFICATION_BUDGET_BYTES", 0);
 
       Object runtimeVersion = ai.metaData.get("expo.modules.updates.EXPO_RUNTIME_VERSION");
       mRuntimeVersion = runtimeVersion == null ? null : String.valueOf(runtimeVersion);
@@ -199,6 +211,11 @@ public class UpdatesConfiguration {
       mHasEmbeddedUpdate = hasEmbeddedUpdateFromMap;
     }
 
+    Integer assetVerificationBudgetBytesFromMap = readValueCheckingType(map, UPDATES_CONFIGURATION_ASSET_VERIFICATION_BUDGET_BYTES_KEY, Integer.class);
+    if (assetVerificationBudgetBytesFromMap != null) {
+      mAssetVerificationBudgetBytes = assetVerificationBudgetBytesFromMap;
+    }
+
     return this;
   }
 
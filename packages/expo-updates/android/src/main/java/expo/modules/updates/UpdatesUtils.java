@@ -1,8 +1,11 @@
 package expo.modules.updates;
 
 import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
 import android.net.ConnectivityManager;
 import android.os.AsyncTask;
+import android.os.Build;
 import android.util.Log;
 
 import com.facebook.react.ReactInstanceManager;
@@ -205,6 +208,19 @@ public class UpdatesUtils {
     }
   }
 
+  /**
+   * @return the version code of the installed binary, or -1 if it can't be read
+   */
+  public static long getAppVersionCode(Context context) {
+    try {
+      PackageInfo packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+      return Build.VERSION.SDK_INT >= Build.VERSION_CODES.P ? packageInfo.getLongVersionCode() : packageInfo.versionCode;
+    } catch (PackageManager.NameNotFoundException e) {
+      Log.e(TAG, "Could not read the app version code", e);
+      return -1;
+    }
+  }
+
   // https://stackoverflow.com/questions/9655181/how-to-convert-a-byte-array-to-a-hex-string-in-java
   private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
   public static String bytesToHex(byte[] bytes) {
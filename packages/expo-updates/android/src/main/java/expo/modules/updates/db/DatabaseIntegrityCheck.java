@@ -1,25 +1,34 @@
 package expo.modules.updates.db;
 
+import android.util.Log;
+
 import androidx.annotation.Nullable;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 import expo.modules.updates.db.enums.UpdateStatus;
 
 public class DatabaseIntegrityCheck {
+
+  private static final String TAG = DatabaseIntegrityCheck.class.getSimpleName();
+
+  // stats are mostly spent waiting on the filesystem, so a few at once go a long way
+  private static final int STAT_THREAD_COUNT = 4;
+  // below this, starting threads costs more than it saves
+  private static final int MIN_ASSETS_PER_STAT_THREAD = 16;
+
   public void run(UpdatesDatabase database, File updatesDirectory, @Nullable UpdateEntity embeddedUpdate) {
     List<AssetEntity> assets = database.assetDao().loadAllAssets();
 
-    List<AssetEntity> missingAssets = new ArrayList<>();
-    for (AssetEntity asset : assets) {
-      if (asset.relativePath == null || !assetExists(asset, updatesDirectory)) {
-        missingAssets.add(asset);
-      }
-    }
+    List<AssetEntity> missingAssets = findMissingAssets(assets, updatesDirectory);
 
     if (missingAssets.size() > 0) {
       database.updateDao().markUpdatesWithMissingAssets(missingAssets);
@@ -39,6 +48,56 @@ public class DatabaseIntegrityCheck {
     }
   }
 
+  /**
+   * Checks which of the given assets are missing from disk. The files are stat'ed on several
+   * threads at once, since with many assets most of the time is spent waiting on the filesystem.
+   *
+   * @return the missing assets, in the order they were given
+   */
+  public List<AssetEntity> findMissingAssets(List<AssetEntity> assets, File updatesDirectory) {
+    int threadCount = Math.min(STAT_THREAD_COUNT, assets.size() / MIN_ASSETS_PER_STAT_THREAD);
+    final boolean[] isMissing = new boolean[assets.size()];
+
+    if (threadCount <= 1) {
+      findMissingAssets(assets, updatesDirectory, isMissing, 0, 1);
+    } else {
+      ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+      try {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+          final int offset = i;
+          tasks.add(() -> {
+            findMissingAssets(assets, updatesDirectory, isMissing, offset, threadCount);
+            return null;
+          });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+          future.get();
+        }
+      } catch (Exception e) {
+        Log.e(TAG, "Failed to check assets in parallel, checking them one by one instead", e);
+        findMissingAssets(assets, updatesDirectory, isMissing, 0, 1);
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    List<AssetEntity> missingAssets = new ArrayList<>();
+    for (int i = 0; i < assets.size(); i++) {
+      if (isMissing[i]) {
+        missingAssets.add(assets.get(i));
+      }
+    }
+    return missingAssets;
+  }
+
+  private void findMissingAssets(List<AssetEntity> assets, File updatesDirectory, boolean[] isMissing, int offset, int stride) {
+    for (int i = offset; i < assets.size(); i += stride) {
+      AssetEntity asset = assets.get(i);
+      isMissing[i] = asset.relativePath == null || !assetExists(asset, updatesDirectory);
+    }
+  }
+
   /* package */ boolean assetExists(AssetEntity asset, File updatesDirectory) {
     File path = new File(updatesDirectory, asset.relativePath);
     return path.exists();
@@ -20,7 +20,7 @@ import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
-@Database(entities = {UpdateEntity.class, UpdateAssetEntity.class, AssetEntity.class, JSONDataEntity.class}, exportSchema = false, version = 5)
+@Database(entities = {UpdateEntity.class, UpdateAssetEntity.class, AssetEntity.class, JSONDataEntity.class}, exportSchema = false, version = 6)
 @TypeConverters({Converters.class})
 public abstract class UpdatesDatabase extends RoomDatabase {
 
@@ -36,7 +36,7 @@ public abstract class UpdatesDatabase extends RoomDatabase {
   public static synchronized UpdatesDatabase getInstance(Context context) {
     if (sInstance == null) {
       sInstance = Room.databaseBuilder(context, UpdatesDatabase.class, DB_NAME)
-              .addMigrations(MIGRATION_4_5)
+              .addMigrations(MIGRATION_4_5, MIGRATION_5_6)
               .fallbackToDestructiveMigration()
               .allowMainThreadQueries()
               .build();
@@ -67,4 +67,12 @@ public abstract class UpdatesDatabase extends RoomDatabase {
       }
     }
   };
+
+  static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+      // existing assets just haven't been verified yet
+      database.execSQL("ALTER TABLE `assets` ADD COLUMN `verification_time` INTEGER");
+    }
+  };
 }
@@ -6,6 +6,8 @@ import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateAssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +19,8 @@ import androidx.room.Transaction;
 
 @Dao
 public abstract class AssetDao {
+  private static final int MAX_IDS_PER_QUERY = 500;
+
   /**
    * for private use only
    * must be marked public for Room
@@ -50,6 +54,9 @@ public abstract class AssetDao {
   @Query("SELECT * FROM assets WHERE `key` = :key LIMIT 1;")
   public abstract List<AssetEntity> _loadAssetWithKey(String key);
 
+  @Query("UPDATE assets SET verification_time = :verificationTime WHERE id IN (:assetIds);")
+  public abstract void _setVerificationTime(List<Long> assetIds, Date verificationTime);
+
 
   /**
    * for public use
@@ -57,13 +64,20 @@ public abstract class AssetDao {
   @Query("SELECT * FROM assets;")
   public abstract List<AssetEntity> loadAllAssets();
 
-  @Query("SELECT assets.id, url, `key`, headers, type, assets.metadata, download_time, relative_path, hash, hash_type, marked_for_deletion" +
+  @Query("SELECT assets.id, url, `key`, headers, type, assets.metadata, download_time, relative_path, hash, hash_type, marked_for_deletion, verification_time" +
           " FROM assets" +
           " INNER JOIN updates_assets ON updates_assets.asset_id = assets.id" +
           " INNER JOIN updates ON updates_assets.update_id = updates.id" +
           " WHERE updates.id = :id;")
   public abstract List<AssetEntity> loadAssetsForUpdate(UUID id);
 
+  @Query("SELECT DISTINCT assets.*" +
+          " FROM assets" +
+          " INNER JOIN updates_assets ON updates_assets.asset_id = assets.id" +
+          " INNER JOIN updates ON updates_assets.update_id = updates.id" +
+          " WHERE updates.scope_key = :scopeKey;")
+  public abstract List<AssetEntity> loadAssetsForScope(String scopeKey);
+
   @Update
   public abstract void updateAsset(AssetEntity assetEntity);
 
@@ -99,6 +113,18 @@ public abstract class AssetDao {
     existingEntity.isLaunchAsset = newEntity.isLaunchAsset;
   }
 
+  @Transaction
+  public void markAssetsVerified(List<AssetEntity> assets, Date verificationTime) {
+    // stay well below SQLite's limit on the number of variables in a statement
+    for (int start = 0; start < assets.size(); start += MAX_IDS_PER_QUERY) {
+      List<Long> assetIds = new ArrayList<>();
+      for (AssetEntity asset : assets.subList(start, Math.min(start + MAX_IDS_PER_QUERY, assets.size()))) {
+        assetIds.add(asset.id);
+      }
+      _setVerificationTime(assetIds, verificationTime);
+    }
+  }
+
   @Transaction
   public boolean addExistingAssetToUpdate(UpdateEntity update, AssetEntity asset, boolean isLaunchAsset) {
     AssetEntity existingAssetEntry = loadAssetWithKey(asset.key);
@@ -26,6 +26,9 @@ public abstract class UpdateDao {
   @Query("SELECT * FROM updates WHERE scope_key = :scopeKey AND status IN (:statuses);")
   public abstract List<UpdateEntity> _loadUpdatesForProjectWithStatuses(String scopeKey, List<UpdateStatus> statuses);
 
+  @Query("SELECT hex(id) || ':' || status FROM updates WHERE scope_key = :scopeKey AND status IN (:statuses) ORDER BY id;")
+  public abstract List<String> _loadUpdateIdsAndStatusesForProjectWithStatuses(String scopeKey, List<UpdateStatus> statuses);
+
   @Query("SELECT * FROM updates WHERE id = :id;")
   public abstract List<UpdateEntity> _loadUpdatesWithId(UUID id);
 
@@ -57,6 +60,14 @@ public abstract class UpdateDao {
     return _loadUpdatesForProjectWithStatuses(scopeKey, Arrays.asList(UpdateStatus.READY, UpdateStatus.EMBEDDED, UpdateStatus.DEVELOPMENT));
   }
 
+  /**
+   * Identifies the launchable updates without loading their manifests, so that it can be cheaply
+   * compared with an earlier result to check whether any of them changed.
+   */
+  public List<String> loadLaunchableUpdateIdsAndStatusesForScope(String scopeKey) {
+    return _loadUpdateIdsAndStatusesForProjectWithStatuses(scopeKey, Arrays.asList(UpdateStatus.READY, UpdateStatus.EMBEDDED, UpdateStatus.DEVELOPMENT));
+  }
+
   @Query("SELECT * FROM updates WHERE status = :status;")
   public abstract List<UpdateEntity> loadAllUpdatesWithStatus(UpdateStatus status);
 
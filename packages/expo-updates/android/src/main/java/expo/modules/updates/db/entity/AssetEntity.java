@@ -50,6 +50,10 @@ public class AssetEntity {
   @NonNull
   public boolean markedForDeletion = false;
 
+  // last time the hash of the file on disk was checked against `hash`
+  @ColumnInfo(name = "verification_time")
+  public Date verificationTime = null;
+
   @Ignore
   public boolean isLaunchAsset = false;
 
@@ -15,6 +15,7 @@ import java.util.Map;
 
 import androidx.annotation.Nullable;
 import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.UpdatesUtils;
 import expo.modules.updates.db.UpdatesDatabase;
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
@@ -39,6 +40,11 @@ public class DatabaseLauncher implements Launcher {
   private String mBundleAssetName = null;
   private Map<AssetEntity, String> mLocalAssetFiles = null;
 
+  private LaunchSnapshot mLaunchSnapshot = null;
+  private boolean mHasLoadedLaunchSnapshot = false;
+  private LaunchSnapshot mValidLaunchSnapshot = null;
+  private boolean mHasValidatedLaunchSnapshot = false;
+
   private int mAssetsToDownload = 0;
   private int mAssetsToDownloadFinished = 0;
   private Exception mLaunchAssetException = null;
@@ -77,7 +83,13 @@ public class DatabaseLauncher implements Launcher {
       throw new AssertionError("DatabaseLauncher has already started. Create a new instance in order to launch a new version.");
     }
     mCallback = callback;
-    mLaunchedUpdate = getLaunchableUpdate(database, context);
+
+    LaunchSnapshot launchSnapshot = getValidLaunchSnapshot(database, context);
+    mLaunchedUpdate = launchSnapshot != null ? database.updateDao().loadUpdateWithId(launchSnapshot.updateId) : null;
+    if (mLaunchedUpdate == null) {
+      launchSnapshot = null;
+      mLaunchedUpdate = selectLaunchableUpdate(database, context);
+    }
 
     if (mLaunchedUpdate == null) {
       mCallback.onFailure(new Exception("No launchable update was found. If this is a bare workflow app, make sure you have configured expo-updates correctly in android/app/build.gradle."));
@@ -89,9 +101,30 @@ public class DatabaseLauncher implements Launcher {
       if (mLocalAssetFiles != null) {
         throw new AssertionError("mLocalAssetFiles should be null for embedded updates");
       }
+      if (launchSnapshot == null) {
+        saveLaunchSnapshot(database, context, null, new ArrayList<>());
+      }
       mCallback.onSuccess();
       return;
     } else if (mLaunchedUpdate.status == UpdateStatus.DEVELOPMENT) {
+      if (launchSnapshot == null) {
+        saveLaunchSnapshot(database, context, null, new ArrayList<>());
+      }
+      mCallback.onSuccess();
+      return;
+    }
+
+    if (launchSnapshot != null && launchSnapshot.launchAssetPath != null) {
+      // the assets were all on disk when the snapshot was taken, only the launch asset is checked
+      // again (by getValidLaunchSnapshot)
+      mLaunchAssetFile = new File(mUpdatesDirectory, launchSnapshot.launchAssetPath).toString();
+      mLocalAssetFiles = new HashMap<>();
+      for (AssetEntity asset : launchSnapshot.assets) {
+        mLocalAssetFiles.put(
+            asset,
+            Uri.fromFile(new File(mUpdatesDirectory, asset.relativePath)).toString()
+        );
+      }
       mCallback.onSuccess();
       return;
     }
@@ -110,12 +143,14 @@ public class DatabaseLauncher implements Launcher {
     }
 
     List<AssetEntity> assetEntities = database.assetDao().loadAssetsForUpdate(mLaunchedUpdate.id);
+    List<AssetEntity> localAssets = new ArrayList<>();
     mLocalAssetFiles = new HashMap<>();
     for (AssetEntity asset : assetEntities) {
       String filename = asset.relativePath;
       if (filename != null) {
         File assetFile = ensureAssetExists(asset, database, context);
         if (assetFile != null) {
+          localAssets.add(asset);
           mLocalAssetFiles.put(
               asset,
               Uri.fromFile(assetFile).toString()
@@ -128,12 +163,80 @@ public class DatabaseLauncher implements Launcher {
       if (mLaunchAssetFile == null) {
         mCallback.onFailure(new Exception("mLaunchAssetFile was immediately null; this should never happen"));
       } else {
+        saveLaunchSnapshot(database, context, launchAsset, localAssets);
         mCallback.onSuccess();
       }
     }
   }
 
   public UpdateEntity getLaunchableUpdate(UpdatesDatabase database, Context context) {
+    LaunchSnapshot launchSnapshot = getValidLaunchSnapshot(database, context);
+    if (launchSnapshot != null) {
+      UpdateEntity update = database.updateDao().loadUpdateWithId(launchSnapshot.updateId);
+      if (update != null) {
+        return update;
+      }
+    }
+    return selectLaunchableUpdate(database, context);
+  }
+
+  /**
+   * Returns the snapshot taken by the last full launch if the launchable updates, the manifest
+   * filters, the embedded manifest, the selection policy and the app version are all still the same
+   * as then (and the launch asset is still on disk), so the same update would be selected.
+   * Checking this takes a few small queries, so the result is kept until
+   * {@link #invalidateLaunchSnapshotValidation()} is called.
+   */
+  public synchronized @Nullable LaunchSnapshot getValidLaunchSnapshot(UpdatesDatabase database, Context context) {
+    if (!mHasValidatedLaunchSnapshot) {
+      mValidLaunchSnapshot = validateLaunchSnapshot(database, context);
+      mHasValidatedLaunchSnapshot = true;
+    }
+    return mValidLaunchSnapshot;
+  }
+
+  /**
+   * Makes the next {@link #getValidLaunchSnapshot} check the snapshot again, e.g. after an update
+   * was added to the database.
+   */
+  public synchronized void invalidateLaunchSnapshotValidation() {
+    mHasValidatedLaunchSnapshot = false;
+    mValidLaunchSnapshot = null;
+  }
+
+  private @Nullable LaunchSnapshot validateLaunchSnapshot(UpdatesDatabase database, Context context) {
+    if (!mHasLoadedLaunchSnapshot) {
+      mLaunchSnapshot = LaunchSnapshot.load(database, mConfiguration);
+      mHasLoadedLaunchSnapshot = true;
+    }
+    if (mLaunchSnapshot == null) {
+      return null;
+    }
+
+    String embeddedManifestDigest = EmbeddedLoader.readEmbeddedManifestDigest(context, mConfiguration);
+    if (mConfiguration.hasEmbeddedUpdate() && embeddedManifestDigest == null) {
+      return null;
+    }
+
+    String scopeKey = mConfiguration.getScopeKey();
+    boolean matches = mLaunchSnapshot.matches(
+        database.updateDao().loadLaunchableUpdateIdsAndStatusesForScope(scopeKey),
+        database.jsonDataDao().loadJSONStringForKey(ManifestMetadata.MANIFEST_FILTERS_KEY, scopeKey),
+        embeddedManifestDigest,
+        mSelectionPolicy.getLauncherSelectionKey(),
+        UpdatesUtils.getAppVersionCode(context)
+    );
+    if (!matches) {
+      return null;
+    }
+
+    if (mLaunchSnapshot.launchAssetPath != null && !new File(mUpdatesDirectory, mLaunchSnapshot.launchAssetPath).exists()) {
+      return null;
+    }
+    return mLaunchSnapshot;
+  }
+
+  private UpdateEntity selectLaunchableUpdate(UpdatesDatabase database, Context context) {
     List<UpdateEntity> launchableUpdates = database.updateDao().loadLaunchableUpdatesForScope(mConfiguration.getScopeKey());
 
     // We can only run an update marked as embedded if it's actually the update embedded in the
@@ -154,6 +257,27 @@ public class DatabaseLauncher implements Launcher {
     return mSelectionPolicy.selectUpdateToLaunch(filteredLaunchableUpdates, manifestFilters);
   }
 
+  private void saveLaunchSnapshot(UpdatesDatabase database, Context context, @Nullable AssetEntity launchAsset, List<AssetEntity> localAssets) {
+    String scopeKey = mConfiguration.getScopeKey();
+    Manifest embeddedManifest = EmbeddedLoader.readEmbeddedManifest(context, mConfiguration);
+    JSONObject manifestFilters = ManifestMetadata.getManifestFilters(database, mConfiguration);
+    // recorded so that LoaderTask doesn't need to parse the embedded manifest to decide this again
+    boolean shouldLoadEmbeddedUpdate = embeddedManifest != null &&
+        mSelectionPolicy.shouldLoadNewUpdate(embeddedManifest.getUpdateEntity(), mLaunchedUpdate, manifestFilters);
+
+    new LaunchSnapshot(
+        mLaunchedUpdate.id,
+        database.updateDao().loadLaunchableUpdateIdsAndStatusesForScope(scopeKey),
+        database.jsonDataDao().loadJSONStringForKey(ManifestMetadata.MANIFEST_FILTERS_KEY, scopeKey),
+        EmbeddedLoader.readEmbeddedManifestDigest(context, mConfiguration),
+        mSelectionPolicy.getLauncherSelectionKey(),
+        UpdatesUtils.getAppVersionCode(context),
+        shouldLoadEmbeddedUpdate,
+        launchAsset != null ? launchAsset.relativePath : null,
+        localAssets
+    ).save(database, mConfiguration);
+  }
+
   private File ensureAssetExists(AssetEntity asset, UpdatesDatabase database, Context context) {
     File assetFile = new File(mUpdatesDirectory, asset.relativePath);
     boolean assetFileExists = assetFile.exists();
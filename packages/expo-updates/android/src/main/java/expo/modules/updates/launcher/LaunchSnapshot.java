@@ -0,0 +1,159 @@
+package expo.modules.updates.launcher;
+
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import androidx.annotation.Nullable;
+import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+
+/**
+ * Result of the last full launch by DatabaseLauncher: the update it selected and where that
+ * update's files are, together with everything the selection depended on. As long as none of that
+ * changed, later launches can use the snapshot instead of parsing the embedded manifest and
+ * loading and checking every asset of the update.
+ *
+ * Stored as JSON data in the database, with the scope key of the configuration.
+ */
+public class LaunchSnapshot {
+
+  private static final String TAG = LaunchSnapshot.class.getSimpleName();
+
+  public static final String LAUNCH_SNAPSHOT_KEY = "launchSnapshot";
+
+  private static final String UPDATE_ID_KEY = "updateId";
+  private static final String LAUNCHABLE_UPDATES_KEY = "launchableUpdates";
+  private static final String MANIFEST_FILTERS_KEY = "manifestFilters";
+  private static final String EMBEDDED_MANIFEST_DIGEST_KEY = "embeddedManifestDigest";
+  private static final String SELECTION_KEY_KEY = "selectionKey";
+  private static final String APP_VERSION_CODE_KEY = "appVersionCode";
+  private static final String SHOULD_LOAD_EMBEDDED_UPDATE_KEY = "shouldLoadEmbeddedUpdate";
+  private static final String LAUNCH_ASSET_PATH_KEY = "launchAssetPath";
+  private static final String ASSETS_KEY = "assets";
+
+  public final UUID updateId;
+  // From UpdateDao.loadLaunchableUpdateIdsAndStatusesForScope
+  public final List<String> launchableUpdates;
+  public final @Nullable String manifestFilters;
+  public final @Nullable String embeddedManifestDigest;
+  // From SelectionPolicy.getLauncherSelectionKey, null in snapshots saved before it was recorded
+  public final @Nullable String selectionKey;
+  public final long appVersionCode;
+  // Whether the embedded update should be loaded into the database instead of launching this one
+  public final boolean shouldLoadEmbeddedUpdate;
+  // Relative to the updates directory
+  public final @Nullable String launchAssetPath;
+  // Only id, key, type and relativePath are set
+  public final List<AssetEntity> assets;
+
+  public LaunchSnapshot(UUID updateId, List<String> launchableUpdates, @Nullable String manifestFilters, @Nullable String embeddedManifestDigest, @Nullable String selectionKey, long appVersionCode, boolean shouldLoadEmbeddedUpdate, @Nullable String launchAssetPath, List<AssetEntity> assets) {
+    this.updateId = updateId;
+    this.launchableUpdates = launchableUpdates;
+    this.manifestFilters = manifestFilters;
+    this.embeddedManifestDigest = embeddedManifestDigest;
+    this.selectionKey = selectionKey;
+    this.appVersionCode = appVersionCode;
+    this.shouldLoadEmbeddedUpdate = shouldLoadEmbeddedUpdate;
+    this.launchAssetPath = launchAssetPath;
+    this.assets = assets;
+  }
+
+  /**
+   * @return whether the snapshot was taken with the same launchable updates, manifest filters,
+   * embedded manifest, selection policy and binary. The policy and the binary matter even without
+   * an embedded update, since they decide which runtime and SDK versions can be launched. A null
+   * selection key never matches, since nothing is known about what the selection depended on.
+   */
+  public boolean matches(List<String> launchableUpdates, @Nullable String manifestFilters, @Nullable String embeddedManifestDigest, @Nullable String selectionKey, long appVersionCode) {
+    return this.launchableUpdates.equals(launchableUpdates) &&
+        equals(this.manifestFilters, manifestFilters) &&
+        equals(this.embeddedManifestDigest, embeddedManifestDigest) &&
+        selectionKey != null && selectionKey.equals(this.selectionKey) &&
+        this.appVersionCode == appVersionCode;
+  }
+
+  public static @Nullable LaunchSnapshot load(UpdatesDatabase database, UpdatesConfiguration configuration) {
+    try {
+      String jsonString = database.jsonDataDao().loadJSONStringForKey(LAUNCH_SNAPSHOT_KEY, configuration.getScopeKey());
+      return jsonString != null ? fromJSON(new JSONObject(jsonString)) : null;
+    } catch (Exception e) {
+      Log.e(TAG, "Error retrieving launch snapshot from database", e);
+      return null;
+    }
+  }
+
+  public void save(UpdatesDatabase database, UpdatesConfiguration configuration) {
+    try {
+      database.jsonDataDao().setJSONStringForKey(LAUNCH_SNAPSHOT_KEY, toJSON().toString(), configuration.getScopeKey());
+    } catch (Exception e) {
+      Log.e(TAG, "Error saving launch snapshot to database", e);
+    }
+  }
+
+  /* package */ JSONObject toJSON() throws JSONException {
+    JSONObject json = new JSONObject();
+    json.put(UPDATE_ID_KEY, updateId.toString());
+    json.put(LAUNCHABLE_UPDATES_KEY, new JSONArray(launchableUpdates));
+    json.put(MANIFEST_FILTERS_KEY, manifestFilters);
+    json.put(EMBEDDED_MANIFEST_DIGEST_KEY, embeddedManifestDigest);
+    json.put(SELECTION_KEY_KEY, selectionKey);
+    json.put(APP_VERSION_CODE_KEY, appVersionCode);
+    json.put(SHOULD_LOAD_EMBEDDED_UPDATE_KEY, shouldLoadEmbeddedUpdate);
+    json.put(LAUNCH_ASSET_PATH_KEY, launchAssetPath);
+
+    // [id, key, type, relativePath] per asset, much more compact than an object for each
+    JSONArray assetsJson = new JSONArray();
+    for (AssetEntity asset : assets) {
+      JSONArray assetJson = new JSONArray();
+      assetJson.put(asset.id);
+      assetJson.put(asset.key != null ? asset.key : JSONObject.NULL);
+      assetJson.put(asset.type);
+      assetJson.put(asset.relativePath);
+      assetsJson.put(assetJson);
+    }
+    json.put(ASSETS_KEY, assetsJson);
+    return json;
+  }
+
+  /* package */ static LaunchSnapshot fromJSON(JSONObject json) throws JSONException {
+    JSONArray launchableUpdatesJson = json.getJSONArray(LAUNCHABLE_UPDATES_KEY);
+    List<String> launchableUpdates = new ArrayList<>(launchableUpdatesJson.length());
+    for (int i = 0; i < launchableUpdatesJson.length(); i++) {
+      launchableUpdates.add(launchableUpdatesJson.getString(i));
+    }
+
+    JSONArray assetsJson = json.getJSONArray(ASSETS_KEY);
+    List<AssetEntity> assets = new ArrayList<>(assetsJson.length());
+    for (int i = 0; i < assetsJson.length(); i++) {
+      JSONArray assetJson = assetsJson.getJSONArray(i);
+      AssetEntity asset = new AssetEntity(assetJson.isNull(1) ? null : assetJson.getString(1), assetJson.getString(2));
+      asset.id = assetJson.getLong(0);
+      asset.relativePath = assetJson.getString(3);
+      assets.add(asset);
+    }
+
+    return new LaunchSnapshot(
+        UUID.fromString(json.getString(UPDATE_ID_KEY)),
+        launchableUpdates,
+        json.isNull(MANIFEST_FILTERS_KEY) ? null : json.getString(MANIFEST_FILTERS_KEY),
+        json.isNull(EMBEDDED_MANIFEST_DIGEST_KEY) ? null : json.getString(EMBEDDED_MANIFEST_DIGEST_KEY),
+        json.isNull(SELECTION_KEY_KEY) ? null : json.getString(SELECTION_KEY_KEY),
+        json.optLong(APP_VERSION_CODE_KEY, -1),
+        json.getBoolean(SHOULD_LOAD_EMBEDDED_UPDATE_KEY),
+        json.isNull(LAUNCH_ASSET_PATH_KEY) ? null : json.getString(LAUNCH_ASSET_PATH_KEY),
+        assets
+    );
+  }
+
+  private static boolean equals(@Nullable String a, @Nullable String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+}
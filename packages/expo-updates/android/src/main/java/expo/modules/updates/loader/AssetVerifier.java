@@ -0,0 +1,264 @@
+package expo.modules.updates.loader;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import androidx.annotation.Nullable;
+import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.UpdatesUtils;
+import expo.modules.updates.db.DatabaseHolder;
+import expo.modules.updates.db.DatabaseIntegrityCheck;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+import expo.modules.updates.db.entity.UpdateEntity;
+import expo.modules.updates.manifest.Manifest;
+
+/**
+ * Makes sure the files of the assets in the configuration's scope are still intact after a launch.
+ * Missing files are found by stat'ing all of them in parallel, and up to the configured number of
+ * bytes are hashed to find corrupted ones, starting with the launched update's launch asset and
+ * then its other assets. Hashes are only checked again once VERIFICATION_INTERVAL_MS has passed.
+ *
+ * Broken assets are repaired together at the end, by copying them from the embedded update if it
+ * has them and by downloading them again otherwise. Updates with assets that couldn't be repaired
+ * are marked as pending, so they aren't launched anymore.
+ */
+public class AssetVerifier {
+
+  private static final String TAG = AssetVerifier.class.getSimpleName();
+
+  // asset files aren't expected to change once written, so this only catches storage problems
+  private static final long VERIFICATION_INTERVAL_MS = 7L * 24 * 60 * 60 * 1000;
+
+  private UpdatesConfiguration mConfiguration;
+  private File mUpdatesDirectory;
+  private FileDownloader mFileDownloader;
+
+  public AssetVerifier(UpdatesConfiguration configuration, File updatesDirectory, FileDownloader fileDownloader) {
+    mConfiguration = configuration;
+    mUpdatesDirectory = updatesDirectory;
+    mFileDownloader = fileDownloader;
+  }
+
+  /**
+   * Blocks until all assets are checked and repaired, so it must be called on a background thread.
+   * The database is only held while reading and writing it, not while files are checked or repaired.
+   */
+  public void run(DatabaseHolder databaseHolder, Context context, @Nullable UpdateEntity launchedUpdate) {
+    List<AssetEntity> assets;
+    Set<Long> launchedUpdateAssetIds = new HashSet<>();
+    UpdatesDatabase database = databaseHolder.getDatabase();
+    try {
+      assets = database.assetDao().loadAssetsForScope(mConfiguration.getScopeKey());
+      if (launchedUpdate != null) {
+        for (AssetEntity asset : database.assetDao().loadAssetsForUpdate(launchedUpdate.id)) {
+          launchedUpdateAssetIds.add(asset.id);
+        }
+      }
+    } finally {
+      databaseHolder.releaseDatabase();
+    }
+
+    List<AssetEntity> missingAssets = new DatabaseIntegrityCheck().findMissingAssets(assets, mUpdatesDirectory);
+    List<AssetEntity> existingAssets = new ArrayList<>(assets);
+    existingAssets.removeAll(missingAssets);
+
+    List<AssetEntity> verifiedAssets = new ArrayList<>();
+    List<AssetEntity> corruptedAssets = new ArrayList<>();
+    verifyHashes(existingAssets, launchedUpdate, launchedUpdateAssetIds, verifiedAssets, corruptedAssets);
+    for (AssetEntity asset : corruptedAssets) {
+      // otherwise the downloader would consider the asset already downloaded
+      new File(mUpdatesDirectory, asset.relativePath).delete();
+    }
+
+    List<AssetEntity> assetsToRepair = new ArrayList<>(missingAssets);
+    assetsToRepair.addAll(corruptedAssets);
+    List<AssetEntity> repairedAssets = new ArrayList<>();
+    List<AssetEntity> unrepairableAssets = new ArrayList<>();
+    if (assetsToRepair.size() > 0) {
+      repair(assetsToRepair, context, repairedAssets, unrepairableAssets);
+    }
+
+    if (verifiedAssets.isEmpty() && repairedAssets.isEmpty() && unrepairableAssets.isEmpty()) {
+      return;
+    }
+
+    database = databaseHolder.getDatabase();
+    try {
+      if (verifiedAssets.size() > 0) {
+        database.assetDao().markAssetsVerified(verifiedAssets, new Date());
+      }
+      for (AssetEntity asset : repairedAssets) {
+        database.assetDao().updateAsset(asset);
+      }
+      if (unrepairableAssets.size() > 0) {
+        database.updateDao().markUpdatesWithMissingAssets(unrepairableAssets);
+      }
+    } finally {
+      databaseHolder.releaseDatabase();
+    }
+  }
+
+  private void verifyHashes(List<AssetEntity> assets, @Nullable UpdateEntity launchedUpdate, Set<Long> launchedUpdateAssetIds, List<AssetEntity> verifiedAssets, List<AssetEntity> corruptedAssets) {
+    long remainingBytes = mConfiguration.getAssetVerificationBudgetBytes();
+    if (remainingBytes <= 0) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    List<AssetEntity> assetsToVerify = new ArrayList<>();
+    for (AssetEntity asset : assets) {
+      if (asset.hash == null) {
+        // nothing to compare the file with
+        continue;
+      }
+      if (asset.verificationTime != null && now - asset.verificationTime.getTime() < VERIFICATION_INTERVAL_MS) {
+        continue;
+      }
+      assetsToVerify.add(asset);
+    }
+
+    final Long launchAssetId = launchedUpdate != null ? launchedUpdate.launchAssetId : null;
+    Collections.sort(assetsToVerify, new Comparator<AssetEntity>() {
+      @Override
+      public int compare(AssetEntity a, AssetEntity b) {
+        int priorityComparison = Integer.compare(getPriority(a), getPriority(b));
+        if (priorityComparison != 0) {
+          return priorityComparison;
+        }
+        // never verified first, then least recently verified
+        long aVerificationTime = a.verificationTime != null ? a.verificationTime.getTime() : 0;
+        long bVerificationTime = b.verificationTime != null ? b.verificationTime.getTime() : 0;
+        return Long.compare(aVerificationTime, bVerificationTime);
+      }
+
+      private int getPriority(AssetEntity asset) {
+        if (launchAssetId != null && launchAssetId == asset.id) {
+          return 0;
+        } else if (launchedUpdateAssetIds.contains(asset.id)) {
+          return 1;
+        }
+        return 2;
+      }
+    });
+
+    for (AssetEntity asset : assetsToVerify) {
+      File file = new File(mUpdatesDirectory, asset.relativePath);
+      long length = file.length();
+      if (length > remainingBytes) {
+        // stop rather than skip ahead, the next launch continues from here
+        break;
+      }
+      remainingBytes -= length;
+
+      try {
+        if (Arrays.equals(UpdatesUtils.sha256(file), asset.hash)) {
+          verifiedAssets.add(asset);
+        } else {
+          Log.e(TAG, "Asset " + asset.key + " is corrupted, its hash doesn't match");
+          corruptedAssets.add(asset);
+        }
+      } catch (Exception e) {
+        Log.e(TAG, "Failed to verify asset " + asset.key, e);
+      }
+    }
+  }
+
+  private void repair(List<AssetEntity> assets, Context context, List<AssetEntity> repairedAssets, List<AssetEntity> unrepairableAssets) {
+    Map<String, AssetEntity> embeddedAssets = new HashMap<>();
+    Manifest embeddedManifest = EmbeddedLoader.readEmbeddedManifest(context, mConfiguration);
+    if (embeddedManifest != null) {
+      for (AssetEntity embeddedAsset : embeddedManifest.getAssetEntityList()) {
+        if (embeddedAsset.key != null) {
+          embeddedAssets.put(embeddedAsset.key, embeddedAsset);
+        }
+      }
+    }
+
+    List<AssetEntity> assetsToDownload = new ArrayList<>();
+    for (AssetEntity asset : assets) {
+      AssetEntity embeddedAsset = asset.key != null ? embeddedAssets.get(asset.key) : null;
+      if (embeddedAsset != null && copyEmbeddedAsset(asset, embeddedAsset, context)) {
+        repairedAssets.add(asset);
+      } else {
+        assetsToDownload.add(asset);
+      }
+    }
+
+    if (assetsToDownload.isEmpty()) {
+      return;
+    }
+
+    // all downloads run at once, callbacks come in on the downloader's threads
+    final CountDownLatch downloadsFinished = new CountDownLatch(assetsToDownload.size());
+    final List<AssetEntity> downloadedAssets = Collections.synchronizedList(new ArrayList<>());
+    final List<AssetEntity> failedAssets = Collections.synchronizedList(new ArrayList<>());
+    for (AssetEntity asset : assetsToDownload) {
+      mFileDownloader.downloadAsset(asset, mUpdatesDirectory, mConfiguration, new FileDownloader.AssetDownloadCallback() {
+        @Override
+        public void onFailure(Exception e, AssetEntity assetEntity) {
+          Log.e(TAG, "Failed to repair asset " + assetEntity.key, e);
+          failedAssets.add(assetEntity);
+          downloadsFinished.countDown();
+        }
+
+        @Override
+        public void onSuccess(AssetEntity assetEntity, boolean isNew) {
+          if (isNew) {
+            // the hash was computed while writing the file
+            assetEntity.verificationTime = new Date();
+          }
+          downloadedAssets.add(assetEntity);
+          downloadsFinished.countDown();
+        }
+      });
+    }
+
+    try {
+      downloadsFinished.await();
+    } catch (InterruptedException e) {
+      Log.e(TAG, "Interrupted while repairing assets", e);
+      Thread.currentThread().interrupt();
+    }
+
+    synchronized (downloadedAssets) {
+      repairedAssets.addAll(downloadedAssets);
+    }
+    synchronized (failedAssets) {
+      unrepairableAssets.addAll(failedAssets);
+    }
+  }
+
+  private boolean copyEmbeddedAsset(AssetEntity asset, AssetEntity embeddedAsset, Context context) {
+    String filename = asset.relativePath != null ? asset.relativePath : UpdatesUtils.createFilenameForAsset(asset);
+    File destination = new File(mUpdatesDirectory, filename);
+    try {
+      byte[] hash = EmbeddedLoader.copyAssetAndGetHash(embeddedAsset, destination, context);
+      if (asset.hash != null && !Arrays.equals(hash, asset.hash)) {
+        // not the same file after all, download it instead
+        destination.delete();
+        return false;
+      }
+      asset.hash = hash;
+      asset.relativePath = filename;
+      asset.verificationTime = new Date();
+      return true;
+    } catch (Exception e) {
+      Log.e(TAG, "Failed to copy matching embedded asset", e);
+      return false;
+    }
+  }
+}
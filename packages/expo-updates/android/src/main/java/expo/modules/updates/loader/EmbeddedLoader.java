@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Date;
@@ -34,6 +35,7 @@ public class EmbeddedLoader {
   public static final String BARE_BUNDLE_FILENAME = "index.android.bundle";
 
   private static Manifest sEmbeddedManifest = null;
+  private static String sEmbeddedManifestDigest = null;
 
   private Context mContext;
   private UpdatesConfiguration mConfiguration;
@@ -94,6 +96,30 @@ public class EmbeddedLoader {
     return sEmbeddedManifest;
   }
 
+  /**
+   * Hashes the embedded manifest without parsing it, to cheaply tell whether the binary contains a
+   * different embedded update than when something was derived from it.
+   *
+   * @return hex SHA-256 of the embedded manifest, or null if there is none or it can't be read
+   */
+  public static @Nullable String readEmbeddedManifestDigest(Context context, UpdatesConfiguration configuration) {
+    if (!configuration.hasEmbeddedUpdate()) {
+      return null;
+    }
+
+    if (sEmbeddedManifestDigest == null) {
+      try (InputStream stream = context.getAssets().open(MANIFEST_FILENAME)) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        sEmbeddedManifestDigest = UpdatesUtils.bytesToHex(digest.digest(IOUtils.toByteArray(stream)));
+      } catch (Exception e) {
+        Log.e(TAG, "Could not hash embedded manifest", e);
+        return null;
+      }
+    }
+
+    return sEmbeddedManifestDigest;
+  }
+
   public static byte[] copyAssetAndGetHash(AssetEntity asset, File destination, Context context) throws NoSuchAlgorithmException, IOException {
     if (asset.embeddedAssetFilename != null) {
       return copyContextAssetAndGetHash(asset, destination, context);
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.HandlerThread;
+import android.os.Process;
 import android.util.Log;
 
 import org.json.JSONObject;
@@ -19,6 +20,7 @@ import expo.modules.updates.db.UpdatesDatabase;
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 import expo.modules.updates.launcher.DatabaseLauncher;
+import expo.modules.updates.launcher.LaunchSnapshot;
 import expo.modules.updates.launcher.Launcher;
 import expo.modules.updates.selectionpolicy.SelectionPolicy;
 import expo.modules.updates.manifest.Manifest;
@@ -114,7 +116,7 @@ public class LoaderTask {
           @Override
           public void onFailure(Exception e) {
             finish(e);
-            runReaper();
+            runReaper(context);
           }
 
           @Override
@@ -123,7 +125,7 @@ public class LoaderTask {
               mIsReadyToLaunch = true;
             }
             finish(null);
-            runReaper();
+            runReaper(context);
           }
         });
       }
@@ -159,7 +161,7 @@ public class LoaderTask {
           if (shouldCheckForUpdate) {
             launchRemoteUpdate();
           } else {
-            runReaper();
+            runReaper(context);
           }
         }
       }
@@ -225,7 +227,10 @@ public class LoaderTask {
     DatabaseLauncher launcher = new DatabaseLauncher(mConfiguration, mDirectory, mFileDownloader, mSelectionPolicy);
     mCandidateLauncher = launcher;
 
-    if (mConfiguration.hasEmbeddedUpdate()) {
+    // a valid launch snapshot already records whether the embedded update should be loaded, which
+    // saves parsing the embedded manifest
+    LaunchSnapshot launchSnapshot = launcher.getValidLaunchSnapshot(database, context);
+    if (mConfiguration.hasEmbeddedUpdate() && (launchSnapshot == null || launchSnapshot.shouldLoadEmbeddedUpdate)) {
       // if the embedded update should be launched (e.g. if it's newer than any other update we have
       // in the database, which can happen if the app binary is updated), load it into the database
       // so we can launch it
@@ -234,6 +239,7 @@ public class LoaderTask {
       JSONObject manifestFilters = ManifestMetadata.getManifestFilters(database, mConfiguration);
       if (mSelectionPolicy.shouldLoadNewUpdate(embeddedUpdate, launchableUpdate, manifestFilters)) {
         new EmbeddedLoader(context, mConfiguration, database, mDirectory).loadEmbeddedUpdate();
+        launcher.invalidateLaunchSnapshotValidation();
       }
     }
 
@@ -326,15 +332,22 @@ public class LoaderTask {
     });
   }
 
-  private void runReaper() {
+  private void runReaper(Context context) {
     AsyncTask.execute(() -> {
+      UpdateEntity launchedUpdate;
       synchronized (LoaderTask.this) {
-        if (mFinalizedLauncher != null && mFinalizedLauncher.getLaunchedUpdate() != null) {
-          UpdatesDatabase database = mDatabaseHolder.getDatabase();
-          Reaper.reapUnusedUpdates(mConfiguration, database, mDirectory, mFinalizedLauncher.getLaunchedUpdate(), mSelectionPolicy);
-          mDatabaseHolder.releaseDatabase();
+        if (mFinalizedLauncher == null || mFinalizedLauncher.getLaunchedUpdate() == null) {
+          return;
         }
+        launchedUpdate = mFinalizedLauncher.getLaunchedUpdate();
+        UpdatesDatabase database = mDatabaseHolder.getDatabase();
+        Reaper.reapUnusedUpdates(mConfiguration, database, mDirectory, launchedUpdate, mSelectionPolicy);
+        mDatabaseHolder.releaseDatabase();
       }
+
+      // after reaping so that assets about to be deleted aren't checked
+      Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+      new AssetVerifier(mConfiguration, mDirectory, mFileDownloader).run(mDatabaseHolder, context, launchedUpdate);
     });
   }
 }
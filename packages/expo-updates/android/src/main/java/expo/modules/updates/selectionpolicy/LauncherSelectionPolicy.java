@@ -4,6 +4,7 @@ import org.json.JSONObject;
 
 import java.util.List;
 
+import androidx.annotation.Nullable;
 import expo.modules.updates.db.entity.UpdateEntity;
 
 /**
@@ -11,4 +12,13 @@ import expo.modules.updates.db.entity.UpdateEntity;
  */
 public interface LauncherSelectionPolicy {
   UpdateEntity selectUpdateToLaunch(List<UpdateEntity> updates, JSONObject filters);
+
+  /**
+   * @return a string that changes whenever something the selection depends on changes, other than
+   * the updates and the filters, e.g. the runtime versions the policy accepts. Policies that return
+   * null (the default) never have their selection reused from a launch snapshot.
+   */
+  default @Nullable String getSelectionKey() {
+    return null;
+  }
 }
@@ -1,5 +1,6 @@
 package expo.modules.updates.selectionpolicy;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.Collections;
@@ -37,4 +38,9 @@ public class LauncherSelectionPolicyFilterAware implements LauncherSelectionPoli
     }
     return updateToLaunch;
   }
+
+  @Override
+  public String getSelectionKey() {
+    return "runtimeVersions:" + new JSONArray(mRuntimeVersions).toString();
+  }
 }
@@ -27,4 +27,9 @@ public class LauncherSelectionPolicySingleUpdate implements LauncherSelectionPol
     }
     return null;
   }
+
+  @Override
+  public String getSelectionKey() {
+    return "updateId:" + mUpdateID;
+  }
 }
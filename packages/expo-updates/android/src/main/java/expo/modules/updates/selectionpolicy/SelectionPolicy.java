@@ -4,6 +4,7 @@ import org.json.JSONObject;
 
 import java.util.List;
 
+import androidx.annotation.Nullable;
 import expo.modules.updates.db.entity.UpdateEntity;
 
 public class SelectionPolicy {
@@ -36,6 +37,10 @@ public class SelectionPolicy {
     return mLauncherSelectionPolicy.selectUpdateToLaunch(updates, filters);
   }
 
+  public @Nullable String getLauncherSelectionKey() {
+    return mLauncherSelectionPolicy.getSelectionKey();
+  }
+
   public List<UpdateEntity> selectUpdatesToDelete(List<UpdateEntity> updates, UpdateEntity launchedUpdate, JSONObject filters) {
     return mReaperSelectionPolicy.selectUpdatesToDelete(updates, launchedUpdate, filters);
   }
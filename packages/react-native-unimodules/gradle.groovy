@@ -293,5 +293,13 @@ ext.includeUnimodulesProjects = { Map customOptions = [:] ->
   for (unimodule in unimodules) {
     include ":${unimodule.name}"
     project(":${unimodule.name}").projectDir = new File(unimodule.directory, unimodule.androidSubdirectory)
+
+    // Annotation processor generating prop setters for unimodules view managers,
+    // picked up by `unimodules-core.gradle`.
+    def processorDirectory = new File(unimodule.directory, 'android-annotation-processor')
+    if (unimodule.name == 'unimodules-core' && processorDirectory.exists()) {
+      include ':unimodules-core-processor'
+      project(':unimodules-core-processor').projectDir = processorDirectory
+    }
   }
 }
@@ -25,4 +25,12 @@ public class BarCodeScannerSettings extends HashMap<BarCodeScannerSettingsKey, O
   public Object getTypes() {
     return get(BarCodeScannerSettingsKey.TYPES);
   }
+
+  public void putRegionOfInterest(Object regionOfInterest) {
+    put(BarCodeScannerSettingsKey.REGION_OF_INTEREST, regionOfInterest);
+  }
+
+  public Object getRegionOfInterest() {
+    return get(BarCodeScannerSettingsKey.REGION_OF_INTEREST);
+  }
 }
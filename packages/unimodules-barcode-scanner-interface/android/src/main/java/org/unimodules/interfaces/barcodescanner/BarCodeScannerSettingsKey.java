@@ -1,7 +1,8 @@
 package org.unimodules.interfaces.barcodescanner;
 
 public enum BarCodeScannerSettingsKey {
-  TYPES("barCodeTypes");
+  TYPES("barCodeTypes"),
+  REGION_OF_INTEREST("regionOfInterest");
 
   private final String mName;
 